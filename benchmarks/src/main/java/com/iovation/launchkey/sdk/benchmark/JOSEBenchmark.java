@@ -0,0 +1,103 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.benchmark;
+
+import com.iovation.launchkey.sdk.crypto.jwe.JCEJWEService;
+import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
+import com.iovation.launchkey.sdk.crypto.jwe.Jose4jJWEService;
+import com.iovation.launchkey.sdk.crypto.jwt.JCEJWTService;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTClaims;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
+import com.iovation.launchkey.sdk.crypto.jwt.Jose4jJWTService;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the jose4j and JCE implementations of the JWT and JWE services for the operations performed on every
+ * request and response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JOSEBenchmark {
+    private static final String API_IDENTIFIER = "lka";
+    private static final String ENTITY_IDENTIFIER = "svc:benchmark";
+    private static final String KEY_ID = "benchmark-key";
+    private static final String PAYLOAD = "{\"auth_request\":\"adc0d351-d8a8-11e8-9fe8-acde48001122\"," +
+            "\"response\":true,\"device_id\":\"c07c4a0e-d8a8-11e8-9fe8-acde48001122\",\"service_pins\":[\"1234\"]}";
+
+    @Param({"jose4j", "jce"})
+    public String implementation;
+
+    private JWTService jwtService;
+    private JWTService responseSigner;
+    private JWEService jweService;
+    private PublicKey publicKey;
+    private String jwt;
+    private String jwe;
+    private Date currentTime;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        publicKey = keyPair.getPublic();
+        Map<String, PrivateKey> privateKeys = Collections.singletonMap(KEY_ID, keyPair.getPrivate());
+        if ("jce".equals(implementation)) {
+            jwtService = new JCEJWTService(API_IDENTIFIER, privateKeys, KEY_ID, 5);
+            jweService = new JCEJWEService(keyPair.getPrivate());
+        } else {
+            jwtService = new Jose4jJWTService(API_IDENTIFIER, privateKeys, KEY_ID, 5);
+            jweService = new Jose4jJWEService(keyPair.getPrivate());
+        }
+        // Responses are issued by the API to the entity so sign them as the API would
+        responseSigner = new Jose4jJWTService(ENTITY_IDENTIFIER, privateKeys, KEY_ID, 5);
+        currentTime = new Date();
+        jwt = responseSigner.encode("jti", API_IDENTIFIER, ENTITY_IDENTIFIER, currentTime, "POST",
+                "/service/v3/auths", "S256", "hash");
+        jwe = jweService.encrypt(PAYLOAD, publicKey, KEY_ID, "application/json");
+    }
+
+    @Benchmark
+    public String encodeJWT() throws Exception {
+        return jwtService.encode("jti", ENTITY_IDENTIFIER, ENTITY_IDENTIFIER, currentTime, "POST",
+                "/service/v3/auths", "S256", "hash");
+    }
+
+    @Benchmark
+    public JWTClaims decodeJWT() throws Exception {
+        return jwtService.decode(publicKey, ENTITY_IDENTIFIER, "jti", currentTime, jwt);
+    }
+
+    @Benchmark
+    public String encryptJWE() throws Exception {
+        return jweService.encrypt(PAYLOAD, publicKey, KEY_ID, "application/json");
+    }
+
+    @Benchmark
+    public String decryptJWE() throws Exception {
+        return jweService.decrypt(jwe);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.benchmark;
+
+import com.iovation.launchkey.sdk.crypto.jwe.Jose4jJWEService;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JWE encryption, decryption, and header inspection for each supported content encryption algorithm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWEBenchmark {
+    @Param({"A256CBC-HS512", "A256GCM"})
+    public String contentEncryptionAlgorithm;
+
+    @Param({"256", "4096"})
+    public int payloadSize;
+
+    private Jose4jJWEService jweService;
+    private PublicKey publicKey;
+    private String payload;
+    private String encrypted;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        publicKey = keyPair.getPublic();
+        jweService = new Jose4jJWEService(keyPair.getPrivate(), null, contentEncryptionAlgorithm);
+        char[] chars = new char[payloadSize];
+        Arrays.fill(chars, 'x');
+        payload = new String(chars);
+        encrypted = jweService.encrypt(payload, publicKey, "benchmark-key", "application/json");
+    }
+
+    @Benchmark
+    public String encrypt() throws Exception {
+        return jweService.encrypt(payload, publicKey, "benchmark-key", "application/json");
+    }
+
+    @Benchmark
+    public String decrypt() throws Exception {
+        return jweService.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public String getKeyId() throws Exception {
+        return jweService.getHeaders(encrypted).get("kid");
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.benchmark;
+
+import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import com.iovation.launchkey.sdk.crypto.ProviderCalibration;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JCECrypto} using the first registered JCE provider against {@link JCECrypto} using the providers
+ * selected by a {@link ProviderCalibration} of all installed providers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderBenchmark {
+    @Param({"first", "calibrated"})
+    public String selection;
+
+    private JCECrypto crypto;
+    private KeyPair keyPair;
+    private byte[] encrypted;
+    private byte[] data;
+
+    @Setup
+    public void setUp() throws Exception {
+        ProviderCalibration calibration = "calibrated".equals(selection) ? ProviderCalibration.calibrate() : null;
+        crypto = new JCECrypto(Security.getProviders()[0], calibration);
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        data = new byte[1024];
+        encrypted = crypto.encryptRSA(new byte[32], keyPair.getPublic());
+    }
+
+    @Benchmark
+    public byte[] decryptRSA() {
+        return crypto.decryptRSA(encrypted, keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public byte[] sha256() throws NoSuchAlgorithmException {
+        return crypto.sha256(data);
+    }
+}
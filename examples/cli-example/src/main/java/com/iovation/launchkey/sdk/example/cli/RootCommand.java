@@ -56,10 +56,21 @@ public class RootCommand implements Callable<Void> {
     }
 
     FactoryFactory getFactoryFactory() throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        return getFactoryFactory(false);
+    }
+
+    /**
+     * Build a FactoryFactory. Close it when the command is finished.
+     *
+     * @param httpAsyncEnabled Should the asynchronous clients, as used by an AuthorizationResponsePoller, be available
+     */
+    FactoryFactory getFactoryFactory(boolean httpAsyncEnabled)
+            throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
         Provider provider = new BouncyCastleProvider();
         FactoryFactoryBuilder builder = new FactoryFactoryBuilder()
                 .setJCEProvider(provider)
-                .setAPIBaseURL(baseUrl);
+                .setAPIBaseURL(baseUrl)
+                .setHttpAsyncEnabled(httpAsyncEnabled);
 
         if (noVerify) {
             HttpClient httpClient = getHttpClientWithoutSslVerify();
@@ -1,6 +1,9 @@
 package com.iovation.launchkey.sdk.example.cli;
 
+import com.iovation.launchkey.sdk.FactoryFactory;
+import com.iovation.launchkey.sdk.client.AuthorizationResponsePoller;
 import com.iovation.launchkey.sdk.client.ServiceClient;
+import com.iovation.launchkey.sdk.client.ServiceFactory;
 import com.iovation.launchkey.sdk.domain.policy.Fence;
 import com.iovation.launchkey.sdk.domain.policy.GeoCircleFence;
 import com.iovation.launchkey.sdk.domain.policy.TerritoryFence;
@@ -13,6 +16,7 @@ import picocli.CommandLine;
 import java.io.File;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 @SuppressWarnings("unused")
 @CommandLine.Command(name = "service")
@@ -32,7 +36,9 @@ class ServiceCommand {
 
     @CommandLine.Command(name = "session-start")
     void sessionStart(@CommandLine.Parameters(paramLabel = "<USER_NAME>") String username) throws Exception {
-        getServiceClient().sessionStart(username);
+        try (FactoryFactory factoryFactory = rootCommand.getFactoryFactory()) {
+            getServiceClient(factoryFactory).sessionStart(username);
+        }
         System.out.println();
         System.out.println("User session is started.");
         System.out.println();
@@ -40,7 +46,9 @@ class ServiceCommand {
 
     @CommandLine.Command(name = "session-end")
     void sessionEnd(@CommandLine.Parameters(paramLabel = "<USER_NAME>") String username) throws Exception {
-        getServiceClient().sessionEnd(username);
+        try (FactoryFactory factoryFactory = rootCommand.getFactoryFactory()) {
+            getServiceClient(factoryFactory).sessionEnd(username);
+        }
         System.out.println();
         System.out.println("User session is ended.");
         System.out.println();
@@ -65,8 +73,10 @@ class ServiceCommand {
             @CommandLine.Option(names = {"-n", "--non-fraud-denial-reasons"}, arity = "0..1",
                     description = "[Directory Service Only] The number of denial reasons not flagged as fraud for the authorization request.") Integer nonFraudReasons
     ) throws Exception {
-        try {
-            ServiceClient serviceClient = getServiceClient();
+        // The poller uses the asynchronous client, and closing the FactoryFactory stops its HTTP client threads
+        try (FactoryFactory factoryFactory = rootCommand.getFactoryFactory(true)) {
+            ServiceFactory serviceFactory = getServiceFactory(factoryFactory);
+            ServiceClient serviceClient = serviceFactory.makeServiceClient();
             AuthorizationRequest authRequest = serviceClient.createAuthorizationRequest(
                     username, context, null, title, ttl, pushTitle, pushBody, getDenialReasons(fraudReasons, nonFraudReasons));
             System.out.println();
@@ -75,80 +85,78 @@ class ServiceCommand {
             System.out.print("Checking for response from the End User");
             System.out.println();
             AdvancedAuthorizationResponse authorizationResponse;
-            long started = new Date().getTime();
-            while (new Date().getTime() - started <= 600000) {
-                    Thread.sleep(1000L);
-                    System.out.print(".");
-                    authorizationResponse = serviceClient.getAdvancedAuthorizationResponse(authRequest.getId());
-                    if (authorizationResponse != null) {
-                        System.out.println("Authorization request response received:");
-                        System.out.println("    Request ID:    " + authorizationResponse.getAuthorizationRequestId());
-                        System.out.println("    Authorized:    " + safeNull(authorizationResponse.isAuthorized()));
-                        System.out.println("    Type:          " + safeNull(authorizationResponse.getType()));
-                        System.out.println("    Reason:        " + safeNull(authorizationResponse.getReason()));
-                        System.out.println("    Denial Reason: " + safeNull(authorizationResponse.getDenialReason()));
-                        System.out.println("    Fraud:         " + safeNull(authorizationResponse.isFraud()));
-                        System.out.println("    Device ID:     " + authorizationResponse.getDeviceId());
-                        System.out.println("    Svc User Hash: " + authorizationResponse.getServiceUserHash());
-                        System.out.println("    User Push ID:  " + authorizationResponse.getUserPushId());
-                        System.out.println("    Org User Hash: " + safeNull(authorizationResponse.getOrganizationUserHash()));
-
-                        System.out.print("    Auth Policy: ");
-                        AuthorizationResponsePolicy policy = authorizationResponse.getPolicy();
-                        if (policy == null) {
-                            System.out.println("None");
-                        } else {
-                            System.out.println();
-                            System.out.println("        Factors:    " + safeNull(policy.getAmount()));
-                            System.out.println("        Inherence:  " + safeNull(policy.wasInherenceRequired()));
-                            System.out.println("        Knowledge:  " + safeNull(policy.wasKnowledgeRequired()));
-                            System.out.println("        Possession: " + safeNull(policy.wasPossessionRequired()));
-
-                            System.out.print("        Geofences: ");
-                            List<Fence> fences = authorizationResponse.getPolicy().getFences();
-                            if (fences == null || fences.size() < 1) {
-                                System.out.println("None");
-                            } else {
-                                System.out.println();
-                                for (Fence fence : fences) {
-                                    System.out.println("            Name: " + safeNull(fence.getName()));
-                                    if (fence instanceof GeoCircleFence) {
-                                        GeoCircleFence circleFence = (GeoCircleFence) fence;
-                                        System.out.println("                Radius:    " + safeNull(circleFence.getRadius()));
-                                        System.out.println("                Latitude:  " + safeNull(circleFence.getLatitude()));
-                                        System.out.println("                Longitude: " + safeNull(circleFence.getLongitude()));
-                                    } else if (fence instanceof TerritoryFence) {
-                                        TerritoryFence territoryFence = (TerritoryFence) fence;
-                                        System.out.println("                Radius:    " + safeNull(territoryFence.getCountry()));
-                                        System.out.println("                Latitude:  " + safeNull(territoryFence.getAdministrativeArea()));
-                                        System.out.println("                Longitude: " + safeNull(territoryFence.getPostalCode()));
-
-                                    } else {
-                                        System.out.println("                Unhandled Type:    " + fence.getClass().getSimpleName());
-                                    }
-                                }
-                            }
-                        }
+            try (AuthorizationResponsePoller poller =
+                         new AuthorizationResponsePoller(serviceFactory.makeAsyncServiceClient())) {
+                authorizationResponse = poller.awaitAuthorizationResponse(authRequest.getId(),
+                        ttl == null ? AuthorizationResponsePoller.DEFAULT_TTL : ttl, null).get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+            System.out.println("Authorization request response received:");
+            System.out.println("    Request ID:    " + authorizationResponse.getAuthorizationRequestId());
+            System.out.println("    Authorized:    " + safeNull(authorizationResponse.isAuthorized()));
+            System.out.println("    Type:          " + safeNull(authorizationResponse.getType()));
+            System.out.println("    Reason:        " + safeNull(authorizationResponse.getReason()));
+            System.out.println("    Denial Reason: " + safeNull(authorizationResponse.getDenialReason()));
+            System.out.println("    Fraud:         " + safeNull(authorizationResponse.isFraud()));
+            System.out.println("    Device ID:     " + authorizationResponse.getDeviceId());
+            System.out.println("    Svc User Hash: " + authorizationResponse.getServiceUserHash());
+            System.out.println("    User Push ID:  " + authorizationResponse.getUserPushId());
+            System.out.println("    Org User Hash: " + safeNull(authorizationResponse.getOrganizationUserHash()));
+
+            System.out.print("    Auth Policy: ");
+            AuthorizationResponsePolicy policy = authorizationResponse.getPolicy();
+            if (policy == null) {
+                System.out.println("None");
+            } else {
+                System.out.println();
+                System.out.println("        Factors:    " + safeNull(policy.getAmount()));
+                System.out.println("        Inherence:  " + safeNull(policy.wasInherenceRequired()));
+                System.out.println("        Knowledge:  " + safeNull(policy.wasKnowledgeRequired()));
+                System.out.println("        Possession: " + safeNull(policy.wasPossessionRequired()));
+
+                System.out.print("        Geofences: ");
+                List<Fence> fences = authorizationResponse.getPolicy().getFences();
+                if (fences == null || fences.size() < 1) {
+                    System.out.println("None");
+                } else {
+                    System.out.println();
+                    for (Fence fence : fences) {
+                        System.out.println("            Name: " + safeNull(fence.getName()));
+                        if (fence instanceof GeoCircleFence) {
+                            GeoCircleFence circleFence = (GeoCircleFence) fence;
+                            System.out.println("                Radius:    " + safeNull(circleFence.getRadius()));
+                            System.out.println("                Latitude:  " + safeNull(circleFence.getLatitude()));
+                            System.out.println("                Longitude: " + safeNull(circleFence.getLongitude()));
+                        } else if (fence instanceof TerritoryFence) {
+                            TerritoryFence territoryFence = (TerritoryFence) fence;
+                            System.out.println("                Radius:    " + safeNull(territoryFence.getCountry()));
+                            System.out.println("                Latitude:  " + safeNull(territoryFence.getAdministrativeArea()));
+                            System.out.println("                Longitude: " + safeNull(territoryFence.getPostalCode()));
 
-                        System.out.print("    Auth Methods: ");
-                        List<AuthMethod> methods = authorizationResponse.getAuthMethods();
-                        if (methods == null || methods.size() < 1) {
-                            System.out.println("None");
                         } else {
-                            System.out.println();
-                            for (AuthMethod method : methods) {
-                                System.out.println("        Method: " + method.getMethod().name());
-                                System.out.println("            Set:        " + safeNull(method.getSet()));
-                                System.out.println("            Active:     " + safeNull(method.getActive()));
-                                System.out.println("            Allowed:    " + safeNull(method.getAllowed()));
-                                System.out.println("            Supported:  " + safeNull(method.getSupported()));
-                                System.out.println("            Required:   " + safeNull(method.getUserRequired()));
-                                System.out.println("            Passed:     " + safeNull(method.getPassed()));
-                                System.out.println("            Error:      " + safeNull(method.getError()));
-                            }
+                            System.out.println("                Unhandled Type:    " + fence.getClass().getSimpleName());
                         }
-                        break;
                     }
+                }
+            }
+
+            System.out.print("    Auth Methods: ");
+            List<AuthMethod> methods = authorizationResponse.getAuthMethods();
+            if (methods == null || methods.size() < 1) {
+                System.out.println("None");
+            } else {
+                System.out.println();
+                for (AuthMethod method : methods) {
+                    System.out.println("        Method: " + method.getMethod().name());
+                    System.out.println("            Set:        " + safeNull(method.getSet()));
+                    System.out.println("            Active:     " + safeNull(method.getActive()));
+                    System.out.println("            Allowed:    " + safeNull(method.getAllowed()));
+                    System.out.println("            Supported:  " + safeNull(method.getSupported()));
+                    System.out.println("            Required:   " + safeNull(method.getUserRequired()));
+                    System.out.println("            Passed:     " + safeNull(method.getPassed()));
+                    System.out.println("            Error:      " + safeNull(method.getError()));
+                }
             }
         } catch (AuthorizationRequestTimedOutError e) {
             System.out.println();
@@ -169,13 +177,19 @@ class ServiceCommand {
 
     @CommandLine.Command(name = "cancel-auth-request")
     void cancelAuthRequest(@CommandLine.Parameters(paramLabel = "<AUTH_REQUEST>") String authRequestId) throws Exception {
-        getServiceClient().cancelAuthorizationRequest(authRequestId);
+        try (FactoryFactory factoryFactory = rootCommand.getFactoryFactory()) {
+            getServiceClient(factoryFactory).cancelAuthorizationRequest(authRequestId);
+        }
         System.out.println();
         System.out.println("Auth Cancelled.");
         System.out.println();
     }
 
-    private ServiceClient getServiceClient() throws Exception {
+    private ServiceClient getServiceClient(FactoryFactory factoryFactory) throws Exception {
+        return getServiceFactory(factoryFactory).makeServiceClient();
+    }
+
+    private ServiceFactory getServiceFactory(FactoryFactory factoryFactory) throws Exception {
         Scanner sc = new Scanner(privateKeyFile);
         StringBuilder buffer = new StringBuilder();
         while (sc.hasNextLine()) {
@@ -183,8 +197,7 @@ class ServiceCommand {
         }
         String key = buffer.toString();
 
-        return rootCommand.getFactoryFactory()
-                .makeServiceFactory(serviceId, key).makeServiceClient();
+        return factoryFactory.makeServiceFactory(serviceId, key);
     }
 
     private static String safeNull(String value) {
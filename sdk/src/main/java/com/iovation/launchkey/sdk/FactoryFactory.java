@@ -6,28 +6,55 @@ import com.iovation.launchkey.sdk.client.DirectoryFactory;
 import com.iovation.launchkey.sdk.client.OrganizationFactory;
 import com.iovation.launchkey.sdk.client.ServiceFactory;
 import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import com.iovation.launchkey.sdk.crypto.KeyLoader;
+import com.iovation.launchkey.sdk.crypto.LoadedKey;
+import com.iovation.launchkey.sdk.crypto.CalibratedProviders;
+import com.iovation.launchkey.sdk.crypto.ProviderCalibration;
+import com.iovation.launchkey.sdk.crypto.jwe.JCEJWEService;
+import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
 import com.iovation.launchkey.sdk.crypto.jwe.Jose4jJWEService;
+import com.iovation.launchkey.sdk.crypto.jwt.JCEJWTService;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
 import com.iovation.launchkey.sdk.crypto.jwt.Jose4jJWTService;
-import com.iovation.launchkey.sdk.transport.Transport;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.apachehttp.ApacheHttp2Transport;
+import com.iovation.launchkey.sdk.transport.apachehttp.ApacheHttpAsyncTransport;
 import com.iovation.launchkey.sdk.transport.apachehttp.ApacheHttpTransport;
+import com.iovation.launchkey.sdk.transport.apachehttp.TransportOptions;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier.EntityType;
 import com.iovation.launchkey.sdk.transport.domain.EntityKeyMap;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.nio.client.HttpAsyncClient;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.PrivateKey;
 import java.security.Provider;
-import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.ECPrivateKey;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Factory for building {@link ServiceFactory},
  * {@link DirectoryFactory}, and
  * {@link OrganizationFactory} objects.
  */
-public class FactoryFactory {
+public class FactoryFactory implements Closeable {
     private final HttpClient httpClient;
+    private final boolean httpAsyncEnabled;
+    private final boolean http2Enabled;
+    private final int httpClientMaxClients;
+    private final List<Closeable> ownedResources = new ArrayList<>();
+    private HttpAsyncClient httpAsyncClient;
+    private ExecutorService asyncExecutor;
+    private CloseableHttpAsyncClient http2Client;
     private final Cache keyCache;
     private final Provider provider;
     private final String apiBaseURL;
@@ -36,6 +63,12 @@ public class FactoryFactory {
     private final int offsetTTL;
     private final int currentPublicKeyTTL;
     private final EntityKeyMap entityKeyMap;
+    private final String jweKeyManagementAlgorithm;
+    private final String jweContentEncryptionAlgorithm;
+    private final boolean jceJoseEnabled;
+    private final KeyLoader keyLoader;
+    private final CalibratedProviders calibratedProviders;
+    private final TransportOptions transportOptions;
 
     /**
      * @param provider JCE provider
@@ -56,94 +89,206 @@ public class FactoryFactory {
             int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap) {
         this.provider = provider;
         this.httpClient = httpClient;
+        this.httpAsyncEnabled = false;
+        this.http2Enabled = false;
+        this.httpClientMaxClients = 0;
+        this.keyCache = keyCache;
         this.apiBaseURL = apiBaseURL;
         this.apiIdentifier = apiIdentifier;
         this.requestExpireSeconds = requestExpireSeconds;
-        this.keyCache = keyCache;
         this.offsetTTL = offsetTTL;
         this.currentPublicKeyTTL = currentPublicKeyTTL;
         this.entityKeyMap = entityKeyMap;
+        this.jweKeyManagementAlgorithm = null;
+        this.jweContentEncryptionAlgorithm = null;
+        this.jceJoseEnabled = false;
+        this.keyLoader = new KeyLoader(provider);
+        this.calibratedProviders = new CalibratedProviders(provider, (ProviderCalibration) null);
+        this.transportOptions = new TransportOptions();
+    }
+
+    /**
+     * @param builder Builder holding the configuration. Later changes to the builder do not affect this factory.
+     */
+    FactoryFactory(FactoryFactoryBuilder builder) {
+        this.provider = builder.getJceProvider();
+        this.httpClient = builder.getHttpClient();
+        this.httpAsyncEnabled = builder.isHttpAsyncEnabled();
+        this.httpAsyncClient = builder.getHttpAsyncClient();
+        this.http2Enabled = builder.isHttp2Enabled();
+        this.http2Client = builder.getHttp2Client();
+        this.httpClientMaxClients = builder.getHttpClientMaxClients();
+        this.keyCache = builder.getKeyCache();
+        this.apiBaseURL = builder.getApiBaseURL();
+        this.apiIdentifier = builder.getApiIdentifier();
+        this.requestExpireSeconds = builder.getRequestExpireSeconds();
+        this.offsetTTL = builder.getOffsetTTL();
+        this.currentPublicKeyTTL = builder.getCurrentPublicKeyTTL();
+        this.entityKeyMap = builder.getEntityKeyMap();
+        this.jweKeyManagementAlgorithm = builder.getJWEKeyManagementAlgorithm();
+        this.jweContentEncryptionAlgorithm = builder.getJWEContentEncryptionAlgorithm();
+        this.jceJoseEnabled = builder.isJCEJoseEnabled();
+        this.keyLoader = builder.getKeyLoader() == null ? new KeyLoader(provider) : builder.getKeyLoader();
+        this.calibratedProviders = builder.getJceCalibratedProviders(provider);
+        this.transportOptions = builder.getTransportOptions();
     }
 
     public ServiceFactory makeServiceFactory(String serviceId, String privateKeyPEM) {
-        RSAPrivateKey privateKey = makePrivateKeyFromPEM(privateKeyPEM);
-        String publicKeyFingerprint = getPublicKeyFingerprintFromPrivateKey(privateKey);
-        Map<String, RSAPrivateKey> keys = new ConcurrentHashMap<>();
-        keys.put(publicKeyFingerprint, privateKey);
-        return makeServiceFactory(serviceId, keys, publicKeyFingerprint);
+        LoadedKey loadedKey = keyLoader.loadPEM(privateKeyPEM);
+        Map<String, PrivateKey> keys = new ConcurrentHashMap<>();
+        keys.put(loadedKey.getFingerprint(), loadedKey.getPrivateKey());
+        return makeServiceFactory(serviceId, keys, loadedKey.getFingerprint());
     }
 
-    public ServiceFactory makeServiceFactory(String serviceId, Map<String, RSAPrivateKey> privateKeys, String currentPrivateKey) {
+    public ServiceFactory makeServiceFactory(String serviceId, Map<String, ? extends PrivateKey> privateKeys, String currentPrivateKey) {
         UUID serviceUUID = UUID.fromString(serviceId);
         EntityIdentifier serviceEntity = new EntityIdentifier(EntityType.SERVICE, serviceUUID);
-        Transport transport = getTransport(serviceEntity, privateKeys, currentPrivateKey);
-        return new ServiceFactory(transport, serviceUUID);
+        ApacheHttpTransport transport = getTransport(serviceEntity, privateKeys, currentPrivateKey);
+        return new ServiceFactory(transport, getAsyncTransport(transport), serviceUUID);
     }
 
     public DirectoryFactory makeDirectoryFactory(String directoryId, String privateKeyPEM) {
-        RSAPrivateKey privateKey = makePrivateKeyFromPEM(privateKeyPEM);
-        String publicKeyFingerprint = getPublicKeyFingerprintFromPrivateKey(privateKey);
-        Map<String, RSAPrivateKey> keys = new ConcurrentHashMap<>();
-        keys.put(publicKeyFingerprint, privateKey);
-        return makeDirectoryFactory(directoryId, keys, publicKeyFingerprint);
+        LoadedKey loadedKey = keyLoader.loadPEM(privateKeyPEM);
+        Map<String, PrivateKey> keys = new ConcurrentHashMap<>();
+        keys.put(loadedKey.getFingerprint(), loadedKey.getPrivateKey());
+        return makeDirectoryFactory(directoryId, keys, loadedKey.getFingerprint());
     }
 
-    public DirectoryFactory makeDirectoryFactory(String directoryId, Map<String, RSAPrivateKey> privateKeys,
+    public DirectoryFactory makeDirectoryFactory(String directoryId, Map<String, ? extends PrivateKey> privateKeys,
                                                  String currentPrivateKey) {
         if (directoryId == null) throw new IllegalArgumentException("Argument directoryId cannot be null");
         UUID directoryUUID = UUID.fromString(directoryId);
         EntityIdentifier directoryEntity = new EntityIdentifier(EntityType.DIRECTORY, directoryUUID);
-        Transport transport = getTransport(directoryEntity, privateKeys, currentPrivateKey);
-        return new DirectoryFactory(transport, directoryUUID);
+        ApacheHttpTransport transport = getTransport(directoryEntity, privateKeys, currentPrivateKey);
+        return new DirectoryFactory(transport, getAsyncTransport(transport), directoryUUID);
     }
 
     public synchronized OrganizationFactory makeOrganizationFactory(String organizationId, String privateKeyPEM) {
-        RSAPrivateKey privateKey = makePrivateKeyFromPEM(privateKeyPEM);
-        String publicKeyFingerprint = getPublicKeyFingerprintFromPrivateKey(privateKey);
-        Map<String, RSAPrivateKey> keys = new ConcurrentHashMap<>();
-        keys.put(publicKeyFingerprint, privateKey);
-        return makeOrganizationFactory(organizationId, keys, publicKeyFingerprint);
+        LoadedKey loadedKey = keyLoader.loadPEM(privateKeyPEM);
+        Map<String, PrivateKey> keys = new ConcurrentHashMap<>();
+        keys.put(loadedKey.getFingerprint(), loadedKey.getPrivateKey());
+        return makeOrganizationFactory(organizationId, keys, loadedKey.getFingerprint());
     }
 
     public synchronized OrganizationFactory makeOrganizationFactory(String organizationId,
-                                                                    Map<String, RSAPrivateKey> privateKeys,
+                                                                    Map<String, ? extends PrivateKey> privateKeys,
                                                                     String currentPrivateKey) {
         if (organizationId == null) throw new IllegalArgumentException("Argument organizationId cannot be null");
         UUID organizationUUID = UUID.fromString(organizationId);
         EntityIdentifier organizationEntity = new EntityIdentifier(EntityType.ORGANIZATION, organizationUUID);
-        Transport transport = getTransport(organizationEntity, privateKeys, currentPrivateKey);
-        return new OrganizationFactory(transport, organizationUUID);
+        ApacheHttpTransport transport = getTransport(organizationEntity, privateKeys, currentPrivateKey);
+        return new OrganizationFactory(transport, getAsyncTransport(transport), organizationUUID);
     }
 
-    private Transport getTransport(
-            EntityIdentifier entityIdentifier, Map<String, RSAPrivateKey> privateKeys, String currentPrivateKeyId) {
-        for (Map.Entry<String, RSAPrivateKey> entry : privateKeys.entrySet()) {
+    private ApacheHttpTransport getTransport(
+            EntityIdentifier entityIdentifier, Map<String, ? extends PrivateKey> privateKeys, String currentPrivateKeyId) {
+        for (Map.Entry<String, ? extends PrivateKey> entry : privateKeys.entrySet()) {
             entityKeyMap.addKey(entityIdentifier, entry.getKey(), entry.getValue());
         }
+        JCECrypto crypto = new JCECrypto(provider, calibratedProviders);
+        JWTService jwtService;
+        if (jceJoseEnabled) {
+            jwtService = new JCEJWTService(apiIdentifier, privateKeys, currentPrivateKeyId, requestExpireSeconds,
+                    calibratedProviders);
+        } else {
+            jwtService = new Jose4jJWTService(apiIdentifier, privateKeys, currentPrivateKeyId, requestExpireSeconds,
+                    calibratedProviders);
+        }
+        JWEService jweService = getJWEService(privateKeys.get(currentPrivateKeyId));
+        if (http2Enabled) {
+            return new ApacheHttp2Transport(getHttp2Client(), crypto, getObjectMapper(), keyCache, apiBaseURL,
+                    entityIdentifier, jwtService, jweService, offsetTTL, currentPublicKeyTTL, entityKeyMap,
+                    transportOptions);
+        }
         return new ApacheHttpTransport(
                 httpClient,
-                new JCECrypto(provider),
+                crypto,
                 getObjectMapper(),
                 keyCache,
                 apiBaseURL,
                 entityIdentifier,
-                new Jose4jJWTService(apiIdentifier, privateKeys, currentPrivateKeyId, requestExpireSeconds),
-                new Jose4jJWEService(privateKeys.get(currentPrivateKeyId)),
+                jwtService,
+                jweService,
                 offsetTTL,
                 currentPublicKeyTTL,
-                entityKeyMap
+                entityKeyMap,
+                transportOptions
         );
     }
 
-    private ObjectMapper getObjectMapper() {
-        return new ObjectMapper();
+    /**
+     * The JCE JWE service only supports RSA keys, so JWEs for an EC private key are always handled by jose4j.
+     */
+    JWEService getJWEService(PrivateKey privateKey) {
+        if (jceJoseEnabled && !(privateKey instanceof ECPrivateKey)) {
+            return new JCEJWEService(privateKey, jweKeyManagementAlgorithm, jweContentEncryptionAlgorithm,
+                    calibratedProviders);
+        }
+        return new Jose4jJWEService(privateKey, jweKeyManagementAlgorithm, jweContentEncryptionAlgorithm);
+    }
+
+    private synchronized AsyncTransport getAsyncTransport(ApacheHttpTransport transport) {
+        if (!httpAsyncEnabled) {
+            return null;
+        }
+        if (asyncExecutor == null) {
+            asyncExecutor = ApacheHttpAsyncTransport.newExecutorService(Runtime.getRuntime().availableProcessors());
+        }
+        return new ApacheHttpAsyncTransport(getHttpAsyncClient(), transport, asyncExecutor);
+    }
+
+    private synchronized HttpAsyncClient getHttpAsyncClient() {
+        if (httpAsyncClient == null) {
+            org.apache.http.impl.nio.client.CloseableHttpAsyncClient client =
+                    org.apache.http.impl.nio.client.HttpAsyncClients.custom()
+                            .setMaxConnTotal(httpClientMaxClients)
+                            // Set max per route as there is only one route
+                            .setMaxConnPerRoute(httpClientMaxClients)
+                            .setDefaultRequestConfig(RequestConfig.custom().setRedirectsEnabled(false).build())
+                            .disableAuthCaching()
+                            .build();
+            ownedResources.add(client);
+            httpAsyncClient = client;
+        }
+        return httpAsyncClient;
     }
 
-    private RSAPrivateKey makePrivateKeyFromPEM(String privateKeyPEM) {
-        return JCECrypto.getRSAPrivateKeyFromPEM(provider, privateKeyPEM);
+    private synchronized CloseableHttpAsyncClient getHttp2Client() {
+        if (http2Client == null) {
+            http2Client = ApacheHttp2Transport.newHttp2Client();
+            ownedResources.add(http2Client);
+        }
+        return http2Client;
     }
 
-    private String getPublicKeyFingerprintFromPrivateKey(RSAPrivateKey privateKey) {
-        return JCECrypto.getRsaPublicKeyFingerprint(provider, privateKey);
+    /**
+     * Close the Apache HTTP Async and HTTP/2 clients which were created by this factory and shut down the threads
+     * on which the asynchronous clients build requests and process responses. Clients provided to the
+     * {@link FactoryFactoryBuilder} are not closed. Clients created by the factories from this factory must not be used
+     * afterwards.
+     *
+     * @throws IOException When a client fails to close. The remaining clients are still closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+        IOException failure = null;
+        for (Closeable resource : ownedResources) {
+            try {
+                resource.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        ownedResources.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private ObjectMapper getObjectMapper() {
+        return new ObjectMapper();
     }
 }
@@ -14,18 +14,30 @@ package com.iovation.launchkey.sdk;
 
 import com.iovation.launchkey.sdk.cache.Cache;
 import com.iovation.launchkey.sdk.cache.HashCache;
+import com.iovation.launchkey.sdk.crypto.CryptoExecutor;
 import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import com.iovation.launchkey.sdk.crypto.KeyLoader;
+import com.iovation.launchkey.sdk.crypto.CalibratedProviders;
+import com.iovation.launchkey.sdk.crypto.ProviderCalibration;
+import com.iovation.launchkey.sdk.transport.apachehttp.ApacheHttpTransport;
+import com.iovation.launchkey.sdk.transport.apachehttp.TransportOptions;
+import com.iovation.launchkey.sdk.transport.apachehttp.TransportStats;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier.EntityType;
 import com.iovation.launchkey.sdk.transport.domain.EntityKeyMap;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.nio.client.HttpAsyncClient;
 
+import java.security.PrivateKey;
 import java.security.Provider;
 import java.security.Security;
 import java.security.interfaces.RSAPrivateKey;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -36,6 +48,10 @@ public class FactoryFactoryBuilder {
     private Provider jceProvider = null;
     private Provider jceProviderInstance = null;
     private HttpClient httpClient = null;
+    private HttpAsyncClient httpAsyncClient = null;
+    private boolean httpAsyncEnabled = false;
+    private CloseableHttpAsyncClient http2Client = null;
+    private boolean http2Enabled = false;
     private Cache keyCache = null;
 
     private String apiBaseURL = "https://api.launchkey.com";
@@ -45,6 +61,18 @@ public class FactoryFactoryBuilder {
     private Integer requestExpireSeconds = 5;
     private int offsetTTL = 3600;
     private int currentPublicKeyTTL = 300;
+    private int maxResponseBodySize = ApacheHttpTransport.DEFAULT_MAX_RESPONSE_BODY_SIZE;
+    private String jweKeyManagementAlgorithm = null;
+    private String jweContentEncryptionAlgorithm = null;
+    private boolean jceJoseEnabled = false;
+    private KeyLoader keyLoader = null;
+    private ProviderCalibration jceProviderCalibration = null;
+    private boolean jceProviderCalibrationEnabled = false;
+    private Future<ProviderCalibration> jceProviderCalibrationFuture = null;
+    private CryptoExecutor cryptoExecutor = null;
+    private int keyCacheTimeoutMillis = ApacheHttpTransport.DEFAULT_KEY_CACHE_TIMEOUT_MILLIS;
+    private Cache stateCache = null;
+    private TransportStats transportStats = null;
     private final EntityKeyMap entityKeyMap = new EntityKeyMap();
 
     /**
@@ -53,18 +81,7 @@ public class FactoryFactoryBuilder {
      * @return Client Factory Factory
      */
     public FactoryFactory build() {
-        return new FactoryFactory(
-                getJceProvider(),
-                getHttpClient(),
-                getKeyCache(),
-                getApiBaseURL(),
-                getApiIdentifier(),
-                getRequestExpireSeconds(),
-                offsetTTL,
-                currentPublicKeyTTL,
-                entityKeyMap
-        );
-
+        return new FactoryFactory(this);
     }
 
     /**
@@ -100,6 +117,65 @@ public class FactoryFactoryBuilder {
         return this;
     }
 
+    /**
+     * Enable the asynchronous Service, Directory, and Organization clients. Their non-blocking requests are made with
+     * an Apache HTTP Async client which is created when the first factory is made and closed by
+     * {@link FactoryFactory#close()}. The default is false.
+     *
+     * @param httpAsyncEnabled Should the asynchronous clients be available
+     * @return this
+     */
+    public FactoryFactoryBuilder setHttpAsyncEnabled(boolean httpAsyncEnabled) {
+        this.httpAsyncEnabled = httpAsyncEnabled;
+        return this;
+    }
+
+    /**
+     * Set the Apache HTTP Async client that will be utilized for making non-blocking requests of the Platform API
+     * from the asynchronous clients. Setting the client enables the asynchronous clients as with
+     * {@link #setHttpAsyncEnabled(boolean)}. If it is a
+     * {@link org.apache.http.impl.nio.client.CloseableHttpAsyncClient} which has not been started, it will be
+     * started when the first asynchronous request is made. It is not closed by {@link FactoryFactory#close()}.
+     *
+     * @param httpAsyncClient Apache HTTP Async client that will be utilized for making non-blocking requests of the
+     * Platform API
+     * @return this
+     */
+    public FactoryFactoryBuilder setHttpAsyncClient(HttpAsyncClient httpAsyncClient) {
+        this.httpAsyncClient = httpAsyncClient;
+        this.httpAsyncEnabled = httpAsyncClient != null;
+        return this;
+    }
+
+    /**
+     * Enable sending the requests of the synchronous clients to the Platform API over HTTP/2. Concurrent requests
+     * will be multiplexed over a single connection rather than each requiring a connection from the pool. HTTP/2
+     * requires ALPN support in the JVM which is available in Java 9 and later as well as Java 8 update 252 and later.
+     * The HTTP/2 client is created when the first factory is made and closed by {@link FactoryFactory#close()}.
+     *
+     * @param http2Enabled Should requests be sent over HTTP/2
+     * @return this
+     */
+    public FactoryFactoryBuilder setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+        return this;
+    }
+
+    /**
+     * Set the Apache HTTP Client 5 HTTP/2 client that will be utilized for making requests of the Platform API. Setting
+     * the client enables HTTP/2 as with {@link #setHttp2Enabled(boolean)}. If the client has not been started, it
+     * will be started when the first request is made. It is not closed by {@link FactoryFactory#close()}.
+     *
+     * @param http2Client Apache HTTP Client 5 HTTP/2 client that will be utilized for making requests of the Platform
+     * API
+     * @return this
+     */
+    public FactoryFactoryBuilder setHttp2Client(CloseableHttpAsyncClient http2Client) {
+        this.http2Client = http2Client;
+        this.http2Enabled = http2Client != null;
+        return this;
+    }
+
     /**
      * Set the Time To Live in seconds for HTTP client connections in the connection pool.  This value will be ignored
      * if an {@link HttpClient} is set with {@link #setHttpClient(HttpClient)}
@@ -116,7 +192,8 @@ public class FactoryFactoryBuilder {
 
     /**
      * Set the max HTTP client connections in the connection pool.  This value will be ignored
-     * if an {@link HttpClient} is set with {@link #setHttpClient(HttpClient)}
+     * if an {@link HttpClient} is set with {@link #setHttpClient(HttpClient)}. It is also used for the Apache HTTP
+     * Async client created when the asynchronous clients are enabled with {@link #setHttpAsyncEnabled(boolean)}.
      *
      * @param httpMaxClients Max HTTP client connections in the connection pool
      * @return this
@@ -128,6 +205,15 @@ public class FactoryFactoryBuilder {
         return this;
     }
 
+    /**
+     * Set the cache in which Platform API public keys are shared between processes. Keys are always held in process
+     * as well, so a {@link com.iovation.launchkey.sdk.cache.TieredCache} adds nothing here: only its shared cache is
+     * used. A cache which is also an {@link com.iovation.launchkey.sdk.cache.AsyncCache} is waited on no longer than
+     * {@link #setKeyCacheTimeoutMillis(int)}.
+     *
+     * @param keyCache Cache for Platform API public keys
+     * @return this
+     */
     public FactoryFactoryBuilder setKeyCache(Cache keyCache) {
         this.keyCache = keyCache;
         return this;
@@ -143,7 +229,168 @@ public class FactoryFactoryBuilder {
         return this;
     }
 
-    private String getApiBaseURL() {
+    /**
+     * Set the maximum size in bytes of a response body from the LaunchKey API. Responses with a larger body will be
+     * rejected with an {@link com.iovation.launchkey.sdk.error.InvalidResponseException} without reading the
+     * remainder of the body. The default is 4 MiB.
+     *
+     * @param maxResponseBodySize Maximum size in bytes of a response body
+     * @return this
+     */
+    public FactoryFactoryBuilder setMaxResponseBodySize(int maxResponseBodySize) {
+        this.maxResponseBodySize = maxResponseBodySize;
+        return this;
+    }
+
+    /**
+     * Set the JWE key management algorithm ("alg") used to encrypt requests to the LaunchKey API. Responses are
+     * decrypted with whatever supported algorithm the API used. The default is chosen by the type of the API
+     * public key: RSA-OAEP-256 for RSA keys and ECDH-ES+A256KW for EC keys.
+     *
+     * @param jweKeyManagementAlgorithm JWE key management algorithm. e.g.:
+     * {@link org.jose4j.jwe.KeyManagementAlgorithmIdentifiers#RSA_OAEP_256}
+     * @return this
+     */
+    public FactoryFactoryBuilder setJWEKeyManagementAlgorithm(String jweKeyManagementAlgorithm) {
+        this.jweKeyManagementAlgorithm = jweKeyManagementAlgorithm;
+        return this;
+    }
+
+    /**
+     * Set the JWE content encryption algorithm ("enc") used to encrypt requests to the LaunchKey API. Responses are
+     * decrypted with whatever supported algorithm the API used. The default is A256CBC-HS512. A256GCM encrypts and
+     * decrypts in a single pass and is faster on processors with AES and carry-less multiplication instructions. It
+     * requires a JCE provider with AES/GCM/NoPadding, which is included in Java 8 and later.
+     *
+     * @param jweContentEncryptionAlgorithm JWE content encryption algorithm. e.g.:
+     * {@link org.jose4j.jwe.ContentEncryptionAlgorithmIdentifiers#AES_256_GCM}
+     * @return this
+     */
+    public FactoryFactoryBuilder setJWEContentEncryptionAlgorithm(String jweContentEncryptionAlgorithm) {
+        this.jweContentEncryptionAlgorithm = jweContentEncryptionAlgorithm;
+        return this;
+    }
+
+    /**
+     * Sign, verify, encrypt, and decrypt the JWTs and JWEs exchanged with the LaunchKey API directly on the JCA rather
+     * than with jose4j. Only the algorithms used by the LaunchKey API are supported: RS256, RS384, RS512, and ES256
+     * for JWTs, and RSA-OAEP-256 or RSA-OAEP with A256CBC-HS512 or A256GCM for JWEs. JWTs may be signed with RSA or
+     * EC private keys, but JWEs are only handled on the JCA for RSA private keys. JWEs for an EC private key are
+     * always handled by jose4j. The default is to use jose4j.
+     *
+     * @param jceJoseEnabled Should the JWT and JWE services be implemented directly on the JCA
+     * @return this
+     */
+    public FactoryFactoryBuilder setJCEJoseEnabled(boolean jceJoseEnabled) {
+        this.jceJoseEnabled = jceJoseEnabled;
+        return this;
+    }
+
+    /**
+     * Set the key loader used to parse the PEM formatted private keys passed to the {@link FactoryFactory}. Key
+     * stores and bundles of many keys may be loaded in parallel with the same loader and then added with
+     * {@link #addServicePrivateKeys(String, Map)}, {@link #addDirectoryPrivateKeys(String, Map)}, or
+     * {@link #addOrganizationPrivateKeys(String, Map)}. The default is a {@link KeyLoader} using the JCE provider.
+     *
+     * @param keyLoader Key loader
+     * @return this
+     */
+    public FactoryFactoryBuilder setKeyLoader(KeyLoader keyLoader) {
+        this.keyLoader = keyLoader;
+        return this;
+    }
+
+    /**
+     * Set whether the installed JCE providers are calibrated when the {@link FactoryFactory} is built. Calibration
+     * times each provider and selects the fastest for RSA encryption, digests, RS256 request signing, and, when the
+     * JCE JOSE services are enabled with {@link #setJCEJoseEnabled(boolean)}, RS256 verification and AES-CBC content
+     * encryption rather than using the JCE provider for everything. It is performed once per builder on a background
+     * thread so building is not delayed. The JCE provider is used until it completes. The default is false.
+     *
+     * @param jceProviderCalibrationEnabled Should the installed JCE providers be calibrated
+     * @return this
+     */
+    public FactoryFactoryBuilder setJCEProviderCalibrationEnabled(boolean jceProviderCalibrationEnabled) {
+        this.jceProviderCalibrationEnabled = jceProviderCalibrationEnabled;
+        return this;
+    }
+
+    /**
+     * Set a previously performed JCE provider calibration. This also enables calibration as with
+     * {@link #setJCEProviderCalibrationEnabled(boolean)}.
+     *
+     * @param jceProviderCalibration Calibration selecting the JCE provider for each operation
+     * @return this
+     */
+    public FactoryFactoryBuilder setJCEProviderCalibration(ProviderCalibration jceProviderCalibration) {
+        this.jceProviderCalibration = jceProviderCalibration;
+        this.jceProviderCalibrationEnabled = jceProviderCalibration != null;
+        return this;
+    }
+
+    /**
+     * Set the executor on which responses and server sent events are decrypted and the signatures of server sent
+     * events are verified. Public key and server time requests are not made on it. This keeps expensive private key
+     * work to a fixed number of threads and allows saturation to be detected. When the executor rejects work, the
+     * client or webhook call raises a {@link com.iovation.launchkey.sdk.error.CryptographyOverloaded} which a webhook
+     * endpoint may turn into a 503 Service Unavailable response. The executor is not shut down by the SDK. The
+     * default is to decrypt on the calling thread.
+     *
+     * @param cryptoExecutor Executor for cryptography. e.g.: {@code new CryptoExecutor()} for a thread per processor
+     * @return this
+     */
+    public FactoryFactoryBuilder setCryptoExecutor(CryptoExecutor cryptoExecutor) {
+        this.cryptoExecutor = cryptoExecutor;
+        return this;
+    }
+
+    /**
+     * Set the maximum time to wait for a public key from the key cache when the key cache is an
+     * {@link com.iovation.launchkey.sdk.cache.AsyncCache} such as an
+     * {@link com.iovation.launchkey.sdk.cache.ExecutorAsyncCache} wrapping a remote cache. A slower response is
+     * treated as a cache miss and the key is retrieved from the Platform API. The lookup is not cancelled, and a key
+     * it returns later is held in process for later requests. The default is
+     * {@link ApacheHttpTransport#DEFAULT_KEY_CACHE_TIMEOUT_MILLIS}.
+     *
+     * @param keyCacheTimeoutMillis Maximum number of milliseconds to wait for the key cache
+     * @return this
+     */
+    public FactoryFactoryBuilder setKeyCacheTimeoutMillis(int keyCacheTimeoutMillis) {
+        this.keyCacheTimeoutMillis = keyCacheTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Set a cache which outlives the process to hold the current Platform API public key, Platform API public keys by
+     * fingerprint, and the server time. When they are available after a restart, the first request does not need to
+     * wait for a ping and a public key request. A {@link com.iovation.launchkey.sdk.cache.MappedFileCache} may be
+     * opened for writing by one process on a host and read-only by the others. The default is to hold them in memory
+     * only.
+     *
+     * @param stateCache Cache for the Platform API state. e.g.:
+     * {@code new MappedFileCache(new File("/var/cache/launchkey/state"))}
+     * @return this
+     */
+    public FactoryFactoryBuilder setStateCache(Cache stateCache) {
+        this.stateCache = stateCache;
+        return this;
+    }
+
+    /**
+     * Set the statistics in which all clients record the hits, misses, loads, load latencies, evictions, and
+     * refreshes of the Platform API public keys, the current Platform API public key, and the server time. They can
+     * be read at any time to size TTLs such as {@link #setCurrentPublicKeyTTL(int)} and {@link #setOffsetTTL(int)}.
+     * The default is to not make statistics available.
+     *
+     * @param transportStats Statistics to record into. e.g.: {@code new TransportStats()}
+     * @return this
+     */
+    public FactoryFactoryBuilder setTransportStats(TransportStats transportStats) {
+        this.transportStats = transportStats;
+        return this;
+    }
+
+    String getApiBaseURL() {
         return apiBaseURL;
     }
 
@@ -158,7 +405,7 @@ public class FactoryFactoryBuilder {
         return this;
     }
 
-    private String getApiIdentifier() {
+    String getApiIdentifier() {
         return apiIdentifier;
     }
 
@@ -178,17 +425,74 @@ public class FactoryFactoryBuilder {
         return this;
     }
 
+    public FactoryFactoryBuilder addServicePrivateKey(String serviceId, PrivateKey privateKey, String publicKeyFingerprint) {
+        addEntityPrivateKey(EntityType.SERVICE, serviceId, privateKey, publicKeyFingerprint);
+        return this;
+    }
+
     public FactoryFactoryBuilder addDirectoryPrivateKey(String directoryId, RSAPrivateKey privateKey, String publicKeyFingerprint) {
         addEntityPrivateKey(EntityType.DIRECTORY, directoryId, privateKey, publicKeyFingerprint);
         return this;
     }
 
+    public FactoryFactoryBuilder addDirectoryPrivateKey(String directoryId, PrivateKey privateKey, String publicKeyFingerprint) {
+        addEntityPrivateKey(EntityType.DIRECTORY, directoryId, privateKey, publicKeyFingerprint);
+        return this;
+    }
+
     public FactoryFactoryBuilder addOrganizationPrivateKey(String organizationId, RSAPrivateKey privateKey, String publicKeyFingerprint) {
         addEntityPrivateKey(EntityType.ORGANIZATION, organizationId, privateKey, publicKeyFingerprint);
         return this;
     }
 
-    private void addEntityPrivateKey(EntityType type, String id, RSAPrivateKey privateKey, String publicKeyFingerprint) {
+    public FactoryFactoryBuilder addOrganizationPrivateKey(String organizationId, PrivateKey privateKey, String publicKeyFingerprint) {
+        addEntityPrivateKey(EntityType.ORGANIZATION, organizationId, privateKey, publicKeyFingerprint);
+        return this;
+    }
+
+    /**
+     * Add private keys for a service such as those returned by a {@link KeyLoader}
+     *
+     * @param serviceId Service ID
+     * @param privateKeys Private keys by public key fingerprint
+     * @return this
+     */
+    public FactoryFactoryBuilder addServicePrivateKeys(String serviceId, Map<String, ? extends PrivateKey> privateKeys) {
+        addEntityPrivateKeys(EntityType.SERVICE, serviceId, privateKeys);
+        return this;
+    }
+
+    /**
+     * Add private keys for a directory such as those returned by a {@link KeyLoader}
+     *
+     * @param directoryId Directory ID
+     * @param privateKeys Private keys by public key fingerprint
+     * @return this
+     */
+    public FactoryFactoryBuilder addDirectoryPrivateKeys(String directoryId, Map<String, ? extends PrivateKey> privateKeys) {
+        addEntityPrivateKeys(EntityType.DIRECTORY, directoryId, privateKeys);
+        return this;
+    }
+
+    /**
+     * Add private keys for an organization such as those returned by a {@link KeyLoader}
+     *
+     * @param organizationId Organization ID
+     * @param privateKeys Private keys by public key fingerprint
+     * @return this
+     */
+    public FactoryFactoryBuilder addOrganizationPrivateKeys(String organizationId, Map<String, ? extends PrivateKey> privateKeys) {
+        addEntityPrivateKeys(EntityType.ORGANIZATION, organizationId, privateKeys);
+        return this;
+    }
+
+    private void addEntityPrivateKeys(EntityType type, String id, Map<String, ? extends PrivateKey> privateKeys) {
+        for (Map.Entry<String, ? extends PrivateKey> entry : privateKeys.entrySet()) {
+            addEntityPrivateKey(type, id, entry.getValue(), entry.getKey());
+        }
+    }
+
+    private void addEntityPrivateKey(EntityType type, String id, PrivateKey privateKey, String publicKeyFingerprint) {
         entityKeyMap.addKey(
                 new EntityIdentifier(type, UUID.fromString(id)),
                 publicKeyFingerprint,
@@ -197,7 +501,7 @@ public class FactoryFactoryBuilder {
     }
 
     @SuppressWarnings("Duplicates")
-    private HttpClient getHttpClient() {
+    HttpClient getHttpClient() {
         if (httpClient == null) {
             PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
                     httpClientConnectionTTLSecs,
@@ -216,11 +520,31 @@ public class FactoryFactoryBuilder {
         return httpClient;
     }
 
-    private Integer getRequestExpireSeconds() {
+    HttpAsyncClient getHttpAsyncClient() {
+        return httpAsyncClient;
+    }
+
+    boolean isHttpAsyncEnabled() {
+        return httpAsyncEnabled;
+    }
+
+    CloseableHttpAsyncClient getHttp2Client() {
+        return http2Client;
+    }
+
+    boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    int getHttpClientMaxClients() {
+        return httpClientMaxClients;
+    }
+
+    Integer getRequestExpireSeconds() {
         return requestExpireSeconds;
     }
 
-    private Provider getJceProvider() {
+    Provider getJceProvider() {
         Provider provider;
         if (jceProvider == null) {
             if (jceProviderInstance == null) {
@@ -233,7 +557,57 @@ public class FactoryFactoryBuilder {
         return provider;
     }
 
-    private Cache getKeyCache() {
+    CalibratedProviders getJceCalibratedProviders(Provider provider) {
+        if (!jceProviderCalibrationEnabled) {
+            return new CalibratedProviders(provider, (ProviderCalibration) null);
+        }
+        if (jceProviderCalibration != null) {
+            return new CalibratedProviders(provider, jceProviderCalibration);
+        }
+        if (jceProviderCalibrationFuture == null) {
+            jceProviderCalibrationFuture = ProviderCalibration.calibrateInBackground();
+        }
+        return new CalibratedProviders(provider, jceProviderCalibrationFuture);
+    }
+
+    int getOffsetTTL() {
+        return offsetTTL;
+    }
+
+    int getCurrentPublicKeyTTL() {
+        return currentPublicKeyTTL;
+    }
+
+    EntityKeyMap getEntityKeyMap() {
+        return entityKeyMap;
+    }
+
+    String getJWEKeyManagementAlgorithm() {
+        return jweKeyManagementAlgorithm;
+    }
+
+    String getJWEContentEncryptionAlgorithm() {
+        return jweContentEncryptionAlgorithm;
+    }
+
+    boolean isJCEJoseEnabled() {
+        return jceJoseEnabled;
+    }
+
+    KeyLoader getKeyLoader() {
+        return keyLoader;
+    }
+
+    TransportOptions getTransportOptions() {
+        return new TransportOptions()
+                .setMaxResponseBodySize(maxResponseBodySize)
+                .setCryptoExecutor(cryptoExecutor)
+                .setKeyCacheTimeoutMillis(keyCacheTimeoutMillis)
+                .setStateCache(stateCache)
+                .setStats(transportStats);
+    }
+
+    Cache getKeyCache() {
         if (keyCache == null) {
             keyCache = new HashCache();
         }
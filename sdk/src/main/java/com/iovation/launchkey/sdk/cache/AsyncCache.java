@@ -0,0 +1,44 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking cache of strings for remote caches such as Redis or Hazelcast. Callers wait for a result no longer
+ * than they choose with {@link Future#get(long, java.util.concurrent.TimeUnit)}. They may cancel the future when they
+ * stop waiting so that the operation does not continue to hold resources, or leave it to complete and use the result
+ * through the callback, as the SDK does for public keys. A {@link Cache} used by the SDK which also
+ * implements this interface is read and written through this interface.
+ */
+public interface AsyncCache {
+    /**
+     * Get the value for the key
+     *
+     * @param key Key of the entry
+     * @param callback Callback to be notified when the value is retrieved or the retrieval fails. May be null.
+     * @return Future for the value which will be null if there is no entry for the key. A failure will be an
+     * {@link java.util.concurrent.ExecutionException} caused by a {@link CacheException}.
+     */
+    Future<String> get(String key, CacheCallback<String> callback);
+
+    /**
+     * Store the value for the key
+     *
+     * @param key Key of the entry
+     * @param value Value of the entry
+     * @param callback Callback to be notified when the value is stored or the store fails. May be null.
+     * @return Future which will be completed with null when the value is stored
+     */
+    Future<Void> put(String key, String value, CacheCallback<Void> callback);
+}
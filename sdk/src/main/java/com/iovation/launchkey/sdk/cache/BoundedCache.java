@@ -0,0 +1,473 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process {@link TypedCache} bounded by a maximum weight with per entry expiration. Eviction follows the
+ * W-TinyLFU policy: new entries are held in a small LRU window and must then have been accessed more often than the
+ * least recently used entry of a segmented LRU main space to be admitted to it. Keys which are only seen once, such
+ * as random key IDs from invalid requests, therefore can not displace frequently used entries. Expired entries are
+ * removed when they are read or when they are selected for eviction.
+ * <p>
+ * Reads do not lock. Each read is recorded in a fixed size ring buffer and the buffer is replayed against the
+ * frequency sketch and the LRU order by whichever thread acquires the eviction lock without waiting. Reads recorded
+ * while the buffer is full overwrite earlier ones, so under heavy contention some reads do not affect the eviction
+ * order. Writes take the eviction lock and replay the buffer first.
+ *
+ * @param <K> Type of the keys
+ * @param <V> Type of the values
+ */
+public class BoundedCache<K, V> implements TypedCache<K, V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    // Attempt to replay the read buffer each time this many reads have been recorded
+    private static final int READ_BUFFER_DRAIN_MASK = READ_BUFFER_SIZE / 4 - 1;
+    private static final Weigher<Object, Object> SINGLETON_WEIGHER = new Weigher<Object, Object>() {
+        @Override
+        public int weigh(Object key, Object value) {
+            return 1;
+        }
+    };
+
+    private final ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicReferenceArray<Object> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readBufferWriteCount = new AtomicLong();
+    private final StatsCounter statsCounter;
+    private final Node<K, V> window = new Node<>();
+    private final Node<K, V> probation = new Node<>();
+    private final Node<K, V> protectedSegment = new Node<>();
+    private final FrequencySketch sketch;
+    private final Weigher<? super K, ? super V> weigher;
+    private final long maximumWeight;
+    private final long windowMaximumWeight;
+    private final long protectedMaximumWeight;
+    private final long defaultTTLMillis;
+    private long weight;
+    private long windowWeight;
+    private long protectedWeight;
+    private long readBufferReadCount;
+
+    /**
+     * @param maximumSize Maximum number of entries
+     * @param defaultTTL Time entries live when stored without a specific time to live. Zero or less means entries do
+     * not expire.
+     * @param unit Unit of the default time to live
+     * @throws IllegalArgumentException When maximumSize is less than one or unit is null
+     */
+    public BoundedCache(long maximumSize, long defaultTTL, TimeUnit unit) throws IllegalArgumentException {
+        this(maximumSize, defaultTTL, unit, null);
+    }
+
+    /**
+     * @param maximumWeight Maximum total weight of the entries
+     * @param defaultTTL Time entries live when stored without a specific time to live. Zero or less means entries do
+     * not expire.
+     * @param unit Unit of the default time to live
+     * @param weigher Weigher for the entries. If null, each entry has a weight of one.
+     * @throws IllegalArgumentException When maximumWeight is less than one or unit is null
+     */
+    public BoundedCache(long maximumWeight, long defaultTTL, TimeUnit unit, Weigher<? super K, ? super V> weigher)
+            throws IllegalArgumentException {
+        this(maximumWeight, defaultTTL, unit, weigher, null);
+    }
+
+    /**
+     * @param maximumWeight Maximum total weight of the entries
+     * @param defaultTTL Time entries live when stored without a specific time to live. Zero or less means entries do
+     * not expire.
+     * @param unit Unit of the default time to live
+     * @param weigher Weigher for the entries. If null, each entry has a weight of one.
+     * @param statsCounter Counter in which hits, misses, and evictions are recorded and from which
+     * {@link #getStats()} is taken. If null, the cache has its own counter.
+     * @throws IllegalArgumentException When maximumWeight is less than one or unit is null
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(long maximumWeight, long defaultTTL, TimeUnit unit, Weigher<? super K, ? super V> weigher,
+                        StatsCounter statsCounter) throws IllegalArgumentException {
+        if (maximumWeight < 1) throw new IllegalArgumentException("Argument maximumWeight must be greater than zero");
+        if (unit == null) throw new IllegalArgumentException("Argument unit cannot be null");
+        this.maximumWeight = maximumWeight;
+        this.windowMaximumWeight = Math.max(1, maximumWeight / 100);
+        this.protectedMaximumWeight = (maximumWeight - windowMaximumWeight) * 4 / 5;
+        this.defaultTTLMillis = defaultTTL > 0 ? unit.toMillis(defaultTTL) : 0;
+        this.statsCounter = statsCounter == null ? new StatsCounter() : statsCounter;
+        if (weigher == null) {
+            this.weigher = (Weigher<? super K, ? super V>) (Weigher<?, ?>) SINGLETON_WEIGHER;
+            this.sketch = new FrequencySketch(maximumWeight);
+        } else {
+            // The number of entries is not known so the sketch is sized for a moderately large cache
+            this.weigher = weigher;
+            this.sketch = new FrequencySketch(Math.min(maximumWeight, 1 << 16));
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        if (key == null) throw new NullPointerException("key");
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            statsCounter.recordMiss();
+            recordRead(key);
+            return null;
+        }
+        long expires = node.expires;
+        V value = node.value;
+        if (expires <= currentTimeMillis()) {
+            statsCounter.recordMiss();
+            recordRead(key);
+            expire(node);
+            return null;
+        }
+        statsCounter.recordHit();
+        recordRead(node);
+        return value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        put(key, value, defaultTTLMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void put(K key, V value, long ttl, TimeUnit unit) {
+        if (key == null) throw new NullPointerException("key");
+        if (value == null) throw new NullPointerException("value");
+        if (unit == null) throw new NullPointerException("unit");
+        int entryWeight = weigher.weigh(key, value);
+        if (entryWeight < 0) throw new IllegalArgumentException("Weigher returned a negative weight");
+        long expires = getExpires(ttl, unit);
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            sketch.increment(key);
+            Node<K, V> node = data.get(key);
+            if (node == null) {
+                node = new Node<>(key);
+                node.segment = WINDOW;
+                linkLast(window, node);
+            } else {
+                unweigh(node);
+            }
+            node.expires = expires;
+            node.value = value;
+            node.weight = entryWeight;
+            data.put(key, node);
+            weigh(node);
+            onAccess(node);
+            if (entryWeight > maximumWeight) {
+                evict(node);
+            } else {
+                evictToMaximumWeight();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        if (key == null) throw new NullPointerException("key");
+        evictionLock.lock();
+        try {
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Remove the entry unless it holds the value
+     *
+     * @param key Key of the entry
+     * @param value Value to keep
+     */
+    void removeIfDifferent(K key, V value) {
+        if (key == null) throw new NullPointerException("key");
+        evictionLock.lock();
+        try {
+            Node<K, V> node = data.get(key);
+            if (node != null && (value == null || !value.equals(node.value))) {
+                unlink(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return statsCounter.snapshot();
+    }
+
+    /**
+     * Remove all expired entries and apply the recorded reads to the eviction order
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            long now = currentTimeMillis();
+            Iterator<Node<K, V>> iterator = data.values().iterator();
+            while (iterator.hasNext()) {
+                Node<K, V> node = iterator.next();
+                if (node.expires <= now) {
+                    iterator.remove();
+                    unweigh(node);
+                    detach(node);
+                    statsCounter.recordEviction();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @return Number of entries including those which have expired but not yet been removed
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * @return Total weight of the entries including those which have expired but not yet been removed
+     */
+    public long getWeight() {
+        evictionLock.lock();
+        try {
+            return weight;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Record a read of an entry, or of the key of a missing entry, to be applied when the buffer is next drained.
+     * The slot is overwritten without waiting if the read it holds has not yet been applied.
+     */
+    private void recordRead(Object read) {
+        long index = readBufferWriteCount.getAndIncrement();
+        readBuffer.lazySet((int) (index & READ_BUFFER_MASK), read);
+        if ((index & READ_BUFFER_DRAIN_MASK) == READ_BUFFER_DRAIN_MASK && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply the recorded reads to the frequency sketch and the LRU order. Must hold the eviction lock.
+     */
+    @SuppressWarnings("unchecked")
+    private void drainReadBuffer() {
+        long writeCount = readBufferWriteCount.get();
+        for (long index = Math.max(readBufferReadCount, writeCount - READ_BUFFER_SIZE); index < writeCount; index++) {
+            Object read = readBuffer.getAndSet((int) (index & READ_BUFFER_MASK), null);
+            if (read instanceof Node) {
+                Node<K, V> node = (Node<K, V>) read;
+                sketch.increment(node.key);
+                // Entries removed since the read are no longer linked
+                if (node.prev != null) {
+                    onAccess(node);
+                }
+            } else if (read != null) {
+                sketch.increment(read);
+            }
+        }
+        readBufferReadCount = writeCount;
+    }
+
+    /**
+     * Remove an entry found to have expired when it was read unless another thread holds the eviction lock, in which
+     * case the entry is removed when it is later read, evicted, or cleaned up.
+     */
+    private void expire(Node<K, V> node) {
+        if (evictionLock.tryLock()) {
+            try {
+                if (node.prev != null && node.expires <= currentTimeMillis()) {
+                    evict(node);
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private long getExpires(long ttl, TimeUnit unit) {
+        if (ttl <= 0) {
+            return Long.MAX_VALUE;
+        }
+        long now = currentTimeMillis();
+        long ttlMillis = unit.toMillis(ttl);
+        return ttlMillis >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + ttlMillis;
+    }
+
+    /**
+     * Move the entry to the most recently used position of its segment. Entries accessed while on probation are
+     * promoted to the protected segment, which demotes the least recently used protected entries when it is full.
+     */
+    private void onAccess(Node<K, V> node) {
+        if (node.segment == PROBATION) {
+            unweigh(node);
+            detach(node);
+            node.segment = PROTECTED;
+            linkLast(protectedSegment, node);
+            weigh(node);
+            while (protectedWeight > protectedMaximumWeight) {
+                Node<K, V> demoted = protectedSegment.next;
+                unweigh(demoted);
+                detach(demoted);
+                demoted.segment = PROBATION;
+                linkLast(probation, demoted);
+                weigh(demoted);
+            }
+        } else {
+            detach(node);
+            linkLast(node.segment == WINDOW ? window : protectedSegment, node);
+        }
+    }
+
+    /**
+     * Move entries beyond the window's maximum weight to probation as candidates for the main space and then evict
+     * either the candidates or the least recently used entries of the main space, whichever have been accessed less
+     * often, until the cache is within its maximum weight.
+     */
+    private void evictToMaximumWeight() {
+        Node<K, V> candidate = null;
+        while (windowWeight > windowMaximumWeight) {
+            Node<K, V> node = window.next;
+            unweigh(node);
+            detach(node);
+            node.segment = PROBATION;
+            linkLast(probation, node);
+            weigh(node);
+            if (candidate == null) {
+                candidate = node;
+            }
+        }
+        while (weight > maximumWeight) {
+            Node<K, V> victim = first(probation);
+            if (victim == null) victim = first(protectedSegment);
+            if (victim == null) victim = first(window);
+            if (candidate == null || candidate == victim) {
+                if (candidate == victim) {
+                    candidate = next(probation, candidate);
+                }
+                evict(victim);
+            } else if (candidate.expires <= currentTimeMillis()
+                    || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                Node<K, V> next = next(probation, candidate);
+                evict(candidate);
+                candidate = next;
+            } else {
+                evict(victim);
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        unlink(node);
+        statsCounter.recordEviction();
+    }
+
+    private void unlink(Node<K, V> node) {
+        data.remove(node.key, node);
+        unweigh(node);
+        detach(node);
+    }
+
+    private void weigh(Node<K, V> node) {
+        weight += node.weight;
+        if (node.segment == WINDOW) {
+            windowWeight += node.weight;
+        } else if (node.segment == PROTECTED) {
+            protectedWeight += node.weight;
+        }
+    }
+
+    private void unweigh(Node<K, V> node) {
+        weight -= node.weight;
+        if (node.segment == WINDOW) {
+            windowWeight -= node.weight;
+        } else if (node.segment == PROTECTED) {
+            protectedWeight -= node.weight;
+        }
+    }
+
+    private static <K, V> void linkLast(Node<K, V> sentinel, Node<K, V> node) {
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    private static <K, V> void detach(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static <K, V> Node<K, V> first(Node<K, V> sentinel) {
+        return sentinel.next == sentinel ? null : sentinel.next;
+    }
+
+    private static <K, V> Node<K, V> next(Node<K, V> sentinel, Node<K, V> node) {
+        return node.next == sentinel ? null : node.next;
+    }
+
+    /**
+     * Entry in a circular doubly linked list. A node without a key is the sentinel of a segment's list. The value and
+     * expiration are read without the eviction lock and everything else is guarded by it.
+     */
+    private static class Node<K, V> {
+        private final K key;
+        private volatile V value;
+        private volatile long expires;
+        private int weight;
+        private int segment;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node() {
+            this(null);
+            prev = this;
+            next = this;
+        }
+
+        Node(K key) {
+            this.key = key;
+        }
+    }
+}
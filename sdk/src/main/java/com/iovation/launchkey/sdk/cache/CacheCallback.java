@@ -0,0 +1,32 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+/**
+ * Callback notified when an {@link AsyncCache} operation completes. It is not notified of operations cancelled
+ * through their {@link java.util.concurrent.Future}.
+ *
+ * @param <T> Type of the result of the operation
+ */
+public interface CacheCallback<T> {
+    /**
+     * @param result Result of the operation. The value for a get, which will be null if there is no entry for the
+     * key, or null for a put.
+     */
+    void completed(T result);
+
+    /**
+     * @param e Error raised by the operation
+     */
+    void failed(CacheException e);
+}
@@ -0,0 +1,250 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable snapshot of the statistics for a {@link TypedCache} or for a value which is loaded from a slower source
+ * when it is not cached. Loads include both the loads of missing values and the refreshes of existing values. Load
+ * latencies are counted in buckets whose bounds are powers of two microseconds. Bucket zero holds latencies under
+ * one microsecond and bucket n holds latencies of at least 2<sup>n-1</sup> and less than 2<sup>n</sup> microseconds.
+ * Latencies of 2<sup>{@link #LOAD_LATENCY_BUCKETS}-2</sup> microseconds or more are held in the last bucket.
+ */
+public class CacheStats {
+    /**
+     * Number of load latency buckets
+     */
+    public static final int LOAD_LATENCY_BUCKETS = 32;
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTime;
+    private final long maxLoadTime;
+    private final long refreshCount;
+    private final long refreshFailureCount;
+    private final long[] loadLatencyBucketCounts;
+
+    /**
+     * @param hitCount Number of lookups which returned a value
+     * @param missCount Number of lookups which did not return a value
+     * @param evictionCount Number of entries removed to stay within the maximum weight or because they expired
+     */
+    public CacheStats(long hitCount, long missCount, long evictionCount) {
+        this(hitCount, missCount, evictionCount, 0L, 0L, 0L, 0L, 0L, 0L, new long[LOAD_LATENCY_BUCKETS]);
+    }
+
+    CacheStats(long hitCount, long missCount, long evictionCount, long loadSuccessCount, long loadFailureCount,
+               long totalLoadTime, long maxLoadTime, long refreshCount, long refreshFailureCount,
+               long[] loadLatencyBucketCounts) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.maxLoadTime = maxLoadTime;
+        this.refreshCount = refreshCount;
+        this.refreshFailureCount = refreshFailureCount;
+        this.loadLatencyBucketCounts = loadLatencyBucketCounts;
+    }
+
+    /**
+     * @return Number of lookups which returned a value
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return Number of lookups which did not return a value
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return Number of entries removed to stay within the maximum weight or because they expired
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return Total number of lookups
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * @return Ratio of lookups which returned a value or 1.0 if there have been no lookups
+     */
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return Number of successful loads
+     */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /**
+     * @return Number of failed loads
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * @return Total number of loads
+     */
+    public long getLoadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    /**
+     * @return Total time in nanoseconds spent on successful and failed loads
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * @return Mean time in nanoseconds of a load or zero if there have been no loads
+     */
+    public double getAverageLoadPenalty() {
+        long loadCount = getLoadCount();
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+
+    /**
+     * @return Longest time in nanoseconds of a load
+     */
+    public long getMaxLoadTime() {
+        return maxLoadTime;
+    }
+
+    /**
+     * @return Number of existing values replaced by newly loaded values
+     */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    /**
+     * @return Number of failed refreshes after which the existing value continued to be used
+     */
+    public long getRefreshFailureCount() {
+        return refreshFailureCount;
+    }
+
+    /**
+     * @return Number of load latencies in each bucket
+     */
+    public long[] getLoadLatencyBucketCounts() {
+        return Arrays.copyOf(loadLatencyBucketCounts, loadLatencyBucketCounts.length);
+    }
+
+    /**
+     * Get an upper bound for the latency under which the percentile of load latencies fall
+     *
+     * @param percentile Percentile between 0 and 100. e.g.: 99.9
+     * @return Upper bound in microseconds of the bucket holding the percentile, no larger than the longest load, or
+     * zero if there have been no loads
+     * @throws IllegalArgumentException When the percentile is not between 0 and 100
+     */
+    public long getLoadLatencyPercentileMicros(double percentile) throws IllegalArgumentException {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        long total = 0;
+        for (long bucketCount : loadLatencyBucketCounts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long maxMicros = TimeUnit.NANOSECONDS.toMicros(maxLoadTime);
+        long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int bucket = 0; bucket < loadLatencyBucketCounts.length; bucket++) {
+            seen += loadLatencyBucketCounts[bucket];
+            if (seen >= rank) {
+                return Math.min(getLoadLatencyBucketUpperBoundMicros(bucket), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    /**
+     * @param bucket Bucket index
+     * @return Exclusive upper bound in microseconds of load latencies held in the bucket or {@link Long#MAX_VALUE} for
+     * the last bucket
+     */
+    public static long getLoadLatencyBucketUpperBoundMicros(int bucket) {
+        return bucket >= LOAD_LATENCY_BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    static int getLoadLatencyBucket(long nanos) {
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos / 1000L);
+        return Math.min(bucket, LOAD_LATENCY_BUCKETS - 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CacheStats)) return false;
+        CacheStats that = (CacheStats) o;
+        return hitCount == that.hitCount && missCount == that.missCount && evictionCount == that.evictionCount
+                && loadSuccessCount == that.loadSuccessCount && loadFailureCount == that.loadFailureCount
+                && totalLoadTime == that.totalLoadTime && maxLoadTime == that.maxLoadTime
+                && refreshCount == that.refreshCount && refreshFailureCount == that.refreshFailureCount
+                && Arrays.equals(loadLatencyBucketCounts, that.loadLatencyBucketCounts);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (hitCount ^ (hitCount >>> 32));
+        result = 31 * result + (int) (missCount ^ (missCount >>> 32));
+        result = 31 * result + (int) (evictionCount ^ (evictionCount >>> 32));
+        result = 31 * result + (int) (loadSuccessCount ^ (loadSuccessCount >>> 32));
+        result = 31 * result + (int) (loadFailureCount ^ (loadFailureCount >>> 32));
+        result = 31 * result + (int) (totalLoadTime ^ (totalLoadTime >>> 32));
+        result = 31 * result + (int) (refreshCount ^ (refreshCount >>> 32));
+        result = 31 * result + (int) (refreshFailureCount ^ (refreshFailureCount >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", totalLoadTime=" + totalLoadTime +
+                ", maxLoadTime=" + maxLoadTime +
+                ", refreshCount=" + refreshCount +
+                ", refreshFailureCount=" + refreshFailureCount +
+                '}';
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link AsyncCache} which performs the operations of a blocking {@link Cache}, such as a {@link JavaxCache} backed
+ * by a remote cache, on an executor. The blocking operations remain available so that it may be used anywhere a
+ * {@link Cache} is accepted. A get rejected by the executor completes as a miss and a rejected put fails with a
+ * {@link CacheException} so that a saturated cache never holds up or queues behind the caller.
+ */
+public class ExecutorAsyncCache implements Cache, AsyncCache {
+    /**
+     * Default number of threads performing cache operations when no executor is provided
+     */
+    public static final int DEFAULT_THREADS = 4;
+
+    /**
+     * Default maximum number of cache operations waiting for a thread when no executor is provided
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 64;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+    private final Cache cache;
+    private final ExecutorService executor;
+
+    /**
+     * @param cache Blocking cache. Operations are performed on at most {@link #DEFAULT_THREADS} daemon threads with
+     * at most {@link #DEFAULT_QUEUE_SIZE} operations waiting.
+     */
+    public ExecutorAsyncCache(Cache cache) {
+        this(cache, newExecutorService(DEFAULT_THREADS, DEFAULT_QUEUE_SIZE));
+    }
+
+    /**
+     * @param cache Blocking cache
+     * @param executor Executor on which the cache operations are performed. It should have a bounded queue so that
+     * a slow cache results in rejected operations rather than an ever growing backlog.
+     */
+    public ExecutorAsyncCache(Cache cache, ExecutorService executor) {
+        this.cache = cache;
+        this.executor = executor;
+    }
+
+    /**
+     * Create a bounded pool of daemon threads suitable for performing cache operations. Idle threads are stopped
+     * after a minute and operations submitted while the queue is full are rejected.
+     *
+     * @param threads Maximum number of threads
+     * @param queueSize Maximum number of operations waiting for a thread
+     * @return Executor service which the caller is responsible for shutting down
+     */
+    public static ExecutorService newExecutorService(int threads, int queueSize) {
+        final int poolNumber = POOL_NUMBER.getAndIncrement();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable,
+                                "launchkey-cache-" + poolNumber + "-" + threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public String get(String key) throws CacheException {
+        return cache.get(key);
+    }
+
+    @Override
+    public void put(String key, String value) throws CacheException {
+        cache.put(key, value);
+    }
+
+    @Override
+    public Future<String> get(final String key, CacheCallback<String> callback) {
+        return submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                try {
+                    return cache.get(key);
+                } catch (RuntimeException e) {
+                    throw new CacheException("Cache error on get!", e);
+                }
+            }
+        }, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return null;
+            }
+        }, callback);
+    }
+
+    @Override
+    public Future<Void> put(final String key, final String value, CacheCallback<Void> callback) {
+        return submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                try {
+                    cache.put(key, value);
+                    return null;
+                } catch (RuntimeException e) {
+                    throw new CacheException("Cache error on put!", e);
+                }
+            }
+        }, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                throw new CacheException("Cache operation was rejected by the executor");
+            }
+        }, callback);
+    }
+
+    private <T> Future<T> submit(Callable<T> operation, Callable<T> rejected, CacheCallback<T> callback) {
+        CallbackFutureTask<T> task = new CallbackFutureTask<>(operation, callback);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task = new CallbackFutureTask<>(rejected, callback);
+            task.run();
+        }
+        return task;
+    }
+
+    static class CallbackFutureTask<T> extends FutureTask<T> {
+        private final CacheCallback<T> callback;
+
+        CallbackFutureTask(Callable<T> callable, CacheCallback<T> callback) {
+            super(callable);
+            this.callback = callback;
+        }
+
+        @Override
+        protected void done() {
+            if (callback == null || isCancelled()) return;
+            T result;
+            try {
+                result = get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                callback.failed(cause instanceof CacheException ?
+                        (CacheException) cause : new CacheException("Cache operation failed!", cause));
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            callback.completed(result);
+        }
+    }
+}
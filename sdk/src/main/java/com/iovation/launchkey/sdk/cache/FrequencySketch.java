@@ -0,0 +1,106 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+/**
+ * Count-min sketch of 4-bit counters estimating how often keys have been accessed. Each key maps to four counters
+ * and its frequency is the smallest of them. All counters are halved periodically so that the estimate reflects
+ * recent accesses rather than all accesses.
+ */
+class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedSize Expected number of distinct keys held by the cache
+     */
+    FrequencySketch(long expectedSize) {
+        int size = 16;
+        long target = Math.min(expectedSize, 1 << 20);
+        while (size < target) {
+            size <<= 1;
+        }
+        table = new long[size];
+        mask = size - 1;
+        sampleSize = 10 * size;
+    }
+
+    /**
+     * @param key Key
+     * @return Estimated number of recent accesses of the key. The maximum is 15.
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < SEEDS.length; i++) {
+            frequency = Math.min(frequency, count(hash, i));
+        }
+        return frequency;
+    }
+
+    /**
+     * Record an access of the key
+     *
+     * @param key Key
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            if (count(hash, i) < MAX_FREQUENCY) {
+                table[indexOf(hash, i)] += 1L << shift(hash, i);
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int count(int hash, int i) {
+        return (int) ((table[indexOf(hash, i)] >>> shift(hash, i)) & 0xFL);
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    /**
+     * Bit offset of the counter for the hash and function within its 64-bit table entry of 16 counters
+     */
+    private static int shift(int hash, int i) {
+        return ((hash >>> (i << 3)) & 0xF) << 2;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
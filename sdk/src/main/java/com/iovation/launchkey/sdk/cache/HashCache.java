@@ -12,13 +12,44 @@
 
 package com.iovation.launchkey.sdk.cache;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-public class HashCache implements Cache {
-    private final ConcurrentHashMap<String, String> store;
+/**
+ * In-process cache of strings backed by a {@link BoundedCache}. The number of entries is bounded and entries expire,
+ * so memory use does not grow with the number of distinct keys seen over the life of the process.
+ */
+public class HashCache implements Cache, TypedCache<String, String> {
+    /**
+     * Default maximum number of entries
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    /**
+     * Default number of seconds an entry lives
+     */
+    public static final int DEFAULT_TTL_SECONDS = 3600;
 
+    private final BoundedCache<String, String> store;
+
+    /**
+     * Create a cache with the {@link #DEFAULT_MAXIMUM_SIZE} and {@link #DEFAULT_TTL_SECONDS}
+     */
     public HashCache() {
-        store = new ConcurrentHashMap<>();
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TTL_SECONDS);
+    }
+
+    /**
+     * @param maximumSize Maximum number of entries
+     * @param ttlSeconds Number of seconds an entry lives when stored without a specific time to live. Zero or less
+     * means entries do not expire.
+     * @throws IllegalArgumentException When maximumSize is less than one
+     */
+    public HashCache(int maximumSize, int ttlSeconds) throws IllegalArgumentException {
+        this(new BoundedCache<String, String>(maximumSize, ttlSeconds, TimeUnit.SECONDS));
+    }
+
+    HashCache(BoundedCache<String, String> store) {
+        this.store = store;
     }
 
     @Override
@@ -38,4 +69,27 @@ public class HashCache implements Cache {
             throw new CacheException("Cache error on put!", e);
         }
     }
+
+    @Override
+    public void put(String key, String value, long ttl, TimeUnit unit) throws CacheException {
+        try {
+            store.put(key, value, ttl, unit);
+        } catch (Exception e) {
+            throw new CacheException("Cache error on put!", e);
+        }
+    }
+
+    @Override
+    public void remove(String key) throws CacheException {
+        try {
+            store.remove(key);
+        } catch (Exception e) {
+            throw new CacheException("Cache error on remove!", e);
+        }
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return store.getStats();
+    }
 }
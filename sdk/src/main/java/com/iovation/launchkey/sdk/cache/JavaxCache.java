@@ -12,8 +12,29 @@
 
 package com.iovation.launchkey.sdk.cache;
 
-public class JavaxCache implements Cache {
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of strings backed by a JCache (JSR-107) cache. Bounds, expiration, and eviction are those configured for the
+ * JCache cache. JCache has no per entry time to live, so the time to live passed to
+ * {@link #put(String, String, long, TimeUnit)} is NOT applied and entries are stored with the expiry policy of the
+ * cache. A warning is logged the first time a time to live is ignored. Configure the expiry policy of the JCache cache
+ * to be no longer than the shortest time to live used with it, e.g. the current public key TTL of the
+ * {@link com.iovation.launchkey.sdk.FactoryFactoryBuilder}, so that entries are not used after they should have
+ * expired. Hits and misses are counted by this adapter. Evictions are performed by the JCache provider and are
+ * available from its statistics rather than from {@link #getStats()}.
+ */
+public class JavaxCache implements Cache, TypedCache<String, String> {
     private final javax.cache.Cache<String, String> store;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicBoolean ignoredTTLLogged = new AtomicBoolean();
+    private final Log log = LogFactory.getLog(getClass());
 
     public JavaxCache(javax.cache.Cache<String, String> store) {
         this.store = store;
@@ -21,11 +42,18 @@ public class JavaxCache implements Cache {
 
     @Override
     public String get(String key) throws CacheException {
+        String value;
         try {
-            return store.get(key);
+            value = store.get(key);
         } catch (Exception e) {
             throw new CacheException("Cache error on get!", e);
         }
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return value;
     }
 
     @Override
@@ -36,4 +64,31 @@ public class JavaxCache implements Cache {
             throw new CacheException("Cache error on put!", e);
         }
     }
+
+    /**
+     * Store the value for the key with the expiry policy of the JCache cache. The time to live is not applied and a
+     * warning is logged the first time a time to live is ignored.
+     */
+    @Override
+    public void put(String key, String value, long ttl, TimeUnit unit) throws CacheException {
+        put(key, value);
+        if (ttl > 0 && !ignoredTTLLogged.get() && ignoredTTLLogged.compareAndSet(false, true)) {
+            log.warn("JCache does not support a per entry time to live. Entries are stored with the expiry policy " +
+                    "of the JCache cache which should be no longer than " + unit.toSeconds(ttl) + " seconds.");
+        }
+    }
+
+    @Override
+    public void remove(String key) throws CacheException {
+        try {
+            store.remove(key);
+        } catch (Exception e) {
+            throw new CacheException("Cache error on remove!", e);
+        }
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.get(), missCount.get(), 0L);
+    }
 }
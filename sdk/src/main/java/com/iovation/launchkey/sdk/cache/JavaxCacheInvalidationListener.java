@@ -0,0 +1,85 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+
+/**
+ * JCache listener which invalidates the near cache of a {@link TieredCache} when entries in the shared JCache cache
+ * are updated, removed, or expire. Events are delivered asynchronously by the JCache provider. Register it with
+ * {@link #register(javax.cache.Cache, TieredCache)}.
+ * <p>
+ * JCache events do not identify the node which made the change, so an update is ignored when the near cache already
+ * holds the updated value. This keeps the writes of this process, which go to both tiers, from evicting the entries
+ * they just wrote. Removals and expiries always invalidate the entry.
+ */
+public class JavaxCacheInvalidationListener implements CacheEntryUpdatedListener<String, String>,
+        CacheEntryRemovedListener<String, String>, CacheEntryExpiredListener<String, String> {
+    private final TieredCache tieredCache;
+
+    /**
+     * @param tieredCache Tiered cache whose near cache is invalidated
+     */
+    public JavaxCacheInvalidationListener(TieredCache tieredCache) {
+        this.tieredCache = tieredCache;
+    }
+
+    /**
+     * Register a listener on the JCache cache which invalidates the near cache of the tiered cache
+     *
+     * @param store JCache cache which is the shared cache of the tiered cache
+     * @param tieredCache Tiered cache whose near cache is invalidated
+     * @return Configuration of the registered listener which may be used to deregister it with
+     * {@link javax.cache.Cache#deregisterCacheEntryListener(CacheEntryListenerConfiguration)}
+     */
+    public static CacheEntryListenerConfiguration<String, String> register(
+            javax.cache.Cache<String, String> store, TieredCache tieredCache) {
+        CacheEntryListenerConfiguration<String, String> configuration =
+                new MutableCacheEntryListenerConfiguration<>(
+                        new FactoryBuilder.SingletonFactory<CacheEntryListener<? super String, ? super String>>(
+                                new JavaxCacheInvalidationListener(tieredCache)),
+                        null, false, false);
+        store.registerCacheEntryListener(configuration);
+        return configuration;
+    }
+
+    @Override
+    public void onUpdated(Iterable<CacheEntryEvent<? extends String, ? extends String>> events) {
+        for (CacheEntryEvent<? extends String, ? extends String> event : events) {
+            tieredCache.invalidate(event.getKey(), event.getValue());
+        }
+    }
+
+    @Override
+    public void onRemoved(Iterable<CacheEntryEvent<? extends String, ? extends String>> events) {
+        invalidate(events);
+    }
+
+    @Override
+    public void onExpired(Iterable<CacheEntryEvent<? extends String, ? extends String>> events) {
+        invalidate(events);
+    }
+
+    private void invalidate(Iterable<CacheEntryEvent<? extends String, ? extends String>> events) {
+        for (CacheEntryEvent<? extends String, ? extends String> event : events) {
+            tieredCache.invalidate(event.getKey());
+        }
+    }
+}
@@ -0,0 +1,425 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache persisted in a memory-mapped file so that its entries survive restarts of the JVM. One JVM on a host may open
+ * the file for writing while others open it read-only and share its entries. Writes from multiple JVMs are serialized
+ * with a file lock. Read-only caches ignore puts and removes.
+ * <p>
+ * The file holds a header with a sequence number followed by a snapshot of all entries. Writers replace the snapshot
+ * while holding an exclusive lock on the file and readers read it while holding a shared lock, so a reader never sees
+ * a partially written snapshot. Readers only parse the snapshot when the sequence has changed since their last read.
+ * If a writer holds the lock when the snapshot must be read, the lookup is a miss rather than waiting. When the file
+ * is full, the entries which expire soonest are evicted.
+ * <p>
+ * The file is created readable and writable only by its owner as it may hold the Platform API state.
+ */
+public class MappedFileCache implements Cache, TypedCache<String, String>, Closeable {
+    /**
+     * Default size in bytes of the file
+     */
+    public static final int DEFAULT_SIZE = 256 * 1024;
+
+    private static final int MAGIC = 0x4C4B4D43;
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int LENGTH_OFFSET = 16;
+    private static final int HEADER_SIZE = 20;
+    private static final long NO_EXPIRY = 0L;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean readOnly;
+    private final long defaultTTLMillis;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(-1L, Collections.<String, Entry>emptyMap());
+
+    /**
+     * Open the file for reading and writing with a size of {@link #DEFAULT_SIZE}. Entries stored without a specific
+     * time to live do not expire.
+     *
+     * @param file File which will be created if it does not exist
+     * @throws CacheException When the file cannot be opened or is not a cache file
+     */
+    public MappedFileCache(File file) throws CacheException {
+        this(file, DEFAULT_SIZE, 0, TimeUnit.SECONDS, false);
+    }
+
+    /**
+     * @param file File. It will be created if it does not exist and the cache is not read-only.
+     * @param size Size in bytes of the file when it is created. Existing files keep their size.
+     * @param defaultTTL Time to live of entries stored without a specific time to live. Zero or less means entries do
+     * not expire.
+     * @param unit Unit of defaultTTL
+     * @param readOnly Open the file read-only. Puts and removes will be ignored.
+     * @throws CacheException When the file cannot be opened or is not a cache file
+     * @throws IllegalArgumentException When size is not larger than the header
+     */
+    public MappedFileCache(File file, int size, long defaultTTL, TimeUnit unit, boolean readOnly)
+            throws CacheException, IllegalArgumentException {
+        if (size <= HEADER_SIZE) throw new IllegalArgumentException("size must be greater than " + HEADER_SIZE);
+        this.readOnly = readOnly;
+        this.defaultTTLMillis = defaultTTL > 0 ? unit.toMillis(defaultTTL) : 0L;
+        try {
+            if (!readOnly && !file.exists()) {
+                createOwnerOnly(file);
+            }
+            this.file = new RandomAccessFile(file, readOnly ? "r" : "rw");
+        } catch (IOException e) {
+            throw new CacheException("Unable to open cache file " + file, e);
+        }
+        try {
+            channel = this.file.getChannel();
+            if (readOnly) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+                    throw new CacheException("File " + file + " is not a cache file");
+                }
+            } else {
+                FileLock lock = channel.lock();
+                try {
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+                    initialize(file);
+                } finally {
+                    lock.release();
+                }
+            }
+            if (buffer.getInt(VERSION_OFFSET) != FORMAT_VERSION) {
+                throw new CacheException("Unsupported cache file format version in " + file);
+            }
+        } catch (IOException | CacheException e) {
+            closeQuietly();
+            throw e instanceof CacheException ? (CacheException) e
+                    : new CacheException("Unable to map cache file " + file, e);
+        }
+    }
+
+    private static void createOwnerOnly(File file) throws IOException {
+        Path path = file.toPath();
+        try {
+            if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.createFile(path, PosixFilePermissions.asFileAttribute(
+                        EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)));
+            } else {
+                Files.createFile(path);
+                file.setReadable(false, false);
+                file.setReadable(true, true);
+                file.setWritable(false, false);
+                file.setWritable(true, true);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // Created by another process since it was checked, which keeps the permissions it was created with
+        }
+    }
+
+    private void initialize(File path) throws CacheException {
+        int magic = buffer.getInt(MAGIC_OFFSET);
+        if (magic == 0) {
+            buffer.putInt(VERSION_OFFSET, FORMAT_VERSION);
+            buffer.putLong(SEQUENCE_OFFSET, 0L);
+            buffer.putInt(LENGTH_OFFSET, 0);
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+        } else if (magic != MAGIC) {
+            throw new CacheException("File " + path + " is not a cache file");
+        } else if ((buffer.getLong(SEQUENCE_OFFSET) & 1L) == 1L) {
+            // A writer stopped while replacing the snapshot, which may be incomplete
+            buffer.putInt(LENGTH_OFFSET, 0);
+            buffer.putLong(SEQUENCE_OFFSET, buffer.getLong(SEQUENCE_OFFSET) + 1L);
+        }
+    }
+
+    @Override
+    public String get(String key) throws CacheException {
+        Snapshot current = getSnapshot();
+        Entry entry = current == null ? null : current.entries.get(key);
+        if (entry == null || entry.isExpired(currentTimeMillis())) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.value;
+    }
+
+    @Override
+    public void put(String key, String value) throws CacheException {
+        put(key, value, defaultTTLMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void put(String key, String value, long ttl, TimeUnit unit) throws CacheException {
+        if (key == null || value == null) throw new NullPointerException("key and value are required");
+        long expires = ttl > 0 ? currentTimeMillis() + unit.toMillis(ttl) : NO_EXPIRY;
+        update(key, new Entry(value, expires));
+    }
+
+    @Override
+    public void remove(String key) throws CacheException {
+        update(key, null);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.get(), missCount.get(), evictionCount.get());
+    }
+
+    /**
+     * @return Is the cache read-only
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Close the file. The cache may not be used afterwards.
+     *
+     * @throws IOException When the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * @return The current snapshot or null when it has changed and cannot be read as a writer holds the lock
+     */
+    private Snapshot getSnapshot() throws CacheException {
+        Snapshot current = snapshot;
+        // A stale sequence only means the previous snapshot, which is complete, is returned until the next read
+        if (current.sequence == buffer.getLong(SEQUENCE_OFFSET)) {
+            return current;
+        }
+        synchronized (this) {
+            FileLock lock = null;
+            try {
+                lock = channel.tryLock(0L, Long.MAX_VALUE, true);
+                return lock == null ? null : readSnapshot();
+            } catch (IOException | OverlappingFileLockException e) {
+                // The lock is held by another cache for the file in this JVM or cannot be taken
+                return null;
+            } finally {
+                release(lock);
+            }
+        }
+    }
+
+    /**
+     * Read the snapshot from the file. The caller must hold a lock on the file.
+     */
+    private Snapshot readSnapshot() throws CacheException {
+        long sequence = buffer.getLong(SEQUENCE_OFFSET);
+        if (sequence == snapshot.sequence) {
+            return snapshot;
+        }
+        if ((sequence & 1L) == 1L) {
+            // A writer stopped while replacing the snapshot, which may be incomplete
+            return new Snapshot(sequence, Collections.<String, Entry>emptyMap());
+        }
+        int length = buffer.getInt(LENGTH_OFFSET);
+        if (length < 0 || length > buffer.capacity() - HEADER_SIZE) {
+            throw new CacheException("Cache file is corrupt");
+        }
+        byte[] data = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(HEADER_SIZE);
+        view.get(data);
+        snapshot = new Snapshot(sequence, decode(data));
+        return snapshot;
+    }
+
+    private synchronized void update(String key, Entry entry) throws CacheException {
+        if (readOnly) {
+            return;
+        }
+        FileLock lock = null;
+        try {
+            lock = channel.lock();
+            long now = currentTimeMillis();
+            Map<String, Entry> entries = new HashMap<>();
+            for (Map.Entry<String, Entry> existing : readSnapshot().entries.entrySet()) {
+                if (!existing.getValue().isExpired(now)) {
+                    entries.put(existing.getKey(), existing.getValue());
+                }
+            }
+            if (entry == null) {
+                entries.remove(key);
+            } else {
+                entries.put(key, entry);
+            }
+            byte[] data = encode(entries, key);
+            long sequence = buffer.getLong(SEQUENCE_OFFSET) | 1L;
+            // Odd while the snapshot is replaced so that a writer which stops part way is detected
+            buffer.putLong(SEQUENCE_OFFSET, sequence);
+            buffer.position(HEADER_SIZE);
+            buffer.put(data);
+            buffer.putInt(LENGTH_OFFSET, data.length);
+            buffer.putLong(SEQUENCE_OFFSET, sequence + 1L);
+            snapshot = new Snapshot(sequence + 1L, entries);
+        } catch (IOException | OverlappingFileLockException e) {
+            throw new CacheException("Unable to write to the cache file", e);
+        } finally {
+            release(lock);
+        }
+    }
+
+    private static void release(FileLock lock) {
+        if (lock != null) {
+            try {
+                lock.release();
+            } catch (IOException e) {
+                // The lock is released when the channel is closed
+            }
+        }
+    }
+
+    /**
+     * Encode the entries evicting those which expire soonest, other than the entry for the key being stored, until
+     * they fit in the file
+     */
+    private byte[] encode(Map<String, Entry> entries, String storedKey) throws CacheException {
+        int capacity = buffer.capacity() - HEADER_SIZE;
+        List<Map.Entry<String, Entry>> ordered = new ArrayList<>(entries.entrySet());
+        Collections.sort(ordered, new Comparator<Map.Entry<String, Entry>>() {
+            @Override
+            public int compare(Map.Entry<String, Entry> a, Map.Entry<String, Entry> b) {
+                return Long.compare(expiryOrder(b.getValue()), expiryOrder(a.getValue()));
+            }
+        });
+        List<byte[]> encoded = new ArrayList<>(ordered.size());
+        int length = 0;
+        for (Map.Entry<String, Entry> entry : ordered) {
+            byte[] bytes = encode(entry.getKey(), entry.getValue());
+            encoded.add(bytes);
+            length += bytes.length;
+        }
+        while (length > capacity) {
+            int index = encoded.size() - 1;
+            while (index >= 0 && ordered.get(index).getKey().equals(storedKey)) {
+                index--;
+            }
+            if (index < 0) {
+                throw new CacheException("Entry for " + storedKey + " is too large for the cache file");
+            }
+            length -= encoded.remove(index).length;
+            entries.remove(ordered.remove(index).getKey());
+            evictionCount.incrementAndGet();
+        }
+        ByteBuffer data = ByteBuffer.allocate(length);
+        for (byte[] bytes : encoded) {
+            data.put(bytes);
+        }
+        return data.array();
+    }
+
+    private static long expiryOrder(Entry entry) {
+        return entry.expires == NO_EXPIRY ? Long.MAX_VALUE : entry.expires;
+    }
+
+    private static byte[] encode(String key, Entry entry) {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        byte[] valueBytes = entry.value.getBytes(UTF_8);
+        return ByteBuffer.allocate(4 + keyBytes.length + 4 + valueBytes.length + 8)
+                .putInt(keyBytes.length).put(keyBytes)
+                .putInt(valueBytes.length).put(valueBytes)
+                .putLong(entry.expires)
+                .array();
+    }
+
+    private static Map<String, Entry> decode(byte[] data) throws CacheException {
+        Map<String, Entry> entries = new HashMap<>();
+        ByteBuffer input = ByteBuffer.wrap(data);
+        try {
+            while (input.hasRemaining()) {
+                String key = readString(input);
+                String value = readString(input);
+                entries.put(key, new Entry(value, input.getLong()));
+            }
+        } catch (RuntimeException e) {
+            throw new CacheException("Cache file is corrupt", e);
+        }
+        return entries;
+    }
+
+    private static String readString(ByteBuffer input) {
+        byte[] bytes = new byte[input.getInt()];
+        input.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private void closeQuietly() {
+        try {
+            file.close();
+        } catch (IOException e) {
+            // Nothing further can be done
+        }
+    }
+
+    private static class Snapshot {
+        private final long sequence;
+        private final Map<String, Entry> entries;
+
+        private Snapshot(long sequence, Map<String, Entry> entries) {
+            this.sequence = sequence;
+            this.entries = entries;
+        }
+    }
+
+    private static class Entry {
+        private final String value;
+        private final long expires;
+
+        private Entry(String value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+
+        private boolean isExpired(long now) {
+            return expires != NO_EXPIRY && expires <= now;
+        }
+    }
+}
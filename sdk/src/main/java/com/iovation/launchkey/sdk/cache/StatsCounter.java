@@ -0,0 +1,112 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe, lock free counters from which {@link CacheStats} snapshots are taken. Recording never blocks so it may
+ * be performed on the read path of a cache.
+ */
+public class StatsCounter {
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong loadSuccessCount = new AtomicLong();
+    private final AtomicLong loadFailureCount = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+    private final AtomicLong maxLoadTime = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong refreshFailureCount = new AtomicLong();
+    private final AtomicLongArray loadLatencyBucketCounts = new AtomicLongArray(CacheStats.LOAD_LATENCY_BUCKETS);
+
+    /**
+     * Record a lookup which returned a cached value
+     */
+    public void recordHit() {
+        hitCount.incrementAndGet();
+    }
+
+    /**
+     * Record a lookup which did not find a cached value
+     */
+    public void recordMiss() {
+        missCount.incrementAndGet();
+    }
+
+    /**
+     * Record a value removed to stay within the maximum size or because it expired
+     */
+    public void recordEviction() {
+        evictionCount.incrementAndGet();
+    }
+
+    /**
+     * @param nanos Time in nanoseconds taken by a successful load
+     */
+    public void recordLoadSuccess(long nanos) {
+        loadSuccessCount.incrementAndGet();
+        recordLoadTime(nanos);
+    }
+
+    /**
+     * @param nanos Time in nanoseconds taken by a failed load
+     */
+    public void recordLoadFailure(long nanos) {
+        loadFailureCount.incrementAndGet();
+        recordLoadTime(nanos);
+    }
+
+    /**
+     * Record an existing value replaced by a newly loaded value
+     */
+    public void recordRefresh() {
+        refreshCount.incrementAndGet();
+    }
+
+    /**
+     * Record a failed refresh after which the existing value continues to be used
+     */
+    public void recordRefreshFailure() {
+        refreshFailureCount.incrementAndGet();
+    }
+
+    /**
+     * @return Snapshot of the counters. Counters recorded while the snapshot is taken may or may not be included.
+     */
+    public CacheStats snapshot() {
+        long[] buckets = new long[CacheStats.LOAD_LATENCY_BUCKETS];
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            buckets[bucket] = loadLatencyBucketCounts.get(bucket);
+        }
+        return new CacheStats(hitCount.get(), missCount.get(), evictionCount.get(), loadSuccessCount.get(),
+                loadFailureCount.get(), totalLoadTime.get(), maxLoadTime.get(), refreshCount.get(),
+                refreshFailureCount.get(), buckets);
+    }
+
+    private void recordLoadTime(long nanos) {
+        long latency = Math.max(0L, nanos);
+        loadLatencyBucketCounts.incrementAndGet(CacheStats.getLoadLatencyBucket(latency));
+        totalLoadTime.addAndGet(latency);
+        long max = maxLoadTime.get();
+        while (latency > max && !maxLoadTime.compareAndSet(max, latency)) {
+            max = maxLoadTime.get();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StatsCounter{" + snapshot() + '}';
+    }
+}
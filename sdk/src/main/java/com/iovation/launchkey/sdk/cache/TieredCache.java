@@ -0,0 +1,265 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two tier cache with a bounded in-process near cache in front of a shared cache such as a {@link JavaxCache}. Reads
+ * are served from the near cache when possible and otherwise read through to the shared cache, filling the near
+ * cache. Writes go to both tiers. Near cache entries live no longer than the near cache time to live. Changes made to
+ * the shared cache by other processes can be applied sooner with a {@link JavaxCacheInvalidationListener}.
+ * <p>
+ * The non-blocking {@link AsyncCache} operations are served from the near cache when possible and otherwise use the
+ * shared cache's {@link AsyncCache} operations when it has them. When it does not, such as a plain
+ * {@link JavaxCache}, they read and write the shared cache on the calling thread, so wrap it in an
+ * {@link ExecutorAsyncCache} to keep them from blocking.
+ * <p>
+ * This is not intended as the SDK key cache. The transport already holds the API public keys it reads in process, so
+ * when a TieredCache is set as the key cache the transport reads and writes its shared cache directly and the near
+ * cache has no effect. Set the shared cache, or an {@link ExecutorAsyncCache} wrapping it, as the key cache instead.
+ */
+public class TieredCache implements Cache, TypedCache<String, String>, AsyncCache {
+    /**
+     * Default maximum number of entries in the near cache
+     */
+    public static final int DEFAULT_NEAR_CACHE_MAXIMUM_SIZE = 1000;
+
+    /**
+     * Default number of seconds an entry lives in the near cache
+     */
+    public static final int DEFAULT_NEAR_CACHE_TTL_SECONDS = 300;
+
+    private final BoundedCache<String, String> nearCache;
+    private final Cache sharedCache;
+    private final long nearCacheTTLMillis;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Create a cache with a near cache of {@link #DEFAULT_NEAR_CACHE_MAXIMUM_SIZE} entries which live for
+     * {@link #DEFAULT_NEAR_CACHE_TTL_SECONDS}
+     *
+     * @param sharedCache Shared cache
+     */
+    public TieredCache(Cache sharedCache) {
+        this(sharedCache, DEFAULT_NEAR_CACHE_MAXIMUM_SIZE, DEFAULT_NEAR_CACHE_TTL_SECONDS);
+    }
+
+    /**
+     * @param sharedCache Shared cache
+     * @param nearCacheMaximumSize Maximum number of entries in the near cache
+     * @param nearCacheTTLSeconds Number of seconds an entry lives in the near cache. This bounds how long a value
+     * changed in the shared cache by another process may be returned. Zero or less means entries do not expire.
+     * @throws IllegalArgumentException When nearCacheMaximumSize is less than one
+     */
+    public TieredCache(Cache sharedCache, int nearCacheMaximumSize, int nearCacheTTLSeconds)
+            throws IllegalArgumentException {
+        this(new BoundedCache<String, String>(nearCacheMaximumSize, nearCacheTTLSeconds, TimeUnit.SECONDS),
+                sharedCache, nearCacheTTLSeconds > 0 ? TimeUnit.SECONDS.toMillis(nearCacheTTLSeconds) : 0);
+    }
+
+    TieredCache(BoundedCache<String, String> nearCache, Cache sharedCache, long nearCacheTTLMillis) {
+        this.nearCache = nearCache;
+        this.sharedCache = sharedCache;
+        this.nearCacheTTLMillis = nearCacheTTLMillis;
+    }
+
+    @Override
+    public String get(String key) throws CacheException {
+        String value = nearCache.get(key);
+        if (value == null) {
+            return readThrough(key);
+        }
+        hitCount.incrementAndGet();
+        return value;
+    }
+
+    /**
+     * Get the value from the near cache or, when it is not there, from the shared cache and fill the near cache
+     */
+    @Override
+    public Future<String> get(final String key, final CacheCallback<String> callback) {
+        String value = nearCache.get(key);
+        if (value != null) {
+            hitCount.incrementAndGet();
+            return run(constant(value), callback);
+        }
+        if (sharedCache instanceof AsyncCache) {
+            return ((AsyncCache) sharedCache).get(key, new CacheCallback<String>() {
+                @Override
+                public void completed(String result) {
+                    if (result == null) {
+                        missCount.incrementAndGet();
+                    } else {
+                        nearCache.put(key, result);
+                        hitCount.incrementAndGet();
+                    }
+                    if (callback != null) callback.completed(result);
+                }
+
+                @Override
+                public void failed(CacheException e) {
+                    missCount.incrementAndGet();
+                    if (callback != null) callback.failed(e);
+                }
+            });
+        }
+        return run(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                try {
+                    return readThrough(key);
+                } catch (RuntimeException e) {
+                    throw new CacheException("Cache error on get!", e);
+                }
+            }
+        }, callback);
+    }
+
+    /**
+     * Store the value in the near cache and the shared cache. The value remains in the near cache when the shared
+     * cache fails.
+     */
+    @Override
+    public Future<Void> put(final String key, final String value, CacheCallback<Void> callback) {
+        if (sharedCache instanceof AsyncCache) {
+            nearCache.put(key, value);
+            return ((AsyncCache) sharedCache).put(key, value, callback);
+        }
+        return run(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                try {
+                    put(key, value);
+                    return null;
+                } catch (RuntimeException e) {
+                    throw new CacheException("Cache error on put!", e);
+                }
+            }
+        }, callback);
+    }
+
+    /**
+     * Store the value in the near cache and the shared cache. The value remains in the near cache when the shared
+     * cache fails.
+     */
+    @Override
+    public void put(String key, String value) throws CacheException {
+        nearCache.put(key, value);
+        sharedCache.put(key, value);
+    }
+
+    /**
+     * Store the value in the near cache and the shared cache. The near cache entry lives for the lesser of the time to
+     * live and the near cache time to live. The time to live is applied to the shared cache when it is a
+     * {@link TypedCache}.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void put(String key, String value, long ttl, TimeUnit unit) throws CacheException {
+        long ttlMillis = ttl > 0 ? unit.toMillis(ttl) : 0;
+        if (nearCacheTTLMillis > 0 && (ttlMillis <= 0 || ttlMillis > nearCacheTTLMillis)) {
+            ttlMillis = nearCacheTTLMillis;
+        }
+        nearCache.put(key, value, ttlMillis, TimeUnit.MILLISECONDS);
+        if (sharedCache instanceof TypedCache) {
+            ((TypedCache<String, String>) sharedCache).put(key, value, ttl, unit);
+        } else {
+            sharedCache.put(key, value);
+        }
+    }
+
+    /**
+     * Remove the entry from the near cache and, when it is a {@link TypedCache}, the shared cache
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void remove(String key) throws CacheException {
+        nearCache.remove(key);
+        if (sharedCache instanceof TypedCache) {
+            ((TypedCache<String, String>) sharedCache).remove(key);
+        }
+    }
+
+    /**
+     * Remove the entry from the near cache only. The next read of the key will read through to the shared cache.
+     *
+     * @param key Key of the entry
+     */
+    public void invalidate(String key) {
+        nearCache.remove(key);
+    }
+
+    /**
+     * Remove the entry from the near cache unless it already holds the value, as it does after this process wrote the
+     * value to both tiers
+     *
+     * @param key Key of the entry
+     * @param value Value now in the shared cache or null if it is not known
+     */
+    public void invalidate(String key, String value) {
+        nearCache.removeIfDifferent(key, value);
+    }
+
+    /**
+     * @return Shared cache behind the near cache
+     */
+    public Cache getSharedCache() {
+        return sharedCache;
+    }
+
+    /**
+     * @return Statistics for reads from either tier. Evictions are those from the near cache.
+     */
+    @Override
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.get(), missCount.get(), nearCache.getStats().getEvictionCount());
+    }
+
+    /**
+     * @return Statistics for the near cache alone
+     */
+    public CacheStats getNearCacheStats() {
+        return nearCache.getStats();
+    }
+
+    private String readThrough(String key) throws CacheException {
+        String value = sharedCache.get(key);
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            nearCache.put(key, value);
+            hitCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    private static <T> Future<T> run(Callable<T> operation, CacheCallback<T> callback) {
+        ExecutorAsyncCache.CallbackFutureTask<T> task = new ExecutorAsyncCache.CallbackFutureTask<>(operation, callback);
+        task.run();
+        return task;
+    }
+
+    private static <T> Callable<T> constant(final T value) {
+        return new Callable<T>() {
+            @Override
+            public T call() {
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of typed values with per entry expiration and statistics
+ *
+ * @param <K> Type of the keys
+ * @param <V> Type of the values
+ */
+public interface TypedCache<K, V> {
+    /**
+     * @param key Key of the entry
+     * @return The value or null if there is no entry for the key or it has expired
+     * @throws CacheException When the cache cannot read from its persistence provider
+     */
+    V get(K key) throws CacheException;
+
+    /**
+     * Store the value for the key with the default time to live of the cache
+     *
+     * @param key Key of the entry
+     * @param value Value of the entry
+     * @throws CacheException When the cache cannot write to its persistence provider
+     */
+    void put(K key, V value) throws CacheException;
+
+    /**
+     * Store the value for the key with a specific time to live. Implementations backed by a store which only supports
+     * its own expiration, such as {@link JavaxCache}, document that the time to live is not applied.
+     *
+     * @param key Key of the entry
+     * @param value Value of the entry
+     * @param ttl Time the entry will live. Zero or less means the entry does not expire.
+     * @param unit Unit of the time to live
+     * @throws CacheException When the cache cannot write to its persistence provider
+     */
+    void put(K key, V value, long ttl, TimeUnit unit) throws CacheException;
+
+    /**
+     * Remove the entry for the key if one exists
+     *
+     * @param key Key of the entry
+     * @throws CacheException When the cache cannot write to its persistence provider
+     */
+    void remove(K key) throws CacheException;
+
+    /**
+     * @return Snapshot of the statistics for the cache
+     */
+    CacheStats getStats();
+}
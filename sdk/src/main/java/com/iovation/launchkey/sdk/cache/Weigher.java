@@ -0,0 +1,28 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+/**
+ * Calculates the weight of a cache entry for caches bounded by a maximum weight
+ *
+ * @param <K> Type of the keys
+ * @param <V> Type of the values
+ */
+public interface Weigher<K, V> {
+    /**
+     * @param key Key of the entry
+     * @param value Value of the entry
+     * @return Weight of the entry. Must not be negative.
+     */
+    int weigh(K key, V value);
+}
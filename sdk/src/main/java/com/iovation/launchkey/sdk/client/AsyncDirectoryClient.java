@@ -0,0 +1,92 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.directory.Device;
+import com.iovation.launchkey.sdk.domain.directory.DirectoryUserDeviceLinkData;
+import com.iovation.launchkey.sdk.domain.directory.Session;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking variant of the End User management calls of {@link DirectoryClient}. Each method returns immediately
+ * with a {@link Future} for the result. When the call fails, the exception documented on the corresponding
+ * {@link DirectoryClient} method is the cause of the {@link java.util.concurrent.ExecutionException} thrown by
+ * {@link Future#get()} and is provided to {@link FutureCallback#failed(Exception)}. Callbacks are optional and may
+ * be null. They are executed on the thread which completes the call and should not block.
+ */
+public interface AsyncDirectoryClient {
+    /**
+     * Begin the process of Linking a Subscriber Authenticator Device with an End User based on the Directory User ID.
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param callback Callback to execute when the call completes
+     * @return Future for the information for completing the Device Linking process
+     * @see DirectoryClient#linkDevice(String)
+     */
+    Future<DirectoryUserDeviceLinkData> linkDevice(String userId, FutureCallback<DirectoryUserDeviceLinkData> callback);
+
+    /**
+     * Begin the process of Linking a Subscriber Authenticator Device with an End User based on the Directory User ID.
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param ttl Number of seconds the linking code returned in the response will be valid
+     * @param callback Callback to execute when the call completes
+     * @return Future for the information for completing the Device Linking process
+     * @see DirectoryClient#linkDevice(String, Integer)
+     */
+    Future<DirectoryUserDeviceLinkData> linkDevice(
+            String userId, Integer ttl, FutureCallback<DirectoryUserDeviceLinkData> callback);
+
+    /**
+     * Get a list of Subscriber Authenticator Devices for a Directory User.
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param callback Callback to execute when the call completes
+     * @return Future for the list of devices
+     * @see DirectoryClient#getLinkedDevices(String)
+     */
+    Future<List<Device>> getLinkedDevices(String userId, FutureCallback<List<Device>> callback);
+
+    /**
+     * Unlink a users device
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param deviceId The unique identifier of the device
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the device has been unlinked
+     * @see DirectoryClient#unlinkDevice(String, String)
+     */
+    Future<Void> unlinkDevice(String userId, String deviceId, FutureCallback<Void> callback);
+
+    /**
+     * Get all existing Service Sessions for the End User.
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param callback Callback to execute when the call completes
+     * @return Future for the list of sessions
+     * @see DirectoryClient#getAllServiceSessions(String)
+     */
+    Future<List<Session>> getAllServiceSessions(String userId, FutureCallback<List<Session>> callback);
+
+    /**
+     * End all existing Service Sessions for the End User.
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the sessions have been ended
+     * @see DirectoryClient#endAllServiceSessions(String)
+     */
+    Future<Void> endAllServiceSessions(String userId, FutureCallback<Void> callback);
+}
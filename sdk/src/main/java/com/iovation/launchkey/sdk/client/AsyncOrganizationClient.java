@@ -0,0 +1,169 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.PublicKey;
+import com.iovation.launchkey.sdk.domain.organization.Directory;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.net.URI;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking variant of the Directory management calls of {@link OrganizationClient}. Each method returns
+ * immediately with a {@link Future} for the result. When the call fails, the exception documented on the
+ * corresponding {@link OrganizationClient} method is the cause of the
+ * {@link java.util.concurrent.ExecutionException} thrown by {@link Future#get()} and is provided to
+ * {@link FutureCallback#failed(Exception)}. Callbacks are optional and may be null. They are executed on the thread
+ * which completes the call and should not block.
+ */
+public interface AsyncOrganizationClient {
+    /**
+     * Create a new Directory
+     *
+     * @param name Name of the Directory
+     * @param callback Callback to execute when the call completes
+     * @return Future for the ID of the Directory created
+     * @see OrganizationClient#createDirectory(String)
+     */
+    Future<UUID> createDirectory(String name, FutureCallback<UUID> callback);
+
+    /**
+     * Update a Directory
+     *
+     * @param directoryId ID of the Directory to update
+     * @param active Should the Directory be active
+     * @param androidKey GCM push key
+     * @param iosP12 APNS push certificate in .P12 format that has been Base64 Encoded
+     * @param denialContextInquiryEnabled Should the user be prompted for denial context when they deny authorization
+     * requests for any and all child services.
+     * @param webhookUrl URL for Directory webhook endpoint
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the Directory has been updated
+     * @see OrganizationClient#updateDirectory(UUID, Boolean, String, String, Boolean, URI)
+     */
+    Future<Void> updateDirectory(UUID directoryId, Boolean active, String androidKey, String iosP12,
+                                 Boolean denialContextInquiryEnabled, URI webhookUrl, FutureCallback<Void> callback);
+
+    /**
+     * Get a Directory
+     *
+     * @param directoryId ID of the Directory to get
+     * @param callback Callback to execute when the call completes
+     * @return Future for the requested Directory
+     * @see OrganizationClient#getDirectory(UUID)
+     */
+    Future<Directory> getDirectory(UUID directoryId, FutureCallback<Directory> callback);
+
+    /**
+     * Get multiple Directories
+     *
+     * @param directoryIds List of unique identifiers of Directories to get
+     * @param callback Callback to execute when the call completes
+     * @return Future for the requested Directories
+     * @see OrganizationClient#getDirectories(List)
+     */
+    Future<List<Directory>> getDirectories(List<UUID> directoryIds, FutureCallback<List<Directory>> callback);
+
+    /**
+     * Get all Directories for the Organization
+     *
+     * @param callback Callback to execute when the call completes
+     * @return Future for the Directories
+     * @see OrganizationClient#getAllDirectories()
+     */
+    Future<List<Directory>> getAllDirectories(FutureCallback<List<Directory>> callback);
+
+    /**
+     * Generate and add an SDK key for a Directory
+     *
+     * @param directoryId ID of the Directory
+     * @param callback Callback to execute when the call completes
+     * @return Future for the generated SDK key
+     * @see OrganizationClient#generateAndAddDirectorySdkKey(UUID)
+     */
+    Future<UUID> generateAndAddDirectorySdkKey(UUID directoryId, FutureCallback<UUID> callback);
+
+    /**
+     * Remove an SDK key from a Directory
+     *
+     * @param directoryId ID of the Directory
+     * @param sdkKey SDK key to remove
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the SDK key has been removed
+     * @see OrganizationClient#removeDirectorySdkKey(UUID, UUID)
+     */
+    Future<Void> removeDirectorySdkKey(UUID directoryId, UUID sdkKey, FutureCallback<Void> callback);
+
+    /**
+     * Get all SDK keys for a Directory
+     *
+     * @param directoryId ID of the Directory
+     * @param callback Callback to execute when the call completes
+     * @return Future for the SDK keys
+     * @see OrganizationClient#getAllDirectorySdkKeys(UUID)
+     */
+    Future<List<UUID>> getAllDirectorySdkKeys(UUID directoryId, FutureCallback<List<UUID>> callback);
+
+    /**
+     * Get the public keys for a Directory
+     *
+     * @param directoryId ID of the Directory
+     * @param callback Callback to execute when the call completes
+     * @return Future for the public keys
+     * @see OrganizationClient#getDirectoryPublicKeys(UUID)
+     */
+    Future<List<PublicKey>> getDirectoryPublicKeys(UUID directoryId, FutureCallback<List<PublicKey>> callback);
+
+    /**
+     * Add a public key for a Directory
+     *
+     * @param directoryId ID of the Directory
+     * @param publicKey RSA public key to add
+     * @param active Will the key be active upon creation
+     * @param expires When will the key expire
+     * @param callback Callback to execute when the call completes
+     * @return Future for the key ID of the public key
+     * @see OrganizationClient#addDirectoryPublicKey(UUID, RSAPublicKey, Boolean, Date)
+     */
+    Future<String> addDirectoryPublicKey(UUID directoryId, RSAPublicKey publicKey, Boolean active, Date expires,
+                                         FutureCallback<String> callback);
+
+    /**
+     * Update a public key for a Directory
+     *
+     * @param directoryId ID of the Directory
+     * @param keyId ID of the key
+     * @param active Should the key be active
+     * @param expires When will the key expire
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the public key has been updated
+     * @see OrganizationClient#updateDirectoryPublicKey(UUID, String, Boolean, Date)
+     */
+    Future<Void> updateDirectoryPublicKey(UUID directoryId, String keyId, Boolean active, Date expires,
+                                          FutureCallback<Void> callback);
+
+    /**
+     * Remove a public key from a Directory
+     *
+     * @param directoryId ID of the Directory
+     * @param keyId ID of the key
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the public key has been removed
+     * @see OrganizationClient#removeDirectoryPublicKey(UUID, String)
+     */
+    Future<Void> removeDirectoryPublicKey(UUID directoryId, String keyId, FutureCallback<Void> callback);
+}
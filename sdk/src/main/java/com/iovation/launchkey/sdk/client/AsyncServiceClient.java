@@ -0,0 +1,145 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.*;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking variant of {@link ServiceClient}. Each method returns immediately with a {@link Future} for the
+ * result. When the call fails, the exception documented on the corresponding {@link ServiceClient} method is the
+ * cause of the {@link java.util.concurrent.ExecutionException} thrown by {@link Future#get()} and is provided to
+ * {@link FutureCallback#failed(Exception)}. Callbacks are optional and may be null. They are executed on the thread
+ * which completes the call and should not block.
+ */
+public interface AsyncServiceClient {
+    /**
+     * Create an authorization request for the provided user. This will NOT begin a user session.
+     *
+     * @param userIdentifier LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param context Arbitrary string of data up to 400 characters to be presented to the End User during
+     * authorization to provide context regarding the individual authorization request
+     * @param policy Authorization policy override for this authorization request
+     * @param title String of data up to 200 characters to be presented to the End User during
+     * authorization as the title of the individual authorization request
+     * @param ttl Time for this authorization request to be valid
+     * @param pushTitle Title for push notification
+     * @param pushBody Body of push notification
+     * @param denialReasons List of denial reasons to present to the user if they deny the request
+     * @param callback Callback to execute when the call completes
+     * @return Future for the information regarding the authorization request
+     * @see ServiceClient#createAuthorizationRequest(String, String, AuthPolicy, String, Integer, String, String, List)
+     */
+    Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, String context, AuthPolicy policy, String title, Integer ttl, String pushTitle,
+            String pushBody, List<DenialReason> denialReasons, FutureCallback<AuthorizationRequest> callback);
+
+    /**
+     * Create an authorization request for the provided user. This will NOT begin a user session.
+     *
+     * @param userIdentifier LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param context Arbitrary string of data up to 400 characters to be presented to the End User during
+     * authorization to provide context regarding the individual authorization request
+     * @param policy Authorization policy override for this authorization request
+     * @param title String of data up to 200 characters to be presented to the End User during
+     * authorization as the title of the individual authorization request
+     * @param ttl Time for this authorization request to be valid
+     * @param callback Callback to execute when the call completes
+     * @return Future for the information regarding the authorization request
+     * @see ServiceClient#createAuthorizationRequest(String, String, AuthPolicy, String, Integer)
+     */
+    Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, String context, AuthPolicy policy, String title, Integer ttl,
+            FutureCallback<AuthorizationRequest> callback);
+
+    /**
+     * Create an authorization request for the provided user. This will NOT begin a user session.
+     *
+     * @param userIdentifier LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param context Arbitrary string of data up to 400 characters to be presented to the End User during
+     * authorization to provide context regarding the individual authorization request
+     * @param policy Authorization policy override for this authorization request
+     * @param callback Callback to execute when the call completes
+     * @return Future for the information regarding the authorization request
+     * @see ServiceClient#createAuthorizationRequest(String, String, AuthPolicy)
+     */
+    Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, String context, AuthPolicy policy, FutureCallback<AuthorizationRequest> callback);
+
+    /**
+     * Create an authorization request for the provided user. This will NOT begin a user session.
+     *
+     * @param userIdentifier LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param callback Callback to execute when the call completes
+     * @return Future for the information regarding the authorization request
+     * @see ServiceClient#createAuthorizationRequest(String)
+     */
+    Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, FutureCallback<AuthorizationRequest> callback);
+
+    /**
+     * Cancel an authorization request.
+     *
+     * @param authorizationRequestId ID of the authorization request to cancel
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the authorization request has been cancelled
+     * @see ServiceClient#cancelAuthorizationRequest(String)
+     */
+    Future<Void> cancelAuthorizationRequest(String authorizationRequestId, FutureCallback<Void> callback);
+
+    /**
+     * Get the response for an authorization request. The future completes with null when the End User has not yet
+     * responded.
+     *
+     * @param authorizationRequestId Unique identifier returned by
+     * {@link #createAuthorizationRequest(String, FutureCallback)}
+     * @param callback Callback to execute when the call completes
+     * @return Future for the authorization response or null
+     * @see ServiceClient#getAdvancedAuthorizationResponse(String)
+     */
+    Future<AdvancedAuthorizationResponse> getAdvancedAuthorizationResponse(
+            String authorizationRequestId, FutureCallback<AdvancedAuthorizationResponse> callback);
+
+    /**
+     * Request to start a Service Session for the End User which was derived from an authorization request
+     *
+     * @param user LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param authorizationRequestId Unique identifier for the authorization request
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the session has been started
+     * @see ServiceClient#sessionStart(String, String)
+     */
+    Future<Void> sessionStart(String user, String authorizationRequestId, FutureCallback<Void> callback);
+
+    /**
+     * Request to start a Service Session for the End User
+     *
+     * @param user LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the session has been started
+     * @see ServiceClient#sessionStart(String)
+     */
+    Future<Void> sessionStart(String user, FutureCallback<Void> callback);
+
+    /**
+     * Request to end a Service Session for the End User
+     *
+     * @param user LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param callback Callback to execute when the call completes
+     * @return Future which completes when the session has been ended
+     * @see ServiceClient#sessionEnd(String)
+     */
+    Future<Void> sessionEnd(String user, FutureCallback<Void> callback);
+}
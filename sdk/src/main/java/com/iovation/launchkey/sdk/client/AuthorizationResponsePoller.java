@@ -0,0 +1,427 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AdvancedAuthorizationResponse;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestCanceled;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.io.Closeable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Waits for the End User to respond to authorization requests without webhooks by polling
+ * {@link AsyncServiceClient#getAdvancedAuthorizationResponse(String, FutureCallback)}. All pending authorization
+ * requests share a single timer thread, so thousands of requests may be awaited without holding a thread for each.
+ * The timer thread only schedules polls. Each poll is started on the poll executor so that signing and sending the
+ * request can not delay the polls of other authorization requests.
+ * <p>
+ * Each authorization request is first polled after the initial interval. The interval then grows by half after each
+ * poll without a response until it reaches the maximum interval. The interval is never less than four times the
+ * average time the Platform API has taken to respond to polls, so a slow API is polled less often. No more than the
+ * maximum number of concurrent polls are in progress at once. Polls which are due while that many are in progress, or
+ * which the poll executor rejects, wait for the next tick.
+ * <p>
+ * The future for an authorization request completes with the response once the End User responds. It fails with an
+ * {@link AuthorizationRequestTimedOutError} when the TTL of the authorization request passes without a response, or
+ * with an {@link AuthorizationRequestCanceled} when it is canceled through {@link #cancel(String)} or the Platform API
+ * reports it as canceled. Communication errors are retried until the TTL passes. Any other error fails the future.
+ */
+public class AuthorizationResponsePoller implements Closeable {
+    /**
+     * Default TTL in seconds of an authorization request when none was provided to create it
+     */
+    public static final int DEFAULT_TTL = 300;
+
+    /**
+     * Default number of milliseconds to wait before first polling for a response
+     */
+    public static final long DEFAULT_INITIAL_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * Default maximum number of milliseconds between polls for a response
+     */
+    public static final long DEFAULT_MAX_INTERVAL_MILLIS = 5000L;
+
+    /**
+     * Default maximum number of polls in progress at once
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_POLLS = 50;
+
+    private static final int LATENCY_MULTIPLIER = 4;
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+    private final AsyncServiceClient client;
+    private final TimingWheel timingWheel;
+    private final Executor pollExecutor;
+    private final ExecutorService ownedPollExecutor;
+    private final int maxConcurrentPolls;
+    private final long initialIntervalMillis;
+    private final long maxIntervalMillis;
+    private final ConcurrentMap<String, PendingResponse> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pollsInProgress = new AtomicInteger();
+    private final AtomicLong averagePollNanos = new AtomicLong();
+
+    /**
+     * Create a poller with the default intervals and maximum number of concurrent polls
+     *
+     * @param client Client used to poll for responses
+     */
+    public AuthorizationResponsePoller(AsyncServiceClient client) {
+        this(client, DEFAULT_INITIAL_INTERVAL_MILLIS, DEFAULT_MAX_INTERVAL_MILLIS, DEFAULT_MAX_CONCURRENT_POLLS);
+    }
+
+    /**
+     * Create a poller which starts polls on a pool of daemon threads no larger than the maximum number of concurrent
+     * polls. The pool is shut down by {@link #close()}.
+     *
+     * @param client Client used to poll for responses
+     * @param initialIntervalMillis Number of milliseconds to wait before first polling for a response
+     * @param maxIntervalMillis Maximum number of milliseconds between polls for a response
+     * @param maxConcurrentPolls Maximum number of polls in progress at once
+     * @throws IllegalArgumentException When an interval or maxConcurrentPolls is less than one or the initial
+     * interval is greater than the maximum interval
+     */
+    public AuthorizationResponsePoller(AsyncServiceClient client, long initialIntervalMillis, long maxIntervalMillis,
+                                       int maxConcurrentPolls) throws IllegalArgumentException {
+        this(client, null, initialIntervalMillis, maxIntervalMillis, maxConcurrentPolls);
+    }
+
+    /**
+     * @param client Client used to poll for responses
+     * @param pollExecutor Executor on which polls are started. It may be shared and is not shut down by
+     * {@link #close()}. If null, a pool of daemon threads no larger than maxConcurrentPolls is created and shut down
+     * by {@link #close()}.
+     * @param initialIntervalMillis Number of milliseconds to wait before first polling for a response
+     * @param maxIntervalMillis Maximum number of milliseconds between polls for a response
+     * @param maxConcurrentPolls Maximum number of polls in progress at once
+     * @throws IllegalArgumentException When an interval or maxConcurrentPolls is less than one or the initial
+     * interval is greater than the maximum interval
+     */
+    public AuthorizationResponsePoller(AsyncServiceClient client, Executor pollExecutor, long initialIntervalMillis,
+                                       long maxIntervalMillis, int maxConcurrentPolls)
+            throws IllegalArgumentException {
+        this(client, new TimingWheel(TimingWheel.DEFAULT_TICK_MILLIS, TimingWheel.DEFAULT_WHEEL_SIZE), pollExecutor,
+                initialIntervalMillis, maxIntervalMillis, maxConcurrentPolls);
+        timingWheel.start();
+    }
+
+    AuthorizationResponsePoller(AsyncServiceClient client, TimingWheel timingWheel, Executor pollExecutor,
+                                long initialIntervalMillis, long maxIntervalMillis, int maxConcurrentPolls)
+            throws IllegalArgumentException {
+        if (initialIntervalMillis < 1)
+            throw new IllegalArgumentException("Argument initialIntervalMillis must be greater than zero");
+        if (maxIntervalMillis < initialIntervalMillis)
+            throw new IllegalArgumentException("Argument maxIntervalMillis must not be less than initialIntervalMillis");
+        if (maxConcurrentPolls < 1)
+            throw new IllegalArgumentException("Argument maxConcurrentPolls must be greater than zero");
+        this.client = client;
+        this.timingWheel = timingWheel;
+        if (pollExecutor == null) {
+            this.ownedPollExecutor = newExecutorService(maxConcurrentPolls);
+            this.pollExecutor = ownedPollExecutor;
+        } else {
+            this.ownedPollExecutor = null;
+            this.pollExecutor = pollExecutor;
+        }
+        this.initialIntervalMillis = initialIntervalMillis;
+        this.maxIntervalMillis = maxIntervalMillis;
+        this.maxConcurrentPolls = maxConcurrentPolls;
+    }
+
+    /**
+     * Wait for the response to an authorization request created with the default TTL
+     *
+     * @param authorizationRequestId Unique identifier returned by
+     * {@link AsyncServiceClient#createAuthorizationRequest(String, FutureCallback)}
+     * @param callback Callback to execute when the future completes
+     * @return Future for the authorization response
+     * @see #awaitAuthorizationResponse(String, int, FutureCallback)
+     */
+    public Future<AdvancedAuthorizationResponse> awaitAuthorizationResponse(
+            String authorizationRequestId, FutureCallback<AdvancedAuthorizationResponse> callback) {
+        return awaitAuthorizationResponse(authorizationRequestId, DEFAULT_TTL, callback);
+    }
+
+    /**
+     * Wait for the response to an authorization request. Cancelling the future stops polling for the response.
+     *
+     * @param authorizationRequestId Unique identifier returned by
+     * {@link AsyncServiceClient#createAuthorizationRequest(String, FutureCallback)}
+     * @param ttl TTL in seconds the authorization request was created with. Polling stops once it has passed.
+     * @param callback Callback to execute when the future completes
+     * @return Future for the authorization response
+     * @throws IllegalStateException When the response to the authorization request is already being awaited or the
+     * poller has been closed
+     */
+    public Future<AdvancedAuthorizationResponse> awaitAuthorizationResponse(
+            String authorizationRequestId, int ttl, FutureCallback<AdvancedAuthorizationResponse> callback)
+            throws IllegalStateException {
+        PendingResponse response = new PendingResponse(
+                authorizationRequestId, nanoTime() + TimeUnit.SECONDS.toNanos(ttl), callback);
+        if (pending.putIfAbsent(authorizationRequestId, response) != null) {
+            throw new IllegalStateException("The response to authorization request " + authorizationRequestId +
+                    " is already being awaited");
+        }
+        try {
+            response.schedule(initialIntervalMillis);
+        } catch (IllegalStateException e) {
+            pending.remove(authorizationRequestId, response);
+            throw e;
+        }
+        return response;
+    }
+
+    /**
+     * Stop waiting for the response to an authorization request which has been canceled. The future fails with an
+     * {@link AuthorizationRequestCanceled}. This does not cancel the authorization request itself.
+     *
+     * @param authorizationRequestId Unique identifier of the authorization request
+     * @return True if the response was being awaited
+     * @see AsyncServiceClient#cancelAuthorizationRequest(String, FutureCallback)
+     */
+    public boolean cancel(String authorizationRequestId) {
+        PendingResponse response = pending.get(authorizationRequestId);
+        return response != null && response.failed(new AuthorizationRequestCanceled(
+                "The authorization request was canceled", null, null));
+    }
+
+    /**
+     * @return Number of authorization requests whose responses are being awaited
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return Number of polls in progress
+     */
+    public int getPollsInProgress() {
+        return pollsInProgress.get();
+    }
+
+    /**
+     * @return Average number of milliseconds the Platform API has taken to respond to polls
+     */
+    public long getAveragePollMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(averagePollNanos.get());
+    }
+
+    /**
+     * Stop the timer thread, shut down the poll executor if it was created by this poller, and cancel the futures of
+     * all authorization requests whose responses are being awaited
+     */
+    @Override
+    public void close() {
+        timingWheel.close();
+        if (ownedPollExecutor != null) {
+            ownedPollExecutor.shutdown();
+        }
+        for (PendingResponse response : pending.values()) {
+            response.cancel(true);
+        }
+    }
+
+    private static ExecutorService newExecutorService(int threads) {
+        final int poolNumber = POOL_NUMBER.getAndIncrement();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable,
+                                "launchkey-poller-" + poolNumber + "-" + threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private void recordPollTime(long nanos) {
+        long average;
+        long updated;
+        do {
+            average = averagePollNanos.get();
+            updated = average == 0 ? nanos : average + (nanos - average) / 8;
+        } while (!averagePollNanos.compareAndSet(average, updated));
+    }
+
+    /**
+     * Future for an awaited response which starts a poll for the response on the poll executor each time its timeout
+     * runs
+     */
+    private class PendingResponse extends BasicFuture<AdvancedAuthorizationResponse> implements Runnable {
+        private final String authorizationRequestId;
+        private final long expiresNanos;
+        private long intervalMillis;
+        private volatile TimingWheel.Timeout timeout;
+        private volatile Future<AdvancedAuthorizationResponse> poll;
+
+        private PendingResponse(String authorizationRequestId, long expiresNanos,
+                                FutureCallback<AdvancedAuthorizationResponse> callback) {
+            super(callback);
+            this.authorizationRequestId = authorizationRequestId;
+            this.expiresNanos = expiresNanos;
+            this.intervalMillis = initialIntervalMillis;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+            if (nanoTime() - expiresNanos >= 0) {
+                failed(new AuthorizationRequestTimedOutError());
+                return;
+            }
+            if (pollsInProgress.incrementAndGet() > maxConcurrentPolls) {
+                pollsInProgress.decrementAndGet();
+                schedule(0L);
+                return;
+            }
+            try {
+                pollExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        poll();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pollsInProgress.decrementAndGet();
+                try {
+                    schedule(0L);
+                } catch (IllegalStateException closed) {
+                    cancel(true);
+                }
+            }
+        }
+
+        private void poll() {
+            if (isDone()) {
+                pollsInProgress.decrementAndGet();
+                return;
+            }
+            final long started = nanoTime();
+            try {
+                poll = client.getAdvancedAuthorizationResponse(authorizationRequestId,
+                        new FutureCallback<AdvancedAuthorizationResponse>() {
+                            @Override
+                            public void completed(AdvancedAuthorizationResponse result) {
+                                pollCompleted(started);
+                                if (result == null) {
+                                    scheduleNextPoll();
+                                } else {
+                                    PendingResponse.this.completed(result);
+                                }
+                            }
+
+                            @Override
+                            public void failed(Exception e) {
+                                pollCompleted(started);
+                                if (e instanceof CommunicationErrorException) {
+                                    scheduleNextPoll();
+                                } else {
+                                    PendingResponse.this.failed(e);
+                                }
+                            }
+
+                            @Override
+                            public void cancelled() {
+                                pollsInProgress.decrementAndGet();
+                            }
+                        });
+                if (isDone()) {
+                    stop();
+                }
+            } catch (RuntimeException e) {
+                pollsInProgress.decrementAndGet();
+                failed(e);
+            }
+        }
+
+        private void pollCompleted(long started) {
+            pollsInProgress.decrementAndGet();
+            recordPollTime(nanoTime() - started);
+        }
+
+        private void scheduleNextPoll() {
+            if (isDone()) {
+                return;
+            }
+            long delay = Math.max(intervalMillis,
+                    LATENCY_MULTIPLIER * TimeUnit.NANOSECONDS.toMillis(averagePollNanos.get()));
+            delay = Math.min(delay, TimeUnit.NANOSECONDS.toMillis(expiresNanos - nanoTime()));
+            intervalMillis = Math.min(maxIntervalMillis, intervalMillis + intervalMillis / 2);
+            try {
+                schedule(delay);
+            } catch (IllegalStateException e) {
+                cancel(true);
+            }
+        }
+
+        private void schedule(long delayMillis) {
+            timeout = timingWheel.schedule(this, delayMillis);
+        }
+
+        @Override
+        public boolean completed(AdvancedAuthorizationResponse result) {
+            pending.remove(authorizationRequestId, this);
+            return super.completed(result);
+        }
+
+        @Override
+        public boolean failed(Exception exception) {
+            pending.remove(authorizationRequestId, this);
+            stop();
+            return super.failed(exception);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            pending.remove(authorizationRequestId, this);
+            stop();
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        private void stop() {
+            TimingWheel.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+            Future<AdvancedAuthorizationResponse> currentPoll = poll;
+            if (currentPoll != null && !currentPoll.isDone()) {
+                currentPoll.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.directory.Device;
+import com.iovation.launchkey.sdk.domain.directory.DirectoryUserDeviceLinkData;
+import com.iovation.launchkey.sdk.domain.directory.Session;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static com.iovation.launchkey.sdk.client.BasicDirectoryClient.getDeviceUUID;
+import static com.iovation.launchkey.sdk.client.BasicDirectoryClient.getDevicesFromResponse;
+import static com.iovation.launchkey.sdk.client.BasicDirectoryClient.getSessionsFromResponse;
+
+public class BasicAsyncDirectoryClient implements AsyncDirectoryClient {
+    private final AsyncTransport transport;
+    private final EntityIdentifier directory;
+
+    public BasicAsyncDirectoryClient(UUID directoryId, AsyncTransport transport) {
+        this.transport = transport;
+        this.directory = new EntityIdentifier(EntityIdentifier.EntityType.DIRECTORY, directoryId);
+    }
+
+    @Override
+    public Future<DirectoryUserDeviceLinkData> linkDevice(
+            String userId, FutureCallback<DirectoryUserDeviceLinkData> callback) {
+        return linkDevice(userId, null, callback);
+    }
+
+    @Override
+    public Future<DirectoryUserDeviceLinkData> linkDevice(
+            String userId, Integer ttl, FutureCallback<DirectoryUserDeviceLinkData> callback) {
+        DirectoryV3DevicesPostRequest request = new DirectoryV3DevicesPostRequest(userId, ttl);
+        ChainedFuture<DirectoryV3DevicesPostResponse, DirectoryUserDeviceLinkData> future =
+                new ChainedFuture<DirectoryV3DevicesPostResponse, DirectoryUserDeviceLinkData>(callback) {
+                    @Override
+                    DirectoryUserDeviceLinkData convert(DirectoryV3DevicesPostResponse response) {
+                        return new DirectoryUserDeviceLinkData(
+                                response.getCode(), response.getQRCode(), response.getDeviceId());
+                    }
+                };
+        return future.chain(transport.directoryV3DevicesPost(request, directory, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<List<Device>> getLinkedDevices(String userId, FutureCallback<List<Device>> callback) {
+        DirectoryV3DevicesListPostRequest request = new DirectoryV3DevicesListPostRequest(userId);
+        ChainedFuture<DirectoryV3DevicesListPostResponse, List<Device>> future =
+                new ChainedFuture<DirectoryV3DevicesListPostResponse, List<Device>>(callback) {
+                    @Override
+                    List<Device> convert(DirectoryV3DevicesListPostResponse response) {
+                        return getDevicesFromResponse(response);
+                    }
+                };
+        return future.chain(transport.directoryV3DevicesListPost(request, directory, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<Void> unlinkDevice(String userId, String deviceId, FutureCallback<Void> callback) {
+        DirectoryV3DevicesDeleteRequest request = new DirectoryV3DevicesDeleteRequest(userId, getDeviceUUID(deviceId));
+        return transport.directoryV3devicesDelete(request, directory, callback);
+    }
+
+    @Override
+    public Future<List<Session>> getAllServiceSessions(String userId, FutureCallback<List<Session>> callback) {
+        DirectoryV3SessionsListPostRequest request = new DirectoryV3SessionsListPostRequest(userId);
+        ChainedFuture<DirectoryV3SessionsListPostResponse, List<Session>> future =
+                new ChainedFuture<DirectoryV3SessionsListPostResponse, List<Session>>(callback) {
+                    @Override
+                    List<Session> convert(DirectoryV3SessionsListPostResponse response) {
+                        return getSessionsFromResponse(response);
+                    }
+                };
+        return future.chain(transport.directoryV3SessionsListPost(request, directory, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<Void> endAllServiceSessions(String userId, FutureCallback<Void> callback) {
+        DirectoryV3SessionsDeleteRequest request = new DirectoryV3SessionsDeleteRequest(userId);
+        return transport.directoryV3SessionsDelete(request, directory, callback);
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import com.iovation.launchkey.sdk.domain.PublicKey;
+import com.iovation.launchkey.sdk.domain.organization.Directory;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.net.URI;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static com.iovation.launchkey.sdk.client.BasicOrganizationClient.getDirectoriesFromResponse;
+import static com.iovation.launchkey.sdk.client.BasicOrganizationClient.getPublicKeysFromResponse;
+
+public class BasicAsyncOrganizationClient implements AsyncOrganizationClient {
+    private final AsyncTransport transport;
+    private final EntityIdentifier organization;
+
+    public BasicAsyncOrganizationClient(UUID organizationId, AsyncTransport transport) {
+        this.transport = transport;
+        this.organization = new EntityIdentifier(EntityIdentifier.EntityType.ORGANIZATION, organizationId);
+    }
+
+    @Override
+    public Future<UUID> createDirectory(String name, FutureCallback<UUID> callback) {
+        final OrganizationV3DirectoriesPostRequest request = new OrganizationV3DirectoriesPostRequest(name);
+        ChainedFuture<OrganizationV3DirectoriesPostResponse, UUID> future =
+                new ChainedFuture<OrganizationV3DirectoriesPostResponse, UUID>(callback) {
+                    @Override
+                    UUID convert(OrganizationV3DirectoriesPostResponse response) {
+                        return response.getId();
+                    }
+                };
+        return future.chain(transport.organizationV3DirectoriesPost(request, organization, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<Void> updateDirectory(UUID directoryId, Boolean active, String androidKey, String iosP12,
+                                        Boolean denialContextInquiryEnabled, URI webhookUrl,
+                                        FutureCallback<Void> callback) {
+        final OrganizationV3DirectoriesPatchRequest request =
+                new OrganizationV3DirectoriesPatchRequest(directoryId, active, androidKey, iosP12,
+                        denialContextInquiryEnabled, webhookUrl);
+        return transport.organizationV3DirectoriesPatch(request, organization, callback);
+    }
+
+    @Override
+    public Future<Directory> getDirectory(UUID directoryId, FutureCallback<Directory> callback) {
+        final OrganizationV3DirectoriesListPostRequest request =
+                new OrganizationV3DirectoriesListPostRequest(Collections.singletonList(directoryId));
+        ChainedFuture<OrganizationV3DirectoriesListPostResponse, Directory> future =
+                new ChainedFuture<OrganizationV3DirectoriesListPostResponse, Directory>(callback) {
+                    @Override
+                    Directory convert(OrganizationV3DirectoriesListPostResponse response) {
+                        return getDirectoriesFromResponse(response).get(0);
+                    }
+                };
+        return future.chain(
+                transport.organizationV3DirectoriesListPost(request, organization, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<List<Directory>> getDirectories(List<UUID> directoryIds, FutureCallback<List<Directory>> callback) {
+        final OrganizationV3DirectoriesListPostRequest request =
+                new OrganizationV3DirectoriesListPostRequest(directoryIds);
+        ChainedFuture<OrganizationV3DirectoriesListPostResponse, List<Directory>> future =
+                new ChainedFuture<OrganizationV3DirectoriesListPostResponse, List<Directory>>(callback) {
+                    @Override
+                    List<Directory> convert(OrganizationV3DirectoriesListPostResponse response) {
+                        return getDirectoriesFromResponse(response);
+                    }
+                };
+        return future.chain(
+                transport.organizationV3DirectoriesListPost(request, organization, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<List<Directory>> getAllDirectories(FutureCallback<List<Directory>> callback) {
+        ChainedFuture<OrganizationV3DirectoriesGetResponse, List<Directory>> future =
+                new ChainedFuture<OrganizationV3DirectoriesGetResponse, List<Directory>>(callback) {
+                    @Override
+                    List<Directory> convert(OrganizationV3DirectoriesGetResponse response) {
+                        return getDirectoriesFromResponse(response);
+                    }
+                };
+        return future.chain(transport.organizationV3DirectoriesGet(organization, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<UUID> generateAndAddDirectorySdkKey(UUID directoryId, FutureCallback<UUID> callback) {
+        final OrganizationV3DirectorySdkKeysPostRequest request =
+                new OrganizationV3DirectorySdkKeysPostRequest(directoryId);
+        ChainedFuture<OrganizationV3DirectorySdkKeysPostResponse, UUID> future =
+                new ChainedFuture<OrganizationV3DirectorySdkKeysPostResponse, UUID>(callback) {
+                    @Override
+                    UUID convert(OrganizationV3DirectorySdkKeysPostResponse response) {
+                        return response.getSdkKey();
+                    }
+                };
+        return future.chain(
+                transport.organizationV3DirectorySdkKeysPost(request, organization, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<Void> removeDirectorySdkKey(UUID directoryId, UUID sdkKey, FutureCallback<Void> callback) {
+        final OrganizationV3DirectorySdkKeysDeleteRequest request =
+                new OrganizationV3DirectorySdkKeysDeleteRequest(directoryId, sdkKey);
+        return transport.organizationV3DirectorySdkKeysDelete(request, organization, callback);
+    }
+
+    @Override
+    public Future<List<UUID>> getAllDirectorySdkKeys(UUID directoryId, FutureCallback<List<UUID>> callback) {
+        final OrganizationV3DirectorySdkKeysListPostRequest request =
+                new OrganizationV3DirectorySdkKeysListPostRequest(directoryId);
+        ChainedFuture<OrganizationV3DirectorySdkKeysListPostResponse, List<UUID>> future =
+                new ChainedFuture<OrganizationV3DirectorySdkKeysListPostResponse, List<UUID>>(callback) {
+                    @Override
+                    List<UUID> convert(OrganizationV3DirectorySdkKeysListPostResponse response) {
+                        return response.getSdkKeys();
+                    }
+                };
+        return future.chain(
+                transport.organizationV3DirectorySdkKeysListPost(request, organization, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<List<PublicKey>> getDirectoryPublicKeys(
+            UUID directoryId, FutureCallback<List<PublicKey>> callback) {
+        OrganizationV3DirectoryKeysListPostRequest request =
+                new OrganizationV3DirectoryKeysListPostRequest(directoryId);
+        ChainedFuture<KeysListPostResponse, List<PublicKey>> future =
+                new ChainedFuture<KeysListPostResponse, List<PublicKey>>(callback) {
+                    @Override
+                    List<PublicKey> convert(KeysListPostResponse response) {
+                        return getPublicKeysFromResponse(response);
+                    }
+                };
+        return future.chain(
+                transport.organizationV3DirectoryKeysListPost(request, organization, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<String> addDirectoryPublicKey(UUID directoryId, RSAPublicKey publicKey, Boolean active,
+                                                Date expires, FutureCallback<String> callback) {
+        String publicKeyPEM = JCECrypto.getPEMFromRSAPublicKey(publicKey);
+        final OrganizationV3DirectoryKeysPostRequest request =
+                new OrganizationV3DirectoryKeysPostRequest(directoryId, publicKeyPEM, expires, active);
+        ChainedFuture<KeysPostResponse, String> future = new ChainedFuture<KeysPostResponse, String>(callback) {
+            @Override
+            String convert(KeysPostResponse response) {
+                return response.getId();
+            }
+        };
+        return future.chain(transport.organizationV3DirectoryKeysPost(request, organization, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<Void> updateDirectoryPublicKey(UUID directoryId, String keyId, Boolean active, Date expires,
+                                                 FutureCallback<Void> callback) {
+        return transport.organizationV3DirectoryKeysPatch(
+                new OrganizationV3DirectoryKeysPatchRequest(directoryId, keyId, expires, active), organization,
+                callback);
+    }
+
+    @Override
+    public Future<Void> removeDirectoryPublicKey(UUID directoryId, String keyId, FutureCallback<Void> callback) {
+        final OrganizationV3DirectoryKeysDeleteRequest request =
+                new OrganizationV3DirectoryKeysDeleteRequest(directoryId, keyId);
+        return transport.organizationV3DirectoryKeysDelete(request, organization, callback);
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AuthPolicy;
+import com.iovation.launchkey.sdk.domain.service.DenialReason;
+import com.iovation.launchkey.sdk.domain.service.*;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static com.iovation.launchkey.sdk.client.BasicServiceClient.getAuthRequestIdFromString;
+import static com.iovation.launchkey.sdk.client.BasicServiceClient.getServiceV3AuthsPostRequest;
+
+public class BasicAsyncServiceClient implements AsyncServiceClient {
+    private final EntityIdentifier serviceEntity;
+    private final AsyncTransport transport;
+
+    public BasicAsyncServiceClient(UUID serviceId, AsyncTransport transport) {
+        this.serviceEntity = new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, serviceId);
+        this.transport = transport;
+    }
+
+    @Override
+    public Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, String context, AuthPolicy policy, String title, Integer ttl, String pushTitle,
+            String pushBody, List<DenialReason> denialReasons, FutureCallback<AuthorizationRequest> callback) {
+        ServiceV3AuthsPostRequest request = getServiceV3AuthsPostRequest(
+                userIdentifier, context, policy, title, ttl, pushTitle, pushBody, denialReasons);
+        ChainedFuture<ServiceV3AuthsPostResponse, AuthorizationRequest> future =
+                new ChainedFuture<ServiceV3AuthsPostResponse, AuthorizationRequest>(callback) {
+                    @Override
+                    AuthorizationRequest convert(ServiceV3AuthsPostResponse response) {
+                        return new AuthorizationRequest(
+                                response.getAuthRequest().toString(),
+                                response.getPushPackage());
+                    }
+                };
+        return future.chain(transport.serviceV3AuthsPost(request, serviceEntity, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, String context, AuthPolicy policy, String title, Integer ttl,
+            FutureCallback<AuthorizationRequest> callback) {
+        return createAuthorizationRequest(userIdentifier, context, policy, title, ttl, null, null, null, callback);
+    }
+
+    @Override
+    public Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, String context, AuthPolicy policy, FutureCallback<AuthorizationRequest> callback) {
+        return createAuthorizationRequest(userIdentifier, context, policy, null, null, null, null, null, callback);
+    }
+
+    @Override
+    public Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, FutureCallback<AuthorizationRequest> callback) {
+        return createAuthorizationRequest(userIdentifier, null, null, null, null, null, null, null, callback);
+    }
+
+    @Override
+    public Future<Void> cancelAuthorizationRequest(String authorizationRequestId, FutureCallback<Void> callback) {
+        return transport.serviceV3AuthsDelete(UUID.fromString(authorizationRequestId), serviceEntity, callback);
+    }
+
+    @Override
+    public Future<AdvancedAuthorizationResponse> getAdvancedAuthorizationResponse(
+            String authorizationRequestId, FutureCallback<AdvancedAuthorizationResponse> callback) {
+        UUID authorizationRequestUUID = getAuthRequestIdFromString(authorizationRequestId);
+        ChainedFuture<ServiceV3AuthsGetResponse, AdvancedAuthorizationResponse> future =
+                new ChainedFuture<ServiceV3AuthsGetResponse, AdvancedAuthorizationResponse>(callback) {
+                    @Override
+                    AdvancedAuthorizationResponse convert(ServiceV3AuthsGetResponse response)
+                            throws InvalidResponseException {
+                        return response == null ? null : BasicServiceClient.getAdvancedAuthorizationResponse(response);
+                    }
+                };
+        return future.chain(
+                transport.serviceV3AuthsGet(authorizationRequestUUID, serviceEntity, future.sourceCallback()));
+    }
+
+    @Override
+    public Future<Void> sessionStart(String user, String authorizationRequestId, FutureCallback<Void> callback) {
+        UUID authorizationRequestUUID =
+                authorizationRequestId == null ? null : getAuthRequestIdFromString(authorizationRequestId);
+        ServiceV3SessionsPostRequest request = new ServiceV3SessionsPostRequest(user, authorizationRequestUUID);
+        return transport.serviceV3SessionsPost(request, serviceEntity, callback);
+    }
+
+    @Override
+    public Future<Void> sessionStart(String user, FutureCallback<Void> callback) {
+        return sessionStart(user, null, callback);
+    }
+
+    @Override
+    public Future<Void> sessionEnd(String user, FutureCallback<Void> callback) {
+        ServiceV3SessionsDeleteRequest request = new ServiceV3SessionsDeleteRequest(user);
+        return transport.serviceV3SessionsDelete(request, serviceEntity, callback);
+    }
+}
@@ -60,32 +60,14 @@ public class BasicDirectoryClient extends ServiceManagingBaseClient implements D
             CryptographyError {
         DirectoryV3DevicesListPostRequest request = new DirectoryV3DevicesListPostRequest(userId);
         DirectoryV3DevicesListPostResponse response = transport.directoryV3DevicesListPost(request, directory);
-        List<Device> devices = new ArrayList<>();
-        for (DirectoryV3DevicesListPostResponseDevice responseDevice : response.getDevices()) {
-            devices.add(new Device(
-                    responseDevice.getId().toString(),
-                    responseDevice.getName(),
-                    DeviceStatus.fromCode(responseDevice.getStatus()),
-                    responseDevice.getType(),
-                    responseDevice.getCreated(),
-                    responseDevice.getUpdated()
-            ));
-        }
-        return devices;
+        return getDevicesFromResponse(response);
     }
 
     @Override
     public void unlinkDevice(String userId, String deviceId) throws PlatformErrorException,
             UnknownEntityException, InvalidResponseException, InvalidStateException,
             InvalidCredentialsException, CommunicationErrorException, MarshallingError, CryptographyError {
-        UUID deviceUUID;
-        try {
-            deviceUUID = UUID.fromString(deviceId);
-        } catch (IllegalArgumentException | NullPointerException e) {
-            throw new IllegalArgumentException("Invalid Device ID", e);
-
-        }
-        DirectoryV3DevicesDeleteRequest request = new DirectoryV3DevicesDeleteRequest(userId, deviceUUID);
+        DirectoryV3DevicesDeleteRequest request = new DirectoryV3DevicesDeleteRequest(userId, getDeviceUUID(deviceId));
         transport.directoryV3devicesDelete(request, directory);
     }
 
@@ -96,12 +78,7 @@ public class BasicDirectoryClient extends ServiceManagingBaseClient implements D
             CryptographyError {
         final DirectoryV3SessionsListPostRequest request = new DirectoryV3SessionsListPostRequest(userId);
         final DirectoryV3SessionsListPostResponse response = transport.directoryV3SessionsListPost(request, directory);
-        List<Session> sessions = new ArrayList<>();
-        for (DirectoryV3SessionsListPostResponseSession session : response.getSessions()) {
-            sessions.add(new Session(session.getServiceId(), session.getServiceName(), session.getServiceIcon(),
-                    session.getAuthRequest(), session.getCreated()));
-        }
-        return sessions;
+        return getSessionsFromResponse(response);
     }
 
     @Override
@@ -312,4 +289,39 @@ public class BasicDirectoryClient extends ServiceManagingBaseClient implements D
         }
         return response;
     }
+
+    static List<Device> getDevicesFromResponse(DirectoryV3DevicesListPostResponse response) {
+        List<Device> devices = new ArrayList<>();
+        for (DirectoryV3DevicesListPostResponseDevice responseDevice : response.getDevices()) {
+            devices.add(new Device(
+                    responseDevice.getId().toString(),
+                    responseDevice.getName(),
+                    DeviceStatus.fromCode(responseDevice.getStatus()),
+                    responseDevice.getType(),
+                    responseDevice.getCreated(),
+                    responseDevice.getUpdated()
+            ));
+        }
+        return devices;
+    }
+
+    static List<Session> getSessionsFromResponse(DirectoryV3SessionsListPostResponse response) {
+        List<Session> sessions = new ArrayList<>();
+        for (DirectoryV3SessionsListPostResponseSession session : response.getSessions()) {
+            sessions.add(new Session(session.getServiceId(), session.getServiceName(), session.getServiceIcon(),
+                    session.getAuthRequest(), session.getCreated()));
+        }
+        return sessions;
+    }
+
+    static UUID getDeviceUUID(String deviceId) {
+        UUID deviceUUID;
+        try {
+            deviceUUID = UUID.fromString(deviceId);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid Device ID", e);
+
+        }
+        return deviceUUID;
+    }
 }
@@ -79,10 +79,7 @@ public class BasicOrganizationClient extends ServiceManagingBaseClient implement
                 new OrganizationV3DirectoriesListPostRequest(Collections.singletonList(directoryId));
         final OrganizationV3DirectoriesListPostResponse response =
                 transport.organizationV3DirectoriesListPost(request, organization);
-        OrganizationV3DirectoriesListPostResponseDirectory directory = response.getDirectories().get(0);
-        return new Directory(directory.getId(), directory.getName(), directory.isActive(), directory.getServiceIds(),
-                directory.getSdkKeys(), directory.getAndroidKey(), directory.getIosCertificateFingerprint(),
-                directory.isDenialContextInquiryEnabled(), directory.getWebhookUrl());
+        return getDirectoriesFromResponse(response).get(0);
 
     }
 
@@ -95,14 +92,7 @@ public class BasicOrganizationClient extends ServiceManagingBaseClient implement
                 directoryIds);
         final OrganizationV3DirectoriesListPostResponse response =
                 transport.organizationV3DirectoriesListPost(request, organization);
-        List<Directory> directories = new ArrayList<>();
-        for (OrganizationV3DirectoriesListPostResponseDirectory directory : response.getDirectories()) {
-            directories.add(new Directory(directory.getId(), directory.getName(), directory.isActive(),
-                    directory.getServiceIds(), directory.getSdkKeys(), directory.getAndroidKey(),
-                    directory.getIosCertificateFingerprint(), directory.isDenialContextInquiryEnabled(),
-                    directory.getWebhookUrl()));
-        }
-        return directories;
+        return getDirectoriesFromResponse(response);
     }
 
     @Override
@@ -111,14 +101,7 @@ public class BasicOrganizationClient extends ServiceManagingBaseClient implement
             InvalidCredentialsException, CommunicationErrorException, MarshallingError,
             CryptographyError {
         OrganizationV3DirectoriesGetResponse response = transport.organizationV3DirectoriesGet(organization);
-        List<Directory> directories = new ArrayList<>();
-        for (OrganizationV3DirectoriesGetResponseDirectory responseDirectory : response.getDirectories()) {
-            directories.add(new Directory(responseDirectory.getId(), responseDirectory.getName(),
-                    responseDirectory.isActive(), responseDirectory.getServiceIds(), responseDirectory.getSdkKeys(),
-                    responseDirectory.getAndroidKey(), responseDirectory.getIosCertificateFingerprint(),
-                    responseDirectory.isDenialContextInquiryEnabled(), responseDirectory.getWebhookUrl()));
-        }
-        return directories;
+        return getDirectoriesFromResponse(response);
     }
 
     @Override
@@ -164,12 +147,7 @@ public class BasicOrganizationClient extends ServiceManagingBaseClient implement
                 new OrganizationV3DirectoryKeysListPostRequest(directoryId);
         final KeysListPostResponse response =
                 transport.organizationV3DirectoryKeysListPost(request, organization);
-        List<PublicKey> publicKeys = new ArrayList<>();
-        for (KeysListPostResponsePublicKey publicKey : response.getPublicKeys()) {
-            publicKeys.add(new PublicKey(publicKey.getId(), publicKey.isActive(), publicKey.getCreated(),
-                    publicKey.getExpires()));
-        }
-        return publicKeys;
+        return getPublicKeysFromResponse(response);
     }
 
     @Override
@@ -362,4 +340,35 @@ public class BasicOrganizationClient extends ServiceManagingBaseClient implement
             CryptographyError {
         transport.organizationV3ServicePolicyDelete(new ServicePolicyDeleteRequest(serviceId), organization);
     }
+
+    static List<Directory> getDirectoriesFromResponse(OrganizationV3DirectoriesListPostResponse response) {
+        List<Directory> directories = new ArrayList<>();
+        for (OrganizationV3DirectoriesListPostResponseDirectory directory : response.getDirectories()) {
+            directories.add(new Directory(directory.getId(), directory.getName(), directory.isActive(),
+                    directory.getServiceIds(), directory.getSdkKeys(), directory.getAndroidKey(),
+                    directory.getIosCertificateFingerprint(), directory.isDenialContextInquiryEnabled(),
+                    directory.getWebhookUrl()));
+        }
+        return directories;
+    }
+
+    static List<Directory> getDirectoriesFromResponse(OrganizationV3DirectoriesGetResponse response) {
+        List<Directory> directories = new ArrayList<>();
+        for (OrganizationV3DirectoriesGetResponseDirectory responseDirectory : response.getDirectories()) {
+            directories.add(new Directory(responseDirectory.getId(), responseDirectory.getName(),
+                    responseDirectory.isActive(), responseDirectory.getServiceIds(), responseDirectory.getSdkKeys(),
+                    responseDirectory.getAndroidKey(), responseDirectory.getIosCertificateFingerprint(),
+                    responseDirectory.isDenialContextInquiryEnabled(), responseDirectory.getWebhookUrl()));
+        }
+        return directories;
+    }
+
+    static List<PublicKey> getPublicKeysFromResponse(KeysListPostResponse response) {
+        List<PublicKey> publicKeys = new ArrayList<>();
+        for (KeysListPostResponsePublicKey publicKey : response.getPublicKeys()) {
+            publicKeys.add(new PublicKey(publicKey.getId(), publicKey.isActive(), publicKey.getCreated(),
+                    publicKey.getExpires()));
+        }
+        return publicKeys;
+    }
 }
@@ -64,41 +64,8 @@ public class BasicServiceClient implements ServiceClient {
                                                            String title, Integer ttl, String pushTitle, String pushBody,
                                                            List<DenialReason> denialReasons)
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, InvalidCredentialsException, CryptographyError {
-        com.iovation.launchkey.sdk.transport.domain.AuthPolicy requestPolicy;
-        if (policy == null) {
-            requestPolicy = null;
-        } else {
-            requestPolicy = new com.iovation.launchkey.sdk.transport.domain.AuthPolicy(
-                    policy.getRequiredFactors(),
-                    policy.isInherenceFactorRequired(),
-                    policy.isKnowledgeFactorRequired(),
-                    policy.isPossessionFactorRequired(),
-                    policy.isJailbreakProtectionEnabled()
-            );
-            for (AuthPolicy.Location location : policy.getLocations()) {
-                requestPolicy.addGeoFence(
-                        location.getName(),
-                        location.getRadius(),
-                        location.getLatitude(),
-                        location.getLongitude()
-                );
-            }
-        }
-
-        List<com.iovation.launchkey.sdk.transport.domain.DenialReason> requestDenialReasons;
-        if (denialReasons == null) {
-            requestDenialReasons = null;
-        } else {
-            requestDenialReasons = new ArrayList<>();
-            for (DenialReason denialreason : denialReasons) {
-                requestDenialReasons.add(new com.iovation.launchkey.sdk.transport.domain.DenialReason(
-                        denialreason.getId(), denialreason.getReason(), denialreason.isFraud()
-                ));
-            }
-        }
-
-        ServiceV3AuthsPostRequest request = new ServiceV3AuthsPostRequest(
-                userIdentifier, requestPolicy, context, title, ttl, pushTitle, pushBody, requestDenialReasons);
+        ServiceV3AuthsPostRequest request = getServiceV3AuthsPostRequest(
+                userIdentifier, context, policy, title, ttl, pushTitle, pushBody, denialReasons);
         ServiceV3AuthsPostResponse response = transport.serviceV3AuthsPost(request, serviceEntity);
         return new AuthorizationRequest(
                 response.getAuthRequest().toString(),
@@ -224,7 +191,47 @@ public class BasicServiceClient implements ServiceClient {
         return response;
     }
 
-    private AuthorizationResponse getAuthorizationResponse(AdvancedAuthorizationResponse advancedResponse) {
+    static ServiceV3AuthsPostRequest getServiceV3AuthsPostRequest(
+            String userIdentifier, String context, AuthPolicy policy, String title, Integer ttl, String pushTitle,
+            String pushBody, List<DenialReason> denialReasons) {
+        com.iovation.launchkey.sdk.transport.domain.AuthPolicy requestPolicy;
+        if (policy == null) {
+            requestPolicy = null;
+        } else {
+            requestPolicy = new com.iovation.launchkey.sdk.transport.domain.AuthPolicy(
+                    policy.getRequiredFactors(),
+                    policy.isInherenceFactorRequired(),
+                    policy.isKnowledgeFactorRequired(),
+                    policy.isPossessionFactorRequired(),
+                    policy.isJailbreakProtectionEnabled()
+            );
+            for (AuthPolicy.Location location : policy.getLocations()) {
+                requestPolicy.addGeoFence(
+                        location.getName(),
+                        location.getRadius(),
+                        location.getLatitude(),
+                        location.getLongitude()
+                );
+            }
+        }
+
+        List<com.iovation.launchkey.sdk.transport.domain.DenialReason> requestDenialReasons;
+        if (denialReasons == null) {
+            requestDenialReasons = null;
+        } else {
+            requestDenialReasons = new ArrayList<>();
+            for (DenialReason denialreason : denialReasons) {
+                requestDenialReasons.add(new com.iovation.launchkey.sdk.transport.domain.DenialReason(
+                        denialreason.getId(), denialreason.getReason(), denialreason.isFraud()
+                ));
+            }
+        }
+
+        return new ServiceV3AuthsPostRequest(
+                userIdentifier, requestPolicy, context, title, ttl, pushTitle, pushBody, requestDenialReasons);
+    }
+
+    static AuthorizationResponse getAuthorizationResponse(AdvancedAuthorizationResponse advancedResponse) {
         AuthorizationResponse response;
         if (advancedResponse == null) {
             response = null;
@@ -248,7 +255,7 @@ public class BasicServiceClient implements ServiceClient {
         return response;
     }
 
-    private AuthPolicy getLegacyPolicyFromAdvancedPolicy(AuthorizationResponsePolicy advancedPolicy) {
+    private static AuthPolicy getLegacyPolicyFromAdvancedPolicy(AuthorizationResponsePolicy advancedPolicy) {
         if (advancedPolicy == null) {
             return null;
         }
@@ -275,7 +282,7 @@ public class BasicServiceClient implements ServiceClient {
         return authPolicy;
     }
 
-    private AuthorizationResponse.Reason getLegacyReasonFromAdvancedReason(AdvancedAuthorizationResponse.Reason advancedreason) {
+    private static AuthorizationResponse.Reason getLegacyReasonFromAdvancedReason(AdvancedAuthorizationResponse.Reason advancedreason) {
         AuthorizationResponse.Reason reason;
         if (advancedreason == null) {
             reason = null;
@@ -318,7 +325,7 @@ public class BasicServiceClient implements ServiceClient {
         return reason;
     }
 
-    private AuthorizationResponse.Type getLegacyTypeFromAdvancedType(AdvancedAuthorizationResponse.Type advancedType) {
+    private static AuthorizationResponse.Type getLegacyTypeFromAdvancedType(AdvancedAuthorizationResponse.Type advancedType) {
         AuthorizationResponse.Type type;
         if (advancedType == null) {
             type = null;
@@ -343,7 +350,7 @@ public class BasicServiceClient implements ServiceClient {
         return type;
     }
 
-    private AdvancedAuthorizationResponse getAdvancedAuthorizationResponse(AuthsResponse authsResponse) throws InvalidResponseException {
+    static AdvancedAuthorizationResponse getAdvancedAuthorizationResponse(AuthsResponse authsResponse) throws InvalidResponseException {
         AdvancedAuthorizationResponse.Type type = getAdvancedType(authsResponse);
         AdvancedAuthorizationResponse.Reason reason = getAdvancedReason(authsResponse);
         AuthorizationResponsePolicy policy;
@@ -370,7 +377,7 @@ public class BasicServiceClient implements ServiceClient {
                 authMethods);
     }
 
-    private AuthorizationResponsePolicy getAuthorizationResponsePolicy(AuthsResponse authsResponse) throws UnknownPolicyException {
+    private static AuthorizationResponsePolicy getAuthorizationResponsePolicy(AuthsResponse authsResponse) throws UnknownPolicyException {
         AuthorizationResponsePolicy policy;
 
         if (authsResponse.getAuthPolicy() == null) {
@@ -388,7 +395,7 @@ public class BasicServiceClient implements ServiceClient {
         return policy;
     }
 
-    private Requirement getRequirement(AuthResponsePolicy authPolicy) {
+    private static Requirement getRequirement(AuthResponsePolicy authPolicy) {
         Requirement requirement;
         if (null == authPolicy.getRequirement()) {
             requirement = null;
@@ -404,7 +411,7 @@ public class BasicServiceClient implements ServiceClient {
         return requirement;
     }
 
-    private AdvancedAuthorizationResponse.Reason getAdvancedReason(AuthsResponse authsResponse) {
+    private static AdvancedAuthorizationResponse.Reason getAdvancedReason(AuthsResponse authsResponse) {
         AdvancedAuthorizationResponse.Reason reason;
         if (authsResponse.getReason() == null) {
             reason = null;
@@ -432,7 +439,7 @@ public class BasicServiceClient implements ServiceClient {
         return reason;
     }
 
-    private AdvancedAuthorizationResponse.Type getAdvancedType(AuthsResponse authsResponse) {
+    private static AdvancedAuthorizationResponse.Type getAdvancedType(AuthsResponse authsResponse) {
         AdvancedAuthorizationResponse.Type type;
         if (authsResponse.getType() == null) {
             type = null;
@@ -448,7 +455,7 @@ public class BasicServiceClient implements ServiceClient {
         return type;
     }
 
-    private List<Fence> getFences(AuthResponsePolicy transportPolicy) throws UnknownPolicyException {
+    private static List<Fence> getFences(AuthResponsePolicy transportPolicy) throws UnknownPolicyException {
         List<Fence> fences;
         if (transportPolicy.getFences() == null) {
             fences = null;
@@ -472,7 +479,7 @@ public class BasicServiceClient implements ServiceClient {
         return fences;
     }
 
-    private List<AuthMethod> getMethods(AuthsResponse authsResponse) {
+    private static List<AuthMethod> getMethods(AuthsResponse authsResponse) {
         List<AuthMethod> authMethods;
         if (authsResponse.getAuthMethods() == null) {
             authMethods = null;
@@ -505,7 +512,7 @@ public class BasicServiceClient implements ServiceClient {
         return authMethods;
     }
 
-    private UUID getAuthRequestIdFromString(String uuid) {
+    static UUID getAuthRequestIdFromString(String uuid) {
         UUID authorizationRequestUUID;
         try {
             authorizationRequestUUID = UUID.fromString(uuid);
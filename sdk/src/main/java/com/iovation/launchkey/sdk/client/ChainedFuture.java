@@ -0,0 +1,96 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.error.BaseException;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.concurrent.Future;
+
+/**
+ * Future for the result of an asynchronous client call which is completed by converting the result of the
+ * asynchronous transport call it is chained to. Cancelling this future cancels the transport call.
+ *
+ * @param <S> Type of the transport result
+ * @param <T> Type of the client result
+ */
+abstract class ChainedFuture<S, T> extends BasicFuture<T> {
+    private final FutureCallback<S> sourceCallback = new FutureCallback<S>() {
+        @Override
+        public void completed(S result) {
+            T converted;
+            try {
+                converted = convert(result);
+            } catch (BaseException | RuntimeException e) {
+                ChainedFuture.this.failed(e);
+                return;
+            }
+            ChainedFuture.this.completed(converted);
+        }
+
+        @Override
+        public void failed(Exception e) {
+            ChainedFuture.this.failed(e);
+        }
+
+        @Override
+        public void cancelled() {
+            ChainedFuture.this.cancel();
+        }
+    };
+    private volatile Future<S> source;
+
+    ChainedFuture(FutureCallback<T> callback) {
+        super(callback);
+    }
+
+    /**
+     * Convert the transport result into the client result
+     *
+     * @param source Result of the transport call
+     * @return Result of the client call
+     * @throws BaseException When the transport result cannot be converted
+     */
+    abstract T convert(S source) throws BaseException;
+
+    /**
+     * @return Callback to provide to the transport call which will complete this future
+     */
+    FutureCallback<S> sourceCallback() {
+        return sourceCallback;
+    }
+
+    /**
+     * Chain this future to the transport call which will complete it.
+     *
+     * @param source Future returned by the transport call which was provided the {@link #sourceCallback()}
+     * @return This future
+     */
+    Future<T> chain(Future<S> source) {
+        this.source = source;
+        if (isCancelled()) {
+            source.cancel(true);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        Future<S> current = source;
+        if (cancelled && current != null) {
+            current.cancel(mayInterruptIfRunning);
+        }
+        return cancelled;
+    }
+}
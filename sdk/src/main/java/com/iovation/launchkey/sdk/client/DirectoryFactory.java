@@ -12,16 +12,23 @@
 
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
 
 import java.util.UUID;
 
 public class DirectoryFactory {
     private final Transport transport;
+    private final AsyncTransport asyncTransport;
     private final UUID directoryId;
 
     public DirectoryFactory(Transport transport, UUID directoryId) {
+        this(transport, null, directoryId);
+    }
+
+    public DirectoryFactory(Transport transport, AsyncTransport asyncTransport, UUID directoryId) {
         this.transport = transport;
+        this.asyncTransport = asyncTransport;
         this.directoryId = directoryId;
     }
 
@@ -34,4 +41,21 @@ public class DirectoryFactory {
         UUID serviceUUID = UUID.fromString(serviceId);
         return new BasicServiceClient(serviceUUID, transport);
     }
+
+    public AsyncDirectoryClient makeAsyncDirectoryClient() {
+        return new BasicAsyncDirectoryClient(directoryId, getAsyncTransport());
+    }
+
+    public AsyncServiceClient makeAsyncServiceClient(String serviceId) {
+        if (serviceId == null) throw new IllegalArgumentException("Argument serviceId cannot be null.");
+        UUID serviceUUID = UUID.fromString(serviceId);
+        return new BasicAsyncServiceClient(serviceUUID, getAsyncTransport());
+    }
+
+    private AsyncTransport getAsyncTransport() {
+        if (asyncTransport == null) {
+            throw new IllegalStateException("No AsyncTransport was provided to the factory");
+        }
+        return asyncTransport;
+    }
 }
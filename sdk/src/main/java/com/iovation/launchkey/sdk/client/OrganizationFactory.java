@@ -12,16 +12,23 @@
 
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
 
 import java.util.UUID;
 
 public class OrganizationFactory {
     private final Transport transport;
+    private final AsyncTransport asyncTransport;
     private final UUID organizationId;
 
     public OrganizationFactory(Transport transport, UUID organizationId) {
+        this(transport, null, organizationId);
+    }
+
+    public OrganizationFactory(Transport transport, AsyncTransport asyncTransport, UUID organizationId) {
         this.transport = transport;
+        this.asyncTransport = asyncTransport;
         this.organizationId = organizationId;
     }
 
@@ -40,4 +47,27 @@ public class OrganizationFactory {
     public OrganizationClient makeOrganizationClient() {
         return new BasicOrganizationClient(organizationId, transport);
     }
+
+    public AsyncDirectoryClient makeAsyncDirectoryClient(String directoryId) {
+        if (directoryId == null) throw new IllegalArgumentException("Argument directoryId cannot be null");
+        UUID directoryUUID = UUID.fromString(directoryId);
+        return new BasicAsyncDirectoryClient(directoryUUID, getAsyncTransport());
+    }
+
+    public AsyncServiceClient makeAsyncServiceClient(String serviceId) {
+        if (serviceId == null) throw new IllegalArgumentException("Argument serviceId cannot be null");
+        UUID serviceUUID = UUID.fromString(serviceId);
+        return new BasicAsyncServiceClient(serviceUUID, getAsyncTransport());
+    }
+
+    public AsyncOrganizationClient makeAsyncOrganizationClient() {
+        return new BasicAsyncOrganizationClient(organizationId, getAsyncTransport());
+    }
+
+    private AsyncTransport getAsyncTransport() {
+        if (asyncTransport == null) {
+            throw new IllegalStateException("No AsyncTransport was provided to the factory");
+        }
+        return asyncTransport;
+    }
 }
@@ -12,6 +12,7 @@
 
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
 
 import java.util.UUID;
@@ -19,14 +20,31 @@ import java.util.UUID;
 public class ServiceFactory {
 
     private final Transport transport;
+    private final AsyncTransport asyncTransport;
     private final UUID serviceId;
 
     public ServiceFactory(Transport transport, UUID serviceID) {
+        this(transport, null, serviceID);
+    }
+
+    public ServiceFactory(Transport transport, AsyncTransport asyncTransport, UUID serviceID) {
         this.transport = transport;
+        this.asyncTransport = asyncTransport;
         this.serviceId = serviceID;
     }
 
     public ServiceClient makeServiceClient() {
         return new BasicServiceClient(serviceId, transport);
     }
+
+    public AsyncServiceClient makeAsyncServiceClient() {
+        return new BasicAsyncServiceClient(serviceId, getAsyncTransport());
+    }
+
+    private AsyncTransport getAsyncTransport() {
+        if (asyncTransport == null) {
+            throw new IllegalStateException("No AsyncTransport was provided to the factory");
+        }
+        return asyncTransport;
+    }
 }
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel which runs scheduled tasks on a single daemon thread. Each task is placed in the bucket for the
+ * tick in which it is due, so scheduling, cancelling, and running a task take constant time no matter how many tasks
+ * are pending. Tasks run on the timer thread and must not block.
+ */
+class TimingWheel implements Closeable {
+    static final long DEFAULT_TICK_MILLIS = 100L;
+    static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final AtomicInteger WHEEL_NUMBER = new AtomicInteger(1);
+
+    private final long tickMillis;
+    private final List<List<Timeout>> buckets;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private final Log log = LogFactory.getLog(getClass());
+    private volatile long tick;
+    private volatile boolean closed;
+
+    /**
+     * @param tickMillis Number of milliseconds between ticks. Tasks run no sooner than their delay and up to one tick
+     * after it.
+     * @param wheelSize Number of buckets in the wheel
+     * @throws IllegalArgumentException When tickMillis or wheelSize is less than one
+     */
+    TimingWheel(long tickMillis, int wheelSize) throws IllegalArgumentException {
+        if (tickMillis < 1) throw new IllegalArgumentException("Argument tickMillis must be greater than zero");
+        if (wheelSize < 1) throw new IllegalArgumentException("Argument wheelSize must be greater than zero");
+        this.tickMillis = tickMillis;
+        buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<Timeout>());
+        }
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runTicks();
+            }
+        }, "launchkey-timer-" + WHEEL_NUMBER.getAndIncrement());
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Start the timer thread
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Schedule a task
+     *
+     * @param task Task to run on the timer thread
+     * @param delayMillis Number of milliseconds to wait before running the task. The task runs on the next tick when
+     * the delay is less than one tick.
+     * @return Timeout which may be used to cancel the task
+     * @throws IllegalStateException When the wheel has been closed
+     */
+    Timeout schedule(Runnable task, long delayMillis) throws IllegalStateException {
+        if (closed) throw new IllegalStateException("The timing wheel has been closed");
+        long ticks = Math.max(1L, (delayMillis + tickMillis - 1) / tickMillis);
+        Timeout timeout = new Timeout(task, tick + ticks);
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Advance the wheel by one tick and run the tasks which are due. Only the timer thread, or a test in place of it,
+     * may call this.
+     */
+    void tick() {
+        long current = tick + 1;
+        tick = current;
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (!timeout.cancelled) {
+                buckets.get(getBucket(Math.max(timeout.deadline, current))).add(timeout);
+            }
+        }
+        Iterator<Timeout> iterator = buckets.get(getBucket(current)).iterator();
+        List<Timeout> due = new ArrayList<>();
+        while (iterator.hasNext()) {
+            timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.deadline <= current) {
+                iterator.remove();
+                due.add(timeout);
+            }
+        }
+        for (Timeout dueTimeout : due) {
+            try {
+                dueTimeout.task.run();
+            } catch (RuntimeException e) {
+                log.warn("Scheduled task failed", e);
+            }
+        }
+    }
+
+    /**
+     * Stop the timer thread. Pending tasks will not run.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+
+    private int getBucket(long tick) {
+        return (int) (tick % buckets.size());
+    }
+
+    private void runTicks() {
+        long started = System.nanoTime();
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        while (!closed) {
+            long sleepNanos = started + (tick + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } else {
+                tick();
+            }
+        }
+    }
+
+    /**
+     * Handle to a scheduled task
+     */
+    static class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Prevent the task from running if it has not already run
+         */
+        void cancel() {
+            cancelled = true;
+        }
+    }
+}
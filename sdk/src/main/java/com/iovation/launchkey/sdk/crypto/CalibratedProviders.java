@@ -0,0 +1,93 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto;
+
+import java.security.Provider;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Provider to use for each calibrated operation. Operations the calibration has no provider for use the fallback
+ * provider. A calibration still running in the background is never waited for: the fallback provider is used until
+ * it completes and the calibrated providers are used from then on. If it fails, the fallback provider continues to be
+ * used.
+ */
+public class CalibratedProviders {
+    private final Provider fallbackProvider;
+    private volatile Future<ProviderCalibration> pendingCalibration;
+    private volatile ProviderCalibration calibration;
+
+    /**
+     * @param fallbackProvider Provider used for operations without a calibrated provider. If null, the JCA selects
+     * the provider.
+     * @param calibration Completed calibration or null to always use the fallback provider
+     */
+    public CalibratedProviders(Provider fallbackProvider, ProviderCalibration calibration) {
+        this.fallbackProvider = fallbackProvider;
+        this.calibration = calibration;
+        this.pendingCalibration = null;
+    }
+
+    /**
+     * @param fallbackProvider Provider used for operations without a calibrated provider and until the calibration
+     * completes. If null, the JCA selects the provider.
+     * @param calibration Calibration which may still be running, e.g.: from
+     * {@link ProviderCalibration#calibrateInBackground()}
+     */
+    public CalibratedProviders(Provider fallbackProvider, Future<ProviderCalibration> calibration) {
+        this.fallbackProvider = fallbackProvider;
+        this.calibration = null;
+        this.pendingCalibration = calibration;
+    }
+
+    /**
+     * @param operation Operation to be performed
+     * @return Calibrated provider for the operation, or the fallback provider when the calibration has not completed
+     * or has no provider for the operation. May be null if the fallback provider is null.
+     */
+    public Provider getProvider(ProviderCalibration.Operation operation) {
+        ProviderCalibration current = getCalibration();
+        Provider calibrated = current == null ? null : current.getProvider(operation);
+        return calibrated == null ? fallbackProvider : calibrated;
+    }
+
+    /**
+     * @return Completed calibration or null if it has not completed, failed, or none was provided
+     */
+    public ProviderCalibration getCalibration() {
+        ProviderCalibration current = calibration;
+        Future<ProviderCalibration> pending = pendingCalibration;
+        if (current == null && pending != null && pending.isDone()) {
+            try {
+                current = pending.get();
+                calibration = current;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException | CancellationException e) {
+                current = null;
+            }
+            pendingCalibration = null;
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "CalibratedProviders{" +
+                "fallbackProvider=" + (fallbackProvider == null ? null : fallbackProvider.getName()) +
+                ", calibration=" + getCalibration() +
+                '}';
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto;
+
+import com.iovation.launchkey.sdk.error.CryptographyOverloaded;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dedicated pool of threads for expensive private key work such as decrypting responses and webhooks. The calling
+ * thread, often a servlet container I/O thread, waits for the result, so the number of threads performing
+ * cryptography at once is limited to the pool size regardless of how many callers there are. Work waiting for a
+ * thread is held in a bounded queue. When the queue is full, the work is either rejected with a
+ * {@link CryptographyOverloaded} or performed on the calling thread, depending on the {@link OverloadPolicy}.
+ */
+public class CryptoExecutor {
+    /**
+     * Default number of tasks which may wait for a thread for each thread in the pool
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY_PER_THREAD = 16;
+
+    /**
+     * Default maximum time in milliseconds a caller waits for a task to complete
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30000L;
+
+    /**
+     * Action taken when work is submitted while all threads are busy and the queue is full
+     */
+    public enum OverloadPolicy {
+        /**
+         * Reject the work by throwing a {@link CryptographyOverloaded}
+         */
+        REJECT,
+        /**
+         * Perform the work on the calling thread
+         */
+        CALLER_RUNS
+    }
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+    private final ThreadPoolExecutor executor;
+    private final OverloadPolicy overloadPolicy;
+    private final long timeoutMillis;
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong callerRunsCount = new AtomicLong();
+    private final AtomicLong timedOutCount = new AtomicLong();
+
+    /**
+     * Create an executor with a thread for each available processor, a queue of
+     * {@link #DEFAULT_QUEUE_CAPACITY_PER_THREAD} tasks per thread, the {@link OverloadPolicy#REJECT} policy, and a
+     * timeout of {@link #DEFAULT_TIMEOUT_MILLIS}.
+     */
+    public CryptoExecutor() {
+        this(Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().availableProcessors() * DEFAULT_QUEUE_CAPACITY_PER_THREAD, OverloadPolicy.REJECT);
+    }
+
+    /**
+     * @param threads Number of threads performing cryptography. Threads are daemon threads and are created as needed.
+     * @param queueCapacity Maximum number of tasks waiting for a thread
+     * @param overloadPolicy Action taken when all threads are busy and the queue is full
+     * @throws IllegalArgumentException When threads or queueCapacity is less than one or overloadPolicy is null
+     */
+    public CryptoExecutor(int threads, int queueCapacity, OverloadPolicy overloadPolicy)
+            throws IllegalArgumentException {
+        this(threads, queueCapacity, overloadPolicy, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param threads Number of threads performing cryptography. Threads are daemon threads and are created as needed.
+     * @param queueCapacity Maximum number of tasks waiting for a thread
+     * @param overloadPolicy Action taken when all threads are busy and the queue is full
+     * @param timeoutMillis Maximum time in milliseconds a caller waits for a task, including the time it waits for a
+     * thread. A task which does not complete in time is cancelled and a {@link CryptographyOverloaded} is raised.
+     * @throws IllegalArgumentException When threads, queueCapacity, or timeoutMillis is less than one or
+     * overloadPolicy is null
+     */
+    public CryptoExecutor(int threads, int queueCapacity, OverloadPolicy overloadPolicy, long timeoutMillis)
+            throws IllegalArgumentException {
+        if (threads < 1) throw new IllegalArgumentException("Argument threads must be greater than zero");
+        if (queueCapacity < 1) throw new IllegalArgumentException("Argument queueCapacity must be greater than zero");
+        if (overloadPolicy == null) throw new IllegalArgumentException("Argument overloadPolicy cannot be null");
+        if (timeoutMillis < 1) throw new IllegalArgumentException("Argument timeoutMillis must be greater than zero");
+        this.overloadPolicy = overloadPolicy;
+        this.timeoutMillis = timeoutMillis;
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new WorkerThreadFactory(this),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Perform the task on the pool and wait for the result. Tasks submitted from a thread of this executor are
+     * performed on that thread so that nested work can not deadlock the pool.
+     *
+     * @param task Task to perform
+     * @param <T> Type of the result
+     * @return Result of the task
+     * @throws CryptographyOverloaded When the pool is saturated and the overload policy is
+     * {@link OverloadPolicy#REJECT}, the executor has been shut down, or the task did not complete within the timeout
+     * @throws ExecutionException When the task throws an exception. The exception is the cause.
+     * @throws InterruptedException When the calling thread is interrupted while waiting for the result
+     */
+    public <T> T execute(Callable<T> task)
+            throws CryptographyOverloaded, ExecutionException, InterruptedException {
+        if (isWorkerThread()) {
+            return callInline(task);
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            if (overloadPolicy == OverloadPolicy.CALLER_RUNS && !executor.isShutdown()) {
+                callerRunsCount.incrementAndGet();
+                return callInline(task);
+            }
+            rejectedCount.incrementAndGet();
+            throw new CryptographyOverloaded("Crypto executor is saturated", e, null);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutCount.incrementAndGet();
+            throw new CryptographyOverloaded("Crypto executor did not complete the task within " + timeoutMillis +
+                    "ms", e, null);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * @return Number of threads performing or available to perform cryptography
+     */
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    /**
+     * @return Approximate number of threads actively performing cryptography
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return Number of tasks waiting for a thread
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return Number of additional tasks which may wait for a thread before the pool is saturated
+     */
+    public int getRemainingQueueCapacity() {
+        return executor.getQueue().remainingCapacity();
+    }
+
+    /**
+     * @return Approximate number of tasks completed by the pool
+     */
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * @return Number of tasks rejected with a {@link CryptographyOverloaded}
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return Number of tasks performed on the calling thread because the pool was saturated
+     */
+    public long getCallerRunsCount() {
+        return callerRunsCount.get();
+    }
+
+    /**
+     * @return Number of tasks cancelled because they did not complete within the timeout
+     */
+    public long getTimedOutCount() {
+        return timedOutCount.get();
+    }
+
+    /**
+     * Stop accepting tasks. Tasks already accepted will complete.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private boolean isWorkerThread() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof WorkerThread && ((WorkerThread) thread).owner == this;
+    }
+
+    private static <T> T callInline(Callable<T> task) throws ExecutionException, InterruptedException {
+        FutureTask<T> future = new FutureTask<>(task);
+        future.run();
+        return future.get();
+    }
+
+    private static class WorkerThread extends Thread {
+        private final CryptoExecutor owner;
+
+        WorkerThread(CryptoExecutor owner, Runnable runnable, String name) {
+            super(runnable, name);
+            this.owner = owner;
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final CryptoExecutor owner;
+        private final int poolNumber = POOL_NUMBER.getAndIncrement();
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        WorkerThreadFactory(CryptoExecutor owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new WorkerThread(owner, runnable,
+                    "launchkey-crypto-" + poolNumber + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Minimal DER reader for the definite length encodings found in private key structures
+ */
+class DerReader {
+    private final byte[] data;
+    private int position = 0;
+
+    DerReader(byte[] data) {
+        this.data = data;
+    }
+
+    boolean hasMore() {
+        return position < data.length;
+    }
+
+    int nextTag() {
+        if (!hasMore()) throw new IllegalArgumentException("Unexpected end of DER data");
+        return data[position] & 0xFF;
+    }
+
+    byte[] read(int tag) {
+        if (nextTag() != tag) throw new IllegalArgumentException("Unexpected DER tag");
+        position++;
+        if (!hasMore()) throw new IllegalArgumentException("Unexpected end of DER data");
+        int length = data[position++] & 0xFF;
+        if (length > 0x7F) {
+            int lengthBytes = length & 0x7F;
+            if (lengthBytes > 3) throw new IllegalArgumentException("Unsupported DER length");
+            length = 0;
+            for (int i = 0; i < lengthBytes; i++) {
+                if (!hasMore()) throw new IllegalArgumentException("Unexpected end of DER data");
+                length = (length << 8) | (data[position++] & 0xFF);
+            }
+        }
+        if (length > data.length - position) throw new IllegalArgumentException("Invalid DER length");
+        byte[] value = Arrays.copyOfRange(data, position, position + length);
+        position += length;
+        return value;
+    }
+
+    BigInteger readInteger() {
+        return new BigInteger(read(0x02));
+    }
+}
@@ -19,14 +19,17 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import java.math.BigInteger;
 import java.security.*;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPrivateCrtKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
-import java.security.spec.InvalidKeySpecException;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.RSAPublicKeySpec;
-import java.security.spec.X509EncodedKeySpec;
+import java.security.spec.*;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -36,14 +39,43 @@ public class JCECrypto implements Crypto {
 
     private static final String RSA_CRYPTO_CIPHER = "RSA/ECB/OAEPWithSHA1AndMGF1Padding";
     private static final Base64 BASE_64 = new Base64(0);
+    // Instances are cached per thread, and per provider, so that every JCECrypto on a thread shares them. An instance
+    // from a provider loaded by an application class loader, such as a Bouncy Castle jar in a web application, keeps
+    // that class loader reachable from each thread which used it until the thread ends.
+    private static final ThreadLocal<MessageDigest> MD5_DIGEST = new ThreadLocal<>();
+    private static final ThreadLocal<Map<Provider, Cipher>> RSA_CIPHERS = new ThreadLocal<>();
+    private static final ThreadLocal<Map<Provider, MessageDigest>> SHA256_DIGESTS = new ThreadLocal<>();
+    private static final ThreadLocal<Map<Provider, MessageDigest>> SHA384_DIGESTS = new ThreadLocal<>();
+    private static final ThreadLocal<Map<Provider, MessageDigest>> SHA512_DIGESTS = new ThreadLocal<>();
 
     private final Provider provider;
+    private final CalibratedProviders calibratedProviders;
 
     /**
      * @param provider Crypto Provider
      */
     public JCECrypto(Provider provider) {
+        this(provider, (ProviderCalibration) null);
+    }
+
+    /**
+     * @param provider Crypto Provider used for key operations and for any operation the calibration has no provider
+     * for
+     * @param calibration Provider calibration selecting the provider for RSA encryption and for SHA-256 digests.
+     * SHA-384 and SHA-512 digests use the provider. If null, the provider is used for everything.
+     */
+    public JCECrypto(Provider provider, ProviderCalibration calibration) {
+        this(provider, new CalibratedProviders(provider, calibration));
+    }
+
+    /**
+     * @param provider Crypto Provider used for key operations and for SHA-384 and SHA-512 digests
+     * @param calibratedProviders Providers for RSA encryption and for SHA-256 digests. A calibration which completes
+     * later is used from then on.
+     */
+    public JCECrypto(Provider provider, CalibratedProviders calibratedProviders) {
         this.provider = provider;
+        this.calibratedProviders = calibratedProviders;
     }
 
     @Override
@@ -63,17 +95,18 @@ public class JCECrypto implements Crypto {
 
     @Override
     public byte[] sha256(byte[] input) throws NoSuchAlgorithmException {
-        return getDigest(input, "SHA-256");
+        return getDigest(input, "SHA-256", calibratedProviders.getProvider(ProviderCalibration.Operation.SHA256),
+                SHA256_DIGESTS);
     }
 
     @Override
     public byte[] sha384(byte[] input) throws NoSuchAlgorithmException {
-        return getDigest(input, "SHA-384");
+        return getDigest(input, "SHA-384", provider, SHA384_DIGESTS);
     }
 
     @Override
     public byte[] sha512(byte[] input) throws NoSuchAlgorithmException {
-        return getDigest(input, "SHA-512");
+        return getDigest(input, "SHA-512", provider, SHA512_DIGESTS);
     }
 
     @Override
@@ -103,6 +136,26 @@ public class JCECrypto implements Crypto {
         }
     }
 
+    /**
+     * Get an RSA or EC private key utilizing the provided provider and PKCS#8 PEM formatted string
+     *
+     * @param provider Provider to generate the key
+     * @param pem PEM formatted key string
+     * @return RSA or EC private key
+     */
+    public static PrivateKey getPrivateKeyFromPEM(Provider provider, String pem) {
+        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(getKeyBytesFromPEM(pem));
+        try {
+            return KeyFactory.getInstance("RSA", provider).generatePrivate(keySpec);
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException rsaException) {
+            try {
+                return KeyFactory.getInstance("EC", provider).generatePrivate(keySpec);
+            } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+                throw new IllegalArgumentException("Invalid PEM provided", rsaException);
+            }
+        }
+    }
+
     /**
      * Get an RSA public key utilizing the provided provider and PEM formatted string
      *
@@ -138,11 +191,76 @@ public class JCECrypto implements Crypto {
         }
     }
 
+    /**
+     * Get the public key fingerprint for an RSA or EC private key. The public key of an EC private key is taken from
+     * its encoding by {@link #getECPublicKey(Provider, ECPrivateKey)}.
+     *
+     * @param provider Provider to generate the public key
+     * @param key RSA or EC private key
+     * @return Colon separated MD5 fingerprint of the public key
+     * @throws IllegalArgumentException When the key type is not supported or an EC private key does not include its
+     * public key
+     */
+    public static String getPublicKeyFingerprint(Provider provider, PrivateKey key) throws IllegalArgumentException {
+        if (key instanceof RSAPrivateKey) {
+            return getRsaPublicKeyFingerprint(provider, (RSAPrivateKey) key);
+        } else if (key instanceof ECPrivateKey) {
+            return getFingerprint(getECPublicKey(provider, (ECPrivateKey) key).getEncoded());
+        }
+        throw new IllegalArgumentException("Unsupported key type: " + (key == null ? null : key.getAlgorithm()));
+    }
+
+    /**
+     * Get the EC public key for an EC private key from the public key included in the private key encoding, as
+     * OpenSSL and Bouncy Castle do. Keys generated by keytool and the JDK do not include it and are rejected; load
+     * those with the public key of their certificate instead.
+     *
+     * @param provider Provider to generate the public key
+     * @param key EC private key whose encoding includes the public key
+     * @return EC public key
+     * @throws IllegalArgumentException When the private key does not include the public key or the key is invalid
+     */
+    public static ECPublicKey getECPublicKey(Provider provider, ECPrivateKey key) throws IllegalArgumentException {
+        byte[] encoded = key.getEncoded();
+        if (encoded == null) {
+            throw new IllegalArgumentException("Public key required: EC private key cannot be encoded");
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC", provider);
+            // Keys from other providers are converted so that the public key encodes the named curve
+            ECParameterSpec params = ((ECPrivateKey) keyFactory.generatePrivate(new PKCS8EncodedKeySpec(encoded)))
+                    .getParams();
+            byte[] point = getEncodedECPublicPoint(encoded);
+            int fieldSize = (params.getCurve().getField().getFieldSize() + 7) / 8;
+            if (point == null || point.length != 1 + 2 * fieldSize || point[0] != 0x04) {
+                throw new IllegalArgumentException(
+                        "Public key required: EC private key does not include an uncompressed public key");
+            }
+            ECPoint w = new ECPoint(
+                    new BigInteger(1, Arrays.copyOfRange(point, 1, 1 + fieldSize)),
+                    new BigInteger(1, Arrays.copyOfRange(point, 1 + fieldSize, point.length))
+            );
+            return (ECPublicKey) keyFactory.generatePublic(new ECPublicKeySpec(w, params));
+        } catch (InvalidKeySpecException e) {
+            throw new IllegalArgumentException("Invalid key", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Provider does not provide required algorithm: EC", e);
+        }
+    }
+
     public static String getRsaPublicKeyFingerprint(Provider provider, RSAPublicKey key) throws IllegalArgumentException {
+        return getFingerprint(key.getEncoded());
+    }
+
+    static String getFingerprint(byte[] encodedPublicKey) throws IllegalArgumentException {
         try {
-            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            MessageDigest md5 = MD5_DIGEST.get();
+            if (md5 == null) {
+                md5 = MessageDigest.getInstance("MD5");
+                MD5_DIGEST.set(md5);
+            }
             StringBuilder buf = new StringBuilder();
-            char[] hex = Hex.encodeHex(md5.digest(key.getEncoded()));
+            char[] hex = Hex.encodeHex(md5.digest(encodedPublicKey));
             for (int i = 0; i < hex.length; i += 2) {
                 if (buf.length() > 0) buf.append(':');
                 buf.append(hex, i, 2);
@@ -200,11 +318,45 @@ public class JCECrypto implements Crypto {
         return BASE_64.decode(strippedKey.toString().getBytes());
     }
 
+    /**
+     * Read the public key from a PKCS#8 PrivateKeyInfo wrapping an RFC 5915 ECPrivateKey
+     *
+     * @return Encoded EC point or null if the public key is not present
+     */
+    private static byte[] getEncodedECPublicPoint(byte[] pkcs8) {
+        try {
+            DerReader privateKeyInfo = new DerReader(new DerReader(pkcs8).read(0x30));
+            privateKeyInfo.read(0x02); // version
+            privateKeyInfo.read(0x30); // privateKeyAlgorithm
+            DerReader ecPrivateKey = new DerReader(new DerReader(privateKeyInfo.read(0x04)).read(0x30));
+            ecPrivateKey.read(0x02); // version
+            ecPrivateKey.read(0x04); // privateKey
+            while (ecPrivateKey.hasMore()) {
+                if (ecPrivateKey.nextTag() == 0xA1) { // [1] publicKey
+                    byte[] bitString = new DerReader(ecPrivateKey.read(0xA1)).read(0x03);
+                    // First byte is the number of unused bits
+                    return Arrays.copyOfRange(bitString, 1, bitString.length);
+                }
+                ecPrivateKey.read(ecPrivateKey.nextTag());
+            }
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private byte[] processRSA(byte[] message, Key key, int mode) {
         try {
-            Cipher rsaDecryptCipher = Cipher.getInstance(RSA_CRYPTO_CIPHER, provider);
-            rsaDecryptCipher.init(mode, key);
-            return rsaDecryptCipher.doFinal(message);
+            Provider rsaProvider = calibratedProviders.getProvider(ProviderCalibration.Operation.RSA_OAEP_DECRYPT);
+            Map<Provider, Cipher> ciphers = getThreadInstances(RSA_CIPHERS);
+            Cipher cipher = ciphers.get(rsaProvider);
+            if (cipher == null) {
+                cipher = Cipher.getInstance(RSA_CRYPTO_CIPHER, rsaProvider);
+                ciphers.put(rsaProvider, cipher);
+            }
+            // Always initialized for the current key and mode so no state carries over from a previous use
+            cipher.init(mode, key);
+            return cipher.doFinal(message);
         } catch (IllegalBlockSizeException e) {
             throw new IllegalArgumentException("Block size of message was not valid", e);
         } catch (BadPaddingException e) {
@@ -218,8 +370,31 @@ public class JCECrypto implements Crypto {
         }
     }
 
-    private byte[] getDigest(byte[] input, String algorithm) throws NoSuchAlgorithmException {
-        MessageDigest digest = MessageDigest.getInstance(algorithm, provider);
+    /**
+     * Digest the input with the calling thread's digest instance for the algorithm and provider. Instances are confined
+     * to a single thread so they can be reused without locking and without a provider lookup on every call.
+     */
+    private static byte[] getDigest(byte[] input, String algorithm, Provider digestProvider,
+                                    ThreadLocal<Map<Provider, MessageDigest>> threadDigests)
+            throws NoSuchAlgorithmException {
+        Map<Provider, MessageDigest> digests = getThreadInstances(threadDigests);
+        MessageDigest digest = digests.get(digestProvider);
+        if (digest == null) {
+            digest = MessageDigest.getInstance(algorithm, digestProvider);
+            digests.put(digestProvider, digest);
+        } else {
+            digest.reset();
+        }
         return digest.digest(input);
     }
+
+    private static <T> Map<Provider, T> getThreadInstances(ThreadLocal<Map<Provider, T>> threadInstances) {
+        Map<Provider, T> instances = threadInstances.get();
+        if (instances == null) {
+            // Providers are compared by identity as their equality is that of their property tables
+            instances = new IdentityHashMap<>();
+            threadInstances.set(instances);
+        }
+        return instances;
+    }
 }
@@ -0,0 +1,427 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPrivateCrtKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Loads entity private keys from PEM strings, PEM bundles, and PKCS#12 or JKS key stores. PKCS#8 and PKCS#1 PEM
+ * encodings are read directly rather than line by line, multiple PEM keys are parsed in parallel, and the public
+ * key fingerprint is computed from the key material once and kept with the key. RSA keys must be in CRT form so
+ * that private key operations use the Chinese Remainder Theorem.
+ */
+public class KeyLoader {
+    private static final String PEM_BEGIN = "-----BEGIN ";
+    private static final String PEM_END = "-----END ";
+    private static final String PEM_DASHES = "-----";
+    private static final String PKCS8_LABEL = "PRIVATE KEY";
+    private static final String PKCS1_LABEL = "RSA PRIVATE KEY";
+    // DER encoded object identifiers without tag and length
+    private static final byte[] RSA_ENCRYPTION_OID =
+            {0x2A, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xF7, 0x0D, 0x01, 0x01, 0x01};
+    private static final byte[] EC_PUBLIC_KEY_OID = {0x2A, (byte) 0x86, 0x48, (byte) 0xCE, 0x3D, 0x02, 0x01};
+    private static final int MAX_CACHED_PEMS = 1024;
+
+    private final Provider provider;
+    private final ExecutorService executor;
+    // Keyed by the SHA-256 digest of the PEM so the PEM encoded private keys are not retained
+    private final ConcurrentMap<String, LoadedKey> pemCache = new ConcurrentHashMap<>();
+
+    /**
+     * @param provider JCE provider used to create the keys. Multiple keys are parsed in parallel on threads that
+     * exist only for the duration of the load.
+     */
+    public KeyLoader(Provider provider) {
+        this(provider, null);
+    }
+
+    /**
+     * @param provider JCE provider used to create the keys
+     * @param executor Executor on which multiple keys are parsed in parallel. It is not shut down by the loader. If
+     * null, threads are created for the duration of each load of multiple keys.
+     */
+    public KeyLoader(Provider provider, ExecutorService executor) {
+        this.provider = provider;
+        this.executor = executor;
+    }
+
+    /**
+     * Load a private key from a PKCS#8 ("BEGIN PRIVATE KEY") or PKCS#1 ("BEGIN RSA PRIVATE KEY") PEM string. The
+     * result is cached by the digest of the PEM string so loading the same PEM again does not parse it again.
+     *
+     * @param pem PEM formatted private key
+     * @return Private key and the fingerprint of its public key
+     * @throws IllegalArgumentException When the PEM is not a supported private key or the key is not usable
+     */
+    public LoadedKey loadPEM(String pem) throws IllegalArgumentException {
+        if (pem == null) throw new IllegalArgumentException("PEM cannot be null");
+        String digest = DigestUtils.sha256Hex(pem);
+        LoadedKey loadedKey = pemCache.get(digest);
+        if (loadedKey == null) {
+            loadedKey = load(parsePEM(pem));
+            if (pemCache.size() >= MAX_CACHED_PEMS) {
+                pemCache.clear();
+            }
+            pemCache.putIfAbsent(digest, loadedKey);
+        }
+        return loadedKey;
+    }
+
+    /**
+     * Load private keys from PEM strings in parallel
+     *
+     * @param pems PEM formatted private keys
+     * @return Private keys by public key fingerprint in the order provided
+     * @throws IllegalArgumentException When any PEM is not a supported private key or any key is not usable
+     */
+    public Map<String, PrivateKey> loadPEMs(Collection<String> pems) throws IllegalArgumentException {
+        List<Callable<LoadedKey>> tasks = new ArrayList<>(pems.size());
+        for (final String pem : pems) {
+            tasks.add(new Callable<LoadedKey>() {
+                @Override
+                public LoadedKey call() {
+                    return loadPEM(pem);
+                }
+            });
+        }
+        return toMap(invokeAll(tasks));
+    }
+
+    /**
+     * Load all private keys from a string containing any number of concatenated PEM private keys. Any text outside
+     * of the PEM blocks is ignored.
+     *
+     * @param bundle Concatenated PEM formatted private keys
+     * @return Private keys by public key fingerprint in the order they appear in the bundle
+     * @throws IllegalArgumentException When any PEM block is not a supported private key or any key is not usable
+     */
+    public Map<String, PrivateKey> loadPEMBundle(String bundle) throws IllegalArgumentException {
+        List<String> pems = new ArrayList<>();
+        int start = bundle.indexOf(PEM_BEGIN);
+        while (start >= 0) {
+            int labelEnd = bundle.indexOf(PEM_DASHES, start + PEM_BEGIN.length());
+            if (labelEnd < 0) throw new IllegalArgumentException("Invalid PEM provided");
+            String footer = PEM_END + bundle.substring(start + PEM_BEGIN.length(), labelEnd) + PEM_DASHES;
+            int end = bundle.indexOf(footer, labelEnd);
+            if (end < 0) throw new IllegalArgumentException("Invalid PEM provided");
+            end += footer.length();
+            pems.add(bundle.substring(start, end));
+            start = bundle.indexOf(PEM_BEGIN, end);
+        }
+        return loadPEMs(pems);
+    }
+
+    /**
+     * Load all private keys from a key store such as PKCS#12 or JKS. Entries which are not private keys are ignored.
+     * Entries are read sequentially as key stores are not safe for concurrent use. The fingerprint is computed from
+     * the public key of the entry's certificate as private keys created by keytool and the JDK do not include the
+     * EC public point.
+     *
+     * @param keyStore Loaded key store
+     * @param password Password for the private key entries
+     * @return Private keys by public key fingerprint
+     * @throws IllegalArgumentException When a private key entry cannot be recovered or is not usable
+     */
+    public Map<String, PrivateKey> loadKeyStore(KeyStore keyStore, char[] password) throws IllegalArgumentException {
+        List<LoadedKey> loadedKeys = new ArrayList<>();
+        try {
+            Enumeration<String> aliases = keyStore.aliases();
+            while (aliases.hasMoreElements()) {
+                String alias = aliases.nextElement();
+                if (keyStore.isKeyEntry(alias)) {
+                    Key key = keyStore.getKey(alias, password);
+                    if (key instanceof PrivateKey) {
+                        Certificate certificate = keyStore.getCertificate(alias);
+                        loadedKeys.add(certificate == null
+                                ? load((PrivateKey) key)
+                                : load((PrivateKey) key, certificate.getPublicKey()));
+                    }
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Unable to read private keys from key store", e);
+        }
+        return toMap(loadedKeys);
+    }
+
+    /**
+     * Load all private keys from a key store stream
+     *
+     * @param keyStoreData Key store data. The stream is not closed.
+     * @param type Key store type such as "PKCS12" or "JKS"
+     * @param password Password for the key store and its private key entries
+     * @return Private keys by public key fingerprint
+     * @throws IllegalArgumentException When the key store cannot be read or a private key entry is not usable
+     */
+    public Map<String, PrivateKey> loadKeyStore(InputStream keyStoreData, String type, char[] password)
+            throws IllegalArgumentException {
+        KeyStore keyStore;
+        try {
+            keyStore = KeyStore.getInstance(type);
+            keyStore.load(keyStoreData, password);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalArgumentException("Unable to read key store", e);
+        }
+        return loadKeyStore(keyStore, password);
+    }
+
+    /**
+     * Validate a private key and compute the fingerprint of its public key. An EC private key must include its public
+     * key, as those written by OpenSSL do. Use {@link #load(PrivateKey, PublicKey)} for EC keys created by keytool
+     * and the JDK.
+     *
+     * @param privateKey RSA private key in CRT form or EC private key including its public key
+     * @return Private key and the fingerprint of its public key
+     * @throws IllegalArgumentException When the key is not supported, an RSA key is not in CRT form, or an EC key
+     * does not include its public key
+     */
+    public LoadedKey load(PrivateKey privateKey) throws IllegalArgumentException {
+        if (privateKey instanceof RSAPrivateKey) {
+            RSAPrivateCrtKey crtKey = requireCrt((RSAPrivateKey) privateKey);
+            return new LoadedKey(privateKey, JCECrypto.getFingerprint(
+                    encodeRSAPublicKey(crtKey.getModulus(), crtKey.getPublicExponent())));
+        } else if (privateKey instanceof ECPrivateKey) {
+            return new LoadedKey(privateKey, JCECrypto.getPublicKeyFingerprint(provider, privateKey));
+        }
+        throw new IllegalArgumentException(
+                "Unsupported key type: " + (privateKey == null ? null : privateKey.getAlgorithm()));
+    }
+
+    /**
+     * Validate a private key and compute the fingerprint of its provided public key
+     *
+     * @param privateKey RSA private key in CRT form or EC private key
+     * @param publicKey Public key of the same key pair
+     * @return Private key and the fingerprint of its public key
+     * @throws IllegalArgumentException When the key is not supported, an RSA key is not in CRT form, or the public
+     * key is not of the same type as the private key
+     */
+    public LoadedKey load(PrivateKey privateKey, PublicKey publicKey) throws IllegalArgumentException {
+        if (publicKey == null) throw new IllegalArgumentException("Public key cannot be null");
+        if (privateKey instanceof RSAPrivateKey) {
+            RSAPrivateCrtKey crtKey = requireCrt((RSAPrivateKey) privateKey);
+            if (!(publicKey instanceof RSAPublicKey)
+                    || !crtKey.getModulus().equals(((RSAPublicKey) publicKey).getModulus())) {
+                throw new IllegalArgumentException("Public key does not match the private key");
+            }
+        } else if (!(privateKey instanceof ECPrivateKey)) {
+            throw new IllegalArgumentException(
+                    "Unsupported key type: " + (privateKey == null ? null : privateKey.getAlgorithm()));
+        } else if (!"EC".equals(publicKey.getAlgorithm())) {
+            throw new IllegalArgumentException("Public key does not match the private key");
+        }
+        return new LoadedKey(privateKey, JCECrypto.getFingerprint(publicKey.getEncoded()));
+    }
+
+    private PrivateKey parsePEM(String pem) {
+        int begin = pem.indexOf(PEM_BEGIN);
+        if (begin < 0) {
+            // No armor, so fall back to the lenient parser
+            return JCECrypto.getPrivateKeyFromPEM(provider, pem);
+        }
+        int labelStart = begin + PEM_BEGIN.length();
+        int labelEnd = pem.indexOf(PEM_DASHES, labelStart);
+        if (labelEnd < 0) throw new IllegalArgumentException("Invalid PEM provided");
+        String label = pem.substring(labelStart, labelEnd);
+        int end = pem.indexOf(PEM_END + label + PEM_DASHES, labelEnd);
+        if (end < 0) throw new IllegalArgumentException("Invalid PEM provided");
+        // Line breaks and other whitespace in the body are ignored by the decoder
+        byte[] der = Base64.decodeBase64(pem.substring(labelEnd + PEM_DASHES.length(), end));
+        try {
+            if (PKCS8_LABEL.equals(label)) {
+                return KeyFactory.getInstance(getPKCS8Algorithm(der), provider)
+                        .generatePrivate(new PKCS8EncodedKeySpec(der));
+            } else if (PKCS1_LABEL.equals(label)) {
+                return KeyFactory.getInstance("RSA", provider).generatePrivate(getPKCS1KeySpec(der));
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid PEM provided", e);
+        }
+        throw new IllegalArgumentException("Unsupported PEM type: " + label);
+    }
+
+    private static String getPKCS8Algorithm(byte[] der) {
+        DerReader privateKeyInfo = new DerReader(new DerReader(der).read(0x30));
+        privateKeyInfo.read(0x02); // version
+        byte[] oid = new DerReader(privateKeyInfo.read(0x30)).read(0x06);
+        if (Arrays.equals(RSA_ENCRYPTION_OID, oid)) {
+            return "RSA";
+        } else if (Arrays.equals(EC_PUBLIC_KEY_OID, oid)) {
+            return "EC";
+        }
+        throw new IllegalArgumentException("Unsupported private key algorithm");
+    }
+
+    private static RSAPrivateCrtKeySpec getPKCS1KeySpec(byte[] der) {
+        DerReader rsaPrivateKey = new DerReader(new DerReader(der).read(0x30));
+        rsaPrivateKey.readInteger(); // version
+        return new RSAPrivateCrtKeySpec(
+                rsaPrivateKey.readInteger(), // modulus
+                rsaPrivateKey.readInteger(), // publicExponent
+                rsaPrivateKey.readInteger(), // privateExponent
+                rsaPrivateKey.readInteger(), // prime1
+                rsaPrivateKey.readInteger(), // prime2
+                rsaPrivateKey.readInteger(), // exponent1
+                rsaPrivateKey.readInteger(), // exponent2
+                rsaPrivateKey.readInteger()  // coefficient
+        );
+    }
+
+    private static RSAPrivateCrtKey requireCrt(RSAPrivateKey privateKey) {
+        if (privateKey instanceof RSAPrivateCrtKey) {
+            RSAPrivateCrtKey crtKey = (RSAPrivateCrtKey) privateKey;
+            if (crtKey.getPublicExponent().signum() > 0 && crtKey.getPrimeP().signum() > 0
+                    && crtKey.getPrimeQ().signum() > 0 && crtKey.getPrimeExponentP().signum() > 0
+                    && crtKey.getPrimeExponentQ().signum() > 0 && crtKey.getCrtCoefficient().signum() > 0) {
+                return crtKey;
+            }
+        }
+        throw new IllegalArgumentException("RSA private key must include the CRT parameters");
+    }
+
+    /**
+     * X.509 SubjectPublicKeyInfo encoding of an RSA public key. This is the same encoding returned by
+     * {@link java.security.PublicKey#getEncoded()} without creating the key through a key factory.
+     */
+    static byte[] encodeRSAPublicKey(BigInteger modulus, BigInteger publicExponent) {
+        byte[] rsaPublicKey = derSequence(derInteger(modulus), derInteger(publicExponent));
+        byte[] bitString = new byte[rsaPublicKey.length + 1]; // First byte is the number of unused bits
+        System.arraycopy(rsaPublicKey, 0, bitString, 1, rsaPublicKey.length);
+        byte[] algorithm = derSequence(derValue(0x06, RSA_ENCRYPTION_OID), new byte[]{0x05, 0x00});
+        return derSequence(algorithm, derValue(0x03, bitString));
+    }
+
+    private static byte[] derInteger(BigInteger value) {
+        return derValue(0x02, value.toByteArray());
+    }
+
+    private static byte[] derSequence(byte[]... values) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (byte[] value : values) {
+            content.write(value, 0, value.length);
+        }
+        return derValue(0x30, content.toByteArray());
+    }
+
+    private static byte[] derValue(int tag, byte[] value) {
+        ByteArrayOutputStream der = new ByteArrayOutputStream(value.length + 5);
+        der.write(tag);
+        if (value.length < 0x80) {
+            der.write(value.length);
+        } else {
+            int lengthBytes = value.length > 0xFFFF ? 3 : value.length > 0xFF ? 2 : 1;
+            der.write(0x80 | lengthBytes);
+            for (int i = lengthBytes - 1; i >= 0; i--) {
+                der.write(value.length >>> (8 * i));
+            }
+        }
+        der.write(value, 0, value.length);
+        return der.toByteArray();
+    }
+
+    private List<LoadedKey> invokeAll(List<Callable<LoadedKey>> tasks) {
+        if (tasks.size() < 2) {
+            List<LoadedKey> loadedKeys = new ArrayList<>(tasks.size());
+            for (Callable<LoadedKey> task : tasks) {
+                loadedKeys.add(call(task));
+            }
+            return loadedKeys;
+        }
+        ExecutorService loadExecutor = executor == null
+                ? Executors.newFixedThreadPool(
+                        Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()), new DaemonThreadFactory())
+                : executor;
+        try {
+            List<LoadedKey> loadedKeys = new ArrayList<>(tasks.size());
+            for (Future<LoadedKey> future : loadExecutor.invokeAll(tasks)) {
+                loadedKeys.add(future.get());
+            }
+            return loadedKeys;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading keys", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalArgumentException("Unable to load key", e.getCause());
+        } finally {
+            if (loadExecutor != executor) {
+                loadExecutor.shutdown();
+            }
+        }
+    }
+
+    private static LoadedKey call(Callable<LoadedKey> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Unable to load key", e);
+        }
+    }
+
+    private static Map<String, PrivateKey> toMap(List<LoadedKey> loadedKeys) {
+        Map<String, PrivateKey> keys = new LinkedHashMap<>();
+        for (LoadedKey loadedKey : loadedKeys) {
+            keys.put(loadedKey.getFingerprint(), loadedKey.getPrivateKey());
+        }
+        return Collections.unmodifiableMap(keys);
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "launchkey-key-loader");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto;
+
+import java.security.PrivateKey;
+
+/**
+ * Private key loaded by a {@link KeyLoader} along with the fingerprint of its public key
+ */
+public class LoadedKey {
+    private final PrivateKey privateKey;
+    private final String fingerprint;
+
+    /**
+     * @param privateKey Private key
+     * @param fingerprint Colon separated MD5 fingerprint of the public key for the private key
+     */
+    public LoadedKey(PrivateKey privateKey, String fingerprint) {
+        this.privateKey = privateKey;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return Private key
+     */
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    /**
+     * @return Colon separated MD5 fingerprint of the public key for the private key. This is the key ID used by the
+     * LaunchKey API.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadedKey{" +
+                "algorithm='" + privateKey.getAlgorithm() + '\'' +
+                ", fingerprint='" + fingerprint + '\'' +
+                '}';
+    }
+}
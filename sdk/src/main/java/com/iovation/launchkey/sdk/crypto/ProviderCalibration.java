@@ -0,0 +1,352 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selection of the fastest JCE provider for each cryptographic operation performed by the SDK. A calibration
+ * micro-benchmarks every provider that supports an operation and keeps the one with the lowest average time, so
+ * faster providers such as BouncyCastle or platform native providers are used without selecting them by hand.
+ * Calibration takes a fraction of a second per provider and is intended to be done once at startup.
+ */
+public class ProviderCalibration {
+    /**
+     * Default number of timed iterations for each operation and provider
+     */
+    public static final int DEFAULT_ITERATIONS = 50;
+
+    /**
+     * Operations which are calibrated
+     */
+    public enum Operation {
+        /**
+         * RSA decryption with OAEP padding as used for the LaunchKey API public key
+         */
+        RSA_OAEP_DECRYPT("Cipher", "RSA/ECB/OAEPWithSHA1AndMGF1Padding"),
+        /**
+         * RS256 JWT signing
+         */
+        RS256_SIGN("Signature", "SHA256withRSA"),
+        /**
+         * RS256 JWT signature verification
+         */
+        RS256_VERIFY("Signature", "SHA256withRSA"),
+        /**
+         * SHA-256 message digest
+         */
+        SHA256("MessageDigest", "SHA-256"),
+        /**
+         * AES encryption as used for JWE content encryption
+         */
+        AES("Cipher", "AES/CBC/PKCS5Padding");
+
+        private final String type;
+        private final String algorithm;
+
+        Operation(String type, String algorithm) {
+            this.type = type;
+            this.algorithm = algorithm;
+        }
+
+        /**
+         * @return JCA service type of the operation. e.g.: Cipher
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * @return JCA algorithm or transformation of the operation. e.g.: SHA-256
+         */
+        public String getAlgorithm() {
+            return algorithm;
+        }
+    }
+
+    private static final int DATA_SIZE = 1024;
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(1);
+
+    private final Map<Operation, Provider> providers;
+    private final Map<Operation, Map<String, Long>> timings;
+
+    private ProviderCalibration(Map<Operation, Provider> providers, Map<Operation, Map<String, Long>> timings) {
+        this.providers = Collections.unmodifiableMap(providers);
+        this.timings = Collections.unmodifiableMap(timings);
+    }
+
+    /**
+     * Calibrate all installed providers with {@link #DEFAULT_ITERATIONS} iterations
+     *
+     * @return Calibration
+     */
+    public static ProviderCalibration calibrate() {
+        return calibrate(Security.getProviders(), DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Calibrate all installed providers with {@link #DEFAULT_ITERATIONS} iterations on a new daemon thread so that
+     * the caller is not delayed. Use the result with {@link CalibratedProviders}, which uses a fallback provider until
+     * the calibration completes.
+     *
+     * @return Future for the calibration
+     */
+    public static Future<ProviderCalibration> calibrateInBackground() {
+        FutureTask<ProviderCalibration> task = new FutureTask<>(new Callable<ProviderCalibration>() {
+            @Override
+            public ProviderCalibration call() {
+                return calibrate();
+            }
+        });
+        Thread thread = new Thread(task, "launchkey-calibration-" + THREAD_NUMBER.getAndIncrement());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return task;
+    }
+
+    /**
+     * Calibrate the providers. Providers which do not support an operation, or fail to perform it, are not
+     * considered for that operation.
+     *
+     * @param providers Providers to calibrate. When providers are equally fast, the first is chosen.
+     * @param iterations Number of timed iterations for each operation and provider. The same number of untimed
+     * iterations are run first to warm up the provider.
+     * @return Calibration
+     * @throws IllegalArgumentException When iterations is less than one or an RSA key pair cannot be generated
+     */
+    public static ProviderCalibration calibrate(Provider[] providers, int iterations) throws IllegalArgumentException {
+        if (iterations < 1) throw new IllegalArgumentException("Argument iterations must be greater than zero");
+        KeyPair keyPair;
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            keyPair = generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Unable to generate an RSA key pair for calibration", e);
+        }
+        return calibrate(providers, iterations, keyPair);
+    }
+
+    static ProviderCalibration calibrate(Provider[] providers, int iterations, KeyPair keyPair) {
+        if (iterations < 1) throw new IllegalArgumentException("Argument iterations must be greater than zero");
+        Fixture fixture = new Fixture(keyPair);
+        Map<Operation, Provider> selected = new EnumMap<>(Operation.class);
+        Map<Operation, Map<String, Long>> timings = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            Map<String, Long> operationTimings = new LinkedHashMap<>();
+            Provider fastest = null;
+            long fastestTime = Long.MAX_VALUE;
+            for (Provider provider : providers) {
+                long time;
+                try {
+                    time = measure(createTask(operation, provider, fixture), iterations);
+                } catch (GeneralSecurityException | RuntimeException e) {
+                    continue;
+                }
+                operationTimings.put(provider.getName(), time);
+                if (time < fastestTime) {
+                    fastest = provider;
+                    fastestTime = time;
+                }
+            }
+            if (fastest != null) {
+                selected.put(operation, fastest);
+            }
+            timings.put(operation, Collections.unmodifiableMap(operationTimings));
+        }
+        return new ProviderCalibration(selected, timings);
+    }
+
+    /**
+     * Get the fastest provider for an operation
+     *
+     * @param operation Operation
+     * @return Fastest provider or null if no calibrated provider supports the operation
+     */
+    public Provider getProvider(Operation operation) {
+        return providers.get(operation);
+    }
+
+    /**
+     * @return Unmodifiable mapping of each operation to its fastest provider. Operations no calibrated provider
+     * supports are not included.
+     */
+    public Map<Operation, Provider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * @return Unmodifiable mapping of each operation to the average time in nanoseconds of each provider name which
+     * supports the operation
+     */
+    public Map<Operation, Map<String, Long>> getTimings() {
+        return timings;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ProviderCalibration{");
+        for (Map.Entry<Operation, Provider> entry : providers.entrySet()) {
+            if (builder.charAt(builder.length() - 1) != '{') builder.append(", ");
+            builder.append(entry.getKey()).append('=').append(entry.getValue().getName());
+        }
+        return builder.append('}').toString();
+    }
+
+    private static long measure(Task task, int iterations) throws GeneralSecurityException {
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    /**
+     * Create a task for the operation with the provider and verify it performs correctly
+     *
+     * @throws GeneralSecurityException When the provider does not support the operation or it fails
+     */
+    private static Task createTask(Operation operation, Provider provider, final Fixture fixture)
+            throws GeneralSecurityException {
+        Task task;
+        switch (operation) {
+            case RSA_OAEP_DECRYPT:
+                final Cipher rsaCipher = Cipher.getInstance(operation.getAlgorithm(), provider);
+                task = new Task() {
+                    @Override
+                    public void run() throws GeneralSecurityException {
+                        rsaCipher.init(Cipher.DECRYPT_MODE, fixture.keyPair.getPrivate());
+                        if (!Arrays.equals(fixture.secret, rsaCipher.doFinal(fixture.getRSACiphertext()))) {
+                            throw new GeneralSecurityException("RSA decryption result was incorrect");
+                        }
+                    }
+                };
+                break;
+            case RS256_SIGN:
+                final Signature signer = Signature.getInstance(operation.getAlgorithm(), provider);
+                task = new Task() {
+                    @Override
+                    public void run() throws GeneralSecurityException {
+                        signer.initSign(fixture.keyPair.getPrivate());
+                        signer.update(fixture.data);
+                        signer.sign();
+                    }
+                };
+                break;
+            case RS256_VERIFY:
+                final Signature verifier = Signature.getInstance(operation.getAlgorithm(), provider);
+                task = new Task() {
+                    @Override
+                    public void run() throws GeneralSecurityException {
+                        verifier.initVerify(fixture.keyPair.getPublic());
+                        verifier.update(fixture.data);
+                        if (!verifier.verify(fixture.getSignature())) {
+                            throw new GeneralSecurityException("RSA signature verification result was incorrect");
+                        }
+                    }
+                };
+                break;
+            case SHA256:
+                final MessageDigest digest = MessageDigest.getInstance(operation.getAlgorithm(), provider);
+                task = new Task() {
+                    @Override
+                    public void run() {
+                        digest.reset();
+                        digest.digest(fixture.data);
+                    }
+                };
+                break;
+            case AES:
+                final Cipher aesCipher = Cipher.getInstance(operation.getAlgorithm(), provider);
+                final SecretKeySpec aesKey = new SecretKeySpec(fixture.secret, "AES");
+                final IvParameterSpec iv = new IvParameterSpec(Arrays.copyOf(fixture.data, 16));
+                task = new Task() {
+                    @Override
+                    public void run() throws GeneralSecurityException {
+                        aesCipher.init(Cipher.ENCRYPT_MODE, aesKey, iv);
+                        aesCipher.doFinal(fixture.data);
+                    }
+                };
+                break;
+            default:
+                throw new GeneralSecurityException("Unknown operation: " + operation);
+        }
+        task.run();
+        return task;
+    }
+
+    private interface Task {
+        void run() throws GeneralSecurityException;
+    }
+
+    /**
+     * Key material and data shared by all providers. The RSA ciphertext and signature are created on first use with
+     * the default provider order so that each provider is measured against the same input.
+     */
+    private static final class Fixture {
+        private final KeyPair keyPair;
+        private final byte[] data = new byte[DATA_SIZE];
+        private final byte[] secret = new byte[32];
+        private byte[] rsaCiphertext;
+        private byte[] signature;
+
+        private Fixture(KeyPair keyPair) {
+            this.keyPair = keyPair;
+            SecureRandom random = new SecureRandom();
+            random.nextBytes(data);
+            random.nextBytes(secret);
+        }
+
+        private byte[] getRSACiphertext() throws GeneralSecurityException {
+            if (rsaCiphertext == null) {
+                Cipher cipher = Cipher.getInstance(Operation.RSA_OAEP_DECRYPT.getAlgorithm());
+                cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPublic());
+                rsaCiphertext = cipher.doFinal(secret);
+            }
+            return rsaCiphertext;
+        }
+
+        private byte[] getSignature() throws GeneralSecurityException {
+            if (signature == null) {
+                Signature signer = Signature.getInstance(Operation.RS256_VERIFY.getAlgorithm());
+                signer.initSign(keyPair.getPrivate());
+                signer.update(data);
+                signature = signer.sign();
+            }
+            return signature;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2017 iovation, Inc. All rights reserved.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto.jwe;
+
+import java.security.PublicKey;
+
+/**
+ * {@link JWEService} which can encrypt already encoded data and return the compact serialization as bytes, so that a
+ * request body does not have to be converted to and from a string around encryption. Callers holding a plain
+ * {@link JWEService} encrypt strings instead.
+ */
+public interface BinaryJWEService extends JWEService {
+    /**
+     * Encrypt the data and serialize compact serialization
+     *
+     * @param data UTF-8 encoded data to encrypt
+     * @param publicKey Public key that will encrypt the data
+     * @param keyId The ID for the public key that will encrypt the data
+     * @param contentType Content type of the data being passed to place in the header of the JWE
+     * @return US-ASCII encoded compact serialized JWE
+     * @throws JWEFailure When an issue arises while attempting to encrypt the data
+     */
+    byte[] encrypt(byte[] data, PublicKey publicKey, String keyId, String contentType) throws JWEFailure;
+}
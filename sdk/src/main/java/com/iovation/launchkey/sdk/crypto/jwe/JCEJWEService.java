@@ -0,0 +1,408 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto.jwe;
+
+import com.iovation.launchkey.sdk.crypto.CalibratedProviders;
+import com.iovation.launchkey.sdk.crypto.ProviderCalibration;
+import org.apache.commons.codec.binary.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.RSAKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * JWE service implemented directly on the JCA for the fixed set of algorithms used by the LaunchKey API. Key
+ * management is RSA-OAEP-256 or RSA-OAEP and content encryption is A256CBC-HS512 or A256GCM. The header is written
+ * and read without a general purpose JOSE object model and the {@link Cipher} and {@link Mac} instances are created
+ * once per thread. Envelopes are interchangeable with those of {@link Jose4jJWEService} for these algorithms.
+ */
+public class JCEJWEService implements BinaryJWEService {
+    public static final String RSA_OAEP_256 = "RSA-OAEP-256";
+    public static final String RSA_OAEP = "RSA-OAEP";
+    public static final String A256CBC_HS512 = "A256CBC-HS512";
+    public static final String A256GCM = "A256GCM";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+    // Same minimum as jose4j enforces for RSA key management keys
+    private static final int MIN_RSA_KEY_SIZE = 2048;
+    private static final int CBC_HMAC_KEY_LENGTH = 64;
+    private static final int CBC_IV_LENGTH = 16;
+    private static final int CBC_HMAC_TAG_LENGTH = 32;
+    private static final int GCM_KEY_LENGTH = 32;
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 16;
+    private static final OAEPParameterSpec OAEP_SHA256 = new OAEPParameterSpec(
+            "SHA-256", "MGF1", MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
+    private static final OAEPParameterSpec OAEP_SHA1 = new OAEPParameterSpec(
+            "SHA-1", "MGF1", MGF1ParameterSpec.SHA1, PSource.PSpecified.DEFAULT);
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    // Plain ThreadLocal instances holding only JCE classes so that no class loader is retained by the threads
+    private static final ThreadLocal<Cipher> RSA_OAEP_256_CIPHER = new ThreadLocal<>();
+    private static final ThreadLocal<Cipher> RSA_OAEP_CIPHER = new ThreadLocal<>();
+    private static final ThreadLocal<Cipher> AES_CBC_CIPHER = new ThreadLocal<>();
+    private static final ThreadLocal<Cipher> AES_GCM_CIPHER = new ThreadLocal<>();
+    private static final ThreadLocal<Mac> HMAC_SHA512 = new ThreadLocal<>();
+
+    private final PrivateKey privateKey;
+    private final String keyManagementAlgorithm;
+    private final String contentEncryptionAlgorithm;
+    private final CalibratedProviders calibratedProviders;
+
+    /**
+     * @param privateKey RSA Private Key of the RSA public/private key pair that will be used to decrypt the
+     *                   Content Encryption Key (CEK) when decrypting.
+     */
+    public JCEJWEService(PrivateKey privateKey) {
+        this(privateKey, null, null);
+    }
+
+    /**
+     * @param privateKey RSA Private Key of the RSA public/private key pair that will be used to decrypt the
+     *                   Content Encryption Key (CEK) when decrypting.
+     * @param keyManagementAlgorithm JWE "alg" used when encrypting. Either {@link #RSA_OAEP_256} or
+     *                   {@link #RSA_OAEP}. If null, {@link #RSA_OAEP_256} is used. Decryption accepts either.
+     * @param contentEncryptionAlgorithm JWE "enc" used when encrypting. Either {@link #A256CBC_HS512} or
+     *                   {@link #A256GCM}. If null, {@link #A256CBC_HS512} is used. Decryption accepts either.
+     * @throws IllegalArgumentException When either algorithm is not supported by this service
+     */
+    public JCEJWEService(PrivateKey privateKey, String keyManagementAlgorithm, String contentEncryptionAlgorithm) {
+        this(privateKey, keyManagementAlgorithm, contentEncryptionAlgorithm, null);
+    }
+
+    /**
+     * @param privateKey RSA Private Key of the RSA public/private key pair that will be used to decrypt the
+     *                   Content Encryption Key (CEK) when decrypting.
+     * @param keyManagementAlgorithm JWE "alg" used when encrypting. Either {@link #RSA_OAEP_256} or
+     *                   {@link #RSA_OAEP}. If null, {@link #RSA_OAEP_256} is used. Decryption accepts either.
+     * @param contentEncryptionAlgorithm JWE "enc" used when encrypting. Either {@link #A256CBC_HS512} or
+     *                   {@link #A256GCM}. If null, {@link #A256CBC_HS512} is used. Decryption accepts either.
+     * @param calibratedProviders Providers selecting the provider for AES-CBC content encryption or null for the JCA
+     *                   to select it
+     * @throws IllegalArgumentException When either algorithm is not supported by this service
+     */
+    public JCEJWEService(PrivateKey privateKey, String keyManagementAlgorithm, String contentEncryptionAlgorithm,
+                         CalibratedProviders calibratedProviders) {
+        this.calibratedProviders = calibratedProviders;
+        if (keyManagementAlgorithm == null) {
+            keyManagementAlgorithm = RSA_OAEP_256;
+        } else if (!RSA_OAEP_256.equals(keyManagementAlgorithm) && !RSA_OAEP.equals(keyManagementAlgorithm)) {
+            throw new IllegalArgumentException(
+                    "JWE key management algorithm is not supported: " + keyManagementAlgorithm);
+        }
+        if (contentEncryptionAlgorithm == null) {
+            contentEncryptionAlgorithm = A256CBC_HS512;
+        } else if (!A256CBC_HS512.equals(contentEncryptionAlgorithm) && !A256GCM.equals(contentEncryptionAlgorithm)) {
+            throw new IllegalArgumentException(
+                    "JWE content encryption algorithm is not supported: " + contentEncryptionAlgorithm);
+        }
+        this.privateKey = privateKey;
+        this.keyManagementAlgorithm = keyManagementAlgorithm;
+        this.contentEncryptionAlgorithm = contentEncryptionAlgorithm;
+    }
+
+    @Override
+    public String decrypt(String data) throws JWEFailure {
+        return decrypt(data, privateKey);
+    }
+
+    @Override
+    public String decrypt(String data, PrivateKey privateKey) throws JWEFailure {
+        try {
+            String[] segments = split(data);
+            Map<String, String> headers = JWEHeaders.parseEncodedHeader(segments[0]);
+            String alg = headers.get("alg");
+            String enc = headers.get("enc");
+            if (headers.containsKey("zip") || headers.containsKey("crit")) {
+                throw new IllegalArgumentException("Unsupported JWE header parameter");
+            }
+            validateKey(privateKey);
+            byte[] aad = segments[0].getBytes(US_ASCII);
+            byte[] iv = Base64.decodeBase64(segments[2]);
+            byte[] cipherText = Base64.decodeBase64(segments[3]);
+            byte[] tag = Base64.decodeBase64(segments[4]);
+            byte[] cek = unwrapKey(alg, privateKey, Base64.decodeBase64(segments[1]),
+                    getKeyLength(enc));
+            byte[] plainText;
+            if (A256CBC_HS512.equals(enc)) {
+                plainText = decryptCbcHmac(cek, aad, iv, cipherText, tag);
+            } else {
+                plainText = decryptGcm(cek, aad, iv, cipherText, tag);
+            }
+            return new String(plainText, UTF_8);
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            throw new JWEFailure("An error occurred attempting to decrypt a JWE", e);
+        }
+    }
+
+    @Override
+    public String encrypt(String data, PublicKey publicKey, String keyId, String contentType) throws JWEFailure {
+        return new String(encrypt(data.getBytes(UTF_8), publicKey, keyId, contentType), US_ASCII);
+    }
+
+    @Override
+    public byte[] encrypt(byte[] plainText, PublicKey publicKey, String keyId, String contentType) throws JWEFailure {
+        try {
+            validateKey(publicKey);
+            byte[] aad = encodeHeader(keyId, contentType);
+            byte[] cek = randomBytes(getKeyLength(contentEncryptionAlgorithm));
+            Cipher rsa = getRsaCipher(keyManagementAlgorithm);
+            rsa.init(Cipher.ENCRYPT_MODE, publicKey, getOaepParameters(keyManagementAlgorithm), SECURE_RANDOM);
+            byte[] encryptedKey = rsa.doFinal(cek);
+            byte[] iv;
+            byte[] cipherText;
+            byte[] tag;
+            if (A256CBC_HS512.equals(contentEncryptionAlgorithm)) {
+                iv = randomBytes(CBC_IV_LENGTH);
+                Cipher aes = getAesCbcCipher();
+                aes.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(cek, CBC_HMAC_KEY_LENGTH / 2, CBC_HMAC_KEY_LENGTH / 2,
+                        "AES"), new IvParameterSpec(iv));
+                cipherText = aes.doFinal(plainText);
+                tag = cbcHmacTag(cek, aad, iv, cipherText);
+            } else {
+                iv = randomBytes(GCM_IV_LENGTH);
+                Cipher aes = getCipher(AES_GCM_CIPHER, "AES/GCM/NoPadding");
+                aes.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(cek, "AES"),
+                        new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv));
+                aes.updateAAD(aad);
+                byte[] output = aes.doFinal(plainText);
+                cipherText = Arrays.copyOf(output, output.length - GCM_TAG_LENGTH);
+                tag = Arrays.copyOfRange(output, output.length - GCM_TAG_LENGTH, output.length);
+            }
+            return serialize(aad, Base64.encodeBase64URLSafe(encryptedKey), Base64.encodeBase64URLSafe(iv),
+                    Base64.encodeBase64URLSafe(cipherText), Base64.encodeBase64URLSafe(tag));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new JWEFailure("An error occurred attempting to encrypt a JWE", e);
+        }
+    }
+
+    @Override
+    public Map<String, String> getHeaders(String data) throws JWEFailure {
+        try {
+            return JWEHeaders.parse(data);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JWEFailure("Unable to parse data for JWE Header!", e);
+        }
+    }
+
+    /**
+     * Join the encoded segments of a compact serialization with periods into a single array
+     */
+    private static byte[] serialize(byte[]... segments) {
+        int length = segments.length - 1;
+        for (byte[] segment : segments) {
+            length += segment.length;
+        }
+        byte[] serialized = new byte[length];
+        int position = 0;
+        for (byte[] segment : segments) {
+            if (position > 0) {
+                serialized[position++] = '.';
+            }
+            System.arraycopy(segment, 0, serialized, position, segment.length);
+            position += segment.length;
+        }
+        return serialized;
+    }
+
+    private byte[] encodeHeader(String keyId, String contentType) {
+        StringBuilder header = new StringBuilder(128).append('{');
+        if (keyId != null) {
+            appendString(header.append("\"kid\":"), keyId).append(',');
+        }
+        if (contentType != null) {
+            appendString(header.append("\"cty\":"), contentType).append(',');
+        }
+        appendString(header.append("\"alg\":"), keyManagementAlgorithm);
+        appendString(header.append(",\"enc\":"), contentEncryptionAlgorithm).append('}');
+        return Base64.encodeBase64URLSafe(header.toString().getBytes(UTF_8));
+    }
+
+    private byte[] unwrapKey(String alg, PrivateKey privateKey, byte[] encryptedKey,
+                             int keyLength) throws GeneralSecurityException {
+        Cipher rsa = getRsaCipher(alg);
+        rsa.init(Cipher.DECRYPT_MODE, privateKey, getOaepParameters(alg));
+        byte[] cek;
+        try {
+            cek = rsa.doFinal(encryptedKey);
+        } catch (GeneralSecurityException e) {
+            cek = null;
+        }
+        if (cek == null || cek.length != keyLength) {
+            // Continue with a random key so that a bad encrypted key fails in the same way as a bad tag
+            cek = randomBytes(keyLength);
+        }
+        return cek;
+    }
+
+    private byte[] decryptCbcHmac(byte[] cek, byte[] aad, byte[] iv, byte[] cipherText,
+                                  byte[] tag) throws GeneralSecurityException {
+        if (!MessageDigest.isEqual(tag, cbcHmacTag(cek, aad, iv, cipherText))) {
+            throw new GeneralSecurityException("Authentication tag check failed");
+        }
+        Cipher aes = getAesCbcCipher();
+        aes.init(Cipher.DECRYPT_MODE, new SecretKeySpec(cek, CBC_HMAC_KEY_LENGTH / 2, CBC_HMAC_KEY_LENGTH / 2, "AES"),
+                new IvParameterSpec(iv));
+        return aes.doFinal(cipherText);
+    }
+
+    private byte[] decryptGcm(byte[] cek, byte[] aad, byte[] iv, byte[] cipherText,
+                              byte[] tag) throws GeneralSecurityException {
+        Cipher aes = getCipher(AES_GCM_CIPHER, "AES/GCM/NoPadding");
+        aes.init(Cipher.DECRYPT_MODE, new SecretKeySpec(cek, "AES"), new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv));
+        aes.updateAAD(aad);
+        aes.update(cipherText);
+        return aes.doFinal(tag);
+    }
+
+    /**
+     * Authentication tag for AES_CBC_HMAC_SHA2 as defined by RFC 7518 section 5.2.2.1. The first half of the CEK is
+     * the MAC key and the tag is the first half of the HMAC over the AAD, IV, cipher text, and AAD bit length.
+     */
+    private byte[] cbcHmacTag(byte[] cek, byte[] aad, byte[] iv, byte[] cipherText)
+            throws GeneralSecurityException {
+        Mac mac = getHmac();
+        mac.init(new SecretKeySpec(cek, 0, CBC_HMAC_KEY_LENGTH / 2, "HmacSHA512"));
+        mac.update(aad);
+        mac.update(iv);
+        mac.update(cipherText);
+        mac.update(ByteBuffer.allocate(8).putLong((long) aad.length * 8).array());
+        return Arrays.copyOf(mac.doFinal(), CBC_HMAC_TAG_LENGTH);
+    }
+
+    private static int getKeyLength(String enc) {
+        if (A256CBC_HS512.equals(enc)) {
+            return CBC_HMAC_KEY_LENGTH;
+        } else if (A256GCM.equals(enc)) {
+            return GCM_KEY_LENGTH;
+        }
+        throw new IllegalArgumentException("Unsupported JWE content encryption algorithm: " + enc);
+    }
+
+    private static OAEPParameterSpec getOaepParameters(String alg) {
+        if (RSA_OAEP_256.equals(alg)) {
+            return OAEP_SHA256;
+        } else if (RSA_OAEP.equals(alg)) {
+            return OAEP_SHA1;
+        }
+        throw new IllegalArgumentException("Unsupported JWE key management algorithm: " + alg);
+    }
+
+    private static void validateKey(Key key) {
+        if (!(key instanceof RSAPublicKey) && !(key instanceof RSAPrivateKey)) {
+            throw new IllegalArgumentException("An RSA key is required");
+        }
+        if (((RSAKey) key).getModulus().bitLength() < MIN_RSA_KEY_SIZE) {
+            throw new IllegalArgumentException("An RSA key of size " + MIN_RSA_KEY_SIZE + " bits or larger MUST be used");
+        }
+    }
+
+    private static String[] split(String data) {
+        String[] segments = new String[5];
+        int start = 0;
+        for (int i = 0; i < 4; i++) {
+            int end = data.indexOf('.', start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Data is not a compact serialized JWE");
+            }
+            segments[i] = data.substring(start, end);
+            start = end + 1;
+        }
+        if (data.indexOf('.', start) >= 0) {
+            throw new IllegalArgumentException("Data is not a compact serialized JWE");
+        }
+        segments[4] = data.substring(start);
+        return segments;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        SECURE_RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    private static Cipher getRsaCipher(String alg) throws GeneralSecurityException {
+        if (RSA_OAEP_256.equals(alg)) {
+            return getCipher(RSA_OAEP_256_CIPHER, "RSA/ECB/OAEPWithSHA-256AndMGF1Padding");
+        } else if (RSA_OAEP.equals(alg)) {
+            return getCipher(RSA_OAEP_CIPHER, "RSA/ECB/OAEPWithSHA-1AndMGF1Padding");
+        }
+        throw new IllegalArgumentException("Unsupported JWE key management algorithm: " + alg);
+    }
+
+    private Cipher getAesCbcCipher() throws GeneralSecurityException {
+        Provider provider = calibratedProviders == null
+                ? null : calibratedProviders.getProvider(ProviderCalibration.Operation.AES);
+        Cipher cipher = AES_CBC_CIPHER.get();
+        if (cipher == null || provider != null && cipher.getProvider() != provider) {
+            cipher = provider == null
+                    ? Cipher.getInstance("AES/CBC/PKCS5Padding") : Cipher.getInstance("AES/CBC/PKCS5Padding", provider);
+            AES_CBC_CIPHER.set(cipher);
+        }
+        return cipher;
+    }
+
+    private static Cipher getCipher(ThreadLocal<Cipher> cipherHolder, String transformation)
+            throws GeneralSecurityException {
+        Cipher cipher = cipherHolder.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+            cipherHolder.set(cipher);
+        }
+        return cipher;
+    }
+
+    private static Mac getHmac() throws GeneralSecurityException {
+        Mac mac = HMAC_SHA512.get();
+        if (mac == null) {
+            mac = Mac.getInstance("HmacSHA512");
+            HMAC_SHA512.set(mac);
+        }
+        return mac;
+    }
+}
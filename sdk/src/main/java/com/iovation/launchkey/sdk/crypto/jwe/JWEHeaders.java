@@ -0,0 +1,82 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto.jwe;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.binary.Base64;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the protected header of a compact serialized JWE without processing the rest of the envelope. Only the
+ * first segment is decoded and it is read with a streaming parser.
+ */
+final class JWEHeaders {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private JWEHeaders() {
+    }
+
+    /**
+     * @param data Compact serialized JWE
+     * @return Encoded protected header which is the first segment of the JWE
+     * @throws IllegalArgumentException When the data has no segment separator
+     */
+    static String getEncodedHeader(String data) throws IllegalArgumentException {
+        int end = data.indexOf('.');
+        if (end < 1) {
+            throw new IllegalArgumentException("Data is not a compact serialized JWE");
+        }
+        return data.substring(0, end);
+    }
+
+    /**
+     * @param data Compact serialized JWE
+     * @return Header values by name in the order they appear. Values which are not strings are returned as their
+     * JSON text.
+     * @throws IOException When the header is not a JSON object
+     * @throws IllegalArgumentException When the data has no segment separator
+     */
+    static Map<String, String> parse(String data) throws IOException, IllegalArgumentException {
+        return parseEncodedHeader(getEncodedHeader(data));
+    }
+
+    /**
+     * @param encodedHeader Base64URL encoded protected header
+     * @return Header values by name in the order they appear. Values which are not strings are returned as their
+     * JSON text.
+     * @throws IOException When the header is not a JSON object
+     */
+    static Map<String, String> parseEncodedHeader(String encodedHeader) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(Base64.decodeBase64(encodedHeader))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("JWE header is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    headers.put(name, parser.readValueAsTree().toString());
+                } else {
+                    headers.put(name, parser.getValueAsString());
+                }
+            }
+        }
+        return headers;
+    }
+}
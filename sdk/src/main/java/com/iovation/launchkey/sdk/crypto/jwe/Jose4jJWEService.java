@@ -12,27 +12,81 @@
 
 package com.iovation.launchkey.sdk.crypto.jwe;
 
-import org.jose4j.json.JsonUtil;
+import org.jose4j.jwa.AlgorithmFactoryFactory;
 import org.jose4j.jwe.ContentEncryptionAlgorithmIdentifiers;
 import org.jose4j.jwe.JsonWebEncryption;
 import org.jose4j.jwe.KeyManagementAlgorithmIdentifiers;
 import org.jose4j.lang.JoseException;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPrivateKey;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
-public class Jose4jJWEService implements JWEService {
-    private final RSAPrivateKey privateKey;
+public class Jose4jJWEService implements BinaryJWEService {
+    /**
+     * Content encryption algorithm used when none is specified
+     */
+    public static final String DEFAULT_CONTENT_ENCRYPTION_ALGORITHM =
+            ContentEncryptionAlgorithmIdentifiers.AES_256_CBC_HMAC_SHA_512;
+
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    // AES key wrap is not available from every JCE, in which case the CEK is agreed directly
+    private static final String EC_KEY_MANAGEMENT_ALGORITHM = AlgorithmFactoryFactory.getInstance()
+            .getJweKeyManagementAlgorithmFactory().isAvailable(KeyManagementAlgorithmIdentifiers.ECDH_ES_A256KW)
+            ? KeyManagementAlgorithmIdentifiers.ECDH_ES_A256KW : KeyManagementAlgorithmIdentifiers.ECDH_ES;
+
+    private final PrivateKey privateKey;
+    private final String keyManagementAlgorithm;
+    private final String contentEncryptionAlgorithm;
 
     /**
      * @param privateKey  RSA Private Key of the RSA public/private key pair that will be used to decrypt the
      *                    Content Encryption Key (CEK) when decrypting.
      */
     public Jose4jJWEService(RSAPrivateKey privateKey) {
+        this((PrivateKey) privateKey);
+    }
+
+    /**
+     * @param privateKey  RSA or EC Private Key of the public/private key pair that will be used to decrypt the
+     *                    Content Encryption Key (CEK) when decrypting.
+     */
+    public Jose4jJWEService(PrivateKey privateKey) {
+        this(privateKey, null, null);
+    }
+
+    /**
+     * @param privateKey  RSA or EC Private Key of the public/private key pair that will be used to decrypt the
+     *                    Content Encryption Key (CEK) when decrypting.
+     * @param keyManagementAlgorithm JWE "alg" used when encrypting. If null, RSA-OAEP-256 is used for RSA public keys
+     *                    and ECDH-ES+A256KW for EC public keys. Decryption accepts any supported algorithm.
+     * @param contentEncryptionAlgorithm JWE "enc" used when encrypting. If null,
+     *                    {@link #DEFAULT_CONTENT_ENCRYPTION_ALGORITHM} is used. Decryption accepts any supported
+     *                    algorithm.
+     * @throws IllegalArgumentException When either algorithm is not supported by jose4j and the available JCE
+     *                    providers
+     */
+    public Jose4jJWEService(PrivateKey privateKey, String keyManagementAlgorithm, String contentEncryptionAlgorithm) {
+        AlgorithmFactoryFactory algorithms = AlgorithmFactoryFactory.getInstance();
+        if (keyManagementAlgorithm != null
+                && !algorithms.getJweKeyManagementAlgorithmFactory().isAvailable(keyManagementAlgorithm)) {
+            throw new IllegalArgumentException(
+                    "JWE key management algorithm is not available: " + keyManagementAlgorithm);
+        }
+        if (contentEncryptionAlgorithm == null) {
+            contentEncryptionAlgorithm = DEFAULT_CONTENT_ENCRYPTION_ALGORITHM;
+        } else if (!algorithms.getJweContentEncryptionAlgorithmFactory().isAvailable(contentEncryptionAlgorithm)) {
+            throw new IllegalArgumentException(
+                    "JWE content encryption algorithm is not available: " + contentEncryptionAlgorithm);
+        }
         this.privateKey = privateKey;
+        this.keyManagementAlgorithm = keyManagementAlgorithm;
+        this.contentEncryptionAlgorithm = contentEncryptionAlgorithm;
     }
 
     @Override public String decrypt(String data) throws JWEFailure {
@@ -55,36 +109,56 @@ public class Jose4jJWEService implements JWEService {
     }
 
     @Override public String encrypt(String data, PublicKey publicKey, String keyId, String contentType) throws JWEFailure {
-        String encrypted;
+        JsonWebEncryption jwe = newJsonWebEncryption(publicKey, keyId, contentType);
+        jwe.setPlaintext(data);
+        return getCompactSerialization(jwe);
+    }
+
+    /**
+     * jose4j only produces the compact serialization as a string, so only the conversion of the data is saved
+     */
+    @Override
+    public byte[] encrypt(byte[] data, PublicKey publicKey, String keyId, String contentType) throws JWEFailure {
+        JsonWebEncryption jwe = newJsonWebEncryption(publicKey, keyId, contentType);
+        jwe.setPlaintext(data);
+        return getCompactSerialization(jwe).getBytes(US_ASCII);
+    }
+
+    private JsonWebEncryption newJsonWebEncryption(PublicKey publicKey, String keyId, String contentType) {
         JsonWebEncryption jwe = new JsonWebEncryption();
+        jwe.setKey(publicKey);
+        jwe.setKeyIdHeaderValue(keyId);
+        jwe.setContentTypeHeaderValue(contentType);
+        jwe.setAlgorithmHeaderValue(getKeyManagementAlgorithm(publicKey));
+        jwe.setEncryptionMethodHeaderParameter(contentEncryptionAlgorithm);
+        return jwe;
+    }
+
+    private String getCompactSerialization(JsonWebEncryption jwe) throws JWEFailure {
         try {
-            jwe.setKey(publicKey);
-            jwe.setPlaintext(data);
-            jwe.setKeyIdHeaderValue(keyId);
-            jwe.setContentTypeHeaderValue(contentType);
-            jwe.setAlgorithmHeaderValue(KeyManagementAlgorithmIdentifiers.RSA_OAEP_256);
-            jwe.setEncryptionMethodHeaderParameter(ContentEncryptionAlgorithmIdentifiers.AES_256_CBC_HMAC_SHA_512);
-            encrypted = jwe.getCompactSerialization();
+            return jwe.getCompactSerialization();
         } catch (JoseException e) {
             throw new JWEFailure("An error occurred attempting to encrypt a JWE", e);
         }
-        return encrypted;
     }
 
+    private String getKeyManagementAlgorithm(PublicKey publicKey) {
+        if (keyManagementAlgorithm != null) {
+            return keyManagementAlgorithm;
+        }
+        return publicKey instanceof ECPublicKey
+                ? EC_KEY_MANAGEMENT_ALGORITHM : KeyManagementAlgorithmIdentifiers.RSA_OAEP_256;
+    }
+
+    /**
+     * Only the protected header is decoded, so the data is not validated as a complete JWE. This is sufficient to
+     * choose the key with which to decrypt it.
+     */
     @Override
     public Map<String, String> getHeaders(String data) throws JWEFailure {
         try {
-            String headerSegment = data.split("\\.")[0];
-            JsonWebEncryption jwe = new JsonWebEncryption();
-            jwe.setCompactSerialization(data);
-            String headersJSON = jwe.getHeaders().getFullHeaderAsJsonString();
-            Map<String, Object> objectMap = JsonUtil.parseJson(headersJSON);
-            Map<String, String> headers = new LinkedHashMap<>(objectMap.size());
-            for (Map.Entry<String, Object> entry : objectMap.entrySet()) {
-                headers.put(entry.getKey(), String.valueOf(entry.getValue()));
-            }
-            return headers;
-        } catch (Exception e) {
+            return JWEHeaders.parse(data);
+        } catch (IOException | IllegalArgumentException e) {
             throw new JWEFailure("Unable to parse data for JWE Header!", e);
         }
     }
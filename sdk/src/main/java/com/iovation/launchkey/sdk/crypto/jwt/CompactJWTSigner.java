@@ -0,0 +1,218 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto.jwt;
+
+import com.iovation.launchkey.sdk.crypto.CalibratedProviders;
+import com.iovation.launchkey.sdk.crypto.ProviderCalibration;
+import org.apache.commons.codec.binary.Base64;
+import org.jose4j.jws.AlgorithmIdentifiers;
+import org.jose4j.jws.EcdsaUsingShaAlgorithm;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.Date;
+
+/**
+ * Signs request JWTs with RS256 or ES256 without the general purpose JOSE object model. The header is encoded once
+ * per key ID, the claims are written by a fixed shape encoder, and the {@link Signature} is created once per thread
+ * and only initialized again when the private key changes.
+ */
+class CompactJWTSigner {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    // Same minimum as jose4j enforces for RSA signing keys
+    private static final int MIN_RSA_KEY_SIZE = 2048;
+    private static final int ES256_FIELD_SIZE = 256;
+    private static final int ES256_SIGNATURE_LENGTH = 64;
+
+    private final String algorithm;
+    private final String jcaAlgorithm;
+    private final String encodedHeader;
+    private final CalibratedProviders calibratedProviders;
+    // A Signature from a provider loaded by an application class loader keeps that class loader reachable from each
+    // thread which used it until the thread ends
+    private final ThreadLocal<Signature> signature = new ThreadLocal<>();
+    private final ThreadLocal<PrivateKey> signatureKey = new ThreadLocal<>();
+
+    /**
+     * @param keyId Key ID to place in the "kid" header. If null, no "kid" header is included.
+     * @param algorithm JWS algorithm. Either {@link AlgorithmIdentifiers#RSA_USING_SHA256} or
+     * {@link AlgorithmIdentifiers#ECDSA_USING_P256_CURVE_AND_SHA256}.
+     */
+    CompactJWTSigner(String keyId, String algorithm) {
+        this(keyId, algorithm, null);
+    }
+
+    /**
+     * @param keyId Key ID to place in the "kid" header. If null, no "kid" header is included.
+     * @param algorithm JWS algorithm. Either {@link AlgorithmIdentifiers#RSA_USING_SHA256} or
+     * {@link AlgorithmIdentifiers#ECDSA_USING_P256_CURVE_AND_SHA256}.
+     * @param calibratedProviders Providers selecting the provider for RS256 signing or null for the JCA to select it
+     */
+    CompactJWTSigner(String keyId, String algorithm, CalibratedProviders calibratedProviders) {
+        this.calibratedProviders = calibratedProviders;
+        if (AlgorithmIdentifiers.RSA_USING_SHA256.equals(algorithm)) {
+            jcaAlgorithm = "SHA256withRSA";
+        } else if (AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256.equals(algorithm)) {
+            jcaAlgorithm = "SHA256withECDSA";
+        } else {
+            throw new IllegalArgumentException("Unsupported JWS algorithm: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        StringBuilder header = new StringBuilder(64).append('{');
+        if (keyId != null) {
+            appendString(header.append("\"kid\":"), keyId).append(',');
+        }
+        appendString(header.append("\"alg\":"), algorithm).append('}');
+        encodedHeader = base64Url(header.toString().getBytes(UTF_8));
+    }
+
+    /**
+     * @return JWS algorithm used to sign
+     */
+    String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return Compact serialization of the signed JWT
+     * @throws JWTError When the key is not usable or the signature cannot be created
+     */
+    String sign(PrivateKey privateKey, String jti, String issuer, String subject, String audience,
+                Date currentTime, int expireSeconds, String method, String path, String contentHashAlgorithm,
+                String contentHash) throws JWTError {
+        validateKey(privateKey);
+        String claims = encodeClaims(jti, issuer, subject, audience, currentTime.getTime() / 1000, expireSeconds,
+                method, path, contentHashAlgorithm, contentHash);
+        String signingInput = encodedHeader + '.' + base64Url(claims.getBytes(UTF_8));
+        byte[] signed;
+        try {
+            Signature signer = getSignature(privateKey);
+            signer.update(signingInput.getBytes(UTF_8));
+            signed = signer.sign();
+            if (privateKey instanceof ECPrivateKey) {
+                // JWS uses the concatenated R and S values rather than the DER encoding returned by the JCA
+                signed = EcdsaUsingShaAlgorithm.convertDerToConcatenated(signed, ES256_SIGNATURE_LENGTH);
+            }
+        } catch (GeneralSecurityException | IOException e) {
+            signature.remove();
+            signatureKey.remove();
+            throw new JWTError("An error occurred encoding the JWT", e);
+        }
+        return signingInput + '.' + base64Url(signed);
+    }
+
+    private void validateKey(PrivateKey privateKey) throws JWTError {
+        String error = null;
+        if (privateKey == null) {
+            error = "No private key";
+        } else if (AlgorithmIdentifiers.RSA_USING_SHA256.equals(algorithm)) {
+            if (!(privateKey instanceof RSAPrivateKey)) {
+                error = "An RSA private key is required for " + algorithm;
+            } else if (((RSAPrivateKey) privateKey).getModulus().bitLength() < MIN_RSA_KEY_SIZE) {
+                error = "An RSA key of size " + MIN_RSA_KEY_SIZE + " bits or larger MUST be used";
+            }
+        } else if (!(privateKey instanceof ECPrivateKey)
+                || ((ECPrivateKey) privateKey).getParams().getCurve().getField().getFieldSize() != ES256_FIELD_SIZE) {
+            error = "An EC P-256 private key is required for " + algorithm;
+        }
+        if (error != null) {
+            throw new JWTError("An error occurred encoding the JWT", new IllegalArgumentException(error));
+        }
+    }
+
+    private Signature getSignature(PrivateKey privateKey) throws GeneralSecurityException {
+        Provider provider = calibratedProviders == null || !"SHA256withRSA".equals(jcaAlgorithm)
+                ? null : calibratedProviders.getProvider(ProviderCalibration.Operation.RS256_SIGN);
+        Signature signer = signature.get();
+        if (signer == null || provider != null && signer.getProvider() != provider) {
+            signer = provider == null ? Signature.getInstance(jcaAlgorithm) : Signature.getInstance(jcaAlgorithm, provider);
+            signature.set(signer);
+            signatureKey.remove();
+        }
+        if (signatureKey.get() != privateKey) {
+            signer.initSign(privateKey);
+            signatureKey.set(privateKey);
+        }
+        return signer;
+    }
+
+    static String encodeClaims(String jti, String issuer, String subject, String audience, long issuedAt,
+                               int expireSeconds, String method, String path, String contentHashAlgorithm,
+                               String contentHash) {
+        StringBuilder json = new StringBuilder(256);
+        appendString(json.append("{\"jti\":"), jti);
+        appendString(json.append(",\"iss\":"), issuer);
+        appendString(json.append(",\"sub\":"), subject);
+        appendString(json.append(",\"aud\":"), audience);
+        json.append(",\"iat\":").append(issuedAt);
+        json.append(",\"nbf\":").append(issuedAt);
+        json.append(",\"exp\":").append(issuedAt + expireSeconds);
+        appendString(json.append(",\"request\":{\"meth\":"), method);
+        appendString(json.append(",\"path\":"), path);
+        if (contentHashAlgorithm != null) {
+            appendString(json.append(",\"func\":"), contentHashAlgorithm);
+            appendString(json.append(",\"hash\":"), contentHash);
+        }
+        return json.append("}}").toString();
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                case '\b':
+                    json.append("\\b");
+                    break;
+                case '\f':
+                    json.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"');
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.encodeBase64URLSafeString(bytes);
+    }
+}
@@ -0,0 +1,432 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.iovation.launchkey.sdk.crypto.CalibratedProviders;
+import com.iovation.launchkey.sdk.crypto.ProviderCalibration;
+import org.apache.commons.codec.binary.Base64;
+import org.jose4j.jws.AlgorithmIdentifiers;
+import org.jose4j.jws.EcdsaUsingShaAlgorithm;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JWT service implemented directly on the JCA for the fixed set of algorithms used by the LaunchKey API. Requests
+ * are signed with RS256, or ES256 for EC keys, and responses signed with RS256, RS384, RS512, or ES256 are verified.
+ * Header and claims are read with a streaming parser into a fixed shape and the {@link Signature} instances are
+ * created once per thread. Validation matches {@link Jose4jJWTService}.
+ */
+public class JCEJWTService implements ParsedJWTService {
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+    private static final int ALLOWED_CLOCK_SKEW_SECONDS = 5;
+    // Same minimum as jose4j enforces for RSA verification keys
+    private static final int MIN_RSA_KEY_SIZE = 2048;
+    private static final int ES256_SIGNATURE_LENGTH = 64;
+    private static final String[] ALGORITHMS = {
+            AlgorithmIdentifiers.RSA_USING_SHA256,
+            AlgorithmIdentifiers.RSA_USING_SHA384,
+            AlgorithmIdentifiers.RSA_USING_SHA512,
+            AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256
+    };
+    private static final String[] JCA_ALGORITHMS = {
+            "SHA256withRSA",
+            "SHA384withRSA",
+            "SHA512withRSA",
+            "SHA256withECDSA"
+    };
+    private static final int RS256 = 0;
+    private static final int ES256 = 3;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    // Plain ThreadLocal instances holding only JCE classes so that no class loader is retained by the threads
+    private static final ThreadLocal<Signature[]> VERIFIERS = new ThreadLocal<>();
+
+    private final String apiIdentifier;
+    private final Map<String, ? extends PrivateKey> privateKeys;
+    private final String currentPrivateKeyId;
+    private final int requestExpireSeconds;
+    private final CompactJWTSigner signer;
+    private final CalibratedProviders calibratedProviders;
+
+    /**
+     * @param apiIdentifier JWT identifier for the Platform API. Used as the apiIdentifier for encoding and the
+     * issuer for decoding.
+     * @param privateKeys Mapped list of RSA or EC P-256 Private Key by key ID of the public/private key pairs that will
+     * be used to sign requests.
+     * @param currentPrivateKeyId Public key fingerprint of the private key that will be used to encode requests.
+     * Requests are signed with ES256 when it is an EC key and RS256 otherwise.
+     * @param requestExpireSeconds The number of seconds from the issue ("iss") time to use for the expiration ("exp")
+     * time when encoding.
+     */
+    public JCEJWTService(
+            String apiIdentifier, Map<String, ? extends PrivateKey> privateKeys, String currentPrivateKeyId,
+            int requestExpireSeconds
+    ) {
+        this(apiIdentifier, privateKeys, currentPrivateKeyId, requestExpireSeconds, null);
+    }
+
+    /**
+     * @param apiIdentifier JWT identifier for the Platform API. Used as the apiIdentifier for encoding and the
+     * issuer for decoding.
+     * @param privateKeys Mapped list of RSA or EC P-256 Private Key by key ID of the public/private key pairs that will
+     * be used to sign requests.
+     * @param currentPrivateKeyId Public key fingerprint of the private key that will be used to encode requests.
+     * Requests are signed with ES256 when it is an EC key and RS256 otherwise.
+     * @param requestExpireSeconds The number of seconds from the issue ("iss") time to use for the expiration ("exp")
+     * time when encoding.
+     * @param calibratedProviders Providers selecting the provider for RS256 signing and verification or null for the
+     * JCA to select it
+     */
+    public JCEJWTService(
+            String apiIdentifier, Map<String, ? extends PrivateKey> privateKeys, String currentPrivateKeyId,
+            int requestExpireSeconds, CalibratedProviders calibratedProviders
+    ) {
+        this.calibratedProviders = calibratedProviders;
+        this.apiIdentifier = apiIdentifier;
+        this.privateKeys = privateKeys;
+        this.currentPrivateKeyId = currentPrivateKeyId;
+        this.requestExpireSeconds = requestExpireSeconds;
+        this.signer = new CompactJWTSigner(currentPrivateKeyId,
+                privateKeys.get(currentPrivateKeyId) instanceof ECPrivateKey
+                        ? AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256
+                        : AlgorithmIdentifiers.RSA_USING_SHA256, calibratedProviders);
+    }
+
+    @Override
+    public String encode(
+            String jti, String issuer, String subject, Date currentTime, String method, String path,
+            String contentHashAlgorithm, String contentHash
+    ) throws JWTError {
+        return signer.sign(privateKeys.get(currentPrivateKeyId), jti, issuer, subject, apiIdentifier, currentTime,
+                requestExpireSeconds, method, path, contentHashAlgorithm, contentHash);
+    }
+
+    @Override
+    public JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime,
+                            String jwt) throws JWTError {
+        return decode(publicKey, expectedAudience, expectedTokenId, currentTime, parse(jwt));
+    }
+
+    @Override
+    public JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime,
+                            JWTData jwtData) throws JWTError {
+        if (!(jwtData instanceof ParsedJWT)) {
+            throw new JWTError("JWT data was not parsed by this service", null);
+        }
+        ParsedJWT jwt = (ParsedJWT) jwtData;
+        verify(publicKey, jwt);
+        if (apiIdentifier == null ? jwt.getIssuer() != null : !apiIdentifier.equals(jwt.getIssuer())) {
+            throw new JWTError("An error occurred parsing the JWT: Issuer (iss) claim value (" + jwt.getIssuer() +
+                    ") doesn't match expected value of " + apiIdentifier, null);
+        }
+        if (!jwt.audiences.contains(expectedAudience)) {
+            throw new JWTError("An error occurred parsing the JWT: Audience (aud) claim " + jwt.audiences +
+                    " doesn't contain an acceptable identifier", null);
+        }
+        validateTimeClaims(jwt, currentTime);
+        if (expectedTokenId != null && !expectedTokenId.equals(jwt.tokenId)) {
+            throw new JWTError("An error occurred parsing the JWT: Mismatched JWT ID", null);
+        }
+        Map<String, String> response = jwt.response;
+        Map<String, String> request = jwt.request;
+        String bodyHashFunction = response.get("func") == null ? request.get("func") : response.get("func");
+        String bodyHash = response.get("hash") == null ? request.get("hash") : response.get("hash");
+        try {
+            return new JWTClaims(
+                    jwt.tokenId,
+                    jwt.getIssuer(),
+                    jwt.getSubject(),
+                    jwt.getAudience(),
+                    (int) jwt.issuedAt.longValue(),
+                    (int) jwt.notBefore.longValue(),
+                    (int) jwt.expiresAt.longValue(),
+                    bodyHashFunction,
+                    bodyHash,
+                    response.get("status") == null ? null : Integer.valueOf(response.get("status")),
+                    response.get("cache"),
+                    response.get("location"),
+                    request.get("meth"),
+                    request.get("path")
+            );
+        } catch (NumberFormatException e) {
+            throw new JWTError("An error occurred parsing a claim", e);
+        }
+    }
+
+    @Override
+    public JWTData getJWTData(String jwt) throws JWTError {
+        ParsedJWT parsed = parse(jwt);
+        if (parsed.getKeyId() == null) {
+            throw new JWTError("No kid found!", null);
+        }
+        return parsed;
+    }
+
+    private ParsedJWT parse(String jwt) throws JWTError {
+        int headerEnd = jwt.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : jwt.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || jwt.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new JWTError("An error occurred parsing the JWT: Invalid compact serialization", null);
+        }
+        ParsedJWT parsed;
+        try {
+            Map<String, String> header = parseHeader(Base64.decodeBase64(jwt.substring(0, headerEnd)));
+            if (header.containsKey("crit")) {
+                throw new JWTError("An error occurred parsing the JWT: Unsupported critical header", null);
+            }
+            parsed = parseClaims(Base64.decodeBase64(jwt.substring(headerEnd + 1, payloadEnd)), header.get("kid"));
+            parsed.algorithm = header.get("alg");
+            parsed.signingInput = jwt.substring(0, payloadEnd).getBytes(US_ASCII);
+            parsed.signature = Base64.decodeBase64(jwt.substring(payloadEnd + 1));
+        } catch (IOException e) {
+            throw new JWTError("An error occurred parsing the JWT", e);
+        }
+        return parsed;
+    }
+
+    private void verify(PublicKey publicKey, ParsedJWT jwt) throws JWTError {
+        int algorithm = -1;
+        for (int i = 0; i < ALGORITHMS.length; i++) {
+            if (ALGORITHMS[i].equals(jwt.algorithm)) {
+                algorithm = i;
+                break;
+            }
+        }
+        if (algorithm < 0) {
+            throw new JWTError("An error occurred parsing the JWT: Disallowed algorithm " + jwt.algorithm, null);
+        }
+        if (algorithm == ES256 ? !(publicKey instanceof ECPublicKey) : !(publicKey instanceof RSAPublicKey)) {
+            throw new JWTError("An error occurred parsing the JWT: Key is not valid for " + jwt.algorithm, null);
+        }
+        if (algorithm != ES256 && ((RSAPublicKey) publicKey).getModulus().bitLength() < MIN_RSA_KEY_SIZE) {
+            throw new JWTError("An error occurred parsing the JWT: An RSA key of size " + MIN_RSA_KEY_SIZE +
+                    " bits or larger MUST be used", null);
+        }
+        boolean verified;
+        try {
+            byte[] signature = jwt.signature;
+            if (algorithm == ES256) {
+                if (signature.length != ES256_SIGNATURE_LENGTH) {
+                    throw new JWTError("An error occurred parsing the JWT: Invalid signature length", null);
+                }
+                signature = EcdsaUsingShaAlgorithm.convertConcatenatedToDer(signature);
+            }
+            Signature verifier = getVerifier(algorithm);
+            verifier.initVerify(publicKey);
+            verifier.update(jwt.signingInput);
+            verified = verifier.verify(signature);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new JWTError("An error occurred parsing the JWT", e);
+        }
+        if (!verified) {
+            throw new JWTError("An error occurred parsing the JWT: Invalid signature", null);
+        }
+    }
+
+    private Signature getVerifier(int algorithm) throws GeneralSecurityException {
+        Provider provider = calibratedProviders == null || algorithm != RS256
+                ? null : calibratedProviders.getProvider(ProviderCalibration.Operation.RS256_VERIFY);
+        Signature[] verifiers = VERIFIERS.get();
+        if (verifiers == null) {
+            verifiers = new Signature[ALGORITHMS.length];
+            VERIFIERS.set(verifiers);
+        }
+        Signature verifier = verifiers[algorithm];
+        if (verifier == null || provider != null && verifier.getProvider() != provider) {
+            verifiers[algorithm] = provider == null
+                    ? Signature.getInstance(JCA_ALGORITHMS[algorithm])
+                    : Signature.getInstance(JCA_ALGORITHMS[algorithm], provider);
+        }
+        return verifiers[algorithm];
+    }
+
+    private void validateTimeClaims(ParsedJWT jwt, Date currentTime) throws JWTError {
+        if (jwt.issuedAt == null) {
+            throw new JWTError("An error occurred parsing the JWT: No Issued At (iat) claim present", null);
+        }
+        if (jwt.notBefore == null) {
+            throw new JWTError("An error occurred parsing the JWT: No Not Before (nbf) claim present", null);
+        }
+        if (jwt.expiresAt == null) {
+            throw new JWTError("An error occurred parsing the JWT: No Expiration Time (exp) claim present", null);
+        }
+        long evaluationTime = currentTime.getTime() / 1000;
+        if (evaluationTime - ALLOWED_CLOCK_SKEW_SECONDS >= jwt.expiresAt) {
+            throw new JWTError("An error occurred parsing the JWT: The JWT is no longer valid", null);
+        }
+        if (evaluationTime + ALLOWED_CLOCK_SKEW_SECONDS < jwt.notBefore) {
+            throw new JWTError("An error occurred parsing the JWT: The JWT is not yet valid", null);
+        }
+    }
+
+    private static Map<String, String> parseHeader(byte[] json) throws IOException {
+        Map<String, String> header = new HashMap<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            startObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                if (parser.nextToken().isScalarValue()) {
+                    header.put(name, parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                    header.put(name, null);
+                }
+            }
+        }
+        return header;
+    }
+
+    private static ParsedJWT parseClaims(byte[] json, String keyId) throws IOException {
+        String tokenId = null;
+        String issuer = null;
+        String subject = null;
+        List<String> audiences = new ArrayList<>(1);
+        Long issuedAt = null;
+        Long notBefore = null;
+        Long expiresAt = null;
+        Map<String, String> request = new HashMap<>();
+        Map<String, String> response = new HashMap<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            startObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                switch (name) {
+                    case "jti":
+                        tokenId = readString(parser, name);
+                        break;
+                    case "iss":
+                        issuer = readString(parser, name);
+                        break;
+                    case "sub":
+                        subject = readString(parser, name);
+                        break;
+                    case "aud":
+                        if (token == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                audiences.add(readString(parser, name));
+                            }
+                        } else {
+                            audiences.add(readString(parser, name));
+                        }
+                        break;
+                    case "iat":
+                        issuedAt = readNumericDate(parser, name);
+                        break;
+                    case "nbf":
+                        notBefore = readNumericDate(parser, name);
+                        break;
+                    case "exp":
+                        expiresAt = readNumericDate(parser, name);
+                        break;
+                    case "request":
+                        readObject(parser, request);
+                        break;
+                    case "response":
+                        readObject(parser, response);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+        return new ParsedJWT(issuer, subject, audiences, keyId, tokenId, issuedAt, notBefore, expiresAt, request,
+                response);
+    }
+
+    private static void startObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("JSON is not an object");
+        }
+    }
+
+    private static String readString(JsonParser parser, String name) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token != JsonToken.VALUE_STRING) {
+            throw new IOException("The value of the '" + name + "' claim is not a String");
+        }
+        return parser.getText();
+    }
+
+    private static Long readNumericDate(JsonParser parser, String name) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (!token.isNumeric()) {
+            throw new IOException("The value of the '" + name + "' claim is not a NumericDate");
+        }
+        return parser.getValueAsLong();
+    }
+
+    private static void readObject(JsonParser parser, Map<String, String> values) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            if (parser.nextToken().isScalarValue()) {
+                values.put(name, parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * JWT data holding everything required to verify and validate the JWT without parsing it again
+     */
+    private static final class ParsedJWT extends JWTData {
+        private final List<String> audiences;
+        private final String tokenId;
+        private final Long issuedAt;
+        private final Long notBefore;
+        private final Long expiresAt;
+        private final Map<String, String> request;
+        private final Map<String, String> response;
+        private String algorithm;
+        private byte[] signingInput;
+        private byte[] signature;
+
+        private ParsedJWT(String issuer, String subject, List<String> audiences, String keyId, String tokenId,
+                          Long issuedAt, Long notBefore, Long expiresAt, Map<String, String> request,
+                          Map<String, String> response) {
+            super(issuer, subject, audiences.isEmpty() ? null : audiences.get(0), keyId);
+            this.audiences = audiences;
+            this.tokenId = tokenId;
+            this.issuedAt = issuedAt;
+            this.notBefore = notBefore;
+            this.expiresAt = expiresAt;
+            this.request = request;
+            this.response = response;
+        }
+    }
+}
@@ -12,120 +12,161 @@
 
 package com.iovation.launchkey.sdk.crypto.jwt;
 
+import com.iovation.launchkey.sdk.crypto.CalibratedProviders;
 import org.jose4j.jwa.AlgorithmConstraints;
 import org.jose4j.jws.AlgorithmIdentifiers;
-import org.jose4j.jws.JsonWebSignature;
 import org.jose4j.jwt.JwtClaims;
 import org.jose4j.jwt.MalformedClaimException;
 import org.jose4j.jwt.NumericDate;
 import org.jose4j.jwt.consumer.*;
 import org.jose4j.jwx.JsonWebStructure;
-import org.jose4j.lang.JoseException;
 
+import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class Jose4jJWTService implements ParsedJWTService {
+    private static final int ALLOWED_CLOCK_SKEW_SECONDS = 5;
+    private static final int MAX_CACHED_CONSUMERS = 64;
+    private static final AlgorithmConstraints ALGORITHM_CONSTRAINTS = new AlgorithmConstraints(
+            AlgorithmConstraints.ConstraintType.WHITELIST,
+            AlgorithmIdentifiers.RSA_USING_SHA256,
+            AlgorithmIdentifiers.RSA_USING_SHA384,
+            AlgorithmIdentifiers.RSA_USING_SHA512,
+            AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256
+    );
 
-public class Jose4jJWTService implements JWTService {
     private final String apiIdentifier;
-    private final Map<String, RSAPrivateKey> privateKeys;
+    private final Map<String, ? extends PrivateKey> privateKeys;
     private final String currentPrivateKeyId;
     private final int requestExpireSeconds;
+    private final CompactJWTSigner signer;
+    private static final JwtConsumer PARSING_CONSUMER = new JwtConsumerBuilder()
+            .setSkipAllValidators()
+            .setSkipSignatureVerification()
+            .build();
+    private final ConcurrentMap<ConsumerKey, JwtConsumer> consumers = new ConcurrentHashMap<>();
 
     /**
      * @param apiIdentifier JWT identifier for the Platform API. Used as the apiIdentifier for encoding and the
      * issuer for decoding.
-     * @param privateKeys Mapped list of RSA Private Key by key ID of the RSA public/private key pairs that will be
-     * used to generate digital encoding and decoding as well as obtaining the RSA Public Key of the RSA public/private
-     * key pair of the Platform API which will be used to verify digital signatures when decoding.
-     * @param currentPrivateKeyId Public key fingerprint of the RSA private key that wi8ll be used to encode requests.
+     * @param privateKeys Mapped list of RSA or EC P-256 Private Key by key ID of the public/private key pairs that will
+     * be used to generate digital encoding and decoding as well as obtaining the RSA Public Key of the RSA
+     * public/private key pair of the Platform API which will be used to verify digital signatures when decoding.
+     * @param currentPrivateKeyId Public key fingerprint of the private key that wi8ll be used to encode requests.
+     * Requests are signed with ES256 when it is an EC key and RS256 otherwise.
      * @param requestExpireSeconds The number of seconds from the issue ("iss") time to use for the expiration ("exp")
      * time when encoding.
      */
     public Jose4jJWTService(
-            String apiIdentifier, Map<String, RSAPrivateKey> privateKeys, String currentPrivateKeyId, int requestExpireSeconds
+            String apiIdentifier, Map<String, ? extends PrivateKey> privateKeys, String currentPrivateKeyId,
+            int requestExpireSeconds
+    ) {
+        this(apiIdentifier, privateKeys, currentPrivateKeyId, requestExpireSeconds, null);
+    }
+
+    /**
+     * @param apiIdentifier JWT identifier for the Platform API. Used as the apiIdentifier for encoding and the
+     * issuer for decoding.
+     * @param privateKeys Mapped list of RSA or EC P-256 Private Key by key ID of the public/private key pairs that will
+     * be used to sign requests.
+     * @param currentPrivateKeyId Public key fingerprint of the private key that will be used to encode requests.
+     * Requests are signed with ES256 when it is an EC key and RS256 otherwise.
+     * @param requestExpireSeconds The number of seconds from the issue ("iss") time to use for the expiration ("exp")
+     * time when encoding.
+     * @param calibratedProviders Providers selecting the provider for RS256 request signing or null for the JCA to
+     * select it. Verification is performed by jose4j with the JCA selected provider.
+     */
+    public Jose4jJWTService(
+            String apiIdentifier, Map<String, ? extends PrivateKey> privateKeys, String currentPrivateKeyId,
+            int requestExpireSeconds, CalibratedProviders calibratedProviders
     ) {
         this.apiIdentifier = apiIdentifier;
         this.privateKeys = privateKeys;
         this.currentPrivateKeyId = currentPrivateKeyId;
         this.requestExpireSeconds = requestExpireSeconds;
+        this.signer = new CompactJWTSigner(currentPrivateKeyId,
+                privateKeys.get(currentPrivateKeyId) instanceof ECPrivateKey
+                        ? AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256
+                        : AlgorithmIdentifiers.RSA_USING_SHA256, calibratedProviders);
     }
 
     @Override
     public String encode(
             String jti, String issuer, String subject, Date currentTime, String method, String path, String contentHashAlgorithm, String contentHash
     ) throws JWTError {
-        JwtClaims jwtClaims = new JwtClaims();
-        jwtClaims.setJwtId(jti);
-        jwtClaims.setIssuer(issuer);
-        jwtClaims.setSubject(subject);
-        jwtClaims.setAudience(apiIdentifier);
-
-        NumericDate now = NumericDate.fromMilliseconds(currentTime.getTime());
-        jwtClaims.setIssuedAt(now);
-        jwtClaims.setNotBefore(now);
-
-        NumericDate exp = NumericDate.fromMilliseconds(currentTime.getTime());
-        exp.addSeconds((long) requestExpireSeconds);
-        jwtClaims.setExpirationTime(exp);
-
-        Map<String, String> request = new HashMap<>();
-        //noinspection SpellCheckingInspection
-        request.put("meth", method);
-        request.put("path", path);
-        if (contentHashAlgorithm != null) {
-            request.put("func", contentHashAlgorithm);
-            request.put("hash", contentHash);
-        }
-        jwtClaims.setClaim("request", request);
-
-        JsonWebSignature jws = new JsonWebSignature();
-        jws.setKeyIdHeaderValue(currentPrivateKeyId);
-        jws.setKey(privateKeys.get(currentPrivateKeyId));
-        jws.setPayload(jwtClaims.toJson());
-        jws.setAlgorithmHeaderValue(AlgorithmIdentifiers.RSA_USING_SHA256);
-
-        String jwt;
+        return signer.sign(privateKeys.get(currentPrivateKeyId), jti, issuer, subject, apiIdentifier, currentTime,
+                requestExpireSeconds, method, path, contentHashAlgorithm, contentHash);
+    }
+
+    @Override
+    public JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime, String jwt) throws JWTError {
+        JwtClaims libraryClaims;
         try {
-            jwt = jws.getCompactSerialization();
-        } catch (JoseException e) {
-            throw new JWTError("An error occurred encoding the JWT", e);
+            libraryClaims = getConsumer(publicKey, expectedAudience).processToClaims(jwt);
+        } catch (InvalidJwtException e) {
+            throw new JWTError("An error occurred parsing the JWT", e);
         }
-        return jwt;
+        return getClaims(libraryClaims, expectedTokenId, currentTime);
     }
 
     @Override
-    public JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime, String jwt) throws JWTError {
-        JWTClaims claims;
+    public JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime, JWTData jwtData) throws JWTError {
+        if (!(jwtData instanceof ParsedJWTData)) {
+            throw new JWTError("JWT data was not parsed by this service", null);
+        }
+        JwtContext jwtContext = ((ParsedJWTData) jwtData).jwtContext;
         try {
-            AlgorithmConstraints algorithmConstraints = new AlgorithmConstraints(
-                    AlgorithmConstraints.ConstraintType.WHITELIST,
-                    AlgorithmIdentifiers.RSA_USING_SHA256,
-                    AlgorithmIdentifiers.RSA_USING_SHA384,
-                    AlgorithmIdentifiers.RSA_USING_SHA512
+            getConsumer(publicKey, expectedAudience).processContext(jwtContext);
+        } catch (InvalidJwtException e) {
+            throw new JWTError("An error occurred parsing the JWT", e);
+        }
+        return getClaims(jwtContext.getJwtClaims(), expectedTokenId, currentTime);
+    }
+
+    @Override
+    public JWTData getJWTData(String jwt) throws JWTError {
+        String keyId = null;
+        JWTData jwtData;
+        try {
+            JwtContext jwtContext = PARSING_CONSUMER.process(jwt);
+            for (JsonWebStructure joseObject : jwtContext.getJoseObjects()) {
+                keyId = joseObject.getKeyIdHeaderValue();
+                if (keyId != null) {
+                    break;
+                }
+            }
+            if (keyId == null) {
+                throw new JWTError("No kid found!", null);
+            }
+            JwtClaims claims = jwtContext.getJwtClaims();
+            jwtData = new ParsedJWTData(
+                    claims.getIssuer(),
+                    claims.getSubject(),
+                    claims.getAudience().get(0),
+                    keyId,
+                    jwtContext
             );
+        } catch (InvalidJwtException|MalformedClaimException e) {
+            throw new JWTError("An error occurred parsing the JWT", e);
+        }
+        return jwtData;
+    }
 
-            NumericDate evaluationTime = NumericDate.fromMilliseconds(currentTime.getTime());
-            JwtConsumerBuilder builder = new JwtConsumerBuilder()
-                    .setVerificationKey(publicKey)
-                    .setEvaluationTime(evaluationTime)
-                    .setAllowedClockSkewInSeconds(5)
-                    .setExpectedAudience(expectedAudience)
-                    .setExpectedIssuer(apiIdentifier)
-                    .setRequireIssuedAt()
-                    .setRequireNotBefore()
-                    .setRequireExpirationTime()
-                    .setJwsAlgorithmConstraints(algorithmConstraints);
-            if (expectedTokenId != null) {
-                builder.setRequireJwtId()
-                        .registerValidator(new JwtIdValidator(expectedTokenId))
-                        .build();
+    private JWTClaims getClaims(JwtClaims libraryClaims, String expectedTokenId, Date currentTime) throws JWTError {
+        JWTClaims claims;
+        try {
+            validateTimeClaims(libraryClaims, currentTime);
+            if (expectedTokenId != null && !expectedTokenId.equals(libraryClaims.getJwtId())) {
+                throw new JWTError("An error occurred parsing the JWT: Mismatched JWT ID", null);
             }
-            JwtConsumer jwtConsumer = builder.build();
 
-            JwtClaims libraryClaims = jwtConsumer.processToClaims(jwt);
             Map responseClaims = libraryClaims.getClaimValue("response", Map.class) == null ? new HashMap<String, Object>(): libraryClaims.getClaimValue("response", Map.class);
             Map requestClaims = libraryClaims.getClaimValue("request", Map.class) == null ? new HashMap<String, Object>(): libraryClaims.getClaimValue("request", Map.class);
             Object bodyHashFunction = responseClaims.get("func") == null ? requestClaims.get("func") : responseClaims.get("func");
@@ -147,44 +188,59 @@ public class Jose4jJWTService implements JWTService {
                     requestClaims.get("meth") == null ? null : String.valueOf(requestClaims.get("meth")),
                     requestClaims.get("path") == null ? null : String.valueOf(requestClaims.get("path"))
             );
-        } catch (InvalidJwtException e) {
-            throw new JWTError("An error occurred parsing the JWT", e);
         } catch (MalformedClaimException e) {
             throw new JWTError("An error occurred parsing a claim", e);
         }
         return claims;
     }
 
-    @Override
-    public JWTData getJWTData(String jwt) throws JWTError {
-        String keyId = null;
-        JWTData jwtData;
-        try {
-            JwtConsumer consumer = new JwtConsumerBuilder()
-                    .setSkipAllValidators()
-                    .setSkipSignatureVerification()
+    /**
+     * Get the JWT consumer for the verification key and audience, building and caching it if it does not yet exist.
+     * Consumers are immutable and thread safe once built. As the evaluation time differs for each call, the default
+     * date validators are not used and the time based claims are validated by {@link #validateTimeClaims}.
+     */
+    private JwtConsumer getConsumer(PublicKey publicKey, String expectedAudience) {
+        ConsumerKey key = new ConsumerKey(publicKey, expectedAudience);
+        JwtConsumer consumer = consumers.get(key);
+        if (consumer == null) {
+            consumer = new JwtConsumerBuilder()
+                    .setVerificationKey(publicKey)
+                    .setJwsAlgorithmConstraints(ALGORITHM_CONSTRAINTS)
+                    .setSkipAllDefaultValidators()
+                    .registerValidator(new AudValidator(Collections.singleton(expectedAudience), true))
+                    .registerValidator(new IssValidator(apiIdentifier, true))
                     .build();
-            JwtContext jwtContext = consumer.process(jwt);
-            for (JsonWebStructure joseObject : jwtContext.getJoseObjects()) {
-                keyId = joseObject.getKeyIdHeaderValue();
-                if (keyId != null) {
-                    break;
-                }
+            if (consumers.size() >= MAX_CACHED_CONSUMERS) {
+                consumers.clear();
             }
-            if (keyId == null) {
-                throw new JWTError("No kid found!", null);
+            JwtConsumer existing = consumers.putIfAbsent(key, consumer);
+            if (existing != null) {
+                consumer = existing;
             }
-            JwtClaims claims = consumer.processToClaims(jwt);
-            jwtData = new JWTData(
-                    claims.getIssuer(),
-                    claims.getSubject(),
-                    claims.getAudience().get(0),
-                    keyId
-            );
-        } catch (InvalidJwtException|MalformedClaimException e) {
-            throw new JWTError("An error occurred parsing the JWT", e);
         }
-        return jwtData;
+        return consumer;
+    }
+
+    private void validateTimeClaims(JwtClaims claims, Date currentTime) throws JWTError, MalformedClaimException {
+        NumericDate issuedAt = claims.getIssuedAt();
+        NumericDate notBefore = claims.getNotBefore();
+        NumericDate expirationTime = claims.getExpirationTime();
+        if (issuedAt == null) {
+            throw new JWTError("An error occurred parsing the JWT: No Issued At (iat) claim present", null);
+        }
+        if (notBefore == null) {
+            throw new JWTError("An error occurred parsing the JWT: No Not Before (nbf) claim present", null);
+        }
+        if (expirationTime == null) {
+            throw new JWTError("An error occurred parsing the JWT: No Expiration Time (exp) claim present", null);
+        }
+        long evaluationTime = NumericDate.fromMilliseconds(currentTime.getTime()).getValue();
+        if (evaluationTime - ALLOWED_CLOCK_SKEW_SECONDS >= expirationTime.getValue()) {
+            throw new JWTError("An error occurred parsing the JWT: The JWT is no longer valid", null);
+        }
+        if (evaluationTime + ALLOWED_CLOCK_SKEW_SECONDS < notBefore.getValue()) {
+            throw new JWTError("An error occurred parsing the JWT: The JWT is not yet valid", null);
+        }
     }
 
     /**
@@ -204,4 +260,42 @@ public class Jose4jJWTService implements JWTService {
             return jti != null && jti.equals(expected) ? null : "Mismatched JWT ID";
         }
     }
+
+    private static final class ConsumerKey {
+        private final PublicKey publicKey;
+        private final String audience;
+
+        private ConsumerKey(PublicKey publicKey, String audience) {
+            this.publicKey = publicKey;
+            this.audience = audience;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConsumerKey)) return false;
+            ConsumerKey that = (ConsumerKey) o;
+            return publicKey.equals(that.publicKey)
+                    && (audience != null ? audience.equals(that.audience) : that.audience == null);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = publicKey.hashCode();
+            result = 31 * result + (audience != null ? audience.hashCode() : 0);
+            return result;
+        }
+    }
+
+    /**
+     * JWT data which retains the parsed JWT so that it can be verified without being parsed again
+     */
+    private static final class ParsedJWTData extends JWTData {
+        private final JwtContext jwtContext;
+
+        private ParsedJWTData(String issuer, String subject, String audience, String keyId, JwtContext jwtContext) {
+            super(issuer, subject, audience, keyId);
+            this.jwtContext = jwtContext;
+        }
+    }
 }
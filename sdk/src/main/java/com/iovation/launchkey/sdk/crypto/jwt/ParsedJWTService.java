@@ -0,0 +1,38 @@
+/**
+ * Copyright 2017 iovation, Inc. All rights reserved.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto.jwt;
+
+import java.security.PublicKey;
+import java.util.Date;
+
+/**
+ * {@link JWTService} which can verify a JWT it has already parsed with {@link #getJWTData(String)} without parsing it
+ * again. Callers holding a plain {@link JWTService} decode the JWT string instead.
+ */
+public interface ParsedJWTService extends JWTService {
+    /**
+     * Verify and validate a JWT which was previously parsed by {@link #getJWTData(String)} and return its claims.
+     * The JWT is not parsed again.
+     *
+     * @param publicKey Public Key to verify JWT signature
+     * @param expectedAudience Audience identifier expected in response
+     * @param expectedTokenId Expected Token ID
+     * @param currentTime The current time used to determine if the JWT is valid based on Issued At, Not Before, and
+     * Expires
+     * @param jwtData JWT data returned from {@link #getJWTData(String)}
+     * @return Claims object
+     * @throws JWTError When an error occurs decoding the JWT or the JWT data was not created by this service
+     */
+    JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime,
+                     JWTData jwtData) throws JWTError;
+}
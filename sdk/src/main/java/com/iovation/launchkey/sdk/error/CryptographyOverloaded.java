@@ -0,0 +1,34 @@
+/**
+ * Copyright 2017 iovation, Inc. All rights reserved.
+ * <p/>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.error;
+
+/**
+ * The exception thrown when the cryptography work for a request, response, or webhook could not be accepted because
+ * the crypto executor is saturated. No part of the work was performed and it may be retried later. Webhook endpoints
+ * may respond with a 503 Service Unavailable and a Retry-After header so that the Platform API retries the webhook.
+ */
+public class CryptographyOverloaded extends CommunicationErrorException {
+
+    /**
+     * @param message the detail message (which is saved for later retrieval
+     *                by the {@link #getMessage()} method).
+     * @param cause   the cause (which is saved for later retrieval by the
+     *                {@link #getCause()} method).  (A <tt>null</tt> value is
+     *                permitted, and indicates that the cause is nonexistent or
+     *                unknown.)
+     * @param  errorCode The error code. It will be null as the error was not received from the Platform API.
+     */
+    public CryptographyOverloaded(String message, Throwable cause, String errorCode) {
+        super(message, cause, errorCode);
+    }
+}
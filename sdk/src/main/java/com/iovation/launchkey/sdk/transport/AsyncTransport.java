@@ -0,0 +1,533 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport;
+
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking counterpart to {@link Transport}. Each call returns immediately with a {@link Future} which will be
+ * completed once the response has been received, verified, and decrypted. Errors which the synchronous transport
+ * would throw are provided as the cause of the {@link java.util.concurrent.ExecutionException} thrown by
+ * {@link Future#get()} and to {@link FutureCallback#failed(Exception)}.
+ * <p>
+ * The callback provided to each call may be null. Callbacks are executed on the thread completing the response and
+ * should not block.
+ */
+public interface AsyncTransport {
+
+    /**
+     * Asynchronous version of {@link Transport#publicV3PingGet()}
+     *
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<PublicV3PingGetResponse> publicV3PingGet(FutureCallback<PublicV3PingGetResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#publicV3PublicKeyGet(String)}
+     *
+     * @param publicKeyFingerprint MD5 fingerprint of the public key to be retrieved. If null, current key is assumed.
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<PublicV3PublicKeyGetResponse> publicV3PublicKeyGet(
+            String publicKeyFingerprint, FutureCallback<PublicV3PublicKeyGetResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#serviceV3AuthsPost(ServiceV3AuthsPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<ServiceV3AuthsPostResponse> serviceV3AuthsPost(
+            ServiceV3AuthsPostRequest request, EntityIdentifier subject,
+            FutureCallback<ServiceV3AuthsPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#serviceV3AuthsGet(UUID, EntityIdentifier)}
+     *
+     * @param authRequestId Identifier for the authorization request as returned by {@link #serviceV3AuthsPost(ServiceV3AuthsPostRequest, EntityIdentifier)}
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<ServiceV3AuthsGetResponse> serviceV3AuthsGet(
+            UUID authRequestId, EntityIdentifier subject, FutureCallback<ServiceV3AuthsGetResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#serviceV3AuthsDelete(UUID, EntityIdentifier)}
+     *
+     * @param authRequestId Identifier for the authorization request as returned by {@link #serviceV3AuthsPost(ServiceV3AuthsPostRequest, EntityIdentifier)}
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> serviceV3AuthsDelete(UUID authRequestId, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#serviceV3SessionsPost(ServiceV3SessionsPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> serviceV3SessionsPost(
+            ServiceV3SessionsPostRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#serviceV3SessionsDelete(ServiceV3SessionsDeleteRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> serviceV3SessionsDelete(
+            ServiceV3SessionsDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3DevicesPost(DirectoryV3DevicesPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<DirectoryV3DevicesPostResponse> directoryV3DevicesPost(
+            DirectoryV3DevicesPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3DevicesPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3DevicesListPost(DirectoryV3DevicesListPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<DirectoryV3DevicesListPostResponse> directoryV3DevicesListPost(
+            DirectoryV3DevicesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3DevicesListPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3devicesDelete(DirectoryV3DevicesDeleteRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> directoryV3devicesDelete(
+            DirectoryV3DevicesDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3SessionsListPost(DirectoryV3SessionsListPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<DirectoryV3SessionsListPostResponse> directoryV3SessionsListPost(
+            DirectoryV3SessionsListPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3SessionsListPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3SessionsDelete(DirectoryV3SessionsDeleteRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> directoryV3SessionsDelete(
+            DirectoryV3SessionsDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServicesPost(ServicesPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<ServicesPostResponse> directoryV3ServicesPost(
+            ServicesPostRequest request, EntityIdentifier subject, FutureCallback<ServicesPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServicesPatch(ServicesPatchRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> directoryV3ServicesPatch(
+            ServicesPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServicesListPost(ServicesListPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<ServicesListPostResponse> directoryV3ServicesListPost(
+            ServicesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<ServicesListPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServicesGet(EntityIdentifier)}
+     *
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<ServicesGetResponse> directoryV3ServicesGet(
+            EntityIdentifier subject, FutureCallback<ServicesGetResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServiceKeysPost(ServiceKeysPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<KeysPostResponse> directoryV3ServiceKeysPost(
+            ServiceKeysPostRequest request, EntityIdentifier subject, FutureCallback<KeysPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServiceKeysListPost(ServiceKeysListPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<KeysListPostResponse> directoryV3ServiceKeysListPost(
+            ServiceKeysListPostRequest request, EntityIdentifier subject,
+            FutureCallback<KeysListPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServiceKeysDelete(ServiceKeysDeleteRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> directoryV3ServiceKeysDelete(
+            ServiceKeysDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServiceKeysPatch(ServiceKeysPatchRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> directoryV3ServiceKeysPatch(
+            ServiceKeysPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServicePolicyPut(ServicePolicyPutRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> directoryV3ServicePolicyPut(
+            ServicePolicyPutRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServicePolicyItemPost(ServicePolicyItemPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<Policy> directoryV3ServicePolicyItemPost(
+            ServicePolicyItemPostRequest request, EntityIdentifier subject, FutureCallback<Policy> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#directoryV3ServicePolicyDelete(ServicePolicyDeleteRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> directoryV3ServicePolicyDelete(
+            ServicePolicyDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectoriesPost(OrganizationV3DirectoriesPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<OrganizationV3DirectoriesPostResponse> organizationV3DirectoriesPost(
+            OrganizationV3DirectoriesPostRequest request, EntityIdentifier subject,
+            FutureCallback<OrganizationV3DirectoriesPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectoriesPatch(OrganizationV3DirectoriesPatchRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> organizationV3DirectoriesPatch(
+            OrganizationV3DirectoriesPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectoriesGet(EntityIdentifier)}
+     *
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<OrganizationV3DirectoriesGetResponse> organizationV3DirectoriesGet(
+            EntityIdentifier subject, FutureCallback<OrganizationV3DirectoriesGetResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectoriesListPost(OrganizationV3DirectoriesListPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<OrganizationV3DirectoriesListPostResponse> organizationV3DirectoriesListPost(
+            OrganizationV3DirectoriesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<OrganizationV3DirectoriesListPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectoryKeysPost(OrganizationV3DirectoryKeysPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<KeysPostResponse> organizationV3DirectoryKeysPost(
+            OrganizationV3DirectoryKeysPostRequest request, EntityIdentifier subject,
+            FutureCallback<KeysPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectoryKeysListPost(OrganizationV3DirectoryKeysListPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<KeysListPostResponse> organizationV3DirectoryKeysListPost(
+            OrganizationV3DirectoryKeysListPostRequest request, EntityIdentifier subject,
+            FutureCallback<KeysListPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectoryKeysPatch(OrganizationV3DirectoryKeysPatchRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> organizationV3DirectoryKeysPatch(
+            OrganizationV3DirectoryKeysPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectoryKeysDelete(OrganizationV3DirectoryKeysDeleteRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> organizationV3DirectoryKeysDelete(
+            OrganizationV3DirectoryKeysDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectorySdkKeysPost(OrganizationV3DirectorySdkKeysPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<OrganizationV3DirectorySdkKeysPostResponse> organizationV3DirectorySdkKeysPost(
+            OrganizationV3DirectorySdkKeysPostRequest request, EntityIdentifier subject,
+            FutureCallback<OrganizationV3DirectorySdkKeysPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectorySdkKeysDelete(OrganizationV3DirectorySdkKeysDeleteRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> organizationV3DirectorySdkKeysDelete(
+            OrganizationV3DirectorySdkKeysDeleteRequest request, EntityIdentifier subject,
+            FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3DirectorySdkKeysListPost(OrganizationV3DirectorySdkKeysListPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<OrganizationV3DirectorySdkKeysListPostResponse> organizationV3DirectorySdkKeysListPost(
+            OrganizationV3DirectorySdkKeysListPostRequest request, EntityIdentifier subject,
+            FutureCallback<OrganizationV3DirectorySdkKeysListPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServicesPost(ServicesPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<ServicesPostResponse> organizationV3ServicesPost(
+            ServicesPostRequest request, EntityIdentifier subject, FutureCallback<ServicesPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServicesPatch(ServicesPatchRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> organizationV3ServicesPatch(
+            ServicesPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServicesListPost(ServicesListPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<ServicesListPostResponse> organizationV3ServicesListPost(
+            ServicesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<ServicesListPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServicesGet(EntityIdentifier)}
+     *
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<ServicesGetResponse> organizationV3ServicesGet(
+            EntityIdentifier subject, FutureCallback<ServicesGetResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServiceKeysListPost(ServiceKeysListPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<KeysListPostResponse> organizationV3ServiceKeysListPost(
+            ServiceKeysListPostRequest request, EntityIdentifier subject,
+            FutureCallback<KeysListPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServiceKeysPost(ServiceKeysPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<KeysPostResponse> organizationV3ServiceKeysPost(
+            ServiceKeysPostRequest request, EntityIdentifier subject, FutureCallback<KeysPostResponse> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServiceKeysPatch(ServiceKeysPatchRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> organizationV3ServiceKeysPatch(
+            ServiceKeysPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServiceKeysDelete(ServiceKeysDeleteRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> organizationV3ServiceKeysDelete(
+            ServiceKeysDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServicePolicyPut(ServicePolicyPutRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> organizationV3ServicePolicyPut(
+            ServicePolicyPutRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServicePolicyItemPost(ServicePolicyItemPostRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future for the response from the LaunchKey API
+     */
+    Future<Policy> organizationV3ServicePolicyItemPost(
+            ServicePolicyItemPostRequest request, EntityIdentifier subject, FutureCallback<Policy> callback);
+
+    /**
+     * Asynchronous version of {@link Transport#organizationV3ServicePolicyDelete(ServicePolicyDeleteRequest, EntityIdentifier)}
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Organization entity for the subject
+     * @param callback Callback to be notified when the request completes, fails, or is cancelled. May be null.
+     * @return Future which will be completed with null when the request succeeds
+     */
+    Future<Void> organizationV3ServicePolicyDelete(
+            ServicePolicyDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback);
+}
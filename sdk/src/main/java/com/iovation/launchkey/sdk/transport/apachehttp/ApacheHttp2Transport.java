@@ -0,0 +1,235 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.crypto.Crypto;
+import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
+import com.iovation.launchkey.sdk.transport.domain.EntityKeyMap;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorStatus;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link com.iovation.launchkey.sdk.transport.Transport} which sends requests to the Platform API over HTTP/2 with
+ * the Apache HTTP Client 5 async engine. Concurrent requests are multiplexed as streams over a single connection
+ * per route instead of requiring a pooled socket, and TLS handshake, per request. Request signing and response
+ * validation are the same as {@link ApacheHttpTransport}.
+ * <p>
+ * HTTP/2 over TLS requires ALPN support in the JVM, which is available in Java 9 and later as well as Java 8
+ * update 252 and later.
+ */
+public class ApacheHttp2Transport extends ApacheHttpTransport implements Closeable {
+    /**
+     * Default maximum time in milliseconds to wait for a response
+     */
+    public static final int DEFAULT_REQUEST_TIMEOUT_MILLIS = 30000;
+    private final CloseableHttpAsyncClient http2Client;
+    private final CloseableHttpAsyncClient ownedHttp2Client;
+    private final int requestTimeoutMillis;
+    private final int maxResponseBodySize;
+
+    /**
+     * @param http2Client HTTP/2 client such as one built by
+     * {@link #newHttp2Client()}. If it has not been started, it will be started when the first request is made. If
+     * null, a client is created by the transport and closed by {@link #close()}.
+     * @param crypto Crypto service
+     * @param objectMapper Jackson object mapper
+     * @param publicKeyCache Caching for public keys from LaunchKey API
+     * @param baseUrl Base URL for the Platform API
+     * @param issuer Entity sending the requests
+     * @param jwtService JWT service
+     * @param jweService JWE service
+     * @param offsetTTL The number of seconds the API time offset will live before obtaining another using a ping call.
+     * @param currentPublicKeyTTL The number of seconds to current public key as reported by a public key call will
+     * live before obtaining the value again from the API.
+     * @param entityKeyMap Mapping of entity private keys to allow for parsing Server Sent Events from entities
+     * @param maxResponseBodySize Maximum size in bytes of a response body
+     */
+    public ApacheHttp2Transport(CloseableHttpAsyncClient http2Client, Crypto crypto, ObjectMapper objectMapper,
+                                Cache publicKeyCache, String baseUrl, EntityIdentifier issuer,
+                                JWTService jwtService, JWEService jweService,
+                                int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap,
+                                int maxResponseBodySize
+    ) {
+        this(http2Client, crypto, objectMapper, publicKeyCache, baseUrl, issuer, jwtService, jweService, offsetTTL,
+                currentPublicKeyTTL, entityKeyMap, new TransportOptions().setMaxResponseBodySize(maxResponseBodySize));
+    }
+
+    /**
+     * @param http2Client HTTP/2 client such as one built by
+     * {@link #newHttp2Client()}. If it has not been started, it will be started when the first request is made. If
+     * null, a client is created by the transport and closed by {@link #close()}.
+     * @param crypto Crypto service
+     * @param objectMapper Jackson object mapper
+     * @param publicKeyCache Caching for public keys from LaunchKey API
+     * @param baseUrl Base URL for the Platform API
+     * @param issuer Entity sending the requests
+     * @param jwtService JWT service
+     * @param jweService JWE service
+     * @param offsetTTL The number of seconds the API time offset will live before obtaining another using a ping call.
+     * @param currentPublicKeyTTL The number of seconds to current public key as reported by a public key call will
+     * live before obtaining the value again from the API.
+     * @param entityKeyMap Mapping of entity private keys to allow for parsing Server Sent Events from entities
+     * @param options Optional settings such as the maximum response body size, the request timeout, the crypto
+     * executor, and the state cache. If null, the defaults are used.
+     */
+    public ApacheHttp2Transport(CloseableHttpAsyncClient http2Client, Crypto crypto, ObjectMapper objectMapper,
+                                Cache publicKeyCache, String baseUrl, EntityIdentifier issuer,
+                                JWTService jwtService, JWEService jweService,
+                                int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap,
+                                TransportOptions options
+    ) {
+        super(null, crypto, objectMapper, publicKeyCache, baseUrl, issuer, jwtService, jweService, offsetTTL,
+                currentPublicKeyTTL, entityKeyMap, options);
+        this.ownedHttp2Client = http2Client == null ? newHttp2Client() : null;
+        this.http2Client = http2Client == null ? ownedHttp2Client : http2Client;
+        this.requestTimeoutMillis = options == null
+                ? DEFAULT_REQUEST_TIMEOUT_MILLIS : options.getRequestTimeoutMillis();
+        this.maxResponseBodySize = (options == null ? new TransportOptions() : options).getMaxResponseBodySize();
+    }
+
+    /**
+     * Create an HTTP/2 client configured for the Platform API. Retries, redirects, authentication caching, and cookies
+     * are disabled.
+     *
+     * @return Client which has not been started and which the caller is responsible for closing
+     */
+    public static CloseableHttpAsyncClient newHttp2Client() {
+        return HttpAsyncClients.customHttp2()
+                .disableAutomaticRetries()
+                .disableRedirectHandling()
+                .disableAuthCaching()
+                .disableCookieManagement()
+                .build();
+    }
+
+    /**
+     * Close the HTTP/2 client created by the transport, if any, after requests in progress have completed. A client
+     * provided to the transport is not closed as it may be shared.
+     */
+    @Override
+    public void close() {
+        if (ownedHttp2Client != null) {
+            ownedHttp2Client.close(CloseMode.GRACEFUL);
+        }
+    }
+
+    CloseableHttpAsyncClient getHttp2Client() {
+        return http2Client;
+    }
+
+    /**
+     * Send the request over HTTP/2. The response body is buffered by a {@link SizeLimitedResponseConsumer} so that a
+     * body larger than the maximum response body size is never held in full.
+     *
+     * @throws InvalidResponseException When the response body exceeds the maximum response body size
+     */
+    @Override
+    protected HttpResponse execute(HttpUriRequest request) throws CommunicationErrorException,
+            InvalidResponseException {
+        startClientIfRequired();
+        SimpleHttpResponse response;
+        Future<SimpleHttpResponse> future = null;
+        try {
+            future = http2Client.execute(SimpleRequestProducer.create(getSimpleHttpRequest(request)),
+                    new SizeLimitedResponseConsumer(maxResponseBodySize), null);
+            response = future.get(requestTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CommunicationErrorException("Interrupted waiting for response", e, null);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new CommunicationErrorException(
+                    "No response received within " + requestTimeoutMillis + " milliseconds", e, null);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ReplayHttpResponse.ContentTooLargeException) {
+                throw new InvalidResponseException(e.getCause().getMessage(), e.getCause(), null);
+            }
+            throw new CommunicationErrorException("An I/O Error Occurred", e.getCause(), null);
+        } catch (IOException e) {
+            throw new CommunicationErrorException("An I/O Error Occurred", e, null);
+        }
+        return getHttpResponse(response);
+    }
+
+    static SimpleHttpRequest getSimpleHttpRequest(HttpUriRequest request) throws IOException {
+        SimpleHttpRequest simpleRequest = new SimpleHttpRequest(request.getMethod(), request.getURI());
+        for (Header header : request.getAllHeaders()) {
+            simpleRequest.addHeader(header.getName(), header.getValue());
+        }
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            if (entity != null) {
+                ContentType contentType = entity.getContentType() == null
+                        ? null : ContentType.parse(entity.getContentType().getValue());
+                simpleRequest.setBody(entity instanceof ByteArrayBodyEntity
+                        ? ((ByteArrayBodyEntity) entity).getBytes() : EntityUtils.toByteArray(entity), contentType);
+            }
+        }
+        return simpleRequest;
+    }
+
+    static HttpResponse getHttpResponse(SimpleHttpResponse simpleResponse) {
+        HttpResponse response = new BasicHttpResponse(
+                HttpVersion.HTTP_1_1, simpleResponse.getCode(), simpleResponse.getReasonPhrase());
+        for (org.apache.hc.core5.http.Header header : simpleResponse.getHeaders()) {
+            response.addHeader(header.getName(), header.getValue());
+        }
+        byte[] body = simpleResponse.getBodyBytes();
+        if (body != null) {
+            ByteArrayBodyEntity entity = new ByteArrayBodyEntity(body);
+            if (simpleResponse.getContentType() != null) {
+                entity.setContentType(simpleResponse.getContentType().toString());
+            }
+            response.setEntity(entity);
+        }
+        return response;
+    }
+
+    private void startClientIfRequired() {
+        if (http2Client.getStatus() == IOReactorStatus.INACTIVE) {
+            synchronized (this) {
+                if (http2Client.getStatus() == IOReactorStatus.INACTIVE) {
+                    http2Client.start();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,709 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import com.iovation.launchkey.sdk.error.BaseException;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.RequestTimedOut;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.client.HttpAsyncClient;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link AsyncTransport} utilizing the non-blocking Apache HTTP Async Client. Requests are signed and encrypted, and
+ * responses are verified and decrypted, on an executor. Neither the calling thread nor the I/O dispatcher threads
+ * perform cryptography or wait on the public key and ping requests which signing and verification may require. No
+ * thread is held while waiting on the Platform API, so the number of threads no longer grows with the number of
+ * requests in flight.
+ * <p>
+ * Request signing, response validation, and the API public key and server time caches are shared with the
+ * {@link ApacheHttpTransport} provided to the constructor.
+ */
+public class ApacheHttpAsyncTransport implements AsyncTransport, Closeable {
+    private static final ResponseProcessor<Void> VOID_PROCESSOR = new ResponseProcessor<Void>() {
+        @Override
+        Void process(HttpResponse response) {
+            return null;
+        }
+    };
+
+    /**
+     * Default maximum number of requests and responses waiting for a thread of an executor created by
+     * {@link #newExecutorService(int)}
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+    private final HttpAsyncClient httpAsyncClient;
+    private final ApacheHttpTransport transport;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Create a transport which builds requests and processes responses on its own pool of daemon threads, one per
+     * available processor. The pool is shut down by {@link #close()}.
+     *
+     * @param httpAsyncClient Apache HTTP Async client. If it is a {@link CloseableHttpAsyncClient} which has not
+     * been started, it will be started when the first request is made.
+     * @param transport Synchronous transport which will be used to sign requests and verify responses. It will also
+     * be used to retrieve the API public keys and server time when they are not cached.
+     */
+    public ApacheHttpAsyncTransport(HttpAsyncClient httpAsyncClient, ApacheHttpTransport transport) {
+        this(httpAsyncClient, transport, newExecutorService(Runtime.getRuntime().availableProcessors()), true);
+    }
+
+    /**
+     * @param httpAsyncClient Apache HTTP Async client. If it is a {@link CloseableHttpAsyncClient} which has not
+     * been started, it will be started when the first request is made.
+     * @param transport Synchronous transport which will be used to sign requests and verify responses. It will also
+     * be used to retrieve the API public keys and server time when they are not cached.
+     * @param executor Executor on which requests are built and responses are processed. It may be shared by several
+     * transports and is not shut down by {@link #close()}. If it rejects a task, the call fails with a
+     * {@link CommunicationErrorException}.
+     */
+    public ApacheHttpAsyncTransport(HttpAsyncClient httpAsyncClient, ApacheHttpTransport transport, Executor executor) {
+        this(httpAsyncClient, transport, executor, false);
+    }
+
+    private ApacheHttpAsyncTransport(HttpAsyncClient httpAsyncClient, ApacheHttpTransport transport, Executor executor,
+                                     boolean ownsExecutor) {
+        if (executor == null) throw new IllegalArgumentException("Argument executor cannot be null");
+        this.httpAsyncClient = httpAsyncClient;
+        this.transport = transport;
+        this.executor = executor;
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+    }
+
+    /**
+     * Create a pool of daemon threads suitable for building requests and processing responses for one or more
+     * transports with at most {@link #DEFAULT_QUEUE_SIZE} tasks waiting. Idle threads are stopped after a minute.
+     *
+     * @param threads Maximum number of threads
+     * @return Executor service which the caller is responsible for shutting down
+     */
+    public static ExecutorService newExecutorService(int threads) {
+        return newExecutorService(threads, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * Create a pool of daemon threads suitable for building requests and processing responses for one or more
+     * transports. Idle threads are stopped after a minute. When the queue is full, further calls fail with a
+     * {@link CommunicationErrorException} rather than waiting.
+     *
+     * @param threads Maximum number of threads
+     * @param queueSize Maximum number of tasks waiting for a thread
+     * @return Executor service which the caller is responsible for shutting down
+     */
+    public static ExecutorService newExecutorService(int threads, int queueSize) {
+        final int poolNumber = POOL_NUMBER.getAndIncrement();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable,
+                                "launchkey-async-" + poolNumber + "-" + threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Shut down the thread pool created by the transport, if any. Requests in progress are completed. The HTTP Async
+     * client is not closed as it may be shared.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public Future<PublicV3PingGetResponse> publicV3PingGet(FutureCallback<PublicV3PingGetResponse> callback) {
+        return execute("GET", "/public/v3/ping", null, null, false, callback,
+                new ResponseProcessor<PublicV3PingGetResponse>() {
+                    @Override
+                    PublicV3PingGetResponse process(HttpResponse response) throws BaseException {
+                        return transport.parseJsonResponse(response.getEntity(), PublicV3PingGetResponse.class);
+                    }
+                });
+    }
+
+    @Override
+    public Future<PublicV3PublicKeyGetResponse> publicV3PublicKeyGet(
+            String publicKeyFingerprint, FutureCallback<PublicV3PublicKeyGetResponse> callback) {
+        String path = "/public/v3/public-key";
+        if (publicKeyFingerprint != null) {
+            path = path + "/" + publicKeyFingerprint;
+        }
+        return execute("GET", path, null, null, false, callback,
+                new ResponseProcessor<PublicV3PublicKeyGetResponse>() {
+                    @Override
+                    PublicV3PublicKeyGetResponse process(HttpResponse response) throws BaseException {
+                        return transport.getPublicV3PublicKeyGetResponse(response);
+                    }
+                });
+    }
+
+    @Override
+    public Future<ServiceV3AuthsPostResponse> serviceV3AuthsPost(
+            ServiceV3AuthsPostRequest request, EntityIdentifier subject,
+            FutureCallback<ServiceV3AuthsPostResponse> callback) {
+        return execute("POST", "/service/v3/auths", subject, request, true, callback,
+                new DecryptingProcessor<>(ServiceV3AuthsPostResponse.class));
+    }
+
+    @Override
+    public Future<ServiceV3AuthsGetResponse> serviceV3AuthsGet(
+            UUID authRequestId, final EntityIdentifier subject, FutureCallback<ServiceV3AuthsGetResponse> callback) {
+        return execute("GET", "/service/v3/auths/" + authRequestId.toString(), subject, null, true, callback,
+                new ResponseProcessor<ServiceV3AuthsGetResponse>() {
+                    @Override
+                    ServiceV3AuthsGetResponse process(HttpResponse response) throws BaseException {
+                        return transport.getServiceV3AuthsGetResponse(response, subject);
+                    }
+
+                    @Override
+                    Exception translate(Exception e) {
+                        return e instanceof RequestTimedOut ? new AuthorizationRequestTimedOutError() : e;
+                    }
+                });
+    }
+
+    @Override
+    public Future<Void> serviceV3AuthsDelete(
+            UUID authRequestId, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("DELETE", "/service/v3/auths/" + authRequestId.toString(),
+                subject, null, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<Void> serviceV3SessionsPost(
+            ServiceV3SessionsPostRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("POST", "/service/v3/sessions", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<Void> serviceV3SessionsDelete(
+            ServiceV3SessionsDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("DELETE", "/service/v3/sessions", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<DirectoryV3DevicesPostResponse> directoryV3DevicesPost(
+            DirectoryV3DevicesPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3DevicesPostResponse> callback) {
+        return execute("POST", "/directory/v3/devices", subject, request, true, callback,
+                new DecryptingProcessor<>(DirectoryV3DevicesPostResponse.class));
+    }
+
+    @Override
+    public Future<DirectoryV3DevicesListPostResponse> directoryV3DevicesListPost(
+            DirectoryV3DevicesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3DevicesListPostResponse> callback) {
+        return execute("POST", "/directory/v3/devices/list", subject, request, true, callback,
+                new ResponseProcessor<DirectoryV3DevicesListPostResponse>() {
+                    @Override
+                    DirectoryV3DevicesListPostResponse process(HttpResponse response) throws BaseException {
+                        return new DirectoryV3DevicesListPostResponse(
+                                decryptList(response, DirectoryV3DevicesListPostResponseDevice[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<Void> directoryV3devicesDelete(
+            DirectoryV3DevicesDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("DELETE", "/directory/v3/devices", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<DirectoryV3SessionsListPostResponse> directoryV3SessionsListPost(
+            DirectoryV3SessionsListPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3SessionsListPostResponse> callback) {
+        return execute("POST", "/directory/v3/sessions/list", subject, request, true, callback,
+                new ResponseProcessor<DirectoryV3SessionsListPostResponse>() {
+                    @Override
+                    DirectoryV3SessionsListPostResponse process(HttpResponse response) throws BaseException {
+                        return new DirectoryV3SessionsListPostResponse(
+                                decryptList(response, DirectoryV3SessionsListPostResponseSession[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<Void> directoryV3SessionsDelete(
+            DirectoryV3SessionsDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("DELETE", "/directory/v3/sessions", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<ServicesPostResponse> directoryV3ServicesPost(
+            ServicesPostRequest request, EntityIdentifier subject, FutureCallback<ServicesPostResponse> callback) {
+        return execute("POST", "/directory/v3/services", subject, request, true, callback,
+                new DecryptingProcessor<>(ServicesPostResponse.class));
+    }
+
+    @Override
+    public Future<Void> directoryV3ServicesPatch(
+            ServicesPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("PATCH", "/directory/v3/services", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<ServicesListPostResponse> directoryV3ServicesListPost(
+            ServicesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<ServicesListPostResponse> callback) {
+        return execute("POST", "/directory/v3/services/list", subject, request, true, callback,
+                new ResponseProcessor<ServicesListPostResponse>() {
+                    @Override
+                    ServicesListPostResponse process(HttpResponse response) throws BaseException {
+                        return new ServicesListPostResponse(
+                                decryptList(response, ServicesListPostResponseService[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<ServicesGetResponse> directoryV3ServicesGet(
+            EntityIdentifier subject, FutureCallback<ServicesGetResponse> callback) {
+        return execute("GET", "/directory/v3/services", subject, null, true, callback,
+                new ResponseProcessor<ServicesGetResponse>() {
+                    @Override
+                    ServicesGetResponse process(HttpResponse response) throws BaseException {
+                        return new ServicesGetResponse(
+                                decryptList(response, ServicesGetResponseService[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<KeysPostResponse> directoryV3ServiceKeysPost(
+            ServiceKeysPostRequest request, EntityIdentifier subject, FutureCallback<KeysPostResponse> callback) {
+        return execute("POST", "/directory/v3/service/keys", subject, request, true, callback,
+                new DecryptingProcessor<>(KeysPostResponse.class));
+    }
+
+    @Override
+    public Future<KeysListPostResponse> directoryV3ServiceKeysListPost(
+            ServiceKeysListPostRequest request, EntityIdentifier subject,
+            FutureCallback<KeysListPostResponse> callback) {
+        return execute("POST", "/directory/v3/service/keys/list", subject, request, true, callback,
+                new ResponseProcessor<KeysListPostResponse>() {
+                    @Override
+                    KeysListPostResponse process(HttpResponse response) throws BaseException {
+                        return new KeysListPostResponse(
+                                decryptList(response, KeysListPostResponsePublicKey[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<Void> directoryV3ServiceKeysDelete(
+            ServiceKeysDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("DELETE", "/directory/v3/service/keys", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<Void> directoryV3ServiceKeysPatch(
+            ServiceKeysPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("PATCH", "/directory/v3/service/keys", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<Void> directoryV3ServicePolicyPut(
+            ServicePolicyPutRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("PUT", "/directory/v3/service/policy", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<Policy> directoryV3ServicePolicyItemPost(
+            ServicePolicyItemPostRequest request, EntityIdentifier subject, FutureCallback<Policy> callback) {
+        return execute("POST", "/directory/v3/service/policy/item", subject, request, true, callback,
+                new DecryptingProcessor<>(Policy.class));
+    }
+
+    @Override
+    public Future<Void> directoryV3ServicePolicyDelete(
+            ServicePolicyDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("DELETE", "/directory/v3/service/policy", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<OrganizationV3DirectoriesPostResponse> organizationV3DirectoriesPost(
+            OrganizationV3DirectoriesPostRequest request, EntityIdentifier subject,
+            FutureCallback<OrganizationV3DirectoriesPostResponse> callback) {
+        return execute("POST", "/organization/v3/directories", subject, request, true, callback,
+                new DecryptingProcessor<>(OrganizationV3DirectoriesPostResponse.class));
+    }
+
+    @Override
+    public Future<Void> organizationV3DirectoriesPatch(
+            OrganizationV3DirectoriesPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("PATCH", "/organization/v3/directories", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<OrganizationV3DirectoriesGetResponse> organizationV3DirectoriesGet(
+            EntityIdentifier subject, FutureCallback<OrganizationV3DirectoriesGetResponse> callback) {
+        return execute("GET", "/organization/v3/directories", subject, null, true, callback,
+                new ResponseProcessor<OrganizationV3DirectoriesGetResponse>() {
+                    @Override
+                    OrganizationV3DirectoriesGetResponse process(HttpResponse response) throws BaseException {
+                        return new OrganizationV3DirectoriesGetResponse(
+                                decryptList(response, OrganizationV3DirectoriesGetResponseDirectory[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<OrganizationV3DirectoriesListPostResponse> organizationV3DirectoriesListPost(
+            OrganizationV3DirectoriesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<OrganizationV3DirectoriesListPostResponse> callback) {
+        return execute("POST", "/organization/v3/directories/list", subject, request, true, callback,
+                new ResponseProcessor<OrganizationV3DirectoriesListPostResponse>() {
+                    @Override
+                    OrganizationV3DirectoriesListPostResponse process(HttpResponse response)
+                            throws BaseException {
+                        return new OrganizationV3DirectoriesListPostResponse(
+                                decryptList(response, OrganizationV3DirectoriesListPostResponseDirectory[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<KeysPostResponse> organizationV3DirectoryKeysPost(
+            OrganizationV3DirectoryKeysPostRequest request, EntityIdentifier subject,
+            FutureCallback<KeysPostResponse> callback) {
+        return execute("POST", "/organization/v3/directory/keys", subject, request, true, callback,
+                new DecryptingProcessor<>(KeysPostResponse.class));
+    }
+
+    @Override
+    public Future<KeysListPostResponse> organizationV3DirectoryKeysListPost(
+            OrganizationV3DirectoryKeysListPostRequest request, EntityIdentifier subject,
+            FutureCallback<KeysListPostResponse> callback) {
+        return execute("POST", "/organization/v3/directory/keys/list", subject, request, true, callback,
+                new ResponseProcessor<KeysListPostResponse>() {
+                    @Override
+                    KeysListPostResponse process(HttpResponse response) throws BaseException {
+                        return new KeysListPostResponse(
+                                decryptList(response, KeysListPostResponsePublicKey[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<Void> organizationV3DirectoryKeysPatch(
+            OrganizationV3DirectoryKeysPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("PATCH", "/organization/v3/directory/keys", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<Void> organizationV3DirectoryKeysDelete(
+            OrganizationV3DirectoryKeysDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("DELETE", "/organization/v3/directory/keys", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<OrganizationV3DirectorySdkKeysPostResponse> organizationV3DirectorySdkKeysPost(
+            OrganizationV3DirectorySdkKeysPostRequest request, EntityIdentifier subject,
+            FutureCallback<OrganizationV3DirectorySdkKeysPostResponse> callback) {
+        return execute("POST", "/organization/v3/directory/sdk-keys", subject, request, true, callback,
+                new DecryptingProcessor<>(OrganizationV3DirectorySdkKeysPostResponse.class));
+    }
+
+    @Override
+    public Future<Void> organizationV3DirectorySdkKeysDelete(
+            OrganizationV3DirectorySdkKeysDeleteRequest request, EntityIdentifier subject,
+            FutureCallback<Void> callback) {
+        return execute("DELETE", "/organization/v3/directory/sdk-keys",
+                subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<OrganizationV3DirectorySdkKeysListPostResponse> organizationV3DirectorySdkKeysListPost(
+            OrganizationV3DirectorySdkKeysListPostRequest request, EntityIdentifier subject,
+            FutureCallback<OrganizationV3DirectorySdkKeysListPostResponse> callback) {
+        return execute("POST", "/organization/v3/directory/sdk-keys/list", subject, request, true, callback,
+                new ResponseProcessor<OrganizationV3DirectorySdkKeysListPostResponse>() {
+                    @Override
+                    OrganizationV3DirectorySdkKeysListPostResponse process(HttpResponse response)
+                            throws BaseException {
+                        return new OrganizationV3DirectorySdkKeysListPostResponse(
+                                decryptList(response, UUID[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<ServicesPostResponse> organizationV3ServicesPost(
+            ServicesPostRequest request, EntityIdentifier subject, FutureCallback<ServicesPostResponse> callback) {
+        return execute("POST", "/organization/v3/services", subject, request, true, callback,
+                new DecryptingProcessor<>(ServicesPostResponse.class));
+    }
+
+    @Override
+    public Future<Void> organizationV3ServicesPatch(
+            ServicesPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("PATCH", "/organization/v3/services", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<ServicesListPostResponse> organizationV3ServicesListPost(
+            ServicesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<ServicesListPostResponse> callback) {
+        return execute("POST", "/organization/v3/services/list", subject, request, true, callback,
+                new ResponseProcessor<ServicesListPostResponse>() {
+                    @Override
+                    ServicesListPostResponse process(HttpResponse response) throws BaseException {
+                        return new ServicesListPostResponse(
+                                decryptList(response, ServicesListPostResponseService[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<ServicesGetResponse> organizationV3ServicesGet(
+            EntityIdentifier subject, FutureCallback<ServicesGetResponse> callback) {
+        return execute("GET", "/organization/v3/services", subject, null, true, callback,
+                new ResponseProcessor<ServicesGetResponse>() {
+                    @Override
+                    ServicesGetResponse process(HttpResponse response) throws BaseException {
+                        return new ServicesGetResponse(
+                                decryptList(response, ServicesGetResponseService[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<KeysListPostResponse> organizationV3ServiceKeysListPost(
+            ServiceKeysListPostRequest request, EntityIdentifier subject,
+            FutureCallback<KeysListPostResponse> callback) {
+        return execute("POST", "/organization/v3/service/keys/list", subject, request, true, callback,
+                new ResponseProcessor<KeysListPostResponse>() {
+                    @Override
+                    KeysListPostResponse process(HttpResponse response) throws BaseException {
+                        return new KeysListPostResponse(
+                                decryptList(response, KeysListPostResponsePublicKey[].class));
+                    }
+                });
+    }
+
+    @Override
+    public Future<KeysPostResponse> organizationV3ServiceKeysPost(
+            ServiceKeysPostRequest request, EntityIdentifier subject, FutureCallback<KeysPostResponse> callback) {
+        return execute("POST", "/organization/v3/service/keys", subject, request, true, callback,
+                new DecryptingProcessor<>(KeysPostResponse.class));
+    }
+
+    @Override
+    public Future<Void> organizationV3ServiceKeysPatch(
+            ServiceKeysPatchRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("PATCH", "/organization/v3/service/keys", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<Void> organizationV3ServiceKeysDelete(
+            ServiceKeysDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("DELETE", "/organization/v3/service/keys", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<Void> organizationV3ServicePolicyPut(
+            ServicePolicyPutRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("PUT", "/organization/v3/service/policy", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    @Override
+    public Future<Policy> organizationV3ServicePolicyItemPost(
+            ServicePolicyItemPostRequest request, EntityIdentifier subject, FutureCallback<Policy> callback) {
+        return execute("POST", "/organization/v3/service/policy/item", subject, request, true, callback,
+                new DecryptingProcessor<>(Policy.class));
+    }
+
+    @Override
+    public Future<Void> organizationV3ServicePolicyDelete(
+            ServicePolicyDeleteRequest request, EntityIdentifier subject, FutureCallback<Void> callback) {
+        return execute("DELETE", "/organization/v3/service/policy", subject, request, true, callback, VOID_PROCESSOR);
+    }
+
+    private <T> Future<T> execute(
+            final String method, final String path, final EntityIdentifier subject, final Object transportObject,
+            final boolean signRequest, FutureCallback<T> callback, final ResponseProcessor<T> processor) {
+        final ApiFuture<T> future = new ApiFuture<>(callback);
+        final String requestId = UUID.randomUUID().toString();
+        dispatch(future, new Runnable() {
+            @Override
+            public void run() {
+                if (future.isDone()) {
+                    return;
+                }
+                HttpUriRequest request;
+                try {
+                    // Signing may require a ping or public key request, so it is never done on the calling thread
+                    request = transport.buildHttpRequest(
+                            requestId, method, path, subject, transportObject, signRequest);
+                } catch (BaseException e) {
+                    future.failed(e);
+                    return;
+                }
+                startClientIfRequired();
+                future.setHttpFuture(httpAsyncClient.execute(request, new FutureCallback<HttpResponse>() {
+                    @Override
+                    public void completed(final HttpResponse result) {
+                        // Only hand off the response here. Verification and decryption must not hold up the
+                        // I/O dispatcher thread.
+                        dispatch(future, new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    HttpResponse response =
+                                            transport.handleHttpResponse(result, requestId, signRequest, null);
+                                    future.completed(processor.process(response));
+                                } catch (Exception e) {
+                                    future.failed(processor.translate(e));
+                                }
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        future.failed(new CommunicationErrorException("An I/O Error Occurred", e, null));
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        future.cancel();
+                    }
+                }));
+            }
+        });
+        return future;
+    }
+
+    private void dispatch(ApiFuture<?> future, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            future.failed(new CommunicationErrorException("Unable to process the request as the executor is " +
+                    "saturated or shut down", e, null));
+        }
+    }
+
+    private <T> List<T> decryptList(HttpResponse response, Class<T[]> type) throws BaseException {
+        return Arrays.asList(transport.decryptResponse(response, type));
+    }
+
+    private void startClientIfRequired() {
+        if (httpAsyncClient instanceof CloseableHttpAsyncClient) {
+            CloseableHttpAsyncClient client = (CloseableHttpAsyncClient) httpAsyncClient;
+            if (!client.isRunning()) {
+                synchronized (this) {
+                    if (!client.isRunning()) {
+                        client.start();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a verified response into the result of an asynchronous call
+     *
+     * @param <T> Type of the result
+     */
+    abstract static class ResponseProcessor<T> {
+        abstract T process(HttpResponse response) throws BaseException;
+
+        /**
+         * Translate an exception raised while handling the response into the exception provided to the caller.
+         *
+         * @param e Exception raised while handling the response
+         * @return Exception to provide to the caller
+         */
+        Exception translate(Exception e) {
+            return e;
+        }
+    }
+
+    private class DecryptingProcessor<T> extends ResponseProcessor<T> {
+        private final Class<T> type;
+
+        DecryptingProcessor(Class<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        T process(HttpResponse response) throws BaseException {
+            return transport.decryptResponse(response, type);
+        }
+    }
+
+    /**
+     * Future which cancels the underlying HTTP exchange when it is cancelled
+     *
+     * @param <T> Type of the result
+     */
+    private static class ApiFuture<T> extends BasicFuture<T> {
+        private volatile Future<HttpResponse> httpFuture;
+
+        ApiFuture(FutureCallback<T> callback) {
+            super(callback);
+        }
+
+        void setHttpFuture(Future<HttpResponse> httpFuture) {
+            this.httpFuture = httpFuture;
+            if (isCancelled()) {
+                httpFuture.cancel(true);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<HttpResponse> current = httpFuture;
+            if (cancelled && current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+    }
+}
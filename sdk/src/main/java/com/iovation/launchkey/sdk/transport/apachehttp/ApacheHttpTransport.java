@@ -4,20 +4,29 @@ import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
+import com.iovation.launchkey.sdk.cache.AsyncCache;
+import com.iovation.launchkey.sdk.cache.CacheCallback;
 import com.iovation.launchkey.sdk.cache.Cache;
 import com.iovation.launchkey.sdk.cache.CacheException;
+import com.iovation.launchkey.sdk.cache.StatsCounter;
+import com.iovation.launchkey.sdk.cache.TieredCache;
+import com.iovation.launchkey.sdk.cache.TypedCache;
 import com.iovation.launchkey.sdk.crypto.Crypto;
+import com.iovation.launchkey.sdk.crypto.CryptoExecutor;
+import com.iovation.launchkey.sdk.crypto.JCECrypto;
 import com.iovation.launchkey.sdk.crypto.jwe.JWEFailure;
 import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTClaims;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTData;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTError;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
+import com.iovation.launchkey.sdk.crypto.jwt.ParsedJWTService;
 import com.iovation.launchkey.sdk.domain.policy.LegacyPolicy;
 import com.iovation.launchkey.sdk.error.*;
 import com.iovation.launchkey.sdk.transport.Transport;
 import com.iovation.launchkey.sdk.transport.domain.Error;
 import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.logging.Log;
@@ -31,23 +40,57 @@ import org.apache.http.message.BasicHeader;
 import org.apache.http.message.HeaderGroup;
 import org.apache.http.util.EntityUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ApacheHttpTransport implements Transport {
 
     private static final Base64 BASE_64 = new Base64(0);
     private static final String IOV_JWT_HEADER = "X-IOV-JWT";
-    private static int serverTimeOffset = 0;
-    private static Date serverTimeOffsetExpires = null;
+    private static final int PUBLIC_KEY_CACHE_MAX_SIZE = 100;
+    private static final int PUBLIC_KEY_CACHE_TTL = 3600;
+    private static final int FAILED_PUBLIC_KEY_CACHE_MAX_SIZE = 1000;
+    private static final int FAILED_PUBLIC_KEY_CACHE_TTL = 30;
+    private static final int MAX_PUBLIC_KEY_REQUESTS_IN_FLIGHT = 10;
+    private static final String PUBLIC_KEY_CACHE_PREFIX = "LaunchKeyPublicKey:";
+    private static final String CURRENT_PUBLIC_KEY_STATE_PREFIX = "LaunchKeyCurrentPublicKey:";
+    private static final String SERVER_TIME_STATE_PREFIX = "LaunchKeyServerTime:";
+    /**
+     * Default maximum size in bytes of a response body
+     */
+    public static final int DEFAULT_MAX_RESPONSE_BODY_SIZE = 4 * 1024 * 1024;
+    /**
+     * Default maximum time in milliseconds to wait for a public key from an {@link AsyncCache}
+     */
+    public static final int DEFAULT_KEY_CACHE_TIMEOUT_MILLIS = 50;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final long REFRESH_RETRY_MILLIS = 1000L;
+    private static final long ASYNC_CACHE_WARNING_INTERVAL_MILLIS = 60000L;
+    private static final int ASYNC_LOOKUP_WAITING = 0;
+    private static final int ASYNC_LOOKUP_COMPLETED = 1;
+    private static final int ASYNC_LOOKUP_ABANDONED = 2;
     private final Log logger;
     private final EntityKeyMap entityKeyMap;
-    private PublicKeyData currentPublicKeyData = null;
-    private Date currentPublicKeyDataExpires = null;
+    private final AtomicBoolean currentPublicKeyDataRefreshing = new AtomicBoolean(false);
+    private volatile RefreshableValue<PublicKeyData> currentPublicKeyData = null;
 
     private final ApiRequestBuilderFactory rbf;
     private final ObjectMapper objectMapper;
@@ -56,15 +99,56 @@ public class ApacheHttpTransport implements Transport {
     private final JWTService jwtService;
     private final JWEService jweService;
     private final Cache publicKeyCache;
+    private final PublicKeyCache parsedPublicKeyCache;
+    private final FailedPublicKeyCache failedPublicKeyCache;
+    private final ConcurrentMap<String, FutureTask<PublicKeyData>> publicKeyRequestsInFlight =
+            new ConcurrentHashMap<>();
+    private final Semaphore publicKeyRequestPermits = new Semaphore(MAX_PUBLIC_KEY_REQUESTS_IN_FLIGHT);
+    private final ServerClock serverClock;
+    private final int maxResponseBodySize;
     private final int offsetTTL;
     private final int currentPublicKeyTTL;
     private final EntityIdentifier issuer;
+    private final CryptoExecutor cryptoExecutor;
+    private final int keyCacheTimeoutMillis;
+    private final AtomicLong nextAsyncCacheWarningMillis = new AtomicLong();
+    private final Cache stateCache;
+    private final String baseUrl;
+    private final TransportStats stats;
 
 
     public ApacheHttpTransport(HttpClient httpClient, Crypto crypto, ObjectMapper objectMapper,
                                Cache publicKeyCache, String baseUrl, EntityIdentifier issuer,
                                JWTService jwtService, JWEService jweService,
                                int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap
+    ) {
+        this(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer, jwtService, jweService, offsetTTL,
+                currentPublicKeyTTL, entityKeyMap, new TransportOptions());
+    }
+
+    /**
+     * @param options Optional settings such as the maximum response body size, the crypto executor, and the state
+     * cache. If null, the defaults are used.
+     */
+    public ApacheHttpTransport(HttpClient httpClient, Crypto crypto, ObjectMapper objectMapper,
+                               Cache publicKeyCache, String baseUrl, EntityIdentifier issuer,
+                               JWTService jwtService, JWEService jweService,
+                               int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap,
+                               TransportOptions options
+    ) {
+        this(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer, jwtService, jweService, offsetTTL,
+                currentPublicKeyTTL, entityKeyMap, options == null ? new TransportOptions() : options,
+                new PublicKeyCache(PUBLIC_KEY_CACHE_MAX_SIZE, PUBLIC_KEY_CACHE_TTL, getPublicKeyCounter(options)),
+                new FailedPublicKeyCache(FAILED_PUBLIC_KEY_CACHE_MAX_SIZE, FAILED_PUBLIC_KEY_CACHE_TTL),
+                ServerClock.forBaseUrl(baseUrl));
+    }
+
+    ApacheHttpTransport(HttpClient httpClient, Crypto crypto, ObjectMapper objectMapper,
+                        Cache publicKeyCache, String baseUrl, EntityIdentifier issuer,
+                        JWTService jwtService, JWEService jweService,
+                        int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap, TransportOptions options,
+                        PublicKeyCache parsedPublicKeyCache, FailedPublicKeyCache failedPublicKeyCache,
+                        ServerClock serverClock
     ) {
         this.objectMapper = objectMapper;
         this.objectMapper.setDateFormat(new StdDateFormat());
@@ -72,15 +156,32 @@ public class ApacheHttpTransport implements Transport {
         this.httpClient = httpClient;
         this.jwtService = jwtService;
         this.jweService = jweService;
-        this.publicKeyCache = publicKeyCache;
+        // Parsed keys are held in process by parsedPublicKeyCache so a TieredCache's near cache would only hold a
+        // second copy. Its shared cache is used instead, as documented on TieredCache and setKeyCache.
+        this.publicKeyCache = publicKeyCache instanceof TieredCache
+                ? ((TieredCache) publicKeyCache).getSharedCache() : publicKeyCache;
+        this.parsedPublicKeyCache = parsedPublicKeyCache;
+        this.failedPublicKeyCache = failedPublicKeyCache;
+        this.serverClock = serverClock;
+        this.maxResponseBodySize = options.getMaxResponseBodySize();
         this.entityKeyMap = entityKeyMap;
         this.offsetTTL = offsetTTL;
         this.currentPublicKeyTTL = currentPublicKeyTTL;
         this.issuer = issuer;
+        this.cryptoExecutor = options.getCryptoExecutor();
+        this.keyCacheTimeoutMillis = options.getKeyCacheTimeoutMillis();
+        this.stateCache = options.getStateCache();
+        this.baseUrl = baseUrl;
+        this.stats = options.getStats() == null ? new TransportStats() : options.getStats();
         logger = LogFactory.getLog(getClass());
         rbf = new ApiRequestBuilderFactory(issuer.toString(), baseUrl, objectMapper, crypto, jwtService, jweService);
     }
 
+    private static StatsCounter getPublicKeyCounter(TransportOptions options) {
+        return options == null || options.getStats() == null
+                ? new StatsCounter() : options.getStats().getPublicKeyCounter();
+    }
+
     @Override
     public PublicV3PingGetResponse publicV3PingGet()
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
@@ -99,6 +200,11 @@ public class ApacheHttpTransport implements Transport {
             path = path + "/" + publicKeyFingerprint;
         }
         HttpResponse response = getHttpResponse("GET", path, null, null, false, null);
+        return getPublicV3PublicKeyGetResponse(response);
+    }
+
+    PublicV3PublicKeyGetResponse getPublicV3PublicKeyGetResponse(HttpResponse response)
+            throws InvalidResponseException, CommunicationErrorException {
         Header keyHeader = response.getFirstHeader("X-IOV-KEY-ID");
         if (keyHeader == null) {
             throw new InvalidResponseException("Public Key ID header X-IOV-KEY-ID not found in response", null, null);
@@ -130,7 +236,6 @@ public class ApacheHttpTransport implements Transport {
             throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
             InvalidCredentialsException, AuthorizationRequestTimedOutError,
             NoKeyFoundException {
-        ServiceV3AuthsGetResponse response;
         HttpResponse httpResponse;
 
         String path = "/service/v3/auths/" + authRequestId.toString();
@@ -139,7 +244,13 @@ public class ApacheHttpTransport implements Transport {
         } catch (RequestTimedOut e) {
             throw new AuthorizationRequestTimedOutError();
         }
+        return getServiceV3AuthsGetResponse(httpResponse, subject);
+    }
 
+    ServiceV3AuthsGetResponse getServiceV3AuthsGetResponse(HttpResponse httpResponse, EntityIdentifier subject)
+            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            NoKeyFoundException {
+        ServiceV3AuthsGetResponse response;
         int statusCode = httpResponse.getStatusLine().getStatusCode();
         if (statusCode == 204) { // User has not responded
             response = null;
@@ -149,7 +260,11 @@ public class ApacheHttpTransport implements Transport {
 
             EntityIdentifier audience;
             try {
-                JWTData jwtData = jwtService.getJWTData(getJWT(httpResponse));
+                JWTData jwtData = httpResponse instanceof ReplayHttpResponse
+                        ? ((ReplayHttpResponse) httpResponse).getJWTData() : null;
+                if (jwtData == null) {
+                    jwtData = jwtService.getJWTData(getJWT(httpResponse));
+                }
                 audience = EntityIdentifier.fromString(jwtData.getAudience());
             } catch (JWTError jwtError){
                     throw new CryptographyError("Unable to parse JWT to get key info!", jwtError);
@@ -177,7 +292,7 @@ public class ApacheHttpTransport implements Transport {
                     );
 
                 } else {
-                    RSAPrivateKey key = entityKeyMap.getKey(audience, apiResponse.getPublicKeyId());
+                    PrivateKey key = entityKeyMap.getPrivateKey(audience, apiResponse.getPublicKeyId());
                     byte[] decrypted;
                     try {
                         byte[] encrypted = Base64.decodeBase64(apiResponse.getEncryptedDeviceResponse().getBytes());
@@ -307,7 +422,7 @@ public class ApacheHttpTransport implements Transport {
         }
         String jwt = headerGroup.getFirstHeader(IOV_JWT_HEADER).getValue();
         try {
-            JWTClaims jwtClaims = validateJWT(null, jwt, issuer.toString());
+            final JWTClaims jwtClaims = validateServerSentEventJWT(jwt);
             if (method != null && !method.equals(jwtClaims.getMethod())) {
                 throw new JWTError("JWT request method does not match the method provided", null);
             }
@@ -315,16 +430,14 @@ public class ApacheHttpTransport implements Transport {
                 throw new JWTError("JWT request path does not match the path provided", null);
             }
 
-            ByteArrayOutputStream bodyStream = new ByteArrayOutputStream();
-            bodyStream.write(body.getBytes());
-            verifyContentHash(jwtClaims, bodyStream, "request");
+            verifyContentHash(jwtClaims, body.getBytes(), "request");
 
             if (headerGroup.getFirstHeader("Content-Type").getValue().startsWith("application/jose")) {
                 // Auths response is encrypted
                 final EntityIdentifier requestingEntity = EntityIdentifier.fromString(jwtClaims.getAudience());
                 final String encryptionKeyId = jweService.getHeaders(body).get("kid");
-                final RSAPrivateKey privateKey = entityKeyMap.getKey(requestingEntity, encryptionKeyId);
-                final String decrypted = jweService.decrypt(body, privateKey);
+                final PrivateKey privateKey = entityKeyMap.getPrivateKey(requestingEntity, encryptionKeyId);
+                final String decrypted = decryptJWE(body, privateKey);
 
                 ServerSentEventType type = objectMapper.readValue(decrypted, ServerSentEventType.class);
 
@@ -358,14 +471,13 @@ public class ApacheHttpTransport implements Transport {
     }
 
     private ServerSentEvent handleAuthResponseServerSentEvent(JWTClaims jwtClaims, EntityIdentifier requestingEntity,
-                                                              RSAPrivateKey privateKey, String decrypted
-    ) throws IOException, JWEFailure {
+                                                              final PrivateKey privateKey, String decrypted
+    ) throws IOException, JWEFailure, CommunicationErrorException, CryptographyError {
         ServerSentEvent response;
         final ServerSentEventAuthorizationResponseCore core =
                 objectMapper.readValue(decrypted, ServerSentEventAuthorizationResponseCore.class);
         if (core.getAuthJwe() != null) {
-            final String decryptedDeviceResponse =
-                    jweService.decrypt(core.getAuthJwe(), privateKey);
+            final String decryptedDeviceResponse = decryptJWE(core.getAuthJwe(), privateKey);
             final ServiceV3AuthsGetResponseDeviceJWE deviceResponse =
                     objectMapper.readValue(decryptedDeviceResponse, ServiceV3AuthsGetResponseDeviceJWE.class);
             response = new ServerSentEventAuthorizationResponse(
@@ -383,8 +495,18 @@ public class ApacheHttpTransport implements Transport {
                     deviceResponse.getDenialReason()
             );
         } else {
-            final byte[] decryptedDeviceResponse =
-                    crypto.decryptRSA(BASE_64.decode(core.getAuth().getBytes()), privateKey);
+            final byte[] encryptedDeviceResponse = BASE_64.decode(core.getAuth().getBytes());
+            final byte[] decryptedDeviceResponse;
+            try {
+                decryptedDeviceResponse = performCrypto(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() {
+                        return crypto.decryptRSA(encryptedDeviceResponse, privateKey);
+                    }
+                });
+            } catch (ExecutionException e) {
+                throw getExecutionFailure(e);
+            }
             final ServiceV3AuthsGetResponseDevice deviceResponse =
                     objectMapper.readValue(decryptedDeviceResponse, ServiceV3AuthsGetResponseDevice.class);
             response = new ServerSentEventAuthorizationResponse(
@@ -708,6 +830,48 @@ public class ApacheHttpTransport implements Transport {
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
             InvalidCredentialsException {
 
+        String requestId = UUID.randomUUID().toString();
+        HttpUriRequest request = buildHttpRequest(requestId, method, path, subjectEntity, transportObject, signRequest);
+        HttpResponse response = execute(request);
+        return handleHttpResponse(response, requestId, signRequest, httpStatusCodeWhiteList);
+    }
+
+    /**
+     * Send a request to the Platform API and return the raw response
+     *
+     * @param request Request built by {@link #buildHttpRequest(String, String, String, EntityIdentifier, Object, boolean)}
+     * @return Response as received from the Platform API
+     * @throws CommunicationErrorException When the request cannot be sent or the response cannot be received
+     * @throws InvalidResponseException When the response is received but cannot be accepted, such as a body larger
+     * than the maximum response body size
+     */
+    protected HttpResponse execute(HttpUriRequest request) throws CommunicationErrorException,
+            InvalidResponseException {
+        try {
+            return httpClient.execute(request);
+        } catch (IOException e) {
+            throw new CommunicationErrorException("An I/O Error Occurred", e, null);
+        }
+    }
+
+    /**
+     * Build a request for the Platform API. When the request is to be signed, the request body will be encrypted
+     * and a JWT for the request will be added to the headers.
+     *
+     * @param requestId Unique identifier for the request. It will be used as the JWT ID and must be provided to
+     * {@link #handleHttpResponse(HttpResponse, String, boolean, List)} to validate the response.
+     * @param method HTTP method
+     * @param path Path of the request relative to the base URL
+     * @param subjectEntity Entity making the request. Only used for signed requests.
+     * @param transportObject Transport object to be marshaled into the request body. May be null.
+     * @param signRequest Should the request be signed and the response verified
+     * @return HTTP request ready to be executed by an HTTP client
+     */
+    HttpUriRequest buildHttpRequest(
+            String requestId, String method, String path, EntityIdentifier subjectEntity, Object transportObject,
+            boolean signRequest)
+            throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
+            InvalidCredentialsException {
         PublicKey publicKey;
         String publicKeyFingerprint;
         Date currentDate;
@@ -725,27 +889,46 @@ public class ApacheHttpTransport implements Transport {
             subject = null;
         }
 
-        String requestId = UUID.randomUUID().toString();
-        HttpUriRequest request = rbf.create(publicKey, publicKeyFingerprint, currentDate)
+        return rbf.create(publicKey, publicKeyFingerprint, currentDate)
                 .setMethod(method)
                 .setPath(path)
                 .setSubject(subject)
                 .setTransportObject(transportObject)
                 .build(requestId);
+    }
+
+    /**
+     * Verify and validate the response received from the Platform API for a request built with
+     * {@link #buildHttpRequest(String, String, String, EntityIdentifier, Object, boolean)}.
+     *
+     * @param response Response returned by the HTTP client
+     * @param requestId The request ID used to build the request
+     * @param signRequest Was the request signed. If so, the response JWT will be validated.
+     * @param httpStatusCodeWhiteList Non-success HTTP status codes that should not raise an exception. May be null.
+     * @return Response with a repeatable entity
+     */
+    HttpResponse handleHttpResponse(
+            HttpResponse response, String requestId, boolean signRequest, List<Integer> httpStatusCodeWhiteList)
+            throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
+            InvalidCredentialsException {
+        if (response == null) {
+            throw new InvalidResponseException("No response returned from HTTP client", null, null);
+        }
+        ReplayHttpResponse replayResponse = new ReplayHttpResponse(response, maxResponseBodySize);
         try {
-            HttpResponse response = httpClient.execute(request);
-            if (response == null) {
-                throw new InvalidResponseException("No response returned from HTTP client", null, null);
-            }
-            response = new ReplayHttpResponse(response);
-            if (signRequest) {
-                validateResponseJWT(response, requestId);
-            }
-            throwForStatus(response, httpStatusCodeWhiteList == null ? new ArrayList<Integer>() : httpStatusCodeWhiteList);
-            return response;
+            // Read the body once up front so every later step shares the same buffer
+            replayResponse.getContent();
+        } catch (ReplayHttpResponse.ContentTooLargeException e) {
+            throw new InvalidResponseException(e.getMessage(), e, null);
         } catch (IOException e) {
             throw new CommunicationErrorException("An I/O Error Occurred", e, null);
         }
+        if (signRequest) {
+            validateResponseJWT(replayResponse, requestId);
+        }
+        throwForStatus(replayResponse,
+                httpStatusCodeWhiteList == null ? new ArrayList<Integer>() : httpStatusCodeWhiteList);
+        return replayResponse;
     }
 
     private void throwForStatus(HttpResponse response, List<Integer> httpStatusCodeWhiteList)
@@ -772,12 +955,30 @@ public class ApacheHttpTransport implements Transport {
         }
     }
 
-    protected <T> T decryptResponse(HttpResponse response, Class<T> type)
+    protected <T> T decryptResponse(final HttpResponse response, final Class<T> type)
             throws InvalidResponseException, CommunicationErrorException, CryptographyError {
-        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        if (cryptoExecutor == null) {
+            return decryptResponseBody(response, type);
+        }
         try {
-            response.getEntity().writeTo(encrypted);
-            String json = jweService.decrypt(encrypted.toString());
+            return executeCrypto(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    return decryptResponseBody(response, type);
+                }
+            });
+        } catch (ExecutionException e) {
+            rethrowIfInstance(e.getCause(), InvalidResponseException.class);
+            throw getExecutionFailure(e);
+        }
+    }
+
+    private <T> T decryptResponseBody(HttpResponse response, Class<T> type)
+            throws InvalidResponseException, CommunicationErrorException, CryptographyError {
+        try {
+            byte[] encrypted = response instanceof ReplayHttpResponse
+                    ? ((ReplayHttpResponse) response).getContent() : EntityUtils.toByteArray(response.getEntity());
+            String json = jweService.decrypt(new String(encrypted, UTF_8));
             return objectMapper.readValue(json, type);
         } catch (JsonParseException | JsonMappingException e) {
             throw new InvalidResponseException("Unable to parse response as JSON", e, null);
@@ -788,7 +989,66 @@ public class ApacheHttpTransport implements Transport {
         }
     }
 
-    private <T> T parseJsonResponse(HttpEntity entity, Class<T> valueType)
+    /**
+     * Perform the task on the crypto executor and wait for the result
+     *
+     * @throws ExecutionException When the task raises an exception. The exception is the cause.
+     * @throws CommunicationErrorException When the executor is saturated or the calling thread is interrupted
+     */
+    private <T> T executeCrypto(Callable<T> task) throws ExecutionException, CommunicationErrorException {
+        try {
+            return cryptoExecutor.execute(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommunicationErrorException("Interrupted waiting for cryptography", e, null);
+        }
+    }
+
+    /**
+     * Perform the task on the crypto executor and wait for the result or perform it on the calling thread when there
+     * is no crypto executor. The task must not make requests to the API as it would hold a crypto thread while
+     * waiting for them.
+     *
+     * @throws ExecutionException When the task raises an exception. The exception is the cause.
+     * @throws CommunicationErrorException When the executor is saturated or the calling thread is interrupted
+     */
+    private <T> T performCrypto(Callable<T> task) throws ExecutionException, CommunicationErrorException {
+        if (cryptoExecutor != null) {
+            return executeCrypto(task);
+        }
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    private static <E extends Exception> void rethrowIfInstance(Throwable cause, Class<E> type) throws E {
+        if (type.isInstance(cause)) {
+            throw type.cast(cause);
+        }
+    }
+
+    /**
+     * Get the exception to raise for a failed crypto executor task whose cause is not one of the checked exceptions
+     * specific to the operation
+     */
+    private static CryptographyError getExecutionFailure(ExecutionException e) throws CommunicationErrorException {
+        Throwable cause = e.getCause();
+        rethrowIfInstance(cause, CommunicationErrorException.class);
+        if (cause instanceof CryptographyError) {
+            return (CryptographyError) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof java.lang.Error) {
+            throw (java.lang.Error) cause;
+        }
+        return new CryptographyError("Unexpected error performing cryptography!", cause);
+    }
+
+    <T> T parseJsonResponse(HttpEntity entity, Class<T> valueType)
             throws InvalidResponseException, CommunicationErrorException {
         try {
             return objectMapper.readValue(entity.getContent(), valueType);
@@ -799,7 +1059,7 @@ public class ApacheHttpTransport implements Transport {
         }
     }
 
-    private void validateResponseJWT(HttpResponse response, String expectedTokenId)
+    private void validateResponseJWT(ReplayHttpResponse response, String expectedTokenId)
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
             InvalidCredentialsException {
         try {
@@ -811,14 +1071,13 @@ public class ApacheHttpTransport implements Transport {
             } else {
                 expectedAudience = issuer.toString();
             }
-            final JWTClaims claims = validateJWT(expectedTokenId, jwt, expectedAudience);
-            HttpEntity entity = response.getEntity();
-            ByteArrayOutputStream stream = new ByteArrayOutputStream();
-            if (entity != null) entity.writeTo(stream);
+            final JWTData jwtData = jwtService.getJWTData(jwt);
+            response.setJWTData(jwtData);
+            final JWTClaims claims = validateJWT(expectedTokenId, jwt, jwtData, expectedAudience);
             if (claims.getStatusCode() != response.getStatusLine().getStatusCode())
                 throw new JWTError("Status code of response content does not match JWT response status code", null);
 
-            verifyContentHash(claims, stream, "response");
+            verifyContentHash(claims, response.getContent(), "response");
 
             if ((response.containsHeader("Location") &&
                             !response.getFirstHeader("Location").getValue().equals(claims.getLocationHeader()))
@@ -838,37 +1097,95 @@ public class ApacheHttpTransport implements Transport {
         }
     }
 
-    private void verifyContentHash(JWTClaims claims, ByteArrayOutputStream stream, String type) throws NoSuchAlgorithmException, JWTError {
+    private void verifyContentHash(JWTClaims claims, byte[] content, String type)
+            throws NoSuchAlgorithmException, JWTError {
         String contentHashAlgorithm = claims.getContentHashAlgorithm();
-        if (stream.size() > 0 && contentHashAlgorithm != null) {
-            String hash;
+        if (content.length > 0 && contentHashAlgorithm != null) {
+            byte[] hash;
             if (claims.getContentHashAlgorithm().equals("S256")) {
-                hash = Hex.encodeHexString(crypto.sha256(stream.toByteArray()));
+                hash = crypto.sha256(content);
             } else if (claims.getContentHashAlgorithm().equals("S384")) {
-                hash = Hex.encodeHexString(crypto.sha384(stream.toByteArray()));
+                hash = crypto.sha384(content);
             } else if (claims.getContentHashAlgorithm().equals("S512")) {
-                hash = Hex.encodeHexString(crypto.sha512(stream.toByteArray()));
+                hash = crypto.sha512(content);
             } else {
                 throw new JWTError("Hash of " + type + " content uses unsupported algorithm of " +
                         claims.getContentHashAlgorithm(), null);
             }
-            if (claims.getContentHash() == null || !hash.equals(claims.getContentHash()))
+            if (claims.getContentHash() == null || !MessageDigest.isEqual(hash, decodeHash(claims.getContentHash())))
                 throw new JWTError("Hash of " + type + " content does not match JWT " + type + " hash", null);
-        } else if (stream.size() > 0 && claims.getContentHashAlgorithm() == null) {
+        } else if (content.length > 0 && claims.getContentHashAlgorithm() == null) {
             throw new JWTError("No content hash algorithm found in JWT and there was content!", null);
-        } else if (stream.size() == 0 && claims.getContentHashAlgorithm() != null) {
+        } else if (content.length == 0 && claims.getContentHashAlgorithm() != null) {
             throw new JWTError("Content hash algorithm found in JWT and there was no content!", null);
-        } else if (stream.size() == 0 && claims.getContentHash() != null) {
+        } else if (content.length == 0 && claims.getContentHash() != null) {
             throw new JWTError("Content hash found in JWT and there was no content!", null);
         }
     }
 
-    private JWTClaims validateJWT(String expectedTokenId, String jwt, String expected_audience)
+    private byte[] decodeHash(String hash) {
+        try {
+            return Hex.decodeHex(hash.toCharArray());
+        } catch (DecoderException e) {
+            // An undecodable hash can never match
+            return new byte[0];
+        }
+    }
+
+    private JWTClaims validateJWT(String expectedTokenId, String jwt, JWTData jwtData, String expected_audience)
             throws JWTError, MarshallingError, InvalidResponseException, CommunicationErrorException, CryptographyError,
             InvalidCredentialsException {
-        String keyId = jwtService.getJWTData(jwt).getKeyId();
-        return jwtService.decode(
-                getPublicKeyData(keyId).getKey(), expected_audience, expectedTokenId, getCurrentDate(), jwt);
+        PublicKey publicKey = getPublicKeyData(jwtData.getKeyId()).getKey();
+        return decodeJWT(publicKey, expected_audience, expectedTokenId, getCurrentDate(), jwt, jwtData);
+    }
+
+    /**
+     * Validate the JWT of a server sent event. The public key and current time, which may require requests to the
+     * API, are retrieved on the calling thread and only the signature verification is performed on the crypto
+     * executor.
+     */
+    private JWTClaims validateServerSentEventJWT(final String jwt)
+            throws JWTError, MarshallingError, InvalidResponseException, CommunicationErrorException, CryptographyError,
+            InvalidCredentialsException {
+        final JWTData jwtData = jwtService.getJWTData(jwt);
+        final PublicKey publicKey = getPublicKeyData(jwtData.getKeyId()).getKey();
+        final Date currentDate = getCurrentDate();
+        try {
+            return performCrypto(new Callable<JWTClaims>() {
+                @Override
+                public JWTClaims call() throws Exception {
+                    return decodeJWT(publicKey, issuer.toString(), null, currentDate, jwt, jwtData);
+                }
+            });
+        } catch (ExecutionException e) {
+            rethrowIfInstance(e.getCause(), JWTError.class);
+            throw getExecutionFailure(e);
+        }
+    }
+
+    private JWTClaims decodeJWT(PublicKey publicKey, String expectedAudience, String expectedTokenId,
+                                Date currentDate, String jwt, JWTData jwtData) throws JWTError {
+        if (jwtService instanceof ParsedJWTService) {
+            // Verify the JWT already parsed for its key ID rather than parsing it again
+            return ((ParsedJWTService) jwtService).decode(publicKey, expectedAudience, expectedTokenId, currentDate,
+                    jwtData);
+        }
+        return jwtService.decode(publicKey, expectedAudience, expectedTokenId, currentDate, jwt);
+    }
+
+    private String decryptJWE(final String jwe, final PrivateKey privateKey)
+            throws JWEFailure, CommunicationErrorException, CryptographyError {
+        try {
+            return performCrypto(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return jweService.decrypt(jwe, privateKey);
+                }
+            });
+        } catch (ExecutionException e) {
+            rethrowIfInstance(e.getCause(), JWEFailure.class);
+            throw getExecutionFailure(e);
+        }
     }
 
     private String getJWT(HttpResponse response) {
@@ -876,24 +1193,97 @@ public class ApacheHttpTransport implements Transport {
     }
 
 
+    /**
+     * Get the current public key data. The first caller loads the key while any other callers wait. After that, only
+     * the one caller which finds the refresh due will refresh the key while all other callers continue to use the
+     * existing key. If the refresh fails, the existing key continues to be used until a later refresh succeeds.
+     */
     private PublicKeyData getCurrentPublicKeyData()
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
             InvalidCredentialsException {
-        if (currentPublicKeyDataExpires == null || currentPublicKeyDataExpires.before(new Date())) {
-            setCurrentPublicKeyData();
+        RefreshableValue<PublicKeyData> current = currentPublicKeyData;
+        if (current == null) {
+            current = loadCurrentPublicKeyData();
+        } else if (current.isRefreshDue() && currentPublicKeyDataRefreshing.compareAndSet(false, true)) {
+            try {
+                current = new RefreshableValue<>(getPublicKeyData(null), currentPublicKeyTTL);
+                stats.getCurrentPublicKeyCounter().recordRefresh();
+            } catch (CommunicationErrorException | MarshallingError | InvalidResponseException | CryptographyError
+                    | InvalidCredentialsException e) {
+                logger.warn("Unable to refresh the current public key. The previous key will be used.", e);
+                stats.getCurrentPublicKeyCounter().recordRefreshFailure();
+                current = current.retryLater();
+            } finally {
+                currentPublicKeyData = current;
+                currentPublicKeyDataRefreshing.set(false);
+            }
+        } else {
+            stats.getCurrentPublicKeyCounter().recordHit();
         }
-        return currentPublicKeyData;
-
+        return current.getValue();
     }
 
-    private synchronized void setCurrentPublicKeyData()
+    private synchronized RefreshableValue<PublicKeyData> loadCurrentPublicKeyData()
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
             InvalidCredentialsException {
-        currentPublicKeyData = getPublicKeyData(null);
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(new Date());
-        calendar.add(Calendar.SECOND, currentPublicKeyTTL);
-        currentPublicKeyDataExpires = calendar.getTime();
+        if (currentPublicKeyData == null) {
+            stats.getCurrentPublicKeyCounter().recordMiss();
+            RefreshableValue<PublicKeyData> restored = restoreCurrentPublicKeyData();
+            currentPublicKeyData = restored == null
+                    ? new RefreshableValue<>(getPublicKeyData(null), currentPublicKeyTTL) : restored;
+        } else {
+            stats.getCurrentPublicKeyCounter().recordHit();
+        }
+        return currentPublicKeyData;
+    }
+
+    /**
+     * Get the current public key stored in the state cache by this or an earlier process. It is due for refresh as if
+     * it had been retrieved by this process.
+     *
+     * @return The current public key or null if it is not available or has expired
+     */
+    private RefreshableValue<PublicKeyData> restoreCurrentPublicKeyData() {
+        String state = getState(CURRENT_PUBLIC_KEY_STATE_PREFIX + baseUrl);
+        if (state == null) {
+            return null;
+        }
+        try {
+            String[] parts = state.split("\n", 3);
+            long retrieved = Long.parseLong(parts[0]);
+            if (System.currentTimeMillis() - retrieved >= currentPublicKeyTTL * 1000L) {
+                return null;
+            }
+            PublicKeyData publicKeyData = restorePublicKeyData(parts[2], parts[1]);
+            if (publicKeyData == null) {
+                return null;
+            }
+            return new RefreshableValue<>(publicKeyData, retrieved + currentPublicKeyTTL * 900L);
+        } catch (RuntimeException e) {
+            logger.warn("Unable to restore the current public key from the state cache.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Parse a public key from the state cache. As the state cache may be a file which outlives the process, the key is
+     * only used when its fingerprint matches the fingerprint it was stored under.
+     *
+     * @return The public key or null if it cannot be parsed or does not match the fingerprint
+     */
+    private PublicKeyData restorePublicKeyData(String pem, String fingerprint) {
+        try {
+            RSAPublicKey publicKey = crypto.getRSAPublicKeyFromPEM(pem);
+            if (!fingerprint.equals(JCECrypto.getRsaPublicKeyFingerprint(null, publicKey))) {
+                logger.warn("Public key " + fingerprint + " in the state cache does not match its fingerprint.");
+                return null;
+            }
+            parsedPublicKeyCache.put(fingerprint, publicKey);
+            return new PublicKeyData(publicKey, fingerprint);
+        } catch (RuntimeException e) {
+            logger.warn("Unable to restore public key " + fingerprint + " from the state cache.", e);
+            return null;
+        }
     }
 
     private PublicKeyData getPublicKeyData(String fingerprint)
@@ -902,34 +1292,174 @@ public class ApacheHttpTransport implements Transport {
         PublicKeyData publicKeyData = null;
 
         if (fingerprint != null) {
-            String cacheKey = "LaunchKeyPublicKey:" + fingerprint;
+            PublicKey parsedKey = parsedPublicKeyCache.get(fingerprint);
+            if (parsedKey != null) {
+                stats.getPublicKeyCounter().recordHit();
+                return new PublicKeyData(parsedKey, fingerprint);
+            }
+
+            String cacheKey = PUBLIC_KEY_CACHE_PREFIX + fingerprint;
             String publicKey = null;
-            try {
-                publicKey = publicKeyCache.get(cacheKey);
-            } catch (CacheException e) {
-                logger.error("Unable to retrieve public key from cache. This will degrade performance.", e);
+            if (publicKeyCache instanceof AsyncCache) {
+                publicKey = getCachedPublicKeyAsync((AsyncCache) publicKeyCache, cacheKey, fingerprint);
+            } else {
+                try {
+                    publicKey = publicKeyCache.get(cacheKey);
+                } catch (CacheException e) {
+                    logger.error("Unable to retrieve public key from cache. This will degrade performance.", e);
+                }
             }
-            if (publicKey != null) {
+            if (publicKey == null) {
+                String storedKey = getState(cacheKey);
+                publicKeyData = storedKey == null ? null : restorePublicKeyData(storedKey, fingerprint);
+            }
+            if (publicKeyData == null && publicKey != null) {
                 try {
                     publicKeyData = new PublicKeyData(
                             crypto.getRSAPublicKeyFromPEM(publicKey),
                             fingerprint
                     );
+                    parsedPublicKeyCache.put(fingerprint, publicKeyData.getKey());
                 } catch (IllegalArgumentException e) {
                     // The stored key cannot be parsed. Do nothing, the next step will get a new key.
                     // If the exception was raised due to a missing algorithm, it will fail in that step as well.
                 }
             }
+            if (publicKeyData == null) {
+                stats.getPublicKeyCounter().recordMiss();
+            } else {
+                stats.getPublicKeyCounter().recordHit();
+            }
         }
 
         // If the key was not in cache or the cached version was not valid,
         // get it from the API and store it in the cache
         if (publicKeyData == null) {
-            PublicV3PublicKeyGetResponse apiKey = publicV3PublicKeyGet(fingerprint);
+            publicKeyData = fingerprint == null ? getPublicKeyDataFromApi(null) : getUncachedPublicKeyData(fingerprint);
+        }
+        return publicKeyData;
+    }
+
+    /**
+     * Get a public key which is not cached from the API. Fingerprints which the API recently reported as not found or
+     * invalid raise an equivalent exception again without a request, concurrent lookups of the same fingerprint
+     * share a single request, and no more than {@link #MAX_PUBLIC_KEY_REQUESTS_IN_FLIGHT} requests for different
+     * fingerprints are made at once, so that messages with unknown key IDs cannot generate unbounded requests to the
+     * API. A lookup beyond that limit fails immediately and the failure is not cached.
+     */
+    private PublicKeyData getUncachedPublicKeyData(final String fingerprint)
+            throws MarshallingError, InvalidResponseException, CommunicationErrorException, CryptographyError,
+            InvalidCredentialsException {
+        BaseException failure = failedPublicKeyCache.get(fingerprint);
+        if (failure != null) {
+            logger.debug("Public key " + fingerprint + " recently could not be retrieved. Not requesting it again.");
+            rethrowPublicKeyFailure(failure);
+        }
+        FutureTask<PublicKeyData> request = new FutureTask<>(new Callable<PublicKeyData>() {
+            @Override
+            public PublicKeyData call() throws Exception {
+                if (!publicKeyRequestPermits.tryAcquire()) {
+                    throw new CommunicationErrorException("Too many public key requests in flight. Unable to " +
+                            "request public key " + fingerprint, null, null);
+                }
+                try {
+                    return getPublicKeyDataFromApi(fingerprint);
+                } catch (MarshallingError | InvalidResponseException | CommunicationErrorException |
+                        CryptographyError | InvalidCredentialsException e) {
+                    failedPublicKeyCache.put(fingerprint, e);
+                    throw e;
+                } finally {
+                    publicKeyRequestPermits.release();
+                }
+            }
+        });
+        FutureTask<PublicKeyData> inFlight = publicKeyRequestsInFlight.putIfAbsent(fingerprint, request);
+        if (inFlight == null) {
+            try {
+                request.run();
+            } finally {
+                publicKeyRequestsInFlight.remove(fingerprint, request);
+            }
+            try {
+                return request.get();
+            } catch (ExecutionException e) {
+                rethrowPublicKeyFailure(e.getCause());
+                throw new CommunicationErrorException("Unable to request public key " + fingerprint, e.getCause(),
+                        null);
+            } catch (InterruptedException e) {
+                // Not raised in practice as the request has already completed
+                Thread.currentThread().interrupt();
+                throw new CommunicationErrorException("Interrupted requesting public key " + fingerprint, e, null);
+            }
+        }
+        try {
+            return inFlight.get();
+        } catch (ExecutionException e) {
+            // Each waiter raises its own exception rather than sharing the one raised to the requester
+            failure = failedPublicKeyCache.get(fingerprint);
+            if (failure != null) {
+                rethrowPublicKeyFailure(failure);
+            }
+            throw new CommunicationErrorException("Unable to request public key " + fingerprint, e.getCause(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommunicationErrorException("Interrupted waiting for public key " + fingerprint, e, null);
+        }
+    }
+
+    private void rethrowPublicKeyFailure(Throwable failure)
+            throws MarshallingError, InvalidResponseException, CommunicationErrorException, CryptographyError,
+            InvalidCredentialsException {
+        rethrowIfInstance(failure, MarshallingError.class);
+        rethrowIfInstance(failure, InvalidResponseException.class);
+        rethrowIfInstance(failure, CommunicationErrorException.class);
+        rethrowIfInstance(failure, CryptographyError.class);
+        rethrowIfInstance(failure, InvalidCredentialsException.class);
+        rethrowIfInstance(failure, RuntimeException.class);
+        if (failure instanceof java.lang.Error) {
+            throw (java.lang.Error) failure;
+        }
+    }
+
+    private PublicKeyData getPublicKeyDataFromApi(String fingerprint)
+            throws MarshallingError, InvalidResponseException, CommunicationErrorException, CryptographyError,
+            InvalidCredentialsException {
+        StatsCounter loadCounter =
+                fingerprint == null ? stats.getCurrentPublicKeyCounter() : stats.getPublicKeyCounter();
+        long started = System.nanoTime();
+        PublicV3PublicKeyGetResponse apiKey;
+        PublicKeyData publicKeyData;
+        try {
+            apiKey = publicV3PublicKeyGet(fingerprint);
             publicKeyData = new PublicKeyData(
                     crypto.getRSAPublicKeyFromPEM(apiKey.getPublicKey()), apiKey.getPublicKeyFingerprint());
+        } catch (MarshallingError | InvalidResponseException | CommunicationErrorException | CryptographyError |
+                InvalidCredentialsException | RuntimeException e) {
+            loadCounter.recordLoadFailure(System.nanoTime() - started);
+            throw e;
+        }
+        loadCounter.recordLoadSuccess(System.nanoTime() - started);
+        parsedPublicKeyCache.put(apiKey.getPublicKeyFingerprint(), publicKeyData.getKey());
+        String cacheKey = PUBLIC_KEY_CACHE_PREFIX + apiKey.getPublicKeyFingerprint();
+        putState(cacheKey, apiKey.getPublicKey(), PUBLIC_KEY_CACHE_TTL);
+        if (fingerprint == null) {
+            putState(CURRENT_PUBLIC_KEY_STATE_PREFIX + baseUrl, System.currentTimeMillis() + "\n" +
+                    apiKey.getPublicKeyFingerprint() + "\n" + apiKey.getPublicKey(), currentPublicKeyTTL);
+        }
+        if (publicKeyCache instanceof AsyncCache) {
+            ((AsyncCache) publicKeyCache).put(cacheKey, apiKey.getPublicKey(), new CacheCallback<Void>() {
+                @Override
+                public void completed(Void result) {
+                }
+
+                @Override
+                public void failed(CacheException e) {
+                    logAsyncCacheProblem("Unable to cache public key. This will degrade performance.", e);
+                }
+            });
+        } else {
             try {
-                publicKeyCache.put("LaunchKeyPublicKey:" + apiKey.getPublicKeyFingerprint(), apiKey.getPublicKey());
+                publicKeyCache.put(cacheKey, apiKey.getPublicKey());
             } catch (CacheException e) {
                 logger.error("Unable to cache public key. This will degrade performance.", e);
             }
@@ -937,28 +1467,218 @@ public class ApacheHttpTransport implements Transport {
         return publicKeyData;
     }
 
+    /**
+     * Get a public key from an asynchronous cache waiting no longer than the key cache timeout. A slow cache is
+     * treated as a miss so that it does not hold up the request. The lookup is not cancelled, so a value which arrives
+     * after the timeout is parsed into the in-process key cache for later requests. A slow lookup therefore continues
+     * to occupy the cache executor until it completes; a bounded executor such as the one used by
+     * {@link com.iovation.launchkey.sdk.cache.ExecutorAsyncCache} treats lookups it cannot accept as misses.
+     */
+    private String getCachedPublicKeyAsync(AsyncCache cache, String cacheKey, final String fingerprint) {
+        // Whichever of the waiting thread and the callback changes the state first decides who handles the value
+        final AtomicInteger state = new AtomicInteger(ASYNC_LOOKUP_WAITING);
+        Future<String> future = cache.get(cacheKey, new CacheCallback<String>() {
+            @Override
+            public void completed(String result) {
+                if (!state.compareAndSet(ASYNC_LOOKUP_WAITING, ASYNC_LOOKUP_COMPLETED) && result != null) {
+                    try {
+                        parsedPublicKeyCache.put(fingerprint, crypto.getRSAPublicKeyFromPEM(result));
+                    } catch (IllegalArgumentException e) {
+                        // The stored key cannot be parsed. The next request will get a new key.
+                    }
+                }
+            }
+
+            @Override
+            public void failed(CacheException e) {
+                if (!state.compareAndSet(ASYNC_LOOKUP_WAITING, ASYNC_LOOKUP_COMPLETED)) {
+                    logAsyncCacheProblem("Unable to retrieve public key from cache. This will degrade performance.",
+                            e);
+                }
+            }
+        });
+        try {
+            return future.get(keyCacheTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (state.compareAndSet(ASYNC_LOOKUP_WAITING, ASYNC_LOOKUP_ABANDONED)) {
+                logAsyncCacheProblem("Public key cache did not respond within " + keyCacheTimeoutMillis +
+                        "ms. Treating as a cache miss.", null);
+            }
+        } catch (ExecutionException e) {
+            logAsyncCacheProblem("Unable to retrieve public key from cache. This will degrade performance.",
+                    e.getCause());
+        } catch (InterruptedException e) {
+            state.compareAndSet(ASYNC_LOOKUP_WAITING, ASYNC_LOOKUP_ABANDONED);
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Log a problem with an asynchronous cache as a warning no more than once per
+     * {@link #ASYNC_CACHE_WARNING_INTERVAL_MILLIS} so that a slow or unavailable cache does not flood the log while
+     * every request falls back to the Platform API. Other occurrences are logged at debug.
+     */
+    private void logAsyncCacheProblem(String message, Throwable cause) {
+        long now = System.currentTimeMillis();
+        long next = nextAsyncCacheWarningMillis.get();
+        if (now >= next && nextAsyncCacheWarningMillis.compareAndSet(next, now + ASYNC_CACHE_WARNING_INTERVAL_MILLIS)) {
+            logger.warn(message, cause);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug(message, cause);
+        }
+    }
+
     private Date getCurrentDate()
             throws MarshallingError, InvalidResponseException, CommunicationErrorException, CryptographyError,
             InvalidCredentialsException {
-        if (serverTimeOffsetExpires == null || serverTimeOffsetExpires.before(new Date())) {
-            setServerTimeOffset();
+        return new Date(getServerTimeMillis());
+    }
+
+    /**
+     * Get the current server time using the same single caller refresh and stale on failure approach as
+     * {@link #getCurrentPublicKeyData()}.
+     */
+    private long getServerTimeMillis()
+            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            InvalidCredentialsException {
+        StatsCounter serverTimeCounter = stats.getServerTimeCounter();
+        if (!serverClock.isSynchronized()) {
+            synchronized (serverClock) {
+                if (serverClock.isSynchronized()) {
+                    serverTimeCounter.recordHit();
+                } else {
+                    serverTimeCounter.recordMiss();
+                    if (!restoreServerTime()) {
+                        sampleServerTime();
+                    }
+                }
+            }
+        } else if (serverClock.isRefreshDue(offsetTTL) && serverClock.beginRefresh()) {
+            try {
+                sampleServerTime();
+                serverTimeCounter.recordRefresh();
+            } catch (CommunicationErrorException | MarshallingError | InvalidResponseException | CryptographyError
+                    | InvalidCredentialsException e) {
+                logger.warn("Unable to refresh the server time. The previous server time sample will be used.", e);
+                serverTimeCounter.recordRefreshFailure();
+                serverClock.retryLater();
+            } finally {
+                serverClock.endRefresh();
+            }
+        } else {
+            serverTimeCounter.recordHit();
         }
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(new Date());
-        calendar.add(Calendar.MILLISECOND, serverTimeOffset);
-        return calendar.getTime();
+        return serverClock.currentTimeMillis();
     }
 
-    private synchronized void setServerTimeOffset()
+    private void sampleServerTime()
             throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
             InvalidCredentialsException {
-        Date now = new Date();
-        PublicV3PingGetResponse response = publicV3PingGet();
-        serverTimeOffset = new Long(response.getApiTime().getTime() - now.getTime()).intValue();
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(now);
-        calendar.add(Calendar.SECOND, offsetTTL);
-        serverTimeOffsetExpires = calendar.getTime();
+        long sent = serverClock.nanoTime();
+        PublicV3PingGetResponse response;
+        try {
+            response = publicV3PingGet();
+        } catch (CommunicationErrorException | InvalidResponseException | MarshallingError | CryptographyError |
+                InvalidCredentialsException | RuntimeException e) {
+            stats.getServerTimeCounter().recordLoadFailure(serverClock.nanoTime() - sent);
+            throw e;
+        }
+        long received = serverClock.nanoTime();
+        stats.getServerTimeCounter().recordLoadSuccess(received - sent);
+        serverClock.addSample(sent, received, response.getApiTime().getTime());
+        if (stateCache != null) {
+            putState(SERVER_TIME_STATE_PREFIX + baseUrl,
+                    serverClock.currentTimeMillis() + ":" + System.currentTimeMillis(), offsetTTL);
+        }
+    }
+
+    /**
+     * Synchronize the server clock with the server time stored in the state cache by this or an earlier process.
+     * The server time is stored with the local time at which it was sampled so that the sample can be placed in the
+     * past and refreshed as if this process had taken it.
+     *
+     * @return Was the server clock synchronized
+     */
+    private boolean restoreServerTime() {
+        String state = getState(SERVER_TIME_STATE_PREFIX + baseUrl);
+        if (state == null) {
+            return false;
+        }
+        try {
+            String[] parts = state.split(":", 2);
+            long serverMillis = Long.parseLong(parts[0]);
+            long ageMillis = System.currentTimeMillis() - Long.parseLong(parts[1]);
+            // Samples from the future, beyond the offset TTL, or with no server time are not plausible
+            if (serverMillis <= 0 || ageMillis < 0 || ageMillis >= offsetTTL * 1000L) {
+                return false;
+            }
+            long anchor = serverClock.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ageMillis);
+            serverClock.addSample(anchor, anchor, serverMillis);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Unable to restore the server time from the state cache.", e);
+            return false;
+        }
+    }
+
+    private String getState(String key) {
+        if (stateCache == null) {
+            return null;
+        }
+        try {
+            return stateCache.get(key);
+        } catch (CacheException e) {
+            logger.warn("Unable to retrieve " + key + " from the state cache.", e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void putState(String key, String value, int ttlSeconds) {
+        if (stateCache == null) {
+            return;
+        }
+        try {
+            if (stateCache instanceof TypedCache) {
+                ((TypedCache<String, String>) stateCache).put(key, value, ttlSeconds, TimeUnit.SECONDS);
+            } else {
+                stateCache.put(key, value);
+            }
+        } catch (CacheException e) {
+            logger.warn("Unable to store " + key + " in the state cache.", e);
+        }
+    }
+
+    /**
+     * Immutable value which is due for refresh shortly before its TTL lapses so that it can be replaced before
+     * callers would otherwise consider it expired.
+     */
+    private static class RefreshableValue<T> {
+        private final T value;
+        private final long refreshAt;
+
+        private RefreshableValue(T value, int ttlSeconds) {
+            // Refresh ahead once 90% of the TTL has elapsed
+            this(value, System.currentTimeMillis() + ttlSeconds * 900L);
+        }
+
+        private RefreshableValue(T value, long refreshAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+        }
+
+        private T getValue() {
+            return value;
+        }
+
+        private boolean isRefreshDue() {
+            return System.currentTimeMillis() >= refreshAt;
+        }
+
+        private RefreshableValue<T> retryLater() {
+            return new RefreshableValue<>(value, System.currentTimeMillis() + REFRESH_RETRY_MILLIS);
+        }
     }
 
     private class PublicKeyData {
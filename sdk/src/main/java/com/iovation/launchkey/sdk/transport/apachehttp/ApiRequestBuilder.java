@@ -15,6 +15,7 @@ package com.iovation.launchkey.sdk.transport.apachehttp;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.iovation.launchkey.sdk.crypto.Crypto;
+import com.iovation.launchkey.sdk.crypto.jwe.BinaryJWEService;
 import com.iovation.launchkey.sdk.crypto.jwe.JWEFailure;
 import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTError;
@@ -22,18 +23,18 @@ import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
 import com.iovation.launchkey.sdk.error.CryptographyError;
 import com.iovation.launchkey.sdk.error.MarshallingError;
 import org.apache.commons.codec.binary.Hex;
-import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.entity.ByteArrayEntity;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.util.Date;
 
 class ApiRequestBuilder {
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
     private final PublicKey publicKey;
     private final String publicKeyFingerprint;
     private final String issuer;
@@ -103,11 +104,11 @@ class ApiRequestBuilder {
         String hash;
         String func;
         if (transportObject != null) {
-            HttpEntity entity = getEntity(transportObject);
+            byte[] body = getBody(transportObject);
+            ByteArrayEntity entity = new ByteArrayBodyEntity(body);
+            entity.setContentType("application/jose");
             rb.setEntity(entity);
-            ByteArrayOutputStream stream = new ByteArrayOutputStream();
-            entity.writeTo(stream);
-            hash = Hex.encodeHexString(crypto.sha256(stream.toByteArray()));
+            hash = Hex.encodeHexString(crypto.sha256(body));
             func = "S256";
         } else {
             hash = null;
@@ -117,16 +118,22 @@ class ApiRequestBuilder {
         rb.setHeader("Authorization", "IOV-JWT " + jwt);
     }
 
-    private HttpEntity getEntity(Object transportObject) throws JsonProcessingException, CryptographyError {
-        String json = objectMapper.writeValueAsString(transportObject);
-        byte[] encrypted;
+    /**
+     * Marshal and encrypt the transport object. The returned array is used as the entity content and hashed for the
+     * JWT as is, so it is never copied again. When the JWE service is a {@link BinaryJWEService}, the JSON is written
+     * as UTF-8 bytes into Jackson's recycled buffers and encrypted without ever being a string.
+     */
+    private byte[] getBody(Object transportObject) throws JsonProcessingException, CryptographyError {
         try {
-            encrypted = jweService.encrypt(json, publicKey, publicKeyFingerprint, "application/json").getBytes();
+            if (jweService instanceof BinaryJWEService) {
+                return ((BinaryJWEService) jweService).encrypt(objectMapper.writeValueAsBytes(transportObject),
+                        publicKey, publicKeyFingerprint, "application/json");
+            }
+            String json = objectMapper.writeValueAsString(transportObject);
+            // JWE compact serialization is always ASCII
+            return jweService.encrypt(json, publicKey, publicKeyFingerprint, "application/json").getBytes(US_ASCII);
         } catch (JWEFailure jweFailure) {
             throw new CryptographyError("An error occurred encrypting the request entity with JWE", jweFailure);
         }
-        ByteArrayEntity entity = new ByteArrayEntity(encrypted);
-        entity.setContentType("application/jose");
-        return entity;
     }
 }
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.http.entity.ByteArrayEntity;
+
+/**
+ * Byte array entity whose array can be handed to another HTTP client or to a {@link ReplayHttpResponse} without
+ * being copied. The array must not be modified.
+ */
+class ByteArrayBodyEntity extends ByteArrayEntity {
+    ByteArrayBodyEntity(byte[] body) {
+        super(body);
+    }
+
+    /**
+     * @return The array the entity was created with
+     */
+    byte[] getBytes() {
+        return content;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.BoundedCache;
+import com.iovation.launchkey.sdk.error.BaseException;
+import com.iovation.launchkey.sdk.error.EntityNotFound;
+import com.iovation.launchkey.sdk.error.InvalidRequestException;
+import com.iovation.launchkey.sdk.error.PublicKeyDoesNotExist;
+import com.iovation.launchkey.sdk.error.RateLimited;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process negative cache of API public key fingerprints which the API reported as not found or rejected as an
+ * invalid request, held in a {@link BoundedCache}. This keeps a burst of messages with an unknown key ID from
+ * becoming a burst of public key requests to the API. Transient failures, such as I/O errors, server errors, rate
+ * limiting, and malformed or oversized responses, are not cached.
+ */
+class FailedPublicKeyCache {
+    private final BoundedCache<String, Failure> entries;
+
+    /**
+     * @param maxSize Maximum number of fingerprints to hold
+     * @param ttlSeconds Number of seconds a failure will be held before the key may be requested again
+     */
+    FailedPublicKeyCache(int maxSize, int ttlSeconds) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be greater than zero");
+        entries = new BoundedCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Get the failure for the fingerprint
+     *
+     * @param fingerprint Fingerprint of the key
+     * @return A new exception equivalent to the one raised when retrieving the key or null if there is no failure or
+     * it has expired
+     */
+    BaseException get(String fingerprint) {
+        Failure failure = entries.get(fingerprint);
+        return failure == null ? null : failure.newException();
+    }
+
+    /**
+     * Store the failure for the fingerprint if it is definitive
+     *
+     * @param fingerprint Fingerprint of the key
+     * @param exception The exception raised when retrieving the key
+     * @return Whether the failure was stored
+     */
+    boolean put(String fingerprint, BaseException exception) {
+        if (!isDefinitive(exception)) {
+            return false;
+        }
+        FailureType type;
+        if (exception instanceof PublicKeyDoesNotExist) {
+            type = FailureType.PUBLIC_KEY_DOES_NOT_EXIST;
+        } else if (exception instanceof EntityNotFound) {
+            type = FailureType.ENTITY_NOT_FOUND;
+        } else {
+            type = FailureType.INVALID_REQUEST;
+        }
+        entries.put(fingerprint, new Failure(type, exception.getMessage(), exception.getErrorCode()));
+        return true;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param exception Exception raised when retrieving a key
+     * @return Whether the API reported the key as not found or the request as invalid such that requesting the key
+     * again will have the same result
+     */
+    static boolean isDefinitive(BaseException exception) {
+        if (exception instanceof RateLimited) {
+            return false;
+        }
+        return exception instanceof EntityNotFound || exception instanceof InvalidRequestException;
+    }
+
+    private enum FailureType {
+        ENTITY_NOT_FOUND,
+        PUBLIC_KEY_DOES_NOT_EXIST,
+        INVALID_REQUEST
+    }
+
+    private static class Failure {
+        private final FailureType type;
+        private final String message;
+        private final String errorCode;
+
+        private Failure(FailureType type, String message, String errorCode) {
+            this.type = type;
+            this.message = message;
+            this.errorCode = errorCode;
+        }
+
+        private BaseException newException() {
+            switch (type) {
+                case ENTITY_NOT_FOUND:
+                    return new EntityNotFound(message, null, errorCode);
+                case PUBLIC_KEY_DOES_NOT_EXIST:
+                    return new PublicKeyDoesNotExist(message, null, errorCode);
+                default:
+                    return new InvalidRequestException(message, null, errorCode);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.BoundedCache;
+import com.iovation.launchkey.sdk.cache.StatsCounter;
+
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache of parsed API public keys keyed by fingerprint, held in a {@link BoundedCache}. Entries expire
+ * after a TTL and are evicted once the maximum size is reached. This sits in front of the string based
+ * {@link com.iovation.launchkey.sdk.cache.Cache} so that PEM parsing only occurs when a key is not held in process.
+ */
+class PublicKeyCache {
+    private final BoundedCache<String, PublicKey> entries;
+
+    /**
+     * @param maxSize Maximum number of keys to hold
+     * @param ttlSeconds Number of seconds a key will be held before it must be reloaded
+     */
+    PublicKeyCache(int maxSize, int ttlSeconds) {
+        this(maxSize, ttlSeconds, new StatsCounter());
+    }
+
+    /**
+     * @param maxSize Maximum number of keys to hold
+     * @param ttlSeconds Number of seconds a key will be held before it must be reloaded
+     * @param statsCounter Counter in which evictions are recorded. Hits and misses are recorded by the transport.
+     */
+    PublicKeyCache(int maxSize, int ttlSeconds, final StatsCounter statsCounter) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be greater than zero");
+        entries = new BoundedCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS, null, new StatsCounter() {
+            @Override
+            public void recordEviction() {
+                super.recordEviction();
+                statsCounter.recordEviction();
+            }
+        });
+    }
+
+    /**
+     * Get the key for the fingerprint
+     *
+     * @param fingerprint Fingerprint of the key
+     * @return The key or null if the key is not cached or has expired
+     */
+    PublicKey get(String fingerprint) {
+        return entries.get(fingerprint);
+    }
+
+    /**
+     * Store the key for the fingerprint
+     *
+     * @param fingerprint Fingerprint of the key
+     * @param key The key
+     */
+    void put(String fingerprint, PublicKey key) {
+        entries.put(fingerprint, key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
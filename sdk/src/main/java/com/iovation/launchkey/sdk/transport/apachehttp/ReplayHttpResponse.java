@@ -12,20 +12,58 @@
 
 package com.iovation.launchkey.sdk.transport.apachehttp;
 
+import com.iovation.launchkey.sdk.crypto.jwt.JWTData;
 import org.apache.http.*;
 import org.apache.http.params.HttpParams;
 
 import java.io.*;
+import java.util.Arrays;
 import java.util.Locale;
 
 @SuppressWarnings("deprecation")
 public class ReplayHttpResponse implements HttpResponse {
+    private static final byte[] NO_CONTENT = new byte[0];
     private final HttpResponse httpResponse;
-    private HttpEntity entityCache = null;
+    private final int maxContentLength;
+    private RepeatingHttpEntity entityCache = null;
     private int entityCacheHashCode = 0;
+    private JWTData jwtData = null;
 
     ReplayHttpResponse(HttpResponse httpResponse) {
+        this(httpResponse, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param httpResponse Response to replay
+     * @param maxContentLength Maximum number of bytes that will be read from the response entity
+     */
+    ReplayHttpResponse(HttpResponse httpResponse, int maxContentLength) {
         this.httpResponse = httpResponse;
+        this.maxContentLength = maxContentLength;
+    }
+
+    /**
+     * Get the content of the response entity. The entity is read into a single buffer the first time the content is
+     * requested and that same buffer is returned on every call. It must not be modified.
+     *
+     * @return Content of the response entity or an empty array if there is no entity
+     * @throws ContentTooLargeException When the entity is larger than the maximum content length
+     * @throws IOException When the entity cannot be read
+     */
+    byte[] getContent() throws IOException {
+        RepeatingHttpEntity entity = (RepeatingHttpEntity) getEntity();
+        return entity == null ? NO_CONTENT : entity.getContentBytes();
+    }
+
+    /**
+     * @return JWT data parsed from the response JWT header when the response was validated or null if it was not
+     */
+    JWTData getJWTData() {
+        return jwtData;
+    }
+
+    void setJWTData(JWTData jwtData) {
+        this.jwtData = jwtData;
     }
 
     @Override
@@ -170,7 +208,7 @@ public class ReplayHttpResponse implements HttpResponse {
     @SuppressWarnings("deprecation")
     private class RepeatingHttpEntity implements HttpEntity {
         private final HttpEntity httpEntity;
-        private byte[] content = new byte[0];
+        private byte[] content = null;
 
         public RepeatingHttpEntity(HttpEntity httpEntity) {
             this.httpEntity = httpEntity;
@@ -188,7 +226,7 @@ public class ReplayHttpResponse implements HttpResponse {
 
         @Override
         public long getContentLength() {
-            return httpEntity.getContentLength();
+            return content == null ? httpEntity.getContentLength() : content.length;
         }
 
         @Override
@@ -203,14 +241,12 @@ public class ReplayHttpResponse implements HttpResponse {
 
         @Override
         public InputStream getContent() throws IOException, UnsupportedOperationException {
-            generateContent();
-            return new ByteArrayInputStream(content);
+            return new ByteArrayInputStream(getContentBytes());
         }
 
         @Override
         public void writeTo(OutputStream outstream) throws IOException {
-            generateContent();
-            outstream.write(content);
+            outstream.write(getContentBytes());
         }
 
         @Override
@@ -223,12 +259,77 @@ public class ReplayHttpResponse implements HttpResponse {
             httpEntity.consumeContent();
         }
 
-        private void generateContent() throws IOException {
-            if (content.length == 0) {
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
-                httpEntity.writeTo(out);
-                content = out.toByteArray();
+        private synchronized byte[] getContentBytes() throws IOException {
+            if (content == null) {
+                content = readContent();
+            }
+            return content;
+        }
+
+        private byte[] readContent() throws IOException {
+            long contentLength = httpEntity.getContentLength();
+            if (contentLength > maxContentLength) {
+                throw new ContentTooLargeException(maxContentLength);
+            }
+            if (httpEntity instanceof ByteArrayBodyEntity) {
+                // Already in memory, as received by the HTTP/2 client
+                return ((ByteArrayBodyEntity) httpEntity).getBytes();
+            }
+            ContentBuffer buffer = new ContentBuffer(
+                    contentLength >= 0 ? (int) contentLength : Math.min(4096, maxContentLength), maxContentLength);
+            httpEntity.writeTo(buffer);
+            return buffer.getContent();
+        }
+    }
+
+    /**
+     * Output stream which writes into a single array sized from the Content-Length. The array only grows when the
+     * Content-Length was missing or inaccurate and is returned without copying when it was accurate.
+     */
+    private static class ContentBuffer extends OutputStream {
+        private final int maxLength;
+        private byte[] buffer;
+        private int length = 0;
+
+        private ContentBuffer(int initialSize, int maxLength) {
+            this.buffer = new byte[initialSize];
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureCapacity(1);
+            buffer[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureCapacity(len);
+            System.arraycopy(b, off, buffer, length, len);
+            length += len;
+        }
+
+        private void ensureCapacity(int additional) throws ContentTooLargeException {
+            long required = (long) length + additional;
+            if (required > maxLength) {
+                throw new ContentTooLargeException(maxLength);
+            }
+            if (required > buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(maxLength, Math.max(required, buffer.length * 2L)));
             }
         }
+
+        private byte[] getContent() {
+            return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+        }
+    }
+
+    /**
+     * Thrown when the response entity is larger than the maximum content length
+     */
+    static class ContentTooLargeException extends IOException {
+        ContentTooLargeException(int maxContentLength) {
+            super("Response content exceeds the maximum length of " + maxContentLength + " bytes");
+        }
     }
 }
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Estimate of the current time on an API server. The clock is anchored to a monotonic time source when a ping sample
+ * is added and the server time is then derived from the monotonic time elapsed since that anchor. Changes to the local
+ * wall clock therefore have no effect on the server time. The server time returned by a ping is assumed to have been
+ * captured half way through the round trip. Each sample replaces the anchor rather than being used to estimate drift
+ * between the local and server clocks: the server time has a resolution of one second, which over the interval
+ * between samples is far larger than any real drift, and the clock is re-anchored before drift could accumulate.
+ * <p>
+ * Clocks are shared by all transports using the same API base URL.
+ */
+class ServerClock {
+    private static final ConcurrentMap<String, ServerClock> CLOCKS = new ConcurrentHashMap<>();
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final TimeSource timeSource;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private volatile Sample sample = null;
+
+    ServerClock(TimeSource timeSource) {
+        this.timeSource = timeSource;
+    }
+
+    /**
+     * Get the clock shared by all transports for the API base URL
+     *
+     * @param baseUrl API base URL
+     * @return Clock for the API base URL
+     */
+    static ServerClock forBaseUrl(String baseUrl) {
+        ServerClock clock = CLOCKS.get(baseUrl);
+        if (clock == null) {
+            ServerClock newClock = new ServerClock(TimeSource.SYSTEM);
+            clock = CLOCKS.putIfAbsent(baseUrl, newClock);
+            if (clock == null) {
+                clock = newClock;
+            }
+        }
+        return clock;
+    }
+
+    /**
+     * @return Current value of the time source in nanoseconds
+     */
+    long nanoTime() {
+        return timeSource.nanoTime();
+    }
+
+    /**
+     * @return Has at least one sample been added to the clock
+     */
+    boolean isSynchronized() {
+        return sample != null;
+    }
+
+    /**
+     * @param ttlSeconds Number of seconds a sample is valid
+     * @return Is a new sample due. A sample is due once 90% of the TTL has elapsed, unless a retry was scheduled after
+     * a failed refresh and has not yet been reached.
+     */
+    boolean isRefreshDue(int ttlSeconds) {
+        Sample current = sample;
+        if (current == null) {
+            return true;
+        }
+        long now = timeSource.nanoTime();
+        return now - current.anchorNanos >= ttlSeconds * 900000000L && now - current.notBeforeNanos >= 0;
+    }
+
+    /**
+     * Attempt to become the one caller responsible for refreshing the clock
+     *
+     * @return Did the caller become responsible for the refresh. When true, {@link #endRefresh()} must be called once
+     * the refresh has completed.
+     */
+    boolean beginRefresh() {
+        return refreshing.compareAndSet(false, true);
+    }
+
+    void endRefresh() {
+        refreshing.set(false);
+    }
+
+    /**
+     * Keep using the current sample and prevent another refresh attempt for one second
+     */
+    void retryLater() {
+        Sample current = sample;
+        if (current != null) {
+            sample = new Sample(current.serverMillis, current.anchorNanos, current.roundTripNanos,
+                    timeSource.nanoTime() + RETRY_NANOS);
+        }
+    }
+
+    /**
+     * Add a server time sample. The sample replaces any previous sample.
+     *
+     * @param sentNanos Value of {@link #nanoTime()} when the ping request was sent
+     * @param receivedNanos Value of {@link #nanoTime()} when the ping response was received
+     * @param serverMillis Server time in milliseconds since the epoch from the ping response
+     */
+    void addSample(long sentNanos, long receivedNanos, long serverMillis) {
+        long roundTripNanos = receivedNanos - sentNanos;
+        long anchorNanos = sentNanos + roundTripNanos / 2;
+        sample = new Sample(serverMillis, anchorNanos, roundTripNanos, anchorNanos);
+    }
+
+    /**
+     * @return Current server time in milliseconds since the epoch
+     * @throws IllegalStateException When no sample has been added
+     */
+    long currentTimeMillis() {
+        Sample current = sample;
+        if (current == null) {
+            throw new IllegalStateException("Server clock has not been synchronized");
+        }
+        long elapsedNanos = timeSource.nanoTime() - current.anchorNanos;
+        return current.serverMillis + TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return Round trip time in nanoseconds of the ping for the current sample or -1 if there is no sample
+     */
+    long getRoundTripNanos() {
+        Sample current = sample;
+        return current == null ? -1 : current.roundTripNanos;
+    }
+
+    private static class Sample {
+        private final long serverMillis;
+        private final long anchorNanos;
+        private final long roundTripNanos;
+        private final long notBeforeNanos;
+
+        private Sample(long serverMillis, long anchorNanos, long roundTripNanos, long notBeforeNanos) {
+            this.serverMillis = serverMillis;
+            this.anchorNanos = anchorNanos;
+            this.roundTripNanos = roundTripNanos;
+            this.notBeforeNanos = notBeforeNanos;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.support.AbstractAsyncResponseConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.ByteArrayBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * HTTP Client 5 response consumer which buffers the response body like
+ * {@link org.apache.hc.client5.http.async.methods.SimpleResponseConsumer} but fails the exchange with a
+ * {@link ReplayHttpResponse.ContentTooLargeException} as soon as the body is known to exceed the maximum size. A
+ * Content-Length over the maximum is rejected before anything is buffered.
+ */
+class SizeLimitedResponseConsumer extends AbstractAsyncResponseConsumer<SimpleHttpResponse, byte[]> {
+    /**
+     * @param maxBodySize Maximum size in bytes of the response body
+     */
+    SizeLimitedResponseConsumer(int maxBodySize) {
+        super(new BodyConsumer(maxBodySize));
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {
+    }
+
+    @Override
+    protected SimpleHttpResponse buildResult(HttpResponse response, byte[] body, ContentType contentType) {
+        SimpleHttpResponse simpleResponse = SimpleHttpResponse.copy(response);
+        if (body != null) {
+            simpleResponse.setBody(body, contentType);
+        }
+        return simpleResponse;
+    }
+
+    private static class BodyConsumer implements AsyncEntityConsumer<byte[]> {
+        private final int maxBodySize;
+        private volatile FutureCallback<byte[]> resultCallback;
+        private volatile ByteArrayBuffer buffer;
+        private volatile byte[] content;
+
+        private BodyConsumer(int maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        public void streamStart(EntityDetails entityDetails, FutureCallback<byte[]> resultCallback)
+                throws IOException {
+            long contentLength = entityDetails.getContentLength();
+            if (contentLength > maxBodySize) {
+                throw new ReplayHttpResponse.ContentTooLargeException(maxBodySize);
+            }
+            this.resultCallback = resultCallback;
+            buffer = new ByteArrayBuffer(contentLength >= 0 ? (int) contentLength : Math.min(4096, maxBodySize));
+        }
+
+        @Override
+        public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+            capacityChannel.update(Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void consume(ByteBuffer src) throws IOException {
+            if ((long) buffer.length() + src.remaining() > maxBodySize) {
+                throw new ReplayHttpResponse.ContentTooLargeException(maxBodySize);
+            }
+            if (src.hasArray()) {
+                buffer.append(src.array(), src.arrayOffset() + src.position(), src.remaining());
+                src.position(src.limit());
+            } else {
+                while (src.hasRemaining()) {
+                    buffer.append(src.get());
+                }
+            }
+        }
+
+        @Override
+        public void streamEnd(List<? extends Header> trailers) {
+            // A body of the announced Content-Length fills the buffer exactly and is used without a copy
+            content = buffer.length() == buffer.capacity() ? buffer.array() : buffer.toByteArray();
+            buffer = null;
+            if (resultCallback != null) {
+                resultCallback.completed(content);
+            }
+        }
+
+        @Override
+        public void failed(Exception cause) {
+            if (resultCallback != null) {
+                resultCallback.failed(cause);
+            }
+        }
+
+        @Override
+        public byte[] getContent() {
+            return content;
+        }
+
+        @Override
+        public void releaseResources() {
+            buffer = null;
+        }
+    }
+}
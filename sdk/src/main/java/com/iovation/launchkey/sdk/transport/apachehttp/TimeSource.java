@@ -0,0 +1,34 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+/**
+ * Source of monotonic time used by {@link ServerClock}. This allows the passage of time to be controlled in tests.
+ */
+interface TimeSource {
+    /**
+     * Time source backed by {@link System#nanoTime()}
+     */
+    TimeSource SYSTEM = new TimeSource() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    /**
+     * @return Current value of a monotonic clock in nanoseconds. The value is only meaningful when compared to
+     * another value from the same source.
+     */
+    long nanoTime();
+}
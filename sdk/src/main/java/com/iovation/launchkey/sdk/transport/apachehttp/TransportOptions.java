@@ -0,0 +1,155 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.AsyncCache;
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.crypto.CryptoExecutor;
+import com.iovation.launchkey.sdk.error.CryptographyOverloaded;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+
+/**
+ * Optional settings for an {@link ApacheHttpTransport}. Settings which are not set keep their defaults. The values
+ * are copied when the transport is constructed so that one instance may be used for any number of transports.
+ */
+public class TransportOptions {
+    private int maxResponseBodySize = ApacheHttpTransport.DEFAULT_MAX_RESPONSE_BODY_SIZE;
+    private CryptoExecutor cryptoExecutor = null;
+    private int keyCacheTimeoutMillis = ApacheHttpTransport.DEFAULT_KEY_CACHE_TIMEOUT_MILLIS;
+    private Cache stateCache = null;
+    private TransportStats stats = null;
+    private int requestTimeoutMillis = ApacheHttp2Transport.DEFAULT_REQUEST_TIMEOUT_MILLIS;
+
+    /**
+     * @return Maximum size in bytes of a response body
+     */
+    public int getMaxResponseBodySize() {
+        return maxResponseBodySize;
+    }
+
+    /**
+     * Set the maximum size in bytes of a response body. Larger responses will raise an
+     * {@link InvalidResponseException} without the remainder of the body being read. The default is
+     * {@link ApacheHttpTransport#DEFAULT_MAX_RESPONSE_BODY_SIZE}.
+     *
+     * @param maxResponseBodySize Maximum size in bytes of a response body
+     * @return this
+     */
+    public TransportOptions setMaxResponseBodySize(int maxResponseBodySize) {
+        this.maxResponseBodySize = maxResponseBodySize;
+        return this;
+    }
+
+    /**
+     * @return Executor on which responses and server sent events are decrypted or null to decrypt on the calling
+     * thread
+     */
+    public CryptoExecutor getCryptoExecutor() {
+        return cryptoExecutor;
+    }
+
+    /**
+     * Set the executor on which responses and server sent events are decrypted. The calling thread waits for the
+     * result. If the executor is saturated, a {@link CryptographyOverloaded} may be raised. The default is to decrypt
+     * on the calling thread.
+     *
+     * @param cryptoExecutor Executor for cryptography
+     * @return this
+     */
+    public TransportOptions setCryptoExecutor(CryptoExecutor cryptoExecutor) {
+        this.cryptoExecutor = cryptoExecutor;
+        return this;
+    }
+
+    /**
+     * @return Maximum time in milliseconds to wait for a public key from an {@link AsyncCache}
+     */
+    public int getKeyCacheTimeoutMillis() {
+        return keyCacheTimeoutMillis;
+    }
+
+    /**
+     * Set the maximum time in milliseconds to wait for a public key when the public key cache is an
+     * {@link AsyncCache}. A slower response is treated as a miss, and a key the lookup returns later is held in
+     * process for later requests. The default is
+     * {@link ApacheHttpTransport#DEFAULT_KEY_CACHE_TIMEOUT_MILLIS}.
+     *
+     * @param keyCacheTimeoutMillis Maximum number of milliseconds to wait for the key cache
+     * @return this
+     */
+    public TransportOptions setKeyCacheTimeoutMillis(int keyCacheTimeoutMillis) {
+        this.keyCacheTimeoutMillis = keyCacheTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * @return Cache which outlives the process holding the Platform API state or null to hold it in memory only
+     */
+    public Cache getStateCache() {
+        return stateCache;
+    }
+
+    /**
+     * Set a cache which outlives the process, such as a {@link com.iovation.launchkey.sdk.cache.MappedFileCache},
+     * holding the current API public key, API public keys by fingerprint, and the server time. When they are
+     * available, the first request after a restart does not need to request them from the API. The default is to
+     * hold them in memory only.
+     *
+     * @param stateCache Cache for the Platform API state
+     * @return this
+     */
+    public TransportOptions setStateCache(Cache stateCache) {
+        this.stateCache = stateCache;
+        return this;
+    }
+
+    /**
+     * @return Statistics in which the public keys and server time are recorded or null if they are not available
+     */
+    public TransportStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Set the statistics in which the hits, misses, and loads of the public keys and server time are recorded. They
+     * may be shared by several transports. The default is to not make statistics available.
+     *
+     * @param stats Statistics to record into. e.g.: {@code new TransportStats()}
+     * @return this
+     */
+    public TransportOptions setStats(TransportStats stats) {
+        this.stats = stats;
+        return this;
+    }
+
+    /**
+     * @return Maximum time in milliseconds an {@link ApacheHttp2Transport} waits for a response
+     */
+    public int getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    /**
+     * Set the maximum time in milliseconds an {@link ApacheHttp2Transport} waits for a response. A slower request is
+     * cancelled and raises a {@link com.iovation.launchkey.sdk.error.CommunicationErrorException}. The timeouts of
+     * an {@link ApacheHttpTransport} are configured on its HTTP client. The default is
+     * {@link ApacheHttp2Transport#DEFAULT_REQUEST_TIMEOUT_MILLIS}.
+     *
+     * @param requestTimeoutMillis Maximum number of milliseconds to wait for a response
+     * @return this
+     */
+    public TransportOptions setRequestTimeoutMillis(int requestTimeoutMillis) {
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        return this;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.CacheStats;
+import com.iovation.launchkey.sdk.cache.StatsCounter;
+
+/**
+ * Statistics for the values an {@link ApacheHttpTransport} caches from the Platform API. One instance may be shared
+ * by any number of transports to aggregate their statistics.
+ */
+public class TransportStats {
+    private final StatsCounter publicKeyCounter = new StatsCounter();
+    private final StatsCounter currentPublicKeyCounter = new StatsCounter();
+    private final StatsCounter serverTimeCounter = new StatsCounter();
+
+    /**
+     * @return Statistics for API public keys looked up by fingerprint to verify responses and server sent events.
+     * Hits are keys found in memory or in the key cache, loads are public key requests, and evictions are keys
+     * removed from memory to stay within its maximum size.
+     */
+    public CacheStats getPublicKeyStats() {
+        return publicKeyCounter.snapshot();
+    }
+
+    /**
+     * @return Statistics for the current API public key used to encrypt requests. Loads are public key requests and
+     * refreshes are replacements of the key once its TTL has nearly elapsed.
+     */
+    public CacheStats getCurrentPublicKeyStats() {
+        return currentPublicKeyCounter.snapshot();
+    }
+
+    /**
+     * @return Statistics for the server time. Loads are ping requests and refreshes are replacements of the server
+     * time sample once the offset TTL has nearly elapsed.
+     */
+    public CacheStats getServerTimeStats() {
+        return serverTimeCounter.snapshot();
+    }
+
+    StatsCounter getPublicKeyCounter() {
+        return publicKeyCounter;
+    }
+
+    StatsCounter getCurrentPublicKeyCounter() {
+        return currentPublicKeyCounter;
+    }
+
+    StatsCounter getServerTimeCounter() {
+        return serverTimeCounter;
+    }
+
+    @Override
+    public String toString() {
+        return "TransportStats{" +
+                "publicKeyStats=" + getPublicKeyStats() +
+                ", currentPublicKeyStats=" + getCurrentPublicKeyStats() +
+                ", serverTimeStats=" + getServerTimeStats() +
+                '}';
+    }
+}
@@ -14,18 +14,23 @@ package com.iovation.launchkey.sdk.transport.domain;
 
 import com.iovation.launchkey.sdk.error.NoKeyFoundException;
 
+import java.security.PrivateKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class EntityKeyMap {
-    private final ConcurrentHashMap<EntityIdentifier, ConcurrentHashMap<String, RSAPrivateKey>> store;
+    private final ConcurrentHashMap<EntityIdentifier, ConcurrentHashMap<String, PrivateKey>> store;
 
     public EntityKeyMap() {
         store = new ConcurrentHashMap<>();
     }
 
     public void addKey(EntityIdentifier entityIdentifier, String publicKeyFingerprint, RSAPrivateKey privateKey) {
-        ConcurrentHashMap<String, RSAPrivateKey> entityKeys;
+        addKey(entityIdentifier, publicKeyFingerprint, (PrivateKey) privateKey);
+    }
+
+    public void addKey(EntityIdentifier entityIdentifier, String publicKeyFingerprint, PrivateKey privateKey) {
+        ConcurrentHashMap<String, PrivateKey> entityKeys;
         if (!store.containsKey(entityIdentifier)) {
             entityKeys = new ConcurrentHashMap<>();
             store.put(entityIdentifier, entityKeys);
@@ -35,8 +40,25 @@ public class EntityKeyMap {
         entityKeys.put(publicKeyFingerprint, privateKey);
     }
 
+    /**
+     * @param entityIdentifier Entity to which the key belongs
+     * @param publicKeyFingerprint Fingerprint of the public key of the key
+     * @return RSA private key
+     * @throws NoKeyFoundException When no key was found or the key is not an RSA key
+     * @deprecated Use {@link #getPrivateKey(EntityIdentifier, String)} which also returns EC keys
+     */
+    @Deprecated
     public RSAPrivateKey getKey(EntityIdentifier entityIdentifier, String publicKeyFingerprint) throws NoKeyFoundException {
-        RSAPrivateKey privateKey;
+        PrivateKey privateKey = getPrivateKey(entityIdentifier, publicKeyFingerprint);
+        if (!(privateKey instanceof RSAPrivateKey)) {
+            throw new NoKeyFoundException(
+                    "No RSA key found for entity " + entityIdentifier.toString() + " and key ID " + publicKeyFingerprint);
+        }
+        return (RSAPrivateKey) privateKey;
+    }
+
+    public PrivateKey getPrivateKey(EntityIdentifier entityIdentifier, String publicKeyFingerprint) throws NoKeyFoundException {
+        PrivateKey privateKey;
         if (store.containsKey(entityIdentifier)) {
             privateKey = store.get(entityIdentifier).get(publicKeyFingerprint);
         } else {
@@ -1,19 +1,32 @@
 package com.iovation.launchkey.sdk;
 
 import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.crypto.CryptoExecutor;
+import com.iovation.launchkey.sdk.crypto.KeyLoader;
+import com.iovation.launchkey.sdk.crypto.ProviderCalibration;
+import com.iovation.launchkey.sdk.transport.apachehttp.TransportOptions;
+import com.iovation.launchkey.sdk.transport.apachehttp.TransportStats;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.apache.http.client.HttpClient;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.security.PrivateKey;
 import java.security.Provider;
+import java.util.Collections;
 
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 public class FactoryFactoryBuilderTest {
+    private static final String UUID1 = "49af9c38-31b3-11e7-93ae-92361f002671";
     private FactoryFactoryBuilder builder;
 
     @Before
@@ -80,4 +93,165 @@ public class FactoryFactoryBuilderTest {
     public void setKeyCacheReturnsBuilder() throws Exception {
         assertSame(builder, builder.setKeyCache(mock(Cache.class)));
     }
+
+    @Test
+    public void setHttpAsyncEnabledReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setHttpAsyncEnabled(true));
+    }
+
+    @Test
+    public void asyncIsDisabledByDefault() throws Exception {
+        assertFalse(builder.isHttpAsyncEnabled());
+    }
+
+    @Test
+    public void setHttpAsyncClientEnablesAsync() throws Exception {
+        builder.setHttpAsyncClient(mock(HttpAsyncClient.class));
+        assertTrue(builder.isHttpAsyncEnabled());
+    }
+
+    @Test
+    public void setHttp2EnabledReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setHttp2Enabled(true));
+    }
+
+    @Test
+    public void setHttp2ClientReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setHttp2Client(mock(CloseableHttpAsyncClient.class)));
+    }
+
+    @Test
+    public void buildWithHttp2EnabledReturnsFactoryFactory() throws Exception {
+        assertThat(builder.setHttp2Enabled(true).build(), instanceOf(FactoryFactory.class));
+    }
+
+    @Test
+    public void jceJoseIsDisabledByDefault() throws Exception {
+        assertFalse(builder.isJCEJoseEnabled());
+    }
+
+    @Test
+    public void setJCEJoseEnabledReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setJCEJoseEnabled(true));
+    }
+
+    @Test
+    public void setJCEJoseEnabledEnablesJCEJose() throws Exception {
+        builder.setJCEJoseEnabled(true);
+        assertTrue(builder.isJCEJoseEnabled());
+    }
+
+    @Test
+    public void setJWEKeyManagementAlgorithmReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setJWEKeyManagementAlgorithm("RSA-OAEP-256"));
+    }
+
+    @Test
+    public void setJWEContentEncryptionAlgorithmReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setJWEContentEncryptionAlgorithm("A256GCM"));
+    }
+
+    @Test
+    public void buildWithJWEAlgorithmsReturnsFactoryFactory() throws Exception {
+        assertThat(
+                builder.setJWEKeyManagementAlgorithm("RSA-OAEP-256").setJWEContentEncryptionAlgorithm("A256GCM").build(),
+                instanceOf(FactoryFactory.class)
+        );
+    }
+
+    @Test
+    public void setKeyLoaderReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setKeyLoader(mock(KeyLoader.class)));
+    }
+
+    @Test
+    public void buildWithKeyLoaderReturnsFactoryFactory() throws Exception {
+        assertThat(builder.setKeyLoader(mock(KeyLoader.class)).build(), instanceOf(FactoryFactory.class));
+    }
+
+    @Test
+    public void setJCEProviderCalibrationEnabledReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setJCEProviderCalibrationEnabled(true));
+    }
+
+    @Test
+    public void setJCEProviderCalibrationReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setJCEProviderCalibration(mock(ProviderCalibration.class)));
+    }
+
+    @Test
+    public void buildWithJCEProviderCalibrationReturnsFactoryFactory() throws Exception {
+        assertThat(builder.setJCEProviderCalibration(mock(ProviderCalibration.class)).build(),
+                instanceOf(FactoryFactory.class));
+    }
+
+    @Test
+    public void setCryptoExecutorReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setCryptoExecutor(mock(CryptoExecutor.class)));
+    }
+
+    @Test
+    public void buildWithCryptoExecutorReturnsFactoryFactory() throws Exception {
+        assertThat(builder.setCryptoExecutor(mock(CryptoExecutor.class)).build(), instanceOf(FactoryFactory.class));
+    }
+
+    @Test
+    public void setKeyCacheTimeoutMillisReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setKeyCacheTimeoutMillis(10));
+    }
+
+    @Test
+    public void buildWithKeyCacheTimeoutMillisReturnsFactoryFactory() throws Exception {
+        assertThat(builder.setKeyCacheTimeoutMillis(10).build(), instanceOf(FactoryFactory.class));
+    }
+
+    @Test
+    public void setStateCacheReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setStateCache(mock(Cache.class)));
+    }
+
+    @Test
+    public void buildWithStateCacheReturnsFactoryFactory() throws Exception {
+        assertThat(builder.setStateCache(mock(Cache.class)).build(), instanceOf(FactoryFactory.class));
+    }
+
+    @Test
+    public void setTransportStatsReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setTransportStats(new TransportStats()));
+    }
+
+    @Test
+    public void buildWithTransportStatsReturnsFactoryFactory() throws Exception {
+        assertThat(builder.setTransportStats(new TransportStats()).build(), instanceOf(FactoryFactory.class));
+    }
+
+    @Test
+    public void getTransportOptionsHasConfiguredTransportSettings() throws Exception {
+        Cache stateCache = mock(Cache.class);
+        TransportStats stats = new TransportStats();
+        TransportOptions options = builder.setMaxResponseBodySize(1024).setKeyCacheTimeoutMillis(10)
+                .setStateCache(stateCache).setTransportStats(stats).getTransportOptions();
+        assertEquals(1024, options.getMaxResponseBodySize());
+        assertEquals(10, options.getKeyCacheTimeoutMillis());
+        assertSame(stateCache, options.getStateCache());
+        assertSame(stats, options.getStats());
+    }
+
+    @Test
+    public void addServicePrivateKeysReturnsBuilder() throws Exception {
+        assertSame(builder, builder.addServicePrivateKeys(UUID1,
+                Collections.singletonMap("Fingerprint", mock(PrivateKey.class))));
+    }
+
+    @Test
+    public void addDirectoryPrivateKeysReturnsBuilder() throws Exception {
+        assertSame(builder, builder.addDirectoryPrivateKeys(UUID1,
+                Collections.singletonMap("Fingerprint", mock(PrivateKey.class))));
+    }
+
+    @Test
+    public void addOrganizationPrivateKeysReturnsBuilder() throws Exception {
+        assertSame(builder, builder.addOrganizationPrivateKeys(UUID1,
+                Collections.singletonMap("Fingerprint", mock(PrivateKey.class))));
+    }
 }
@@ -0,0 +1,322 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class BoundedCacheTest {
+    private long now;
+    private BoundedCache<String, String> cache;
+
+    @Before
+    public void setUp() throws Exception {
+        now = 1000000L;
+        cache = newCache(100, 60, null);
+    }
+
+    private BoundedCache<String, String> newCache(long maximumWeight, long ttlSeconds,
+                                                  Weigher<String, String> weigher) {
+        return new BoundedCache<String, String>(maximumWeight, ttlSeconds, TimeUnit.SECONDS, weigher) {
+            @Override
+            long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void getReturnsValueWhenPut() throws Exception {
+        cache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void getReturnsNullWhenNotPut() throws Exception {
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void putReplacesExistingValue() throws Exception {
+        cache.put("key", "value 1");
+        cache.put("key", "value 2");
+        assertEquals("value 2", cache.get("key"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void getReturnsValueBeforeDefaultTTL() throws Exception {
+        cache.put("key", "value");
+        now += 59999L;
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void getReturnsNullAfterDefaultTTL() throws Exception {
+        cache.put("key", "value");
+        now += 60000L;
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void putWithTTLOverridesDefaultTTL() throws Exception {
+        cache.put("key", "value", 120, TimeUnit.SECONDS);
+        now += 60000L;
+        assertEquals("value", cache.get("key"));
+        now += 60000L;
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void putWithZeroTTLDoesNotExpire() throws Exception {
+        cache.put("key", "value", 0, TimeUnit.SECONDS);
+        now += TimeUnit.DAYS.toMillis(3650);
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void zeroDefaultTTLDoesNotExpire() throws Exception {
+        cache = newCache(100, 0, null);
+        cache.put("key", "value");
+        now += TimeUnit.DAYS.toMillis(3650);
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void removeRemovesEntry() throws Exception {
+        cache.put("key", "value");
+        cache.remove("key");
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getWeight());
+    }
+
+    @Test
+    public void removeUnknownKeyDoesNothing() throws Exception {
+        cache.remove("key");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void sizeNeverExceedsMaximumSize() throws Exception {
+        for (int i = 0; i < 10000; i++) {
+            cache.put("key " + i, "value");
+            assertTrue(cache.size() <= 100);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(100L, cache.getWeight());
+    }
+
+    @Test
+    public void evictionsAreCounted() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key " + i, "value");
+        }
+        assertEquals(900L, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void frequentlyUsedEntriesAreNotEvictedByKeysUsedOnce() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot " + i, "value");
+        }
+        for (int access = 0; access < 5; access++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get("hot " + i);
+            }
+        }
+        Random random = new Random(1L);
+        for (int i = 0; i < 10000; i++) {
+            // More keys are seen between accesses of a hot entry than the cache holds, so LRU would evict it
+            for (int j = 0; j < 2; j++) {
+                String key = Long.toHexString(random.nextLong());
+                cache.get(key);
+                cache.put(key, "value");
+            }
+            cache.get("hot " + (i % 50));
+        }
+        for (int i = 0; i < 50; i++) {
+            assertNotNull("hot " + i, cache.get("hot " + i));
+        }
+    }
+
+    @Test
+    public void recentlyAddedEntryIsRetained() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key " + i, "value");
+        }
+        assertEquals("value", cache.get("key 999"));
+    }
+
+    @Test
+    public void weightNeverExceedsMaximumWeight() throws Exception {
+        cache = newCache(10, 60, new Weigher<String, String>() {
+            @Override
+            public int weigh(String key, String value) {
+                return value.length();
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            cache.put("key " + i, i % 2 == 0 ? "1234" : "1");
+            assertTrue(cache.getWeight() <= 10);
+        }
+    }
+
+    @Test
+    public void entryHeavierThanMaximumWeightIsNotStored() throws Exception {
+        cache = newCache(10, 60, new Weigher<String, String>() {
+            @Override
+            public int weigh(String key, String value) {
+                return value.length();
+            }
+        });
+        cache.put("key", "12345678901");
+        assertNull(cache.get("key"));
+        assertEquals(1L, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void replacingEntryUpdatesWeight() throws Exception {
+        cache = newCache(10, 60, new Weigher<String, String>() {
+            @Override
+            public int weigh(String key, String value) {
+                return value.length();
+            }
+        });
+        cache.put("key", "1234");
+        cache.put("key", "12");
+        assertEquals(2L, cache.getWeight());
+    }
+
+    @Test
+    public void cleanUpRemovesExpiredEntries() throws Exception {
+        cache.put("expires", "value");
+        cache.put("lives", "value", 120, TimeUnit.SECONDS);
+        now += 60000L;
+        cache.cleanUp();
+        assertEquals(1, cache.size());
+        assertEquals(1L, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void getStatsCountsHitsAndMisses() throws Exception {
+        cache.put("key", "value");
+        cache.get("key");
+        cache.get("key");
+        cache.get("other");
+        assertEquals(new CacheStats(2L, 1L, 0L), cache.getStats());
+    }
+
+    @Test
+    public void statsAreRecordedInProvidedCounter() throws Exception {
+        StatsCounter statsCounter = new StatsCounter();
+        cache = new BoundedCache<>(1, 60, TimeUnit.SECONDS, null, statsCounter);
+        cache.put("key", "value");
+        cache.get("key");
+        cache.get("other");
+        cache.put("other", "value");
+        assertEquals(new CacheStats(1L, 1L, 1L), statsCounter.snapshot());
+        assertEquals(statsCounter.snapshot(), cache.getStats());
+    }
+
+    @Test
+    public void expiredEntryCountsAsMissAndEviction() throws Exception {
+        cache.put("key", "value");
+        now += 60000L;
+        cache.get("key");
+        assertEquals(new CacheStats(0L, 1L, 1L), cache.getStats());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void getWithNullKeyThrowsNullPointerException() throws Exception {
+        cache.get(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void putWithNullValueThrowsNullPointerException() throws Exception {
+        cache.put("key", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithZeroMaximumWeightThrowsIllegalArgumentException() throws Exception {
+        new BoundedCache<String, String>(0, 60, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullUnitThrowsIllegalArgumentException() throws Exception {
+        new BoundedCache<String, String>(1, 60, null);
+    }
+
+    @Test
+    public void maximumSizeOfOneRetainsLatestEntry() throws Exception {
+        cache = newCache(1, 60, null);
+        cache.put("key 1", "value 1");
+        cache.put("key 2", "value 2");
+        assertEquals(1, cache.size());
+        assertEquals("value 2", cache.get("key 2"));
+    }
+
+    @Test
+    public void readsRecordedBeyondTheReadBufferSizeAreCounted() throws Exception {
+        cache.put("key", "value");
+        for (int i = 0; i < 1000; i++) {
+            cache.get("key");
+        }
+        assertEquals(1000L, cache.getStats().getHitCount());
+    }
+
+    @Test
+    public void concurrentReadsAndWritesStayWithinMaximumSize() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final int seed = thread;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        Random random = new Random(seed);
+                        for (int i = 0; i < 20000; i++) {
+                            String key = "key " + random.nextInt(500);
+                            if (cache.get(key) == null) {
+                                cache.put(key, "value");
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        cache.cleanUp();
+        assertTrue(cache.size() <= 100);
+        assertEquals(cache.size(), cache.getWeight());
+    }
+}
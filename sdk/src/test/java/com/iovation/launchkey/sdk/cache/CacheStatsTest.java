@@ -0,0 +1,122 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class CacheStatsTest {
+    @Test
+    public void getRequestCountIsHitsPlusMisses() throws Exception {
+        assertEquals(5L, new CacheStats(3L, 2L, 1L).getRequestCount());
+    }
+
+    @Test
+    public void getHitRateIsHitsOverRequests() throws Exception {
+        assertEquals(0.75, new CacheStats(3L, 1L, 0L).getHitRate(), 0.0);
+    }
+
+    @Test
+    public void getHitRateWithNoRequestsIsOne() throws Exception {
+        assertEquals(1.0, new CacheStats(0L, 0L, 0L).getHitRate(), 0.0);
+    }
+
+    @Test
+    public void equalStatsAreEqual() throws Exception {
+        assertEquals(new CacheStats(1L, 2L, 3L), new CacheStats(1L, 2L, 3L));
+        assertEquals(new CacheStats(1L, 2L, 3L).hashCode(), new CacheStats(1L, 2L, 3L).hashCode());
+    }
+
+    @Test
+    public void differentStatsAreNotEqual() throws Exception {
+        assertNotEquals(new CacheStats(1L, 2L, 3L), new CacheStats(1L, 2L, 4L));
+    }
+
+    @Test
+    public void loadCountIsSuccessesPlusFailures() throws Exception {
+        StatsCounter counter = new StatsCounter();
+        counter.recordLoadSuccess(1000L);
+        counter.recordLoadFailure(3000L);
+        assertEquals(2L, counter.snapshot().getLoadCount());
+    }
+
+    @Test
+    public void averageLoadPenaltyIsMeanLoadTime() throws Exception {
+        StatsCounter counter = new StatsCounter();
+        counter.recordLoadSuccess(1000L);
+        counter.recordLoadFailure(3000L);
+        assertEquals(2000.0, counter.snapshot().getAverageLoadPenalty(), 0.0);
+    }
+
+    @Test
+    public void averageLoadPenaltyWithNoLoadsIsZero() throws Exception {
+        assertEquals(0.0, new CacheStats(1L, 1L, 1L).getAverageLoadPenalty(), 0.0);
+    }
+
+    @Test
+    public void getLoadLatencyPercentileMicrosWithNoLoadsIsZero() throws Exception {
+        assertEquals(0L, new CacheStats(0L, 0L, 0L).getLoadLatencyPercentileMicros(99.0));
+    }
+
+    @Test
+    public void getLoadLatencyBucketUpperBoundMicrosDoublesEachBucket() throws Exception {
+        assertEquals(1L, CacheStats.getLoadLatencyBucketUpperBoundMicros(0));
+        assertEquals(2L, CacheStats.getLoadLatencyBucketUpperBoundMicros(1));
+        assertEquals(1024L, CacheStats.getLoadLatencyBucketUpperBoundMicros(10));
+    }
+
+    @Test
+    public void getLoadLatencyBucketUpperBoundMicrosForLastBucketIsMaxValue() throws Exception {
+        assertEquals(Long.MAX_VALUE,
+                CacheStats.getLoadLatencyBucketUpperBoundMicros(CacheStats.LOAD_LATENCY_BUCKETS - 1));
+    }
+
+    @Test
+    public void getLoadLatencyPercentileMicrosReturnsUpperBoundOfBucketHoldingPercentile() throws Exception {
+        CacheStats stats = getStatsWithOutlier();
+        assertEquals(2L, stats.getLoadLatencyPercentileMicros(50.0));
+        assertEquals(2L, stats.getLoadLatencyPercentileMicros(99.0));
+    }
+
+    @Test
+    public void getLoadLatencyPercentileMicrosIsNoLargerThanMaxLoadTime() throws Exception {
+        assertEquals(100000L, getStatsWithOutlier().getLoadLatencyPercentileMicros(100.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getLoadLatencyPercentileMicrosBelowZeroThrowsIllegalArgumentException() throws Exception {
+        new CacheStats(0L, 0L, 0L).getLoadLatencyPercentileMicros(-1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getLoadLatencyPercentileMicrosAboveOneHundredThrowsIllegalArgumentException() throws Exception {
+        new CacheStats(0L, 0L, 0L).getLoadLatencyPercentileMicros(100.1);
+    }
+
+    @Test
+    public void getLoadLatencyBucketCountsReturnsCopy() throws Exception {
+        CacheStats stats = new CacheStats(0L, 0L, 0L);
+        stats.getLoadLatencyBucketCounts()[0] = 1L;
+        assertEquals(0L, stats.getLoadLatencyBucketCounts()[0]);
+    }
+
+    private CacheStats getStatsWithOutlier() {
+        StatsCounter counter = new StatsCounter();
+        for (int i = 0; i < 99; i++) {
+            counter.recordLoadSuccess(1500L);
+        }
+        counter.recordLoadSuccess(100000000L);
+        return counter.snapshot();
+    }
+}
@@ -0,0 +1,203 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ExecutorAsyncCacheTest {
+    @Mock private Cache cache;
+    @Mock private CacheCallback<String> getCallback;
+    @Mock private CacheCallback<Void> putCallback;
+    private ExecutorService executor;
+    private ExecutorAsyncCache asyncCache;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newSingleThreadExecutor();
+        asyncCache = new ExecutorAsyncCache(cache, executor);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void getReturnsCacheGetResponse() throws Exception {
+        when(cache.get("key")).thenReturn("value");
+        assertEquals("value", asyncCache.get("key"));
+    }
+
+    @Test
+    public void putCallsCachePut() throws Exception {
+        asyncCache.put("key", "value");
+        verify(cache).put("key", "value");
+    }
+
+    @Test
+    public void asyncGetCompletesWithCacheGetResponse() throws Exception {
+        when(cache.get("key")).thenReturn("value");
+        assertEquals("value", asyncCache.get("key", getCallback).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void asyncGetNotifiesCallback() throws Exception {
+        when(cache.get("key")).thenReturn("value");
+        asyncCache.get("key", getCallback).get(1, TimeUnit.SECONDS);
+        verify(getCallback, timeout(1000)).completed("value");
+    }
+
+    @Test
+    public void asyncGetAllowsNullCallback() throws Exception {
+        when(cache.get("key")).thenReturn("value");
+        assertEquals("value", asyncCache.get("key", null).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void asyncGetFailsWithCacheException() throws Exception {
+        CacheException expected = new CacheException("Error");
+        when(cache.get("key")).thenThrow(expected);
+        try {
+            asyncCache.get("key", getCallback).get(1, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(expected, e.getCause());
+        }
+        verify(getCallback, timeout(1000)).failed(expected);
+    }
+
+    @Test
+    public void asyncGetWrapsRuntimeExceptionInCacheException() throws Exception {
+        when(cache.get("key")).thenThrow(new IllegalStateException());
+        try {
+            asyncCache.get("key", getCallback).get(1, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(CacheException.class));
+        }
+    }
+
+    @Test
+    public void asyncPutCallsCachePut() throws Exception {
+        assertNull(asyncCache.put("key", "value", putCallback).get(1, TimeUnit.SECONDS));
+        verify(cache).put("key", "value");
+        verify(putCallback, timeout(1000)).completed(null);
+    }
+
+    @Test
+    public void asyncPutFailsWithCacheException() throws Exception {
+        CacheException expected = new CacheException("Error");
+        doThrow(expected).when(cache).put("key", "value");
+        asyncCache.put("key", "value", putCallback);
+        verify(putCallback, timeout(1000)).failed(expected);
+    }
+
+    @Test
+    public void rejectedGetCompletesAsMiss() throws Exception {
+        executor.shutdown();
+        Future<String> future = asyncCache.get("key", getCallback);
+        verify(getCallback).completed(null);
+        assertNull(future.get());
+        verify(cache, never()).get(anyString());
+    }
+
+    @Test
+    public void rejectedPutFailsWithCacheException() throws Exception {
+        executor.shutdown();
+        Future<Void> future = asyncCache.put("key", "value", putCallback);
+        verify(putCallback).failed(any(CacheException.class));
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(CacheException.class));
+        }
+    }
+
+    @Test
+    public void cancelledGetInterruptsOperationAndDoesNotNotifyCallback() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        when(cache.get("key")).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "value";
+            }
+        });
+        Future<String> future = asyncCache.get("key", getCallback);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        future.cancel(true);
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        try {
+            future.get();
+            fail("Expected CancellationException");
+        } catch (CancellationException e) {
+            // Expected
+        }
+        verifyZeroInteractions(getCallback);
+    }
+
+    @Test
+    public void defaultExecutorRejectsOperationsBeyondItsQueue() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        when(cache.get("key")).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                release.await();
+                return "value";
+            }
+        });
+        ExecutorService bounded = ExecutorAsyncCache.newExecutorService(1, 1);
+        try {
+            asyncCache = new ExecutorAsyncCache(cache, bounded);
+            asyncCache.get("key", null);
+            asyncCache.get("key", null);
+            assertNull(asyncCache.get("key", getCallback).get(1, TimeUnit.SECONDS));
+            verify(getCallback).completed(null);
+        } finally {
+            release.countDown();
+            bounded.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class FrequencySketchTest {
+    private FrequencySketch sketch;
+
+    @Before
+    public void setUp() throws Exception {
+        sketch = new FrequencySketch(64);
+    }
+
+    @Test
+    public void frequencyOfUnknownKeyIsZero() throws Exception {
+        assertEquals(0, sketch.frequency("key"));
+    }
+
+    @Test
+    public void frequencyCountsIncrements() throws Exception {
+        sketch.increment("key");
+        sketch.increment("key");
+        sketch.increment("key");
+        assertEquals(3, sketch.frequency("key"));
+    }
+
+    @Test
+    public void frequencyIsAtMostFifteen() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("key");
+        }
+        assertEquals(15, sketch.frequency("key"));
+    }
+
+    @Test
+    public void frequenciesAreHalvedAfterSamplePeriod() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("key");
+        }
+        for (int i = 0; i < 640; i++) {
+            sketch.increment("other " + i);
+        }
+        assertTrue(sketch.frequency("key") < 10);
+    }
+}
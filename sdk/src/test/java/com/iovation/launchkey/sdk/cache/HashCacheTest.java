@@ -3,6 +3,8 @@ package com.iovation.launchkey.sdk.cache;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
@@ -36,4 +38,42 @@ public class HashCacheTest {
     public void getReturnsNullWhenNotSet() throws Exception {
         assertNull(cache.get("key"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getReturnsNullAfterRemove() throws Exception {
+        cache.put("key", "value");
+        cache.remove("key");
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void sizeIsBounded() throws Exception {
+        cache = new HashCache(10, 60);
+        for (int i = 0; i < 100; i++) {
+            cache.put("key " + i, "value");
+        }
+        assertEquals(90L, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void getStatsCountsHitsAndMisses() throws Exception {
+        cache.put("key", "value");
+        cache.get("key");
+        cache.get("other");
+        assertEquals(new CacheStats(1L, 1L, 0L), cache.getStats());
+    }
+
+    @Test
+    public void getReturnsNullAfterTTL() throws Exception {
+        final long[] now = {1000L};
+        cache = new HashCache(new BoundedCache<String, String>(10, 60, TimeUnit.SECONDS) {
+            @Override
+            long currentTimeMillis() {
+                return now[0];
+            }
+        });
+        cache.put("key", "value", 1, TimeUnit.SECONDS);
+        now[0] += 1000L;
+        assertNull(cache.get("key"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryEvent;
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.mockito.Mockito.*;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class JavaxCacheInvalidationListenerTest {
+    @Mock private TieredCache tieredCache;
+    @Mock private javax.cache.Cache<String, String> store;
+    @Mock private CacheEntryEvent<String, String> event;
+    private JavaxCacheInvalidationListener listener;
+
+    @Before
+    public void setUp() throws Exception {
+        when(event.getKey()).thenReturn("key");
+        when(event.getValue()).thenReturn("value");
+        listener = new JavaxCacheInvalidationListener(tieredCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Iterable<CacheEntryEvent<? extends String, ? extends String>> events() {
+        return Collections.<CacheEntryEvent<? extends String, ? extends String>>singletonList(event);
+    }
+
+    @Test
+    public void onUpdatedInvalidatesKeyUnlessNearCacheHoldsUpdatedValue() throws Exception {
+        listener.onUpdated(events());
+        verify(tieredCache).invalidate("key", "value");
+        verify(tieredCache, never()).invalidate("key");
+    }
+
+    @Test
+    public void onRemovedInvalidatesKey() throws Exception {
+        listener.onRemoved(events());
+        verify(tieredCache).invalidate("key");
+    }
+
+    @Test
+    public void onExpiredInvalidatesKey() throws Exception {
+        listener.onExpired(events());
+        verify(tieredCache).invalidate("key");
+    }
+
+    @Test
+    public void registerRegistersListenerWithStore() throws Exception {
+        CacheEntryListenerConfiguration<String, String> configuration =
+                JavaxCacheInvalidationListener.register(store, tieredCache);
+        verify(store).registerCacheEntryListener(configuration);
+    }
+
+    @Test
+    public void registerCreatesListenerForTieredCache() throws Exception {
+        CacheEntryListenerConfiguration<String, String> configuration =
+                JavaxCacheInvalidationListener.register(store, tieredCache);
+        assertThat(configuration.getCacheEntryListenerFactory().create(),
+                instanceOf(JavaxCacheInvalidationListener.class));
+    }
+
+    @Test
+    public void registerUsesAsynchronousListenerWithoutOldValues() throws Exception {
+        CacheEntryListenerConfiguration<String, String> configuration =
+                JavaxCacheInvalidationListener.register(store, tieredCache);
+        assertFalse(configuration.isSynchronous());
+        assertFalse(configuration.isOldValueRequired());
+        assertNull(configuration.getCacheEntryEventFilterFactory());
+    }
+}
@@ -18,6 +18,8 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
@@ -73,4 +75,33 @@ public class JavaxCacheTest {
         thrown.expectCause(is(cause));
         cache.put("", "");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void putWithTTLCallsJavaxCachePut() throws Exception {
+        cache.put("key", "value", 1, TimeUnit.SECONDS);
+        verify(javaxCache).put("key", "value");
+    }
+
+    @Test
+    public void removeCallsJavaxCacheRemove() throws Exception {
+        cache.remove("key");
+        verify(javaxCache).remove("key");
+    }
+
+    @Test
+    public void removeRaisesCacheExceptionOnException() throws Exception {
+        Throwable cause = new javax.cache.CacheException();
+        doThrow(cause).when(javaxCache).remove(anyString());
+        thrown.expect(CacheException.class);
+        thrown.expectCause(is(cause));
+        cache.remove("");
+    }
+
+    @Test
+    public void getStatsCountsHitsAndMisses() throws Exception {
+        when(javaxCache.get("hit")).thenReturn("Value");
+        cache.get("hit");
+        cache.get("miss");
+        assertEquals(new CacheStats(1L, 1L, 0L), cache.getStats());
+    }
+}
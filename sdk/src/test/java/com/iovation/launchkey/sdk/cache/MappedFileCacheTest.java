@@ -0,0 +1,255 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class MappedFileCacheTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    private File file;
+    private long now;
+    private MappedFileCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "state");
+        now = 1000000L;
+        cache = open(1024, false);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cache.close();
+    }
+
+    private MappedFileCache open(int size, boolean readOnly) throws Exception {
+        return new MappedFileCache(file, size, 60, TimeUnit.SECONDS, readOnly) {
+            @Override
+            long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void getReturnsNullWhenNotCached() throws Exception {
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void getReturnsValueThatWasPut() throws Exception {
+        cache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void putReplacesValue() throws Exception {
+        cache.put("key", "value");
+        cache.put("key", "other value");
+        assertEquals("other value", cache.get("key"));
+    }
+
+    @Test
+    public void getReturnsNullAfterDefaultTTLExpires() throws Exception {
+        cache.put("key", "value");
+        now += 60000L;
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void putWithTTLOverridesDefaultTTL() throws Exception {
+        cache.put("key", "value", 120, TimeUnit.SECONDS);
+        now += 60000L;
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void removeRemovesEntry() throws Exception {
+        cache.put("key", "value");
+        cache.remove("key");
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void entriesSurviveReopening() throws Exception {
+        cache.put("key", "value");
+        cache.close();
+        cache = open(1024, false);
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void readOnlyCacheSeesEntriesFromWriter() throws Exception {
+        MappedFileCache reader = open(1024, true);
+        try {
+            cache.put("key", "value");
+            assertEquals("value", reader.get("key"));
+            cache.put("key", "other value");
+            assertEquals("other value", reader.get("key"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void readOnlyCacheIgnoresPuts() throws Exception {
+        MappedFileCache reader = open(1024, true);
+        try {
+            reader.put("key", "value");
+            assertNull(reader.get("key"));
+            assertNull(cache.get("key"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void isReadOnlyReturnsReadOnly() throws Exception {
+        MappedFileCache reader = open(1024, true);
+        try {
+            assertTrue(reader.isReadOnly());
+            assertFalse(cache.isReadOnly());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void entriesWhichExpireSoonestAreEvictedWhenFull() throws Exception {
+        String value = new String(new char[200]).replace('\0', 'x');
+        cache.put("a", value, 10, TimeUnit.SECONDS);
+        cache.put("b", value, 30, TimeUnit.SECONDS);
+        cache.put("c", value, 20, TimeUnit.SECONDS);
+        cache.put("d", value, 40, TimeUnit.SECONDS);
+        cache.put("e", value, 5, TimeUnit.SECONDS);
+        assertNull(cache.get("a"));
+        assertEquals(value, cache.get("b"));
+        assertEquals(value, cache.get("e"));
+        assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    @Test(expected = CacheException.class)
+    public void putThrowsCacheExceptionWhenEntryIsLargerThanFile() throws Exception {
+        cache.put("key", new String(new char[1024]));
+    }
+
+    @Test
+    public void getStatsCountsHitsAndMisses() throws Exception {
+        cache.put("key", "value");
+        cache.get("key");
+        cache.get("missing");
+        assertEquals(new CacheStats(1, 1, 0), cache.getStats());
+    }
+
+    @Test
+    public void incompleteWriteIsDiscardedWhenOpenedForWriting() throws Exception {
+        cache.put("key", "value");
+        cache.close();
+        java.io.RandomAccessFile raw = new java.io.RandomAccessFile(file, "rw");
+        try {
+            raw.seek(8);
+            raw.writeLong(raw.readLong() + 1L);
+        } finally {
+            raw.close();
+        }
+        cache = open(1024, false);
+        assertNull(cache.get("key"));
+    }
+
+    @Test(expected = CacheException.class)
+    public void constructorThrowsCacheExceptionForFileWhichIsNotACacheFile() throws Exception {
+        File other = folder.newFile("other");
+        FileOutputStream out = new FileOutputStream(other);
+        try {
+            out.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21});
+        } finally {
+            out.close();
+        }
+        new MappedFileCache(other);
+    }
+
+    @Test(expected = CacheException.class)
+    public void readOnlyConstructorThrowsCacheExceptionWhenFileDoesNotExist() throws Exception {
+        new MappedFileCache(new File(folder.getRoot(), "missing"), 1024, 0, TimeUnit.SECONDS, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorThrowsIllegalArgumentExceptionForSizeNotLargerThanHeader() throws Exception {
+        new MappedFileCache(new File(folder.getRoot(), "small"), 20, 0, TimeUnit.SECONDS, false);
+    }
+
+    @Test
+    public void fileIsCreatedReadableAndWritableOnlyByOwner() throws Exception {
+        assumeTrue(file.toPath().getFileSystem().supportedFileAttributeViews().contains("posix"));
+        assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+                Files.getPosixFilePermissions(file.toPath()));
+    }
+
+    @Test
+    public void getIsMissWhenSnapshotChangedAndFileIsLockedByWriter() throws Exception {
+        MappedFileCache reader = open(1024, true);
+        try {
+            cache.put("key", "value");
+            RandomAccessFile raw = new RandomAccessFile(file, "rw");
+            try {
+                FileLock lock = raw.getChannel().lock();
+                try {
+                    assertNull(reader.get("key"));
+                } finally {
+                    lock.release();
+                }
+            } finally {
+                raw.close();
+            }
+            assertEquals("value", reader.get("key"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void readOnlyCacheTreatsIncompleteWriteAsEmpty() throws Exception {
+        cache.put("key", "value");
+        RandomAccessFile raw = new RandomAccessFile(file, "rw");
+        try {
+            raw.seek(8);
+            long sequence = raw.readLong();
+            raw.seek(8);
+            raw.writeLong(sequence + 1L);
+        } finally {
+            raw.close();
+        }
+        MappedFileCache reader = open(1024, true);
+        try {
+            assertNull(reader.get("key"));
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class StatsCounterTest {
+    private StatsCounter counter;
+
+    @Before
+    public void setUp() throws Exception {
+        counter = new StatsCounter();
+    }
+
+    @Test
+    public void newCounterSnapshotEqualsEmptyStats() throws Exception {
+        assertEquals(new CacheStats(0L, 0L, 0L), counter.snapshot());
+    }
+
+    @Test
+    public void recordHitIncrementsHitCount() throws Exception {
+        counter.recordHit();
+        counter.recordHit();
+        assertEquals(2L, counter.snapshot().getHitCount());
+    }
+
+    @Test
+    public void recordMissIncrementsMissCount() throws Exception {
+        counter.recordMiss();
+        assertEquals(1L, counter.snapshot().getMissCount());
+    }
+
+    @Test
+    public void recordEvictionIncrementsEvictionCount() throws Exception {
+        counter.recordEviction();
+        assertEquals(1L, counter.snapshot().getEvictionCount());
+    }
+
+    @Test
+    public void hitsMissesAndEvictionsEqualStatsWithTheSameCounts() throws Exception {
+        counter.recordHit();
+        counter.recordHit();
+        counter.recordMiss();
+        counter.recordEviction();
+        assertEquals(new CacheStats(2L, 1L, 1L), counter.snapshot());
+    }
+
+    @Test
+    public void recordLoadSuccessIncrementsLoadSuccessCountAndRecordsLatency() throws Exception {
+        counter.recordLoadSuccess(2000L);
+        CacheStats stats = counter.snapshot();
+        assertEquals(1L, stats.getLoadSuccessCount());
+        assertEquals(2000L, stats.getTotalLoadTime());
+        assertEquals(2000L, stats.getMaxLoadTime());
+    }
+
+    @Test
+    public void recordLoadFailureIncrementsLoadFailureCountAndRecordsLatency() throws Exception {
+        counter.recordLoadFailure(3000L);
+        CacheStats stats = counter.snapshot();
+        assertEquals(1L, stats.getLoadFailureCount());
+        assertEquals(0L, stats.getLoadSuccessCount());
+        assertEquals(3000L, stats.getTotalLoadTime());
+    }
+
+    @Test
+    public void recordRefreshIncrementsRefreshCount() throws Exception {
+        counter.recordRefresh();
+        assertEquals(1L, counter.snapshot().getRefreshCount());
+    }
+
+    @Test
+    public void recordRefreshFailureIncrementsRefreshFailureCount() throws Exception {
+        counter.recordRefreshFailure();
+        assertEquals(1L, counter.snapshot().getRefreshFailureCount());
+    }
+
+    @Test
+    public void maxLoadTimeIsLongestLoad() throws Exception {
+        counter.recordLoadSuccess(5000L);
+        counter.recordLoadSuccess(1000L);
+        assertEquals(5000L, counter.snapshot().getMaxLoadTime());
+    }
+
+    @Test
+    public void negativeLoadTimeIsRecordedAsZero() throws Exception {
+        counter.recordLoadSuccess(-1000L);
+        CacheStats stats = counter.snapshot();
+        assertEquals(1L, stats.getLoadLatencyBucketCounts()[0]);
+        assertEquals(0L, stats.getTotalLoadTime());
+    }
+
+    @Test
+    public void loadLatenciesAreRecordedInPowerOfTwoBuckets() throws Exception {
+        counter.recordLoadSuccess(500L);
+        counter.recordLoadSuccess(1000L);
+        counter.recordLoadSuccess(3000L);
+        counter.recordLoadSuccess(4000L);
+        long[] counts = counter.snapshot().getLoadLatencyBucketCounts();
+        assertEquals(1L, counts[0]);
+        assertEquals(1L, counts[1]);
+        assertEquals(1L, counts[2]);
+        assertEquals(1L, counts[3]);
+    }
+
+    @Test
+    public void largeLoadLatenciesAreRecordedInLastBucket() throws Exception {
+        counter.recordLoadSuccess(Long.MAX_VALUE);
+        assertEquals(1L, counter.snapshot().getLoadLatencyBucketCounts()[CacheStats.LOAD_LATENCY_BUCKETS - 1]);
+    }
+
+    @Test
+    public void snapshotIsNotChangedByLaterRecording() throws Exception {
+        CacheStats stats = counter.snapshot();
+        counter.recordHit();
+        counter.recordLoadSuccess(1000L);
+        assertEquals(new CacheStats(0L, 0L, 0L), stats);
+    }
+}
@@ -0,0 +1,256 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TieredCacheTest {
+    @Mock private Cache sharedCache;
+    @Mock private JavaxCache typedSharedCache;
+    private BoundedCache<String, String> nearCache;
+    private TieredCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        nearCache = new BoundedCache<>(10, 0, TimeUnit.SECONDS);
+        cache = new TieredCache(nearCache, sharedCache, 0);
+    }
+
+    @Test
+    public void getReadsThroughToSharedCacheOnNearCacheMiss() throws Exception {
+        when(sharedCache.get("key")).thenReturn("value");
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void getFillsNearCacheFromSharedCache() throws Exception {
+        when(sharedCache.get("key")).thenReturn("value");
+        cache.get("key");
+        assertEquals("value", nearCache.get("key"));
+    }
+
+    @Test
+    public void getDoesNotReadSharedCacheOnNearCacheHit() throws Exception {
+        when(sharedCache.get("key")).thenReturn("value");
+        cache.get("key");
+        cache.get("key");
+        verify(sharedCache, times(1)).get("key");
+    }
+
+    @Test
+    public void getReturnsNullWhenNeitherTierHasEntry() throws Exception {
+        assertNull(cache.get("key"));
+    }
+
+    @Test(expected = CacheException.class)
+    public void getThrowsSharedCacheException() throws Exception {
+        when(sharedCache.get("key")).thenThrow(new CacheException("Error"));
+        cache.get("key");
+    }
+
+    @Test
+    public void putWritesToBothTiers() throws Exception {
+        cache.put("key", "value");
+        assertEquals("value", nearCache.get("key"));
+        verify(sharedCache).put("key", "value");
+    }
+
+    @Test
+    public void putKeepsNearCacheEntryWhenSharedCacheFails() throws Exception {
+        doThrow(new CacheException("Error")).when(sharedCache).put("key", "value");
+        try {
+            cache.put("key", "value");
+            fail("Expected CacheException");
+        } catch (CacheException e) {
+            assertEquals("value", nearCache.get("key"));
+        }
+    }
+
+    @Test
+    public void putWithTTLUsesTypedSharedCacheTTL() throws Exception {
+        cache = new TieredCache(nearCache, typedSharedCache, 0);
+        cache.put("key", "value", 5, TimeUnit.SECONDS);
+        verify(typedSharedCache).put("key", "value", 5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void putWithTTLLimitsNearCacheEntryToNearCacheTTL() throws Exception {
+        final long[] now = {1000L};
+        nearCache = new BoundedCache<String, String>(10, 60, TimeUnit.SECONDS) {
+            @Override
+            long currentTimeMillis() {
+                return now[0];
+            }
+        };
+        cache = new TieredCache(nearCache, typedSharedCache, 60000L);
+        cache.put("key", "value", 120, TimeUnit.SECONDS);
+        now[0] += 60000L;
+        assertNull(nearCache.get("key"));
+        verify(typedSharedCache).put("key", "value", 120, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void putWithShorterTTLKeepsTTLInNearCache() throws Exception {
+        final long[] now = {1000L};
+        nearCache = new BoundedCache<String, String>(10, 60, TimeUnit.SECONDS) {
+            @Override
+            long currentTimeMillis() {
+                return now[0];
+            }
+        };
+        cache = new TieredCache(nearCache, sharedCache, 60000L);
+        cache.put("key", "value", 5, TimeUnit.SECONDS);
+        now[0] += 5000L;
+        assertNull(nearCache.get("key"));
+    }
+
+    @Test
+    public void putWithTTLUsesPutForUntypedSharedCache() throws Exception {
+        cache.put("key", "value", 5, TimeUnit.SECONDS);
+        verify(sharedCache).put("key", "value");
+    }
+
+    @Test
+    public void removeRemovesFromNearCacheAndTypedSharedCache() throws Exception {
+        cache = new TieredCache(nearCache, typedSharedCache, 0);
+        cache.put("key", "value");
+        cache.remove("key");
+        assertNull(nearCache.get("key"));
+        verify(typedSharedCache).remove("key");
+    }
+
+    @Test
+    public void invalidateRemovesFromNearCacheOnly() throws Exception {
+        cache = new TieredCache(nearCache, typedSharedCache, 0);
+        cache.put("key", "value");
+        cache.invalidate("key");
+        assertNull(nearCache.get("key"));
+        verify(typedSharedCache, never()).remove(anyString());
+    }
+
+    @Test
+    public void getAfterInvalidateReadsSharedCache() throws Exception {
+        cache.put("key", "value");
+        cache.invalidate("key");
+        when(sharedCache.get("key")).thenReturn("new value");
+        assertEquals("new value", cache.get("key"));
+    }
+
+    @Test
+    public void invalidateWithValueKeepsNearCacheEntryWithSameValue() throws Exception {
+        cache.put("key", "value");
+        cache.invalidate("key", "value");
+        assertEquals("value", nearCache.get("key"));
+    }
+
+    @Test
+    public void invalidateWithValueRemovesNearCacheEntryWithDifferentValue() throws Exception {
+        cache.put("key", "value");
+        cache.invalidate("key", "other");
+        assertNull(nearCache.get("key"));
+    }
+
+    @Test
+    public void asyncGetReturnsNearCacheValueWithoutReadingSharedCache() throws Exception {
+        nearCache.put("key", "value");
+        @SuppressWarnings("unchecked")
+        CacheCallback<String> callback = mock(CacheCallback.class);
+        Future<String> future = cache.get("key", callback);
+        assertTrue(future.isDone());
+        assertEquals("value", future.get());
+        verify(callback).completed("value");
+        verifyZeroInteractions(sharedCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void asyncGetUsesAsyncSharedCacheAndFillsNearCache() throws Exception {
+        ExecutorAsyncCache asyncSharedCache = mock(ExecutorAsyncCache.class);
+        Future<String> sharedFuture = mock(Future.class);
+        when(asyncSharedCache.get(eq("key"), any(CacheCallback.class))).thenReturn(sharedFuture);
+        cache = new TieredCache(nearCache, asyncSharedCache, 0);
+        assertSame(sharedFuture, cache.get("key", null));
+        ArgumentCaptor<CacheCallback> captor = ArgumentCaptor.forClass(CacheCallback.class);
+        verify(asyncSharedCache).get(eq("key"), captor.capture());
+        captor.getValue().completed("value");
+        assertEquals("value", nearCache.get("key"));
+        verify(asyncSharedCache, never()).get("key");
+    }
+
+    @Test
+    public void asyncGetReadsBlockingSharedCacheOnCallingThread() throws Exception {
+        when(sharedCache.get("key")).thenReturn("value");
+        Future<String> future = cache.get("key", null);
+        assertTrue(future.isDone());
+        assertEquals("value", future.get());
+        assertEquals("value", nearCache.get("key"));
+    }
+
+    @Test
+    public void asyncPutWritesToBothTiers() throws Exception {
+        cache.put("key", "value", null).get();
+        assertEquals("value", nearCache.get("key"));
+        verify(sharedCache).put("key", "value");
+    }
+
+    @Test
+    public void asyncPutUsesAsyncSharedCache() throws Exception {
+        ExecutorAsyncCache asyncSharedCache = mock(ExecutorAsyncCache.class);
+        cache = new TieredCache(nearCache, asyncSharedCache, 0);
+        cache.put("key", "value", null);
+        assertEquals("value", nearCache.get("key"));
+        verify(asyncSharedCache).put("key", "value", null);
+        verify(asyncSharedCache, never()).put("key", "value");
+    }
+
+    @Test
+    public void getSharedCacheReturnsSharedCache() throws Exception {
+        assertSame(sharedCache, cache.getSharedCache());
+    }
+
+    @Test
+    public void getStatsCountsHitsFromEitherTier() throws Exception {
+        when(sharedCache.get("shared")).thenReturn("value");
+        cache.put("near", "value");
+        cache.get("near");
+        cache.get("shared");
+        cache.get("missing");
+        assertEquals(new CacheStats(2, 1, 0), cache.getStats());
+    }
+
+    @Test
+    public void getNearCacheStatsReturnsNearCacheStats() throws Exception {
+        cache.get("key");
+        assertEquals(nearCache.getStats(), cache.getNearCacheStats());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorThrowsIllegalArgumentExceptionForNearCacheSizeLessThanOne() throws Exception {
+        new TieredCache(sharedCache, 0, 60);
+    }
+}
@@ -0,0 +1,378 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AdvancedAuthorizationResponse;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestCanceled;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+import org.apache.http.concurrent.FutureCallback;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class AuthorizationResponsePollerTest {
+    private static final String AUTH_REQUEST_ID = "fe04c50a-b2a2-11e7-9e21-0469f8dc10a5";
+    private static final String OTHER_AUTH_REQUEST_ID = "8b1a1b3c-b2a3-11e7-9e21-0469f8dc10a5";
+
+    @Mock private AsyncServiceClient client;
+    @Mock private Future<AdvancedAuthorizationResponse> pollFuture;
+    @Mock private AdvancedAuthorizationResponse response;
+    @Mock private FutureCallback<AdvancedAuthorizationResponse> callback;
+
+    private List<FutureCallback<AdvancedAuthorizationResponse>> pollCallbacks;
+    private List<Runnable> queuedPolls;
+    private boolean rejectPolls;
+    private Executor pollExecutor;
+    private TimingWheel wheel;
+    private long now;
+    private long pollMillis;
+    private AuthorizationResponsePoller poller;
+
+    @Before
+    public void setUp() throws Exception {
+        pollCallbacks = new ArrayList<>();
+        queuedPolls = new ArrayList<>();
+        rejectPolls = false;
+        pollExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (rejectPolls) {
+                    throw new RejectedExecutionException();
+                }
+                queuedPolls.add(command);
+            }
+        };
+        now = 0L;
+        pollMillis = 0L;
+        when(client.getAdvancedAuthorizationResponse(anyString(), any(FutureCallback.class))).thenAnswer(
+                new Answer<Future<AdvancedAuthorizationResponse>>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Future<AdvancedAuthorizationResponse> answer(InvocationOnMock invocation) {
+                        pollCallbacks.add((FutureCallback<AdvancedAuthorizationResponse>) invocation.getArgument(1));
+                        now += TimeUnit.MILLISECONDS.toNanos(pollMillis);
+                        return pollFuture;
+                    }
+                });
+        wheel = new TimingWheel(100L, 8);
+        poller = getPoller(2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        poller.close();
+    }
+
+    private AuthorizationResponsePoller getPoller(int maxConcurrentPolls) {
+        return new AuthorizationResponsePoller(client, wheel, pollExecutor, 1000L, 2000L, maxConcurrentPolls) {
+            @Override
+            long nanoTime() {
+                return now;
+            }
+        };
+    }
+
+    private void advance(long millis) {
+        for (long i = 0; i < millis / wheel.getTickMillis(); i++) {
+            now += TimeUnit.MILLISECONDS.toNanos(wheel.getTickMillis());
+            wheel.tick();
+            runQueuedPolls();
+        }
+    }
+
+    private void runQueuedPolls() {
+        List<Runnable> polls = new ArrayList<>(queuedPolls);
+        queuedPolls.clear();
+        for (Runnable poll : polls) {
+            poll.run();
+        }
+    }
+
+    private long advanceUntilPoll() {
+        int polls = pollCallbacks.size();
+        long elapsed = 0L;
+        while (pollCallbacks.size() == polls && elapsed < 60000L) {
+            advance(wheel.getTickMillis());
+            elapsed += wheel.getTickMillis();
+        }
+        return elapsed;
+    }
+
+    private FutureCallback<AdvancedAuthorizationResponse> lastPollCallback() {
+        return pollCallbacks.get(pollCallbacks.size() - 1);
+    }
+
+    private Exception getFailure(Future<AdvancedAuthorizationResponse> future) throws Exception {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return (Exception) e.getCause();
+        }
+        fail("Expected the future to fail");
+        return null;
+    }
+
+    @Test
+    public void firstPollIsAfterInitialInterval() throws Exception {
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        advance(900L);
+        verify(client, never()).getAdvancedAuthorizationResponse(anyString(), any(FutureCallback.class));
+        advance(100L);
+        verify(client).getAdvancedAuthorizationResponse(eq(AUTH_REQUEST_ID), any(FutureCallback.class));
+    }
+
+    @Test
+    public void responseCompletesFuture() throws Exception {
+        Future<AdvancedAuthorizationResponse> future = poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        advance(1000L);
+        lastPollCallback().completed(response);
+        assertSame(response, future.get());
+        verify(callback).completed(response);
+        assertEquals(0, poller.getPendingCount());
+    }
+
+    @Test
+    public void noResponsePollsAgainWithGrowingInterval() throws Exception {
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        advance(1000L);
+        lastPollCallback().completed(null);
+        assertEquals(1000L, advanceUntilPoll());
+        lastPollCallback().completed(null);
+        assertEquals(1500L, advanceUntilPoll());
+    }
+
+    @Test
+    public void intervalDoesNotExceedMaximum() throws Exception {
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, 3600, callback);
+        advance(1000L);
+        for (int i = 0; i < 2; i++) {
+            lastPollCallback().completed(null);
+            advanceUntilPoll();
+        }
+        lastPollCallback().completed(null);
+        assertEquals(2000L, advanceUntilPoll());
+        lastPollCallback().completed(null);
+        assertEquals(2000L, advanceUntilPoll());
+    }
+
+    @Test
+    public void slowPollsIncreaseInterval() throws Exception {
+        pollMillis = 1000L;
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, 3600, callback);
+        advance(1000L);
+        lastPollCallback().completed(null);
+        assertEquals(1000L, poller.getAveragePollMillis());
+        assertEquals(4000L, advanceUntilPoll());
+    }
+
+    @Test
+    public void timedOutErrorFromPollFailsFuture() throws Exception {
+        Future<AdvancedAuthorizationResponse> future = poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        advance(1000L);
+        AuthorizationRequestTimedOutError error = new AuthorizationRequestTimedOutError();
+        lastPollCallback().failed(error);
+        assertSame(error, getFailure(future));
+        verify(callback).failed(error);
+    }
+
+    @Test
+    public void ttlPassingFailsFutureWithTimedOutError() throws Exception {
+        Future<AdvancedAuthorizationResponse> future =
+                poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, 3, callback);
+        advance(1000L);
+        lastPollCallback().completed(null);
+        advance(1500L);
+        lastPollCallback().completed(null);
+        advance(600L);
+        assertTrue(getFailure(future) instanceof AuthorizationRequestTimedOutError);
+        assertEquals(2, pollCallbacks.size());
+        assertEquals(0, poller.getPendingCount());
+    }
+
+    @Test
+    public void communicationErrorIsRetried() throws Exception {
+        Future<AdvancedAuthorizationResponse> future = poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        advance(1000L);
+        lastPollCallback().failed(new CommunicationErrorException("Expected", null, null));
+        assertFalse(future.isDone());
+        advance(1000L);
+        assertEquals(2, pollCallbacks.size());
+    }
+
+    @Test
+    public void otherErrorFailsFuture() throws Exception {
+        Future<AdvancedAuthorizationResponse> future = poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        advance(1000L);
+        InvalidResponseException error = new InvalidResponseException("Expected", null, null);
+        lastPollCallback().failed(error);
+        assertSame(error, getFailure(future));
+        advance(5000L);
+        assertEquals(1, pollCallbacks.size());
+    }
+
+    @Test
+    public void invalidAuthorizationRequestIdFailsFuture() throws Exception {
+        when(client.getAdvancedAuthorizationResponse(anyString(), any(FutureCallback.class)))
+                .thenThrow(new IllegalArgumentException());
+        Future<AdvancedAuthorizationResponse> future = poller.awaitAuthorizationResponse("invalid", callback);
+        advance(1000L);
+        assertTrue(getFailure(future) instanceof IllegalArgumentException);
+        assertEquals(0, poller.getPollsInProgress());
+    }
+
+    @Test
+    public void cancelFailsFutureWithCanceledError() throws Exception {
+        Future<AdvancedAuthorizationResponse> future = poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        assertTrue(poller.cancel(AUTH_REQUEST_ID));
+        assertTrue(getFailure(future) instanceof AuthorizationRequestCanceled);
+        advance(2000L);
+        verify(client, never()).getAdvancedAuthorizationResponse(anyString(), any(FutureCallback.class));
+    }
+
+    @Test
+    public void cancelDuringPollCancelsPoll() throws Exception {
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        advance(1000L);
+        poller.cancel(AUTH_REQUEST_ID);
+        verify(pollFuture).cancel(anyBoolean());
+    }
+
+    @Test
+    public void cancelOfUnknownRequestReturnsFalse() throws Exception {
+        assertFalse(poller.cancel(AUTH_REQUEST_ID));
+    }
+
+    @Test
+    public void cancellingFutureStopsPolling() throws Exception {
+        Future<AdvancedAuthorizationResponse> future = poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        future.cancel(true);
+        advance(2000L);
+        verify(client, never()).getAdvancedAuthorizationResponse(anyString(), any(FutureCallback.class));
+        assertEquals(0, poller.getPendingCount());
+    }
+
+    @Test
+    public void pollsAboveMaximumWaitForNextTick() throws Exception {
+        poller = getPoller(1);
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        poller.awaitAuthorizationResponse(OTHER_AUTH_REQUEST_ID, callback);
+        advance(1000L);
+        assertEquals(1, pollCallbacks.size());
+        assertEquals(1, poller.getPollsInProgress());
+        advance(500L);
+        assertEquals(1, pollCallbacks.size());
+        lastPollCallback().completed(null);
+        advance(100L);
+        assertEquals(2, pollCallbacks.size());
+    }
+
+    @Test
+    public void pendingRequestsShareTheTimer() throws Exception {
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        poller.awaitAuthorizationResponse(OTHER_AUTH_REQUEST_ID, callback);
+        assertEquals(2, poller.getPendingCount());
+        advance(1000L);
+        verify(client).getAdvancedAuthorizationResponse(eq(AUTH_REQUEST_ID), any(FutureCallback.class));
+        verify(client).getAdvancedAuthorizationResponse(eq(OTHER_AUTH_REQUEST_ID), any(FutureCallback.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void awaitingSameRequestTwiceThrowsIllegalStateException() throws Exception {
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+    }
+
+    @Test
+    public void closeCancelsPendingFutures() throws Exception {
+        Future<AdvancedAuthorizationResponse> future = poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        poller.close();
+        assertTrue(future.isCancelled());
+        verify(callback).cancelled();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void awaitAfterCloseThrowsIllegalStateException() throws Exception {
+        poller.close();
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxIntervalLessThanInitialIntervalThrowsIllegalArgumentException() throws Exception {
+        new AuthorizationResponsePoller(client, wheel, pollExecutor, 1000L, 500L, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroMaxConcurrentPollsThrowsIllegalArgumentException() throws Exception {
+        new AuthorizationResponsePoller(client, wheel, pollExecutor, 1000L, 2000L, 0);
+    }
+
+    @Test
+    public void pollIsStartedOnPollExecutorRatherThanTimerThread() throws Exception {
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        for (int i = 0; i < 10; i++) {
+            now += TimeUnit.MILLISECONDS.toNanos(wheel.getTickMillis());
+            wheel.tick();
+        }
+        verify(client, never()).getAdvancedAuthorizationResponse(anyString(), any(FutureCallback.class));
+        assertEquals(1, queuedPolls.size());
+        runQueuedPolls();
+        verify(client).getAdvancedAuthorizationResponse(eq(AUTH_REQUEST_ID), any(FutureCallback.class));
+    }
+
+    @Test
+    public void pollRejectedByPollExecutorIsRetriedOnNextTick() throws Exception {
+        poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        rejectPolls = true;
+        advance(1000L);
+        verify(client, never()).getAdvancedAuthorizationResponse(anyString(), any(FutureCallback.class));
+        assertEquals(0, poller.getPollsInProgress());
+        rejectPolls = false;
+        advance(100L);
+        verify(client).getAdvancedAuthorizationResponse(eq(AUTH_REQUEST_ID), any(FutureCallback.class));
+    }
+
+    @Test
+    public void pollQueuedOnPollExecutorIsNotSentAfterCancel() throws Exception {
+        Future<AdvancedAuthorizationResponse> future = poller.awaitAuthorizationResponse(AUTH_REQUEST_ID, callback);
+        for (int i = 0; i < 10; i++) {
+            now += TimeUnit.MILLISECONDS.toNanos(wheel.getTickMillis());
+            wheel.tick();
+        }
+        future.cancel(true);
+        runQueuedPolls();
+        verify(client, never()).getAdvancedAuthorizationResponse(anyString(), any(FutureCallback.class));
+        assertEquals(0, poller.getPollsInProgress());
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.directory.Device;
+import com.iovation.launchkey.sdk.domain.directory.DeviceStatus;
+import com.iovation.launchkey.sdk.domain.directory.DirectoryUserDeviceLinkData;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.FutureCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class BasicAsyncDirectoryClientTest {
+    private static final UUID DIRECTORY_ID = UUID.fromString("f6ad3fc7-ae11-11e7-9a1c-0469f8dc10a5");
+    private static final UUID DEVICE_ID = UUID.fromString("f5de8190-8256-11e9-bc42-526af7764f64");
+
+    @Mock private AsyncTransport transport;
+    @Captor private ArgumentCaptor<DirectoryV3DevicesPostRequest> linkRequestCaptor;
+    @Captor private ArgumentCaptor<EntityIdentifier> entityCaptor;
+    @Captor private ArgumentCaptor<FutureCallback<DirectoryV3DevicesPostResponse>> linkCallbackCaptor;
+    @Captor private ArgumentCaptor<FutureCallback<DirectoryV3DevicesListPostResponse>> listCallbackCaptor;
+
+    private BasicAsyncDirectoryClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        client = new BasicAsyncDirectoryClient(DIRECTORY_ID, transport);
+    }
+
+    @Test
+    public void linkDeviceSendsUserAndTtlWithDirectoryEntity() throws Exception {
+        client.linkDevice("Expected Username", 360, null);
+        verify(transport).directoryV3DevicesPost(linkRequestCaptor.capture(), entityCaptor.capture(),
+                any(FutureCallback.class));
+        assertEquals("Expected Username", linkRequestCaptor.getValue().getIdentifier());
+        assertEquals(Integer.valueOf(360), linkRequestCaptor.getValue().getTTL());
+        assertEquals(new EntityIdentifier(EntityIdentifier.EntityType.DIRECTORY, DIRECTORY_ID),
+                entityCaptor.getValue());
+    }
+
+    @Test
+    public void linkDeviceCompletesWithLinkData() throws Exception {
+        Future<DirectoryUserDeviceLinkData> future = client.linkDevice("user", null);
+        verify(transport).directoryV3DevicesPost(any(DirectoryV3DevicesPostRequest.class),
+                any(EntityIdentifier.class), linkCallbackCaptor.capture());
+        linkCallbackCaptor.getValue().completed(new DirectoryV3DevicesPostResponse("code", "qr code", DEVICE_ID));
+        DirectoryUserDeviceLinkData actual = future.get();
+        assertEquals("code", actual.getCode());
+        assertEquals("qr code", actual.getQrCodeUrl());
+        assertEquals(DEVICE_ID, actual.getDeviceId());
+    }
+
+    @Test
+    public void getLinkedDevicesCompletesWithDevices() throws Exception {
+        Date created = new Date();
+        Future<List<Device>> future = client.getLinkedDevices("user", null);
+        verify(transport).directoryV3DevicesListPost(any(DirectoryV3DevicesListPostRequest.class),
+                any(EntityIdentifier.class), listCallbackCaptor.capture());
+        listCallbackCaptor.getValue().completed(new DirectoryV3DevicesListPostResponse(Collections.singletonList(
+                new DirectoryV3DevicesListPostResponseDevice(DEVICE_ID, "name", "type", 1, created, created))));
+        Device device = future.get().get(0);
+        assertEquals(DEVICE_ID.toString(), device.getId());
+        assertEquals(DeviceStatus.LINKED, device.getStatus());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unlinkDeviceWithInvalidDeviceIdThrowsIllegalArgument() throws Exception {
+        client.unlinkDevice("user", "Not a UUID", null);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.organization.Directory;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.FutureCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class BasicAsyncOrganizationClientTest {
+    private static final UUID ORGANIZATION_ID = UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671");
+    private static final UUID DIRECTORY_ID = UUID.fromString("f6ad3fc7-ae11-11e7-9a1c-0469f8dc10a5");
+
+    @Mock private AsyncTransport transport;
+    @Captor private ArgumentCaptor<OrganizationV3DirectoriesPostRequest> createRequestCaptor;
+    @Captor private ArgumentCaptor<EntityIdentifier> entityCaptor;
+    @Captor private ArgumentCaptor<FutureCallback<OrganizationV3DirectoriesPostResponse>> createCallbackCaptor;
+    @Captor private ArgumentCaptor<FutureCallback<OrganizationV3DirectoriesGetResponse>> getAllCallbackCaptor;
+
+    private BasicAsyncOrganizationClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        client = new BasicAsyncOrganizationClient(ORGANIZATION_ID, transport);
+    }
+
+    @Test
+    public void createDirectorySendsNameWithOrganizationEntity() throws Exception {
+        client.createDirectory("Expected Name", null);
+        verify(transport).organizationV3DirectoriesPost(createRequestCaptor.capture(), entityCaptor.capture(),
+                any(FutureCallback.class));
+        assertEquals("Expected Name", createRequestCaptor.getValue().getName());
+        assertEquals(new EntityIdentifier(EntityIdentifier.EntityType.ORGANIZATION, ORGANIZATION_ID),
+                entityCaptor.getValue());
+    }
+
+    @Test
+    public void createDirectoryCompletesWithDirectoryId() throws Exception {
+        Future<UUID> future = client.createDirectory("name", null);
+        verify(transport).organizationV3DirectoriesPost(any(OrganizationV3DirectoriesPostRequest.class),
+                any(EntityIdentifier.class), createCallbackCaptor.capture());
+        createCallbackCaptor.getValue().completed(new OrganizationV3DirectoriesPostResponse(DIRECTORY_ID));
+        assertEquals(DIRECTORY_ID, future.get());
+    }
+
+    @Test
+    public void getAllDirectoriesCompletesWithDirectories() throws Exception {
+        Future<List<Directory>> future = client.getAllDirectories(null);
+        verify(transport).organizationV3DirectoriesGet(any(EntityIdentifier.class), getAllCallbackCaptor.capture());
+        getAllCallbackCaptor.getValue().completed(new OrganizationV3DirectoriesGetResponse(Collections.singletonList(
+                new OrganizationV3DirectoriesGetResponseDirectory(DIRECTORY_ID, "name", true,
+                        Collections.<UUID>emptyList(), Collections.<UUID>emptyList(), null, null, false, null))));
+        Directory directory = future.get().get(0);
+        assertEquals(DIRECTORY_ID, directory.getId());
+        assertEquals("name", directory.getName());
+    }
+}
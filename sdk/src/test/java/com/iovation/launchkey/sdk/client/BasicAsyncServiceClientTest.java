@@ -0,0 +1,149 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AdvancedAuthorizationResponse;
+import com.iovation.launchkey.sdk.domain.service.AuthorizationRequest;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.FutureCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class BasicAsyncServiceClientTest {
+    private static final UUID SERVICE_ID = UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671");
+    private static final UUID AUTH_REQUEST_ID = UUID.fromString("fe04c50a-b2a2-11e7-9e21-0469f8dc10a5");
+
+    @Mock private AsyncTransport transport;
+    @Mock private Future<ServiceV3AuthsPostResponse> authsPostFuture;
+    @Mock private Future<ServiceV3AuthsGetResponse> authsGetFuture;
+    @Mock private FutureCallback<AuthorizationRequest> callback;
+    @Captor private ArgumentCaptor<ServiceV3AuthsPostRequest> requestCaptor;
+    @Captor private ArgumentCaptor<EntityIdentifier> entityCaptor;
+    @Captor private ArgumentCaptor<FutureCallback<ServiceV3AuthsPostResponse>> authsPostCallbackCaptor;
+    @Captor private ArgumentCaptor<FutureCallback<ServiceV3AuthsGetResponse>> authsGetCallbackCaptor;
+
+    private BasicAsyncServiceClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        client = new BasicAsyncServiceClient(SERVICE_ID, transport);
+        when(transport.serviceV3AuthsPost(any(ServiceV3AuthsPostRequest.class), any(EntityIdentifier.class),
+                authsPostCallbackCaptor.capture())).thenReturn(authsPostFuture);
+        when(transport.serviceV3AuthsGet(any(UUID.class), any(EntityIdentifier.class),
+                authsGetCallbackCaptor.capture())).thenReturn(authsGetFuture);
+    }
+
+    @Test
+    public void createAuthorizationRequestSendsRequestData() throws Exception {
+        client.createAuthorizationRequest("user", "context", null, "title", 33, null);
+        verify(transport).serviceV3AuthsPost(requestCaptor.capture(), any(EntityIdentifier.class),
+                any(FutureCallback.class));
+        assertEquals("user", requestCaptor.getValue().getUsername());
+        assertEquals("context", requestCaptor.getValue().getContext());
+        assertEquals("title", requestCaptor.getValue().getTitle());
+        assertEquals(Integer.valueOf(33), requestCaptor.getValue().getTTL());
+    }
+
+    @Test
+    public void createAuthorizationRequestSendsServiceEntity() throws Exception {
+        client.createAuthorizationRequest("user", null);
+        verify(transport).serviceV3AuthsPost(any(ServiceV3AuthsPostRequest.class), entityCaptor.capture(),
+                any(FutureCallback.class));
+        assertEquals(new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, SERVICE_ID), entityCaptor.getValue());
+    }
+
+    @Test
+    public void createAuthorizationRequestCompletesWithAuthorizationRequest() throws Exception {
+        Future<AuthorizationRequest> future = client.createAuthorizationRequest("user", callback);
+        authsPostCallbackCaptor.getValue().completed(new ServiceV3AuthsPostResponse(AUTH_REQUEST_ID, "push package"));
+        AuthorizationRequest actual = future.get();
+        assertEquals(AUTH_REQUEST_ID.toString(), actual.getId());
+        assertEquals("push package", actual.getPushPackage());
+        verify(callback).completed(actual);
+    }
+
+    @Test
+    public void createAuthorizationRequestFailsWithTransportException() throws Exception {
+        Future<AuthorizationRequest> future = client.createAuthorizationRequest("user", callback);
+        CommunicationErrorException expected = new CommunicationErrorException("Expected", null, null);
+        authsPostCallbackCaptor.getValue().failed(expected);
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(expected, e.getCause());
+        }
+        verify(callback).failed(expected);
+    }
+
+    @Test
+    public void cancelCancelsTransportCall() throws Exception {
+        Future<AuthorizationRequest> future = client.createAuthorizationRequest("user", null);
+        future.cancel(true);
+        verify(authsPostFuture).cancel(true);
+    }
+
+    @Test
+    public void cancelledTransportCallCancelsFuture() throws Exception {
+        Future<AuthorizationRequest> future = client.createAuthorizationRequest("user", callback);
+        authsPostCallbackCaptor.getValue().cancelled();
+        assertTrue(future.isCancelled());
+        verify(callback).cancelled();
+    }
+
+    @Test
+    public void getAdvancedAuthorizationResponseSendsAuthRequestId() throws Exception {
+        client.getAdvancedAuthorizationResponse(AUTH_REQUEST_ID.toString(), null);
+        verify(transport).serviceV3AuthsGet(eq(AUTH_REQUEST_ID), any(EntityIdentifier.class),
+                any(FutureCallback.class));
+    }
+
+    @Test
+    public void getAdvancedAuthorizationResponseCompletesWithNullWhenNoResponse() throws Exception {
+        Future<AdvancedAuthorizationResponse> future =
+                client.getAdvancedAuthorizationResponse(AUTH_REQUEST_ID.toString(), null);
+        authsGetCallbackCaptor.getValue().completed(null);
+        assertNull(future.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getAdvancedAuthorizationResponseWithInvalidIdThrowsIllegalArgument() throws Exception {
+        client.getAdvancedAuthorizationResponse("Not a UUID", null);
+    }
+
+    @Test
+    public void sessionEndSendsUser() throws Exception {
+        ArgumentCaptor<ServiceV3SessionsDeleteRequest> captor =
+                ArgumentCaptor.forClass(ServiceV3SessionsDeleteRequest.class);
+        FutureCallback<Void> callback = mock(FutureCallback.class);
+        client.sessionEnd("user", callback);
+        verify(transport).serviceV3SessionsDelete(captor.capture(), any(EntityIdentifier.class), eq(callback));
+        assertEquals("user", captor.getValue().getEndUserIdentifier());
+    }
+}
@@ -1,5 +1,6 @@
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
 import org.junit.After;
 import org.junit.Before;
@@ -19,7 +20,7 @@ public class DirectoryFactoryTest {
     public void setUp() throws Exception {
         UUID uuid = UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671");
         Transport transport = mock(Transport.class);
-        directoryFactory = new DirectoryFactory(transport, uuid);
+        directoryFactory = new DirectoryFactory(transport, mock(AsyncTransport.class), uuid);
     }
 
     @After
@@ -51,4 +52,24 @@ public class DirectoryFactoryTest {
                 directoryFactory.makeServiceClient("49af9c38-31b3-11e7-93ae-92361f002671"),
                 instanceOf(ServiceClient.class));
     }
+
+    @Test
+    public void testMakeAsyncDirectoryClientReturnsClient() throws Exception {
+        assertThat(
+                directoryFactory.makeAsyncDirectoryClient(),
+                instanceOf(AsyncDirectoryClient.class)
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMakeAsyncServiceClientWithNullThrowsIllegalArgument() throws Exception {
+        directoryFactory.makeAsyncServiceClient(null);
+    }
+
+    @Test
+    public void testMakeAsyncServiceClientWithValidUUIDReturnsClient() throws Exception {
+        assertThat(
+                directoryFactory.makeAsyncServiceClient("49af9c38-31b3-11e7-93ae-92361f002671"),
+                instanceOf(AsyncServiceClient.class));
+    }
 }
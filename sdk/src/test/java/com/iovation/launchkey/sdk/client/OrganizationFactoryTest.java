@@ -1,5 +1,6 @@
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
 import org.junit.After;
 import org.junit.Before;
@@ -19,7 +20,7 @@ public class OrganizationFactoryTest {
     public void setUp() throws Exception {
         UUID uuid = UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671");
         Transport transport = mock(Transport.class);
-        organizationFactory = new OrganizationFactory(transport, uuid);
+        organizationFactory = new OrganizationFactory(transport, mock(AsyncTransport.class), uuid);
     }
 
     @After
@@ -65,4 +66,33 @@ public class OrganizationFactoryTest {
         assertThat(organizationFactory.makeServiceClient("49af9c38-31b3-11e7-93ae-92361f002671"),
                 instanceOf(ServiceClient.class));
     }
+
+    @Test
+    public void testMakeAsyncOrganizationClientReturnsClient() throws Exception {
+        assertThat(organizationFactory.makeAsyncOrganizationClient(), instanceOf(AsyncOrganizationClient.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMakeAsyncDirectoryClientWithNullThrowsIllegalArgument() throws Exception {
+        organizationFactory.makeAsyncDirectoryClient(null);
+    }
+
+    @Test
+    public void testMakeAsyncDirectoryClientWithValidUUIDReturnsClient() throws Exception {
+        assertThat(
+                organizationFactory.makeAsyncDirectoryClient("49af9c38-31b3-11e7-93ae-92361f002671"),
+                instanceOf(AsyncDirectoryClient.class)
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMakeAsyncServiceClientWithNullThrowsIllegalArgument() throws Exception {
+        organizationFactory.makeAsyncServiceClient(null);
+    }
+
+    @Test
+    public void testMakeAsyncServiceClientWithValidUUIDReturnsClient() throws Exception {
+        assertThat(organizationFactory.makeAsyncServiceClient("49af9c38-31b3-11e7-93ae-92361f002671"),
+                instanceOf(AsyncServiceClient.class));
+    }
 }
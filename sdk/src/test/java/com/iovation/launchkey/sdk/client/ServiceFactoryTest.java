@@ -1,5 +1,6 @@
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
 import org.junit.After;
 import org.junit.Before;
@@ -32,4 +33,16 @@ public class ServiceFactoryTest {
     public void testMakeServiceClientReturnsServiceClient() throws Exception {
         assertThat(serviceFactory.makeServiceClient(), instanceOf(ServiceClient.class));
     }
+
+    @Test
+    public void testMakeAsyncServiceClientReturnsAsyncServiceClient() throws Exception {
+        serviceFactory = new ServiceFactory(transport, mock(AsyncTransport.class),
+                UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        assertThat(serviceFactory.makeAsyncServiceClient(), instanceOf(AsyncServiceClient.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMakeAsyncServiceClientWithoutAsyncTransportThrowsIllegalState() throws Exception {
+        serviceFactory.makeAsyncServiceClient();
+    }
 }
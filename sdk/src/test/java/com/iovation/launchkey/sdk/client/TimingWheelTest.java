@@ -0,0 +1,162 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.client;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TimingWheelTest {
+    private TimingWheel wheel;
+    private Runnable task;
+
+    @Before
+    public void setUp() throws Exception {
+        wheel = new TimingWheel(100L, 4);
+        task = mock(Runnable.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        wheel.close();
+    }
+
+    private void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.tick();
+        }
+    }
+
+    @Test
+    public void taskDoesNotRunBeforeDelay() throws Exception {
+        wheel.schedule(task, 300L);
+        tick(2);
+        verify(task, never()).run();
+    }
+
+    @Test
+    public void taskRunsOnceAfterDelay() throws Exception {
+        wheel.schedule(task, 300L);
+        tick(10);
+        verify(task, times(1)).run();
+    }
+
+    @Test
+    public void delayIsRoundedUpToWholeTicks() throws Exception {
+        wheel.schedule(task, 150L);
+        tick(1);
+        verify(task, never()).run();
+        tick(1);
+        verify(task).run();
+    }
+
+    @Test
+    public void zeroDelayRunsOnNextTick() throws Exception {
+        wheel.schedule(task, 0L);
+        tick(1);
+        verify(task).run();
+    }
+
+    @Test
+    public void delayLongerThanWheelRunsAfterDelay() throws Exception {
+        wheel.schedule(task, 1000L);
+        tick(9);
+        verify(task, never()).run();
+        tick(1);
+        verify(task).run();
+    }
+
+    @Test
+    public void cancelledTaskDoesNotRun() throws Exception {
+        wheel.schedule(task, 100L).cancel();
+        tick(2);
+        verify(task, never()).run();
+    }
+
+    @Test
+    public void cancelledTaskAlreadyInBucketDoesNotRun() throws Exception {
+        TimingWheel.Timeout timeout = wheel.schedule(task, 300L);
+        tick(1);
+        timeout.cancel();
+        tick(3);
+        verify(task, never()).run();
+    }
+
+    @Test
+    public void failingTaskDoesNotPreventOtherTasks() throws Exception {
+        Runnable failing = mock(Runnable.class);
+        doThrow(new RuntimeException()).when(failing).run();
+        wheel.schedule(failing, 100L);
+        wheel.schedule(task, 100L);
+        tick(1);
+        verify(task).run();
+    }
+
+    @Test
+    public void taskScheduledByTaskRunsOnLaterTick() throws Exception {
+        wheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                wheel.schedule(task, 0L);
+            }
+        }, 100L);
+        tick(1);
+        verify(task, never()).run();
+        tick(1);
+        verify(task).run();
+    }
+
+    @Test
+    public void startedWheelRunsTasks() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        wheel.start();
+        wheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 100L);
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void getTickMillisReturnsTickMillis() throws Exception {
+        assertEquals(100L, wheel.getTickMillis());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void scheduleAfterCloseThrowsIllegalStateException() throws Exception {
+        wheel.close();
+        wheel.schedule(task, 100L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroTickMillisThrowsIllegalArgumentException() throws Exception {
+        new TimingWheel(0L, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroWheelSizeThrowsIllegalArgumentException() throws Exception {
+        new TimingWheel(100L, 0);
+    }
+}
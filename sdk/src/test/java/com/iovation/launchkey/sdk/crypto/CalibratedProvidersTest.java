@@ -0,0 +1,106 @@
+package com.iovation.launchkey.sdk.crypto;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.security.Provider;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CalibratedProvidersTest {
+    @Mock
+    private Provider fallbackProvider;
+
+    @Mock
+    private Provider calibratedProvider;
+
+    @Mock
+    private ProviderCalibration calibration;
+
+    @Mock
+    private Future<ProviderCalibration> future;
+
+    @Before
+    public void setUp() throws Exception {
+        when(calibration.getProvider(ProviderCalibration.Operation.RS256_SIGN)).thenReturn(calibratedProvider);
+        when(future.get()).thenReturn(calibration);
+    }
+
+    @Test
+    public void getProviderReturnsCalibratedProvider() throws Exception {
+        assertSame(calibratedProvider, new CalibratedProviders(fallbackProvider, calibration)
+                .getProvider(ProviderCalibration.Operation.RS256_SIGN));
+    }
+
+    @Test
+    public void getProviderReturnsFallbackWhenCalibrationHasNoProviderForOperation() throws Exception {
+        assertSame(fallbackProvider, new CalibratedProviders(fallbackProvider, calibration)
+                .getProvider(ProviderCalibration.Operation.AES));
+    }
+
+    @Test
+    public void getProviderReturnsFallbackWhenCalibrationIsNull() throws Exception {
+        assertSame(fallbackProvider, new CalibratedProviders(fallbackProvider, (ProviderCalibration) null)
+                .getProvider(ProviderCalibration.Operation.RS256_SIGN));
+    }
+
+    @Test
+    public void getProviderReturnsFallbackWithoutWaitingWhileCalibrationIsPending() throws Exception {
+        when(future.isDone()).thenReturn(false);
+        assertSame(fallbackProvider, new CalibratedProviders(fallbackProvider, future)
+                .getProvider(ProviderCalibration.Operation.RS256_SIGN));
+        verify(future, never()).get();
+    }
+
+    @Test
+    public void getProviderReturnsCalibratedProviderOnceCalibrationCompletes() throws Exception {
+        when(future.isDone()).thenReturn(false);
+        CalibratedProviders providers = new CalibratedProviders(fallbackProvider, future);
+        providers.getProvider(ProviderCalibration.Operation.RS256_SIGN);
+        when(future.isDone()).thenReturn(true);
+        assertSame(calibratedProvider, providers.getProvider(ProviderCalibration.Operation.RS256_SIGN));
+    }
+
+    @Test
+    public void getProviderReturnsFallbackWhenCalibrationFails() throws Exception {
+        when(future.isDone()).thenReturn(true);
+        when(future.get()).thenThrow(new ExecutionException(new IllegalArgumentException()));
+        CalibratedProviders providers = new CalibratedProviders(fallbackProvider, future);
+        assertSame(fallbackProvider, providers.getProvider(ProviderCalibration.Operation.RS256_SIGN));
+        assertNull(providers.getCalibration());
+    }
+
+    @Test
+    public void getCalibrationReturnsCompletedCalibration() throws Exception {
+        when(future.isDone()).thenReturn(true);
+        assertSame(calibration, new CalibratedProviders(fallbackProvider, future).getCalibration());
+    }
+
+    @Test
+    public void getProviderReturnsNullWhenFallbackIsNullAndNotCalibrated() throws Exception {
+        assertNull(new CalibratedProviders(null, mock(ProviderCalibration.class))
+                .getProvider(ProviderCalibration.Operation.SHA256));
+    }
+}
@@ -0,0 +1,222 @@
+package com.iovation.launchkey.sdk.crypto;
+
+import com.iovation.launchkey.sdk.error.CryptographyOverloaded;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class CryptoExecutorTest {
+    private static final Callable<String> THREAD_NAME = new Callable<String>() {
+        @Override
+        public String call() {
+            return Thread.currentThread().getName();
+        }
+    };
+
+    private CryptoExecutor executor;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() throws Exception {
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void executeReturnsResult() throws Exception {
+        executor = new CryptoExecutor();
+        assertEquals("Result", executor.execute(new Callable<String>() {
+            @Override
+            public String call() {
+                return "Result";
+            }
+        }));
+    }
+
+    @Test
+    public void executePerformsTaskOnPoolThread() throws Exception {
+        executor = new CryptoExecutor();
+        assertTrue(executor.execute(THREAD_NAME).startsWith("launchkey-crypto-"));
+    }
+
+    @Test
+    public void executeThrowsExecutionExceptionWithTaskException() throws Exception {
+        executor = new CryptoExecutor();
+        final IOException expected = new IOException();
+        try {
+            executor.execute(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    throw expected;
+                }
+            });
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(expected, e.getCause());
+        }
+    }
+
+    @Test
+    public void executeFromPoolThreadPerformsTaskOnThatThread() throws Exception {
+        executor = new CryptoExecutor(1, 1, CryptoExecutor.OverloadPolicy.REJECT);
+        String[] names = executor.execute(new Callable<String[]>() {
+            @Override
+            public String[] call() throws Exception {
+                return new String[]{Thread.currentThread().getName(), executor.execute(THREAD_NAME)};
+            }
+        });
+        assertEquals(names[0], names[1]);
+    }
+
+    @Test(expected = CryptographyOverloaded.class)
+    public void executeWhenSaturatedWithRejectPolicyThrowsCryptographyOverloaded() throws Exception {
+        executor = new CryptoExecutor(1, 1, CryptoExecutor.OverloadPolicy.REJECT);
+        saturate();
+        executor.execute(THREAD_NAME);
+    }
+
+    @Test
+    public void executeWhenSaturatedWithRejectPolicyCountsRejection() throws Exception {
+        executor = new CryptoExecutor(1, 1, CryptoExecutor.OverloadPolicy.REJECT);
+        saturate();
+        try {
+            executor.execute(THREAD_NAME);
+        } catch (CryptographyOverloaded e) {
+            // Expected
+        }
+        assertEquals(1L, executor.getRejectedCount());
+    }
+
+    @Test
+    public void executeWhenSaturatedWithCallerRunsPolicyPerformsTaskOnCallingThread() throws Exception {
+        executor = new CryptoExecutor(1, 1, CryptoExecutor.OverloadPolicy.CALLER_RUNS);
+        saturate();
+        assertEquals(Thread.currentThread().getName(), executor.execute(THREAD_NAME));
+        assertEquals(1L, executor.getCallerRunsCount());
+    }
+
+    @Test(expected = CryptographyOverloaded.class)
+    public void executeAfterShutdownThrowsCryptographyOverloaded() throws Exception {
+        executor = new CryptoExecutor(1, 1, CryptoExecutor.OverloadPolicy.CALLER_RUNS);
+        executor.shutdown();
+        executor.execute(THREAD_NAME);
+    }
+
+    @Test
+    public void getCompletedCountReturnsCompletedTasks() throws Exception {
+        executor = new CryptoExecutor(1, 1, CryptoExecutor.OverloadPolicy.REJECT);
+        executor.execute(THREAD_NAME);
+        executor.execute(THREAD_NAME);
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (executor.getCompletedCount() < 2L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+        assertEquals(2L, executor.getCompletedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithZeroThreadsThrowsIllegalArgumentException() throws Exception {
+        new CryptoExecutor(0, 1, CryptoExecutor.OverloadPolicy.REJECT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithZeroQueueCapacityThrowsIllegalArgumentException() throws Exception {
+        new CryptoExecutor(1, 0, CryptoExecutor.OverloadPolicy.REJECT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullOverloadPolicyThrowsIllegalArgumentException() throws Exception {
+        new CryptoExecutor(1, 1, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithZeroTimeoutThrowsIllegalArgumentException() throws Exception {
+        new CryptoExecutor(1, 1, CryptoExecutor.OverloadPolicy.REJECT, 0L);
+    }
+
+    @Test
+    public void executeThrowsCryptographyOverloadedAndCancelsTaskWhenTimeoutElapses() throws Exception {
+        executor = new CryptoExecutor(1, 1, CryptoExecutor.OverloadPolicy.REJECT, 50L);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        try {
+            executor.execute(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                }
+            });
+            fail("Expected CryptographyOverloaded");
+        } catch (CryptographyOverloaded e) {
+            // Expected
+        }
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        assertEquals(1L, executor.getTimedOutCount());
+    }
+
+    /**
+     * Occupy the single thread and the single queue slot with tasks that wait for the release latch
+     */
+    private void saturate() throws Exception {
+        final Callable<Object> blocking = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                release.await(10, TimeUnit.SECONDS);
+                return null;
+            }
+        };
+        for (int i = 0; i < 2; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        executor.execute(blocking);
+                    } catch (Exception e) {
+                        // Released when the test ends
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long deadline = System.currentTimeMillis() + 5000L;
+        while ((executor.getActiveCount() < 1 || executor.getRemainingQueueCapacity() > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+        assertEquals(0, executor.getRemainingQueueCapacity());
+    }
+}
@@ -0,0 +1,138 @@
+package com.iovation.launchkey.sdk.crypto;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.security.Security;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ProviderCalibrationTest {
+    private static KeyPair keyPair;
+    private static Provider[] providers;
+    private static ProviderCalibration calibration;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        providers = new Provider[]{
+                Security.getProvider("SUN"), Security.getProvider("SunRsaSign"), Security.getProvider("SunJCE"),
+                new BouncyCastleProvider()};
+        calibration = ProviderCalibration.calibrate(providers, 2, keyPair);
+    }
+
+    @Test
+    public void calibrateSelectsProviderForEveryOperation() throws Exception {
+        for (ProviderCalibration.Operation operation : ProviderCalibration.Operation.values()) {
+            assertNotNull(operation.name(), calibration.getProvider(operation));
+        }
+    }
+
+    @Test
+    public void calibrateSelectsFastestProvider() throws Exception {
+        for (ProviderCalibration.Operation operation : ProviderCalibration.Operation.values()) {
+            Map<String, Long> timings = calibration.getTimings().get(operation);
+            long selected = timings.get(calibration.getProvider(operation).getName());
+            for (long time : timings.values()) {
+                assertTrue(operation.name(), selected <= time);
+            }
+        }
+    }
+
+    @Test
+    public void calibrateTimesEveryProviderSupportingAnOperation() throws Exception {
+        assertTrue(calibration.getTimings().get(ProviderCalibration.Operation.SHA256).containsKey("SUN"));
+        assertTrue(calibration.getTimings().get(ProviderCalibration.Operation.SHA256).containsKey("BC"));
+        assertTrue(calibration.getTimings().get(ProviderCalibration.Operation.RSA_OAEP_DECRYPT).containsKey("BC"));
+        assertTrue(calibration.getTimings().get(ProviderCalibration.Operation.RSA_OAEP_DECRYPT)
+                .containsKey("SunJCE"));
+    }
+
+    @Test
+    public void calibrateDoesNotTimeProvidersWhichDoNotSupportAnOperation() throws Exception {
+        assertFalse(calibration.getTimings().get(ProviderCalibration.Operation.RSA_OAEP_DECRYPT).containsKey("SUN"));
+        assertFalse(calibration.getTimings().get(ProviderCalibration.Operation.AES).containsKey("SunRsaSign"));
+    }
+
+    @Test
+    public void getProviderReturnsNullWhenNoProviderSupportsTheOperation() throws Exception {
+        ProviderCalibration sunOnly =
+                ProviderCalibration.calibrate(new Provider[]{Security.getProvider("SUN")}, 1, keyPair);
+        assertNull(sunOnly.getProvider(ProviderCalibration.Operation.RSA_OAEP_DECRYPT));
+        assertNull(sunOnly.getProvider(ProviderCalibration.Operation.AES));
+        assertSame(Security.getProvider("SUN"), sunOnly.getProvider(ProviderCalibration.Operation.SHA256));
+    }
+
+    @Test
+    public void getProvidersReturnsSelectedProviders() throws Exception {
+        assertEquals(ProviderCalibration.Operation.values().length, calibration.getProviders().size());
+        assertSame(calibration.getProvider(ProviderCalibration.Operation.AES),
+                calibration.getProviders().get(ProviderCalibration.Operation.AES));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getProvidersIsUnmodifiable() throws Exception {
+        calibration.getProviders().clear();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getTimingsIsUnmodifiable() throws Exception {
+        calibration.getTimings().get(ProviderCalibration.Operation.SHA256).clear();
+    }
+
+    @Test
+    public void calibrateInBackgroundCompletesWithACalibration() throws Exception {
+        assertNotNull(ProviderCalibration.calibrateInBackground().get(60, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void calibrateWithNoProvidersSelectsNothing() throws Exception {
+        assertTrue(ProviderCalibration.calibrate(new Provider[0], 1, keyPair).getProviders().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void calibrateWithZeroIterationsThrowsIllegalArgumentException() throws Exception {
+        ProviderCalibration.calibrate(providers, 0);
+    }
+
+    @Test
+    public void jceCryptoUsesCalibratedProviders() throws Exception {
+        JCECrypto crypto = new JCECrypto(Security.getProvider("SUN"), calibration);
+        byte[] expected = "expected".getBytes();
+        assertEquals(new String(expected),
+                new String(crypto.decryptRSA(crypto.encryptRSA(expected, keyPair.getPublic()), keyPair.getPrivate())));
+        assertEquals(32, crypto.sha256(expected).length);
+    }
+
+    @Test
+    public void jceCryptoWithNullCalibrationUsesProvider() throws Exception {
+        JCECrypto crypto = new JCECrypto(new BouncyCastleProvider(), (ProviderCalibration) null);
+        byte[] expected = "expected".getBytes();
+        assertEquals(new String(expected),
+                new String(crypto.decryptRSA(crypto.encryptRSA(expected, keyPair.getPublic()), keyPair.getPrivate())));
+    }
+}
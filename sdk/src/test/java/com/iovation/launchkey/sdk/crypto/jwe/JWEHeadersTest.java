@@ -0,0 +1,75 @@
+package com.iovation.launchkey.sdk.crypto.jwe;
+
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright 2017 iovation, Inc. All rights reserved.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class JWEHeadersTest {
+
+    @Test
+    public void parseReturnsHeadersInOrder() throws Exception {
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("kid", "Key ID");
+        expected.put("cty", "application/json");
+        expected.put("alg", "RSA-OAEP-256");
+        expected.put("enc", "A256CBC-HS512");
+        assertEquals(expected, JWEHeaders.parse(encode(
+                "{\"kid\":\"Key ID\",\"cty\":\"application/json\",\"alg\":\"RSA-OAEP-256\",\"enc\":\"A256CBC-HS512\"}")
+                + ".key.iv.cipher.tag"));
+    }
+
+    @Test
+    public void parseDoesNotReadSegmentsAfterHeader() throws Exception {
+        assertEquals("Key ID", JWEHeaders.parse(encode("{\"kid\":\"Key ID\"}") + ".not base64!.{").get("kid"));
+    }
+
+    @Test
+    public void parseReturnsNonStringValuesAsJsonText() throws Exception {
+        Map<String, String> actual = JWEHeaders.parse(
+                encode("{\"epk\":{\"kty\":\"EC\"},\"crit\":[\"exp\"],\"exp\":123,\"b64\":false}") + ".");
+        assertEquals("{\"kty\":\"EC\"}", actual.get("epk"));
+        assertEquals("[\"exp\"]", actual.get("crit"));
+        assertEquals("123", actual.get("exp"));
+        assertEquals("false", actual.get("b64"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseThrowsIllegalArgumentExceptionWhenNoSegmentSeparator() throws Exception {
+        JWEHeaders.parse(encode("{\"kid\":\"Key ID\"}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseThrowsIllegalArgumentExceptionWhenHeaderIsEmpty() throws Exception {
+        JWEHeaders.parse(".key.iv.cipher.tag");
+    }
+
+    @Test(expected = IOException.class)
+    public void parseThrowsIOExceptionWhenHeaderIsNotJsonObject() throws Exception {
+        JWEHeaders.parse(encode("[\"kid\"]") + ".");
+    }
+
+    @Test(expected = IOException.class)
+    public void parseThrowsIOExceptionWhenHeaderIsNotJson() throws Exception {
+        JWEHeaders.parse(encode("kid") + ".");
+    }
+
+    private static String encode(String json) throws Exception {
+        return Base64.encodeBase64URLSafeString(json.getBytes("UTF-8"));
+    }
+}
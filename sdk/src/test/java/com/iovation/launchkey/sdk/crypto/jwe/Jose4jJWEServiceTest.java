@@ -10,11 +10,13 @@ import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.Provider;
 import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
 import java.security.interfaces.RSAPrivateKey;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Copyright 2017 iovation, Inc. All rights reserved.
@@ -114,6 +116,13 @@ public class Jose4jJWEServiceTest {
         assertEquals(expected, jweService.decrypt(jweService.encrypt(expected, publicKey, publicKeyFingerprint, "application/json")));
     }
 
+    @Test
+    public void encryptBytesCanBeDecrypted() throws Exception {
+        String expected = "{\"test\": \"r\u00e9ponse\"}";
+        assertEquals(expected, jweService.decrypt(new String(jweService.encrypt(expected.getBytes("UTF-8"),
+                publicKey, publicKeyFingerprint, "application/json"), "US-ASCII")));
+    }
+
     @Test
     public void encryptSetsKeyId() throws Exception {
         String expected = "{\"test\": \"response\"}";
@@ -144,4 +153,98 @@ public class Jose4jJWEServiceTest {
 
         assertEquals(expected, jweService.getHeaders(jwe));
     }
+
+    @Test
+    public void getHeadersReturnsKeyIdAndContentType() throws Exception {
+        Map<String, String> headers =
+                jweService.getHeaders(jweService.encrypt("data", publicKey, publicKeyFingerprint, "application/json"));
+        assertEquals(publicKeyFingerprint, headers.get("kid"));
+        assertEquals("application/json", headers.get("cty"));
+    }
+
+    @Test
+    public void getHeadersOnlyRequiresHeaderSegment() throws Exception {
+        String jwe = jweService.encrypt("data", publicKey, publicKeyFingerprint, "application/json");
+        assertEquals(publicKeyFingerprint, jweService.getHeaders(jwe.substring(0, jwe.indexOf('.') + 1)).get("kid"));
+    }
+
+    @Test(expected = JWEFailure.class)
+    public void getHeadersThrowsJweFailureForInvalidHeader() throws Exception {
+        //noinspection SpellCheckingInspection
+        jweService.getHeaders("kjsdhflskd.a.b.c.d");
+    }
+
+    @Test(expected = JWEFailure.class)
+    public void getHeadersThrowsJweFailureWhenNotCompactSerialization() throws Exception {
+        //noinspection SpellCheckingInspection
+        jweService.getHeaders("kjsdhflskd");
+    }
+
+    @Test
+    public void encryptUsesRsaOaep256ForRsaPublicKey() throws Exception {
+        String jwe = jweService.encrypt("data", publicKey, publicKeyFingerprint, "application/json");
+        assertEquals("RSA-OAEP-256", jweService.getHeaders(jwe).get("alg"));
+    }
+
+    @Test
+    public void encryptUsesEcdhEsKeyAgreementForEcPublicKey() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC", provider);
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair ecKeyPair = keyPairGenerator.generateKeyPair();
+        String jwe = jweService.encrypt("data", ecKeyPair.getPublic(), publicKeyFingerprint, "application/json");
+        String alg = jweService.getHeaders(jwe).get("alg");
+        assertTrue(alg, "ECDH-ES+A256KW".equals(alg) || "ECDH-ES".equals(alg));
+    }
+
+    @Test
+    public void encryptWithEcPublicKeyCanBeDecryptedWithEcPrivateKey() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC", provider);
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair ecKeyPair = keyPairGenerator.generateKeyPair();
+        jweService = new Jose4jJWEService(ecKeyPair.getPrivate());
+        String expected = "{\"test\": \"response\"}";
+        assertEquals(expected, jweService.decrypt(
+                jweService.encrypt(expected, ecKeyPair.getPublic(), publicKeyFingerprint, "application/json")));
+    }
+
+    @Test
+    public void encryptUsesA256CbcHs512ByDefault() throws Exception {
+        String jwe = jweService.encrypt("data", publicKey, publicKeyFingerprint, "application/json");
+        assertEquals("A256CBC-HS512", jweService.getHeaders(jwe).get("enc"));
+    }
+
+    @Test
+    public void encryptUsesConfiguredAlgorithms() throws Exception {
+        jweService = new Jose4jJWEService(keyPair.getPrivate(), "RSA-OAEP", "A256GCM");
+        Map<String, String> headers = jweService.getHeaders(
+                jweService.encrypt("data", publicKey, publicKeyFingerprint, "application/json"));
+        assertEquals("RSA-OAEP", headers.get("alg"));
+        assertEquals("A256GCM", headers.get("enc"));
+    }
+
+    @Test
+    public void encryptWithA256GcmCanBeDecrypted() throws Exception {
+        jweService = new Jose4jJWEService(keyPair.getPrivate(), null, "A256GCM");
+        String expected = "{\"test\": \"response\"}";
+        assertEquals(expected, jweService.decrypt(
+                jweService.encrypt(expected, publicKey, publicKeyFingerprint, "application/json")));
+    }
+
+    @Test
+    public void decryptAcceptsContentEncryptionAlgorithmOtherThanConfigured() throws Exception {
+        Jose4jJWEService gcmService = new Jose4jJWEService(keyPair.getPrivate(), null, "A256GCM");
+        String expected = "{\"test\": \"response\"}";
+        assertEquals(expected, jweService.decrypt(
+                gcmService.encrypt(expected, publicKey, publicKeyFingerprint, "application/json")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorThrowsIllegalArgumentExceptionForUnknownKeyManagementAlgorithm() throws Exception {
+        new Jose4jJWEService(keyPair.getPrivate(), "Unknown", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorThrowsIllegalArgumentExceptionForUnknownContentEncryptionAlgorithm() throws Exception {
+        new Jose4jJWEService(keyPair.getPrivate(), null, "Unknown");
+    }
 }
@@ -0,0 +1,217 @@
+package com.iovation.launchkey.sdk.crypto.jwt;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.jose4j.jwa.AlgorithmConstraints;
+import org.jose4j.jws.AlgorithmIdentifiers;
+import org.jose4j.jwt.JwtClaims;
+import org.jose4j.jwt.consumer.JwtConsumer;
+import org.jose4j.jwt.consumer.JwtConsumerBuilder;
+import org.jose4j.jwt.consumer.JwtContext;
+import org.jose4j.jwx.JsonWebStructure;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright 2017 iovation, Inc. All rights reserved.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class CompactJWTSignerTest {
+    private static KeyPair keyPair;
+    private static KeyPair otherKeyPair;
+    private static KeyPair ecKeyPair;
+    private CompactJWTSigner signer;
+    private Date currentTime;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA", new BouncyCastleProvider());
+        keyPairGenerator.initialize(2048);
+        keyPair = keyPairGenerator.generateKeyPair();
+        otherKeyPair = keyPairGenerator.generateKeyPair();
+        KeyPairGenerator ecKeyPairGenerator = KeyPairGenerator.getInstance("EC", new BouncyCastleProvider());
+        ecKeyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeyPair = ecKeyPairGenerator.generateKeyPair();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        signer = new CompactJWTSigner("Key ID", AlgorithmIdentifiers.RSA_USING_SHA256);
+        currentTime = new Date(1000000L);
+    }
+
+    @Test
+    public void signProducesVerifiableJwtWithExpectedClaims() throws Exception {
+        String jwt = sign(keyPair, "JTI", "S256", "Hash");
+        Map<String, Object> claims = verify(keyPair.getPublic(), jwt).getClaimsMap();
+        assertEquals("JTI", claims.get("jti"));
+        assertEquals("Issuer", claims.get("iss"));
+        assertEquals("Subject", claims.get("sub"));
+        assertEquals("Audience", claims.get("aud"));
+        assertEquals(1000L, claims.get("iat"));
+        assertEquals(1000L, claims.get("nbf"));
+        assertEquals(1015L, claims.get("exp"));
+        Map request = (Map) claims.get("request");
+        assertEquals("POST", request.get("meth"));
+        assertEquals("/path", request.get("path"));
+        assertEquals("S256", request.get("func"));
+        assertEquals("Hash", request.get("hash"));
+    }
+
+    @Test
+    public void signOmitsHashClaimsWhenNoContentHashAlgorithm() throws Exception {
+        String jwt = sign(keyPair, "JTI", null, null);
+        Map request = (Map) verify(keyPair.getPublic(), jwt).getClaimsMap().get("request");
+        assertFalse(request.containsKey("func"));
+        assertFalse(request.containsKey("hash"));
+    }
+
+    @Test
+    public void signIncludesKeyIdAndAlgorithmHeaders() throws Exception {
+        JsonWebStructure jws = parse(sign(keyPair, "JTI", null, null)).getJoseObjects().get(0);
+        assertEquals("Key ID", jws.getKeyIdHeaderValue());
+        assertEquals(AlgorithmIdentifiers.RSA_USING_SHA256, jws.getAlgorithmHeaderValue());
+    }
+
+    @Test
+    public void signOmitsKeyIdHeaderWhenKeyIdIsNull() throws Exception {
+        signer = new CompactJWTSigner(null, AlgorithmIdentifiers.RSA_USING_SHA256);
+        JsonWebStructure jws = parse(sign(keyPair, "JTI", null, null)).getJoseObjects().get(0);
+        assertNull(jws.getKeyIdHeaderValue());
+    }
+
+    @Test
+    public void signEscapesStringValues() throws Exception {
+        String jti = "\"quoted\" \\ back\nslash\t\u0001 \u00e9 \u2028";
+        String jwt = sign(keyPair, jti, null, null);
+        assertEquals(jti, verify(keyPair.getPublic(), jwt).getJwtId());
+    }
+
+    @Test
+    public void signEncodesNullSubjectAsNull() throws Exception {
+        String jwt = signer.sign((RSAPrivateKey) keyPair.getPrivate(), "JTI", "Issuer", null, "Audience",
+                currentTime, 15, "POST", "/path", null, null);
+        Map<String, Object> claims = verify(keyPair.getPublic(), jwt).getClaimsMap();
+        assertTrue(claims.containsKey("sub"));
+        assertNull(claims.get("sub"));
+    }
+
+    @Test
+    public void signReinitializesSignatureWhenPrivateKeyChanges() throws Exception {
+        verify(keyPair.getPublic(), sign(keyPair, "JTI 1", null, null));
+        verify(otherKeyPair.getPublic(), sign(otherKeyPair, "JTI 2", null, null));
+        verify(keyPair.getPublic(), sign(keyPair, "JTI 3", null, null));
+    }
+
+    @Test
+    public void signProducesValidSignaturesFromMultipleThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                final String jti = "JTI " + i;
+                futures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return sign(keyPair, jti, "S256", "Hash");
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("JTI " + i, verify(keyPair.getPublic(), futures.get(i).get()).getJwtId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = JWTError.class)
+    public void signThrowsJwtErrorWhenPrivateKeyIsNull() throws Exception {
+        signer.sign(null, "JTI", "Issuer", "Subject", "Audience", currentTime, 15, "POST", "/path", null, null);
+    }
+
+    @Test(expected = JWTError.class)
+    public void signThrowsJwtErrorWhenPrivateKeyIsTooSmall() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA", new BouncyCastleProvider());
+        keyPairGenerator.initialize(1024);
+        sign(keyPairGenerator.generateKeyPair(), "JTI", null, null);
+    }
+
+    @Test
+    public void signWithEs256ProducesVerifiableJwt() throws Exception {
+        signer = new CompactJWTSigner("Key ID", AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256);
+        String jwt = sign(ecKeyPair, "JTI", "S256", "Hash");
+        JwtConsumer consumer = new JwtConsumerBuilder()
+                .setVerificationKey(ecKeyPair.getPublic())
+                .setJwsAlgorithmConstraints(new AlgorithmConstraints(AlgorithmConstraints.ConstraintType.WHITELIST,
+                        AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256))
+                .setSkipAllValidators()
+                .build();
+        assertEquals("JTI", consumer.processToClaims(jwt).getJwtId());
+    }
+
+    @Test
+    public void signWithEs256IncludesAlgorithmHeader() throws Exception {
+        signer = new CompactJWTSigner("Key ID", AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256);
+        JsonWebStructure jws = parse(sign(ecKeyPair, "JTI", null, null)).getJoseObjects().get(0);
+        assertEquals(AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256, jws.getAlgorithmHeaderValue());
+    }
+
+    @Test(expected = JWTError.class)
+    public void signWithEs256ThrowsJwtErrorForRsaKey() throws Exception {
+        signer = new CompactJWTSigner("Key ID", AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256);
+        sign(keyPair, "JTI", null, null);
+    }
+
+    @Test(expected = JWTError.class)
+    public void signWithRs256ThrowsJwtErrorForEcKey() throws Exception {
+        sign(ecKeyPair, "JTI", null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorThrowsIllegalArgumentExceptionForUnsupportedAlgorithm() throws Exception {
+        new CompactJWTSigner("Key ID", AlgorithmIdentifiers.HMAC_SHA256);
+    }
+
+    private String sign(KeyPair keyPair, String jti, String func, String hash) throws JWTError {
+        return signer.sign(keyPair.getPrivate(), jti, "Issuer", "Subject", "Audience", currentTime,
+                15, "POST", "/path", func, hash);
+    }
+
+    private JwtClaims verify(PublicKey publicKey, String jwt) throws Exception {
+        JwtConsumer consumer = new JwtConsumerBuilder()
+                .setVerificationKey(publicKey)
+                .setJwsAlgorithmConstraints(new AlgorithmConstraints(
+                        AlgorithmConstraints.ConstraintType.WHITELIST, AlgorithmIdentifiers.RSA_USING_SHA256))
+                .setSkipAllValidators()
+                .build();
+        return consumer.processToClaims(jwt);
+    }
+
+    private JwtContext parse(String jwt) throws Exception {
+        return new JwtConsumerBuilder().setSkipAllValidators().setSkipSignatureVerification().build().process(jwt);
+    }
+}
@@ -0,0 +1,115 @@
+package com.iovation.launchkey.sdk.crypto.jwt;
+
+import org.apache.commons.codec.binary.Base64;
+import org.jose4j.jws.AlgorithmIdentifiers;
+import org.jose4j.jws.JsonWebSignature;
+import org.jose4j.jwt.JwtClaims;
+import org.junit.Test;
+
+import java.security.PrivateKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright 2017 iovation, Inc. All rights reserved.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class JCEJWTServiceTest extends JWTServiceTestBase {
+    @Override
+    protected ParsedJWTService newJWTService(
+            String apiIdentifier, Map<String, ? extends PrivateKey> privateKeys, String currentPrivateKeyId,
+            int requestExpireSeconds) {
+        return new JCEJWTService(apiIdentifier, privateKeys, currentPrivateKeyId, requestExpireSeconds);
+    }
+
+    @Test
+    public void encodeProducesSameJwtAsJose4jJWTService() throws Exception {
+        Jose4jJWTService jose4jJWTService =
+                new Jose4jJWTService(PLATFORM_IDENTIFIER, privateKeys, currentPrivateKeyId, EXPIRE_SECONDS);
+        assertEquals(
+                jose4jJWTService.encode("JTI", ENTITY_IDENTIFIER, null, platformDate, "POST", "/path", "S256", "Hash"),
+                jwtService.encode("JTI", ENTITY_IDENTIFIER, null, platformDate, "POST", "/path", "S256", "Hash")
+        );
+    }
+
+    @Test
+    public void decodeReturnsSameClaimsAsJose4jJWTService() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        jwtClaims.setSubject("Subject");
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", 201);
+        response.put("cache", "no-cache");
+        response.put("location", "/location");
+        response.put("func", "S256");
+        response.put("hash", "Hash");
+        jwtClaims.setClaim("response", response);
+        String jwt = getJwsCompactSerializationFromJtwClaims(jwtClaims);
+        Date now = new Date();
+        Jose4jJWTService jose4jJWTService =
+                new Jose4jJWTService(PLATFORM_IDENTIFIER, privateKeys, currentPrivateKeyId, EXPIRE_SECONDS);
+        assertEquals(
+                jose4jJWTService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, jwtClaims.getJwtId(), now, jwt),
+                jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, jwtClaims.getJwtId(), now, jwt)
+        );
+    }
+
+    @Test
+    public void decodeVerifiesRs384AndRs512Signatures() throws Exception {
+        for (String algorithm : new String[]{AlgorithmIdentifiers.RSA_USING_SHA384,
+                AlgorithmIdentifiers.RSA_USING_SHA512}) {
+            JwtClaims jwtClaims = getBaseClaims();
+            JsonWebSignature jws = new JsonWebSignature();
+            jws.setKey(privateKeys.get(currentPrivateKeyId));
+            jws.setPayload(jwtClaims.toJson());
+            jws.setAlgorithmHeaderValue(algorithm);
+            assertEquals(jwtClaims.getJwtId(), jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER,
+                    jwtClaims.getJwtId(), new Date(), jws.getCompactSerialization()).getTokenId());
+        }
+    }
+
+    @Test
+    public void decodeAcceptsAudienceArrayContainingExpectedAudience() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        jwtClaims.setAudience("Other Audience", ENTITY_IDENTIFIER);
+        String jwt = getJwsCompactSerializationFromJtwClaims(jwtClaims);
+        assertEquals("Other Audience",
+                jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, null, new Date(), jwt).getAudience());
+    }
+
+    @Test(expected = JWTError.class)
+    public void decodeThrowsJwtErrorForUnsignedJwt() throws Exception {
+        String jwt = getJwsCompactSerializationFromJtwClaims(getBaseClaims());
+        String unsigned = Base64.encodeBase64URLSafeString("{\"alg\":\"none\"}".getBytes("UTF-8")) +
+                jwt.substring(jwt.indexOf('.'), jwt.lastIndexOf('.') + 1);
+        jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, null, new Date(), unsigned);
+    }
+
+    @Test(expected = JWTError.class)
+    public void decodeThrowsJwtErrorForModifiedClaims() throws Exception {
+        String jwt = getJwsCompactSerializationFromJtwClaims(getBaseClaims());
+        JwtClaims other = getBaseClaims();
+        other.setSubject("Other Subject");
+        String modified = jwt.substring(0, jwt.indexOf('.') + 1) +
+                Base64.encodeBase64URLSafeString(other.toJson().getBytes("UTF-8")) +
+                jwt.substring(jwt.lastIndexOf('.'));
+        jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, other.getJwtId(), new Date(), modified);
+    }
+
+    @Test(expected = JWTError.class)
+    public void decodeThrowsJwtErrorForStringIssuedAt() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        jwtClaims.setClaim("iat", "now");
+        String jwt = getJwsCompactSerializationFromJtwClaims(jwtClaims);
+        jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, null, new Date(), jwt);
+    }
+}
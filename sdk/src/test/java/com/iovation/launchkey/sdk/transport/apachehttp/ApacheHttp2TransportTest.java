@@ -0,0 +1,286 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.crypto.Crypto;
+import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
+import com.iovation.launchkey.sdk.transport.domain.EntityKeyMap;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.BasicFuture;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.function.Supplier;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.nio.AsyncPushConsumer;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.HandlerFactory;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorStatus;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class ApacheHttp2TransportTest {
+    private FakeHttp2Client http2Client;
+    private ApacheHttp2Transport transport;
+    private HttpUriRequest request;
+
+    @Before
+    public void setUp() throws Exception {
+        http2Client = new FakeHttp2Client();
+        transport = new ApacheHttp2Transport(http2Client, mock(Crypto.class), new ObjectMapper(), mock(Cache.class),
+                "https://api.launchkey.com",
+                new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, UUID.randomUUID()), mock(JWTService.class),
+                mock(JWEService.class), 0, 0, mock(EntityKeyMap.class), 1024);
+        ByteArrayEntity entity = new ByteArrayEntity("request body".getBytes());
+        entity.setContentType("application/jose");
+        request = RequestBuilder.create("POST")
+                .setUri("https://api.launchkey.com/service/v3/auths")
+                .setHeader("Authorization", "IOV-JWT jwt")
+                .setEntity(entity)
+                .build();
+    }
+
+    @Test
+    public void getSimpleHttpRequestCopiesMethodAndUri() throws Exception {
+        SimpleHttpRequest actual = ApacheHttp2Transport.getSimpleHttpRequest(request);
+        assertEquals("POST", actual.getMethod());
+        assertEquals(new URI("https://api.launchkey.com/service/v3/auths"), actual.getUri());
+    }
+
+    @Test
+    public void getSimpleHttpRequestCopiesHeaders() throws Exception {
+        SimpleHttpRequest actual = ApacheHttp2Transport.getSimpleHttpRequest(request);
+        assertEquals("IOV-JWT jwt", actual.getFirstHeader("Authorization").getValue());
+    }
+
+    @Test
+    public void getSimpleHttpRequestCopiesBodyAndContentType() throws Exception {
+        SimpleHttpRequest actual = ApacheHttp2Transport.getSimpleHttpRequest(request);
+        assertArrayEquals("request body".getBytes(), actual.getBodyBytes());
+        assertEquals("application/jose", actual.getContentType().getMimeType());
+    }
+
+    @Test
+    public void getSimpleHttpRequestUsesByteArrayBodyEntityArrayWithoutCopying() throws Exception {
+        byte[] body = "request body".getBytes();
+        HttpUriRequest bodyRequest = RequestBuilder.create("POST")
+                .setUri("https://api.launchkey.com/service/v3/auths")
+                .setEntity(new ByteArrayBodyEntity(body))
+                .build();
+        assertSame(body, ApacheHttp2Transport.getSimpleHttpRequest(bodyRequest).getBodyBytes());
+    }
+
+    @Test
+    public void getSimpleHttpRequestWithoutEntityHasNoBody() throws Exception {
+        SimpleHttpRequest actual = ApacheHttp2Transport.getSimpleHttpRequest(
+                RequestBuilder.get("https://api.launchkey.com/public/v3/ping").build());
+        assertNull(actual.getBody());
+    }
+
+    @Test
+    public void getHttpResponseCopiesStatusHeadersAndBody() throws Exception {
+        SimpleHttpResponse simpleResponse = SimpleHttpResponse.create(
+                201, "response body".getBytes(), ContentType.create("application/jose"));
+        simpleResponse.addHeader("X-IOV-JWT", "jwt");
+        HttpResponse actual = ApacheHttp2Transport.getHttpResponse(simpleResponse);
+        assertEquals(201, actual.getStatusLine().getStatusCode());
+        assertEquals("jwt", actual.getFirstHeader("X-IOV-JWT").getValue());
+        assertEquals("response body", EntityUtils.toString(actual.getEntity()));
+        assertEquals("application/jose", actual.getEntity().getContentType().getValue());
+    }
+
+    @Test
+    public void getHttpResponseBodyIsReplayedWithoutCopying() throws Exception {
+        byte[] body = "response body".getBytes();
+        HttpResponse actual = ApacheHttp2Transport.getHttpResponse(
+                SimpleHttpResponse.create(200, body, ContentType.create("application/jose")));
+        assertSame(body, new ReplayHttpResponse(actual).getContent());
+    }
+
+    @Test
+    public void getHttpResponseWithoutBodyHasNoEntity() throws Exception {
+        HttpResponse actual = ApacheHttp2Transport.getHttpResponse(SimpleHttpResponse.create(204));
+        assertNull(actual.getEntity());
+    }
+
+    @Test
+    public void executeStartsInactiveClient() throws Exception {
+        http2Client.response = SimpleHttpResponse.create(204);
+        transport.execute(request);
+        assertEquals(1, http2Client.starts);
+    }
+
+    @Test
+    public void executeDoesNotRestartActiveClient() throws Exception {
+        http2Client.response = SimpleHttpResponse.create(204);
+        transport.execute(request);
+        transport.execute(request);
+        assertEquals(1, http2Client.starts);
+    }
+
+    @Test
+    public void executeReturnsResponseFromClient() throws Exception {
+        http2Client.response = SimpleHttpResponse.create(200, "body".getBytes(), ContentType.TEXT_PLAIN);
+        HttpResponse actual = transport.execute(request);
+        assertEquals(200, actual.getStatusLine().getStatusCode());
+        assertEquals("body", EntityUtils.toString(actual.getEntity()));
+    }
+
+    @Test
+    public void executeFailureThrowsCommunicationErrorWithCause() throws Exception {
+        IOException expected = new IOException();
+        http2Client.failure = expected;
+        try {
+            transport.execute(request);
+            fail("Expected CommunicationErrorException");
+        } catch (CommunicationErrorException e) {
+            assertSame(expected, e.getCause());
+        }
+    }
+
+    @Test
+    public void executeResponseBodyTooLargeThrowsInvalidResponseWithCause() throws Exception {
+        IOException expected = new ReplayHttpResponse.ContentTooLargeException(1024);
+        http2Client.failure = expected;
+        try {
+            transport.execute(request);
+            fail("Expected InvalidResponseException");
+        } catch (InvalidResponseException e) {
+            assertSame(expected, e.getCause());
+        }
+    }
+
+    @Test
+    public void executeWithoutResponseWithinRequestTimeoutThrowsCommunicationErrorAndCancels() throws Exception {
+        transport = new ApacheHttp2Transport(http2Client, mock(Crypto.class), new ObjectMapper(), mock(Cache.class),
+                "https://api.launchkey.com",
+                new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, UUID.randomUUID()), mock(JWTService.class),
+                mock(JWEService.class), 0, 0, mock(EntityKeyMap.class),
+                new TransportOptions().setRequestTimeoutMillis(10));
+        http2Client.pending = true;
+        try {
+            transport.execute(request);
+            fail("Expected CommunicationErrorException");
+        } catch (CommunicationErrorException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(http2Client.lastFuture.isCancelled());
+    }
+
+    @Test
+    public void requestTimeoutDefaultsToDefaultRequestTimeout() throws Exception {
+        assertEquals(ApacheHttp2Transport.DEFAULT_REQUEST_TIMEOUT_MILLIS,
+                new TransportOptions().getRequestTimeoutMillis());
+    }
+
+    @Test
+    public void closeDoesNotCloseProvidedClient() throws Exception {
+        transport.close();
+        assertEquals(0, http2Client.closes);
+    }
+
+    @Test
+    public void closeClosesClientCreatedByTransport() throws Exception {
+        ApacheHttp2Transport owningTransport = new ApacheHttp2Transport(null, mock(Crypto.class), new ObjectMapper(),
+                mock(Cache.class), "https://api.launchkey.com",
+                new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, UUID.randomUUID()), mock(JWTService.class),
+                mock(JWEService.class), 0, 0, mock(EntityKeyMap.class), new TransportOptions());
+        owningTransport.close();
+        assertEquals(IOReactorStatus.SHUT_DOWN, owningTransport.getHttp2Client().getStatus());
+    }
+
+    private static class FakeHttp2Client extends CloseableHttpAsyncClient {
+        private IOReactorStatus status = IOReactorStatus.INACTIVE;
+        private int starts = 0;
+        private int closes = 0;
+        private SimpleHttpResponse response;
+        private Exception failure;
+        private boolean pending = false;
+        private Future<?> lastFuture;
+
+        @Override
+        public void start() {
+            starts++;
+            status = IOReactorStatus.ACTIVE;
+        }
+
+        @Override
+        public IOReactorStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public void awaitShutdown(TimeValue waitTime) {
+        }
+
+        @Override
+        public void initiateShutdown() {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <T> Future<T> doExecute(
+                HttpHost target, AsyncRequestProducer requestProducer, AsyncResponseConsumer<T> responseConsumer,
+                HandlerFactory<AsyncPushConsumer> pushHandlerFactory, HttpContext context,
+                FutureCallback<T> callback) {
+            BasicFuture<T> future = new BasicFuture<>(callback);
+            lastFuture = future;
+            if (pending) {
+                return future;
+            } else if (failure == null) {
+                future.completed((T) response);
+            } else {
+                future.failed(failure);
+            }
+            return future;
+        }
+
+        @Override
+        public void register(String hostname, String uriPattern, Supplier<AsyncPushConsumer> supplier) {
+        }
+
+        @Override
+        public void close(CloseMode closeMode) {
+            closes++;
+        }
+
+        @Override
+        public void close() {
+            closes++;
+        }
+    }
+}
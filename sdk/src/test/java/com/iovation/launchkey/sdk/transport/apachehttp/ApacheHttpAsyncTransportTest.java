@@ -0,0 +1,363 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+import com.iovation.launchkey.sdk.error.RequestTimedOut;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpAsyncTransportTest {
+    @Mock private HttpAsyncClient httpAsyncClient;
+    @Mock private ApacheHttpTransport transport;
+    @Mock private HttpUriRequest request;
+    @Mock private HttpResponse httpResponse;
+    @Mock private HttpResponse validatedResponse;
+    @Mock private Future<HttpResponse> httpFuture;
+    @Mock private EntityIdentifier subject;
+    @Mock private FutureCallback<ServiceV3AuthsPostResponse> callback;
+    @Captor private ArgumentCaptor<FutureCallback<HttpResponse>> httpCallbackCaptor;
+    @Captor private ArgumentCaptor<String> requestIdCaptor;
+
+    private ApacheHttpAsyncTransport asyncTransport;
+    private ServiceV3AuthsPostRequest authsPostRequest;
+    private Queue<Runnable> tasks;
+    private Executor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        tasks = new ArrayDeque<>();
+        executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        asyncTransport = new ApacheHttpAsyncTransport(httpAsyncClient, transport, executor);
+        authsPostRequest = new ServiceV3AuthsPostRequest(
+                "user", null, null, null, null, null, null, null);
+        when(transport.buildHttpRequest(anyString(), anyString(), anyString(), any(EntityIdentifier.class), any(),
+                anyBoolean())).thenReturn(request);
+        when(transport.handleHttpResponse(any(HttpResponse.class), anyString(), anyBoolean(), nullable(List.class)))
+                .thenReturn(validatedResponse);
+        when(httpAsyncClient.execute(any(HttpUriRequest.class), httpCallbackCaptor.capture())).thenReturn(httpFuture);
+    }
+
+    @Test
+    public void buildsSignedRequestWithTransport() throws Exception {
+        asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        verify(transport).buildHttpRequest(anyString(), eq("POST"), eq("/service/v3/auths"), eq(subject),
+                eq(authsPostRequest), eq(true));
+    }
+
+    @Test
+    public void buildsUnsignedRequestForPing() throws Exception {
+        asyncTransport.publicV3PingGet(null);
+        runTasks();
+        verify(transport).buildHttpRequest(anyString(), eq("GET"), eq("/public/v3/ping"),
+                isNull(EntityIdentifier.class), isNull(), eq(false));
+    }
+
+    @Test
+    public void executesBuiltRequestWithAsyncClient() throws Exception {
+        asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        verify(httpAsyncClient).execute(eq(request), any(FutureCallback.class));
+    }
+
+    @Test
+    public void returnsBeforeResponseIsReceived() throws Exception {
+        Future<ServiceV3AuthsPostResponse> future = asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        assertFalse(future.isDone());
+    }
+
+    @Test
+    public void handlesResponseWithSameRequestIdAsRequest() throws Exception {
+        asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        httpCallbackCaptor.getValue().completed(httpResponse);
+        runTasks();
+        verify(transport).buildHttpRequest(requestIdCaptor.capture(), anyString(), anyString(),
+                any(EntityIdentifier.class), any(), anyBoolean());
+        verify(transport).handleHttpResponse(httpResponse, requestIdCaptor.getValue(), true, null);
+    }
+
+    @Test
+    public void completesWithDecryptedResponse() throws Exception {
+        ServiceV3AuthsPostResponse expected = new ServiceV3AuthsPostResponse(UUID.randomUUID(), null);
+        when(transport.decryptResponse(validatedResponse, ServiceV3AuthsPostResponse.class)).thenReturn(expected);
+        Future<ServiceV3AuthsPostResponse> future = asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        httpCallbackCaptor.getValue().completed(httpResponse);
+        runTasks();
+        assertSame(expected, future.get());
+    }
+
+    @Test
+    public void invokesCallbackWithDecryptedResponse() throws Exception {
+        ServiceV3AuthsPostResponse expected = new ServiceV3AuthsPostResponse(UUID.randomUUID(), null);
+        when(transport.decryptResponse(validatedResponse, ServiceV3AuthsPostResponse.class)).thenReturn(expected);
+        asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, callback);
+        runTasks();
+        httpCallbackCaptor.getValue().completed(httpResponse);
+        runTasks();
+        verify(callback).completed(expected);
+    }
+
+    @Test
+    public void voidEndpointCompletesWithNull() throws Exception {
+        Future<Void> future = asyncTransport.serviceV3AuthsDelete(UUID.randomUUID(), subject, null);
+        runTasks();
+        httpCallbackCaptor.getValue().completed(httpResponse);
+        runTasks();
+        assertNull(future.get());
+    }
+
+    @Test
+    public void requestBuildErrorFailsFutureWithoutExecuting() throws Exception {
+        InvalidResponseException expected = new InvalidResponseException("Expected", null, null);
+        when(transport.buildHttpRequest(anyString(), anyString(), anyString(), any(EntityIdentifier.class), any(),
+                anyBoolean())).thenThrow(expected);
+        Future<ServiceV3AuthsPostResponse> future = asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        verifyZeroInteractions(httpAsyncClient);
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(expected, e.getCause());
+        }
+    }
+
+    @Test
+    public void ioFailureFailsFutureWithCommunicationError() throws Exception {
+        Future<ServiceV3AuthsPostResponse> future = asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        IOException cause = new IOException();
+        httpCallbackCaptor.getValue().failed(cause);
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(CommunicationErrorException.class));
+            assertSame(cause, e.getCause().getCause());
+        }
+    }
+
+    @Test
+    public void responseHandlingErrorFailsFuture() throws Exception {
+        InvalidResponseException expected = new InvalidResponseException("Expected", null, null);
+        when(transport.handleHttpResponse(any(HttpResponse.class), anyString(), anyBoolean(), nullable(List.class)))
+                .thenThrow(expected);
+        asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, callback);
+        runTasks();
+        httpCallbackCaptor.getValue().completed(httpResponse);
+        runTasks();
+        verify(callback).failed(expected);
+    }
+
+    @Test
+    public void authsGetTimedOutFailsWithAuthorizationRequestTimedOutError() throws Exception {
+        when(transport.handleHttpResponse(any(HttpResponse.class), anyString(), anyBoolean(), nullable(List.class)))
+                .thenThrow(new RequestTimedOut("Timed out", null, null));
+        Future<ServiceV3AuthsGetResponse> future = asyncTransport.serviceV3AuthsGet(UUID.randomUUID(), subject, null);
+        runTasks();
+        httpCallbackCaptor.getValue().completed(httpResponse);
+        runTasks();
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(AuthorizationRequestTimedOutError.class));
+        }
+    }
+
+    @Test
+    public void cancelCancelsHttpExchange() throws Exception {
+        Future<ServiceV3AuthsPostResponse> future = asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        future.cancel(true);
+        verify(httpFuture).cancel(true);
+    }
+
+    @Test
+    public void cancelledHttpExchangeCancelsFuture() throws Exception {
+        asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, callback);
+        runTasks();
+        httpCallbackCaptor.getValue().cancelled();
+        verify(callback).cancelled();
+    }
+
+    @Test
+    public void startsCloseableClientWhenNotRunning() throws Exception {
+        CloseableHttpAsyncClient closeableClient = mock(CloseableHttpAsyncClient.class);
+        when(closeableClient.isRunning()).thenReturn(false);
+        new ApacheHttpAsyncTransport(closeableClient, transport, executor).serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        verify(closeableClient).start();
+    }
+
+    @Test
+    public void doesNotStartCloseableClientWhenRunning() throws Exception {
+        CloseableHttpAsyncClient closeableClient = mock(CloseableHttpAsyncClient.class);
+        when(closeableClient.isRunning()).thenReturn(true);
+        new ApacheHttpAsyncTransport(closeableClient, transport, executor).serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        verify(closeableClient, never()).start();
+    }
+
+    @Test
+    public void doesNotBuildRequestOnCallingThread() throws Exception {
+        asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        tasks.clear();
+        verify(transport, never()).buildHttpRequest(anyString(), anyString(), anyString(),
+                any(EntityIdentifier.class), any(), anyBoolean());
+        verifyZeroInteractions(httpAsyncClient);
+    }
+
+    @Test
+    public void doesNotProcessResponseOnIoThread() throws Exception {
+        asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null);
+        runTasks();
+        httpCallbackCaptor.getValue().completed(httpResponse);
+        verify(transport, never()).handleHttpResponse(any(HttpResponse.class), anyString(), anyBoolean(),
+                nullable(List.class));
+        runTasks();
+        verify(transport).handleHttpResponse(any(HttpResponse.class), anyString(), anyBoolean(),
+                nullable(List.class));
+    }
+
+    @Test
+    public void doesNotBuildRequestWhenCancelledBeforeExecutorRuns() throws Exception {
+        asyncTransport.serviceV3AuthsPost(authsPostRequest, subject, null).cancel(true);
+        runTasks();
+        verifyZeroInteractions(httpAsyncClient);
+    }
+
+    @Test
+    public void rejectedExecutionFailsWithCommunicationError() throws Exception {
+        Executor rejecting = mock(Executor.class);
+        doThrow(new RejectedExecutionException()).when(rejecting).execute(any(Runnable.class));
+        Future<ServiceV3AuthsPostResponse> future = new ApacheHttpAsyncTransport(httpAsyncClient, transport, rejecting)
+                .serviceV3AuthsPost(authsPostRequest, subject, null);
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(CommunicationErrorException.class));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullExecutorThrowsIllegalArgument() throws Exception {
+        new ApacheHttpAsyncTransport(httpAsyncClient, transport, null);
+    }
+
+    @Test
+    public void closeDoesNotShutDownProvidedExecutor() throws Exception {
+        ExecutorService provided = mock(ExecutorService.class);
+        new ApacheHttpAsyncTransport(httpAsyncClient, transport, provided).close();
+        verify(provided, never()).shutdown();
+    }
+
+    @Test
+    public void newExecutorServiceCreatesDaemonThreads() throws Exception {
+        ExecutorService executorService = ApacheHttpAsyncTransport.newExecutorService(1);
+        try {
+            assertTrue(executorService.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    return Thread.currentThread().isDaemon();
+                }
+            }).get());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void newExecutorServiceQueueIsBoundedAndOverflowFailsCall() throws Exception {
+        ExecutorService executorService = ApacheHttpAsyncTransport.newExecutorService(1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+            Future<ServiceV3AuthsPostResponse> future =
+                    new ApacheHttpAsyncTransport(httpAsyncClient, transport, executorService)
+                            .serviceV3AuthsPost(authsPostRequest, subject, null);
+            try {
+                future.get(1, TimeUnit.SECONDS);
+                fail("Expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(CommunicationErrorException.class));
+            }
+        } finally {
+            release.countDown();
+            executorService.shutdown();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
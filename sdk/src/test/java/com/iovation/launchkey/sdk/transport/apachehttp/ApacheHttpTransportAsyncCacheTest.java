@@ -0,0 +1,121 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.cache.CacheException;
+import com.iovation.launchkey.sdk.cache.ExecutorAsyncCache;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.net.URI;
+import java.security.PublicKey;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportAsyncCacheTest extends ApacheHttpTransportTestBase {
+    private static final URI KEY_URI = URI.create(baseUrl + "/public/v3/public-key/Response-Key-ID");
+    @Mock private Cache remoteCache;
+    private ExecutorService executor;
+    private CountDownLatch release;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        when(jwtData.getKeyId()).thenReturn("Response-Key-ID");
+        when(remoteCache.get(anyString())).thenReturn("Public Key");
+        executor = Executors.newSingleThreadExecutor();
+        release = new CountDownLatch(1);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper,
+                new ExecutorAsyncCache(remoteCache, executor), baseUrl, issuer, jwtService, jweService, 0, 0,
+                entityKeyMap, new TransportOptions().setKeyCacheTimeoutMillis(100));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private void makeRemoteCacheSlow() throws Exception {
+        when(remoteCache.get(anyString())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                release.await();
+                return "Public Key";
+            }
+        });
+    }
+
+    @Test
+    public void cachedKeyReturnedWithinTimeoutIsUsed() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, atLeastOnce()).execute(requestCaptor.capture());
+        for (HttpUriRequest request : requestCaptor.getAllValues()) {
+            assertNotEquals(KEY_URI, request.getURI());
+        }
+    }
+
+    @Test
+    public void slowCacheIsTreatedAsMissAndKeyIsRetrievedFromApi() throws Exception {
+        makeRemoteCacheSlow();
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verifyCall("GET", KEY_URI);
+    }
+
+    @Test
+    public void slowCacheLookupFillsParsedKeyCacheWhenItCompletes() throws Exception {
+        PublicKeyCache parsedPublicKeyCache = mock(PublicKeyCache.class);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper,
+                new ExecutorAsyncCache(remoteCache, executor), baseUrl, issuer, jwtService, jweService, 0, 0,
+                entityKeyMap, new TransportOptions().setKeyCacheTimeoutMillis(100), parsedPublicKeyCache,
+                new FailedPublicKeyCache(10, 30), ServerClock.forBaseUrl(baseUrl));
+        makeRemoteCacheSlow();
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(parsedPublicKeyCache, never()).put(eq("Response-Key-ID"), any(PublicKey.class));
+        release.countDown();
+        verify(parsedPublicKeyCache, timeout(1000)).put(eq("Response-Key-ID"), any(PublicKey.class));
+    }
+
+    @Test
+    public void cacheErrorIsTreatedAsMiss() throws Exception {
+        when(remoteCache.get(anyString())).thenThrow(new CacheException("Error", null));
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verifyCall("GET", KEY_URI);
+    }
+
+    @Test
+    public void keyRetrievedFromApiIsStoredInCache() throws Exception {
+        when(remoteCache.get(anyString())).thenReturn(null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(remoteCache, timeout(1000).atLeastOnce()).put("LaunchKeyPublicKey:Key ID", "Hello World!");
+    }
+}
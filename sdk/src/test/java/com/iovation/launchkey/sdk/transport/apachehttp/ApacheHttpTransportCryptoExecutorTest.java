@@ -0,0 +1,182 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.crypto.CryptoExecutor;
+import com.iovation.launchkey.sdk.crypto.jwe.JWEFailure;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTClaims;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTData;
+import com.iovation.launchkey.sdk.error.CryptographyError;
+import com.iovation.launchkey.sdk.error.CryptographyOverloaded;
+import com.iovation.launchkey.sdk.error.InvalidRequestException;
+import com.iovation.launchkey.sdk.error.NoKeyFoundException;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportCryptoExecutorTest extends ApacheHttpTransportTestBase {
+    private HashMap<String, List<String>> headers;
+    private CryptoExecutor cryptoExecutor;
+    private String decryptingThread;
+    private String keyRetrievingThread;
+    private String verifyingThread;
+    @Mock private ServerSentEventDeviceLinkCompletion serverSentEventDeviceLinkCompletion;
+    @Mock private RSAPrivateKey privateKey;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        when(jwtClaims.getAudience()).thenReturn("svc:5e9aaee6-f1db-11e8-ac7a-fa001d282e01");
+        when(jwtClaims.getSubject()).thenReturn("svc:767e72d9-e7aa-11e8-a951-fa001d282e01");
+        when(jweService.getHeaders(anyString())).thenReturn(new HashMap<String, String>() {{
+            put("kid", "Key ID");
+        }});
+        when(jwtData.getKeyId()).thenReturn("Key ID");
+        when(jwtService.decode(any(PublicKey.class), anyString(), (String) isNull(), any(Date.class), any(JWTData.class)))
+                .thenAnswer(new Answer<JWTClaims>() {
+                    @Override
+                    public JWTClaims answer(InvocationOnMock invocation) {
+                        verifyingThread = Thread.currentThread().getName();
+                        return jwtClaims;
+                    }
+                });
+        when(jweService.decrypt(anyString(), any(PrivateKey.class))).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                decryptingThread = Thread.currentThread().getName();
+                return "Decrypted";
+            }
+        });
+        when(serverSentEventType.getType()).thenReturn(ServerSentEventType.DEVICE_LINK_COMPLETION_WEBHOOK);
+        when(objectMapper.readValue(anyString(), eq(ServerSentEventDeviceLinkCompletion.class)))
+                .thenReturn(serverSentEventDeviceLinkCompletion);
+        when(entityKeyMap.getPrivateKey(any(EntityIdentifier.class), anyString())).thenReturn(privateKey);
+        headers = new HashMap<String, List<String>>(){{
+            put("Content-Type", new ArrayList<String>(){{
+                add("application/jose");
+            }});
+            put("X-IOV-JWT", new ArrayList<String>(){{
+                add("JWT Header");
+            }});
+        }};
+        cryptoExecutor = new CryptoExecutor(1, 1, CryptoExecutor.OverloadPolicy.REJECT);
+        transport = getTransport(cryptoExecutor);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cryptoExecutor.shutdown();
+    }
+
+    private ApacheHttpTransport getTransport(CryptoExecutor cryptoExecutor) throws Exception {
+        Cache publicKeyCache = mock(Cache.class);
+        when(publicKeyCache.get(anyString())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                keyRetrievingThread = Thread.currentThread().getName();
+                return "Public Key";
+            }
+        });
+        return new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 0, 0, entityKeyMap, new TransportOptions().setCryptoExecutor(cryptoExecutor));
+    }
+
+    @Test
+    public void handleServerSentEventReturnsParsedServerSentEvent() throws Exception {
+        assertSame(serverSentEventDeviceLinkCompletion, transport.handleServerSentEvent(headers, null, null, "body"));
+    }
+
+    @Test
+    public void handleServerSentEventDecryptsOnExecutorThread() throws Exception {
+        transport.handleServerSentEvent(headers, null, null, "body");
+        assertTrue(decryptingThread, decryptingThread.startsWith("launchkey-crypto-"));
+    }
+
+    @Test
+    public void handleServerSentEventVerifiesJWTOnExecutorThread() throws Exception {
+        transport.handleServerSentEvent(headers, null, null, "body");
+        assertTrue(verifyingThread, verifyingThread.startsWith("launchkey-crypto-"));
+    }
+
+    @Test
+    public void handleServerSentEventRetrievesPublicKeyOnCallingThread() throws Exception {
+        transport.handleServerSentEvent(headers, null, null, "body");
+        assertEquals(Thread.currentThread().getName(), keyRetrievingThread);
+    }
+
+    @Test
+    public void handleServerSentEventWithoutExecutorDecryptsOnCallingThread() throws Exception {
+        getTransport(null).handleServerSentEvent(headers, null, null, "body");
+        assertEquals(Thread.currentThread().getName(), decryptingThread);
+    }
+
+    @Test(expected = CryptographyOverloaded.class)
+    public void handleServerSentEventThrowsCryptographyOverloadedWhenExecutorIsSaturated() throws Exception {
+        CryptoExecutor saturated = mock(CryptoExecutor.class);
+        when(saturated.execute(any(Callable.class))).thenThrow(new CryptographyOverloaded("Overloaded", null, null));
+        getTransport(saturated).handleServerSentEvent(headers, null, null, "body");
+    }
+
+    @Test(expected = NoKeyFoundException.class)
+    public void handleServerSentEventRethrowsNoKeyFoundException() throws Exception {
+        when(entityKeyMap.getPrivateKey(any(EntityIdentifier.class), anyString())).thenThrow(new NoKeyFoundException("No key"));
+        transport.handleServerSentEvent(headers, null, null, "body");
+    }
+
+    @Test(expected = InvalidRequestException.class)
+    public void handleServerSentEventRethrowsInvalidRequestException() throws Exception {
+        when(jweService.decrypt(anyString(), any(PrivateKey.class))).thenThrow(new JWEFailure("Failure", null));
+        transport.handleServerSentEvent(headers, null, null, "body");
+    }
+
+    @Test
+    public void decryptResponseReturnsParsedResponse() throws Exception {
+        Object expected = new Object();
+        when(objectMapper.readValue("Decrypted", Object.class)).thenReturn(expected);
+        assertSame(expected, transport.decryptResponse(httpResponse, Object.class));
+    }
+
+    @Test(expected = CryptographyError.class)
+    public void decryptResponseRethrowsCryptographyError() throws Exception {
+        when(jweService.decrypt(anyString())).thenThrow(new JWEFailure("Failure", null));
+        transport.decryptResponse(httpResponse, Object.class);
+    }
+
+    @Test(expected = CryptographyOverloaded.class)
+    public void decryptResponseThrowsCryptographyOverloadedWhenExecutorIsShutDown() throws Exception {
+        cryptoExecutor.shutdown();
+        transport.decryptResponse(httpResponse, Object.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.Cache;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportCurrentPublicKeyRefreshTest extends ApacheHttpTransportTestBase {
+    private static final ArgumentMatcher<HttpUriRequest> PUBLIC_KEY_REQUEST = new ArgumentMatcher<HttpUriRequest>() {
+        @Override
+        public boolean matches(HttpUriRequest request) {
+            return request != null && request.getURI().getPath().equals("/public/v3/public-key");
+        }
+    };
+
+    @Before
+    public void setUpResponseKeyId() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("Key ID");
+    }
+
+    @Test
+    public void currentPublicKeyIsNotRetrievedAgainBeforeRefreshIsDue() throws Exception {
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, mock(Cache.class), baseUrl, issuer,
+                jwtService, jweService, 0, 60, entityKeyMap);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(1)).execute(argThat(PUBLIC_KEY_REQUEST));
+    }
+
+    @Test
+    public void currentPublicKeyIsRetrievedAgainWhenRefreshIsDue() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(2)).execute(argThat(PUBLIC_KEY_REQUEST));
+    }
+
+    @Test
+    public void failedRefreshUsesPreviousKeyAndDelaysRetry() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        when(httpClient.execute(argThat(PUBLIC_KEY_REQUEST))).thenThrow(new IOException());
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(2)).execute(argThat(PUBLIC_KEY_REQUEST));
+    }
+
+    @Test
+    public void onlyOneCallerRefreshesWhileOthersUseThePreviousKey() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+
+        final CountDownLatch refreshStarted = new CountDownLatch(1);
+        final CountDownLatch releaseRefresh = new CountDownLatch(1);
+        when(httpClient.execute(argThat(PUBLIC_KEY_REQUEST))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                refreshStarted.countDown();
+                releaseRefresh.await(5, TimeUnit.SECONDS);
+                return httpResponse;
+            }
+        });
+        Thread refresher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    transport.getHttpResponse("GET", "/", issuer, null, true, null);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        refresher.start();
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        releaseRefresh.countDown();
+        refresher.join(5000);
+
+        verify(httpClient, times(2)).execute(argThat(PUBLIC_KEY_REQUEST));
+    }
+}
@@ -0,0 +1,228 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.EntityNotFound;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportFailedPublicKeyTest extends ApacheHttpTransportTestBase {
+    private static final URI KEY_URI = URI.create(baseUrl + "/public/v3/public-key/Unknown-Key-ID");
+    @Mock private Cache publicKeyCache;
+    @Mock private HttpResponse notFoundResponse;
+    @Mock private HttpResponse serverErrorResponse;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        when(jwtData.getKeyId()).thenReturn("Unknown-Key-ID");
+        when(notFoundResponse.getStatusLine())
+                .thenReturn(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 404, "Not Found"));
+        when(serverErrorResponse.getStatusLine())
+                .thenReturn(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 500, "Server Error"));
+        when(httpClient.execute(isKeyRequest())).thenReturn(notFoundResponse);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 0, 0, entityKeyMap, new TransportOptions(), new PublicKeyCache(10, 60),
+                new FailedPublicKeyCache(10, 30), ServerClock.forBaseUrl(baseUrl));
+    }
+
+    private static HttpUriRequest isKeyRequest() {
+        return argThat(new ArgumentMatcher<HttpUriRequest>() {
+            @Override
+            public boolean matches(HttpUriRequest request) {
+                return request != null && KEY_URI.equals(request.getURI());
+            }
+        });
+    }
+
+    private CommunicationErrorException getResponseFailure() throws Exception {
+        try {
+            transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        } catch (CommunicationErrorException e) {
+            return e;
+        }
+        fail("Expected CommunicationErrorException");
+        return null;
+    }
+
+    private int getKeyRequestCount() throws Exception {
+        verify(httpClient, atLeastOnce()).execute(requestCaptor.capture());
+        int count = 0;
+        for (HttpUriRequest request : requestCaptor.getAllValues()) {
+            if (KEY_URI.equals(request.getURI())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test(expected = EntityNotFound.class)
+    public void unknownKeyRaisesApiFailure() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+    }
+
+    @Test
+    public void repeatedUnknownKeyIsNotRequestedAgain() throws Exception {
+        getResponseFailure();
+        getResponseFailure();
+        verifyCall("GET", KEY_URI);
+    }
+
+    @Test
+    public void repeatedUnknownKeyRaisesNewEquivalentFailure() throws Exception {
+        CommunicationErrorException first = getResponseFailure();
+        CommunicationErrorException second = getResponseFailure();
+        assertNotSame(first, second);
+        assertEquals(EntityNotFound.class, second.getClass());
+        assertEquals(first.getMessage(), second.getMessage());
+    }
+
+    @Test
+    public void transientFailureIsNotCached() throws Exception {
+        when(httpClient.execute(isKeyRequest())).thenReturn(serverErrorResponse);
+        getResponseFailure();
+        getResponseFailure();
+        assertEquals(2, getKeyRequestCount());
+    }
+
+    @Test
+    public void concurrentLookupsOfTheSameKeyShareOneRequest() throws Exception {
+        final CountDownLatch requested = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(httpClient.execute(isKeyRequest())).thenAnswer(new Answer<HttpResponse>() {
+            @Override
+            public HttpResponse answer(InvocationOnMock invocation) throws Throwable {
+                requested.countDown();
+                release.await();
+                return serverErrorResponse;
+            }
+        });
+        Thread requester = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    getResponseFailure();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        requester.start();
+        requested.await();
+        final CommunicationErrorException[] waiterFailure = new CommunicationErrorException[1];
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    waiterFailure[0] = getResponseFailure();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(1L);
+        }
+        release.countDown();
+        requester.join(1000L);
+        waiter.join(1000L);
+        assertFalse(waiter.isAlive());
+        assertEquals(1, getKeyRequestCount());
+        assertNotNull(waiterFailure[0]);
+    }
+
+    @Test
+    public void concurrentLookupsOfDistinctUnknownKeysAreLimited() throws Exception {
+        final int lookups = 30;
+        final ThreadLocal<String> keyId = new ThreadLocal<>();
+        final AtomicInteger keyRequests = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        when(jwtData.getKeyId()).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                return keyId.get();
+            }
+        });
+        when(httpClient.execute(argThat(new ArgumentMatcher<HttpUriRequest>() {
+            @Override
+            public boolean matches(HttpUriRequest request) {
+                return request != null && request.getURI().getPath().startsWith("/public/v3/public-key/");
+            }
+        }))).thenAnswer(new Answer<HttpResponse>() {
+            @Override
+            public HttpResponse answer(InvocationOnMock invocation) throws Throwable {
+                keyRequests.incrementAndGet();
+                release.await();
+                return serverErrorResponse;
+            }
+        });
+        Thread[] threads = new Thread[lookups];
+        for (int i = 0; i < lookups; i++) {
+            final String id = "Unknown-Key-ID-" + i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    keyId.set(id);
+                    try {
+                        CommunicationErrorException e = getResponseFailure();
+                        if (e.getMessage() != null && e.getMessage().startsWith("Too many public key requests")) {
+                            rejected.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (rejected.get() < lookups - 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(1000L);
+        }
+        assertTrue(keyRequests.get() <= 10);
+        assertEquals(lookups - 10, rejected.get());
+    }
+}
@@ -1,5 +1,6 @@
 package com.iovation.launchkey.sdk.transport.apachehttp;
 
+import com.iovation.launchkey.sdk.crypto.jwt.JWTData;
 import com.iovation.launchkey.sdk.transport.domain.*;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,7 +37,7 @@ public class ApacheHttpTransportHandleServerSentEventAuthResponseTest extends Ap
         }});
 
         when(jwtData.getKeyId()).thenReturn("Key ID");
-        when(jwtService.decode(any(PublicKey.class), anyString(), (String) isNull(), any(Date.class), anyString()))
+        when(jwtService.decode(any(PublicKey.class), anyString(), (String) isNull(), any(Date.class), any(JWTData.class)))
                 .thenReturn(jwtClaims);
         when(jweService.decrypt(anyString(), any(PrivateKey.class))).thenReturn("Decrypted");
         when(objectMapper.readValue(anyString(), eq(ServerSentEventAuthorizationResponseCore.class)))
@@ -45,7 +46,7 @@ public class ApacheHttpTransportHandleServerSentEventAuthResponseTest extends Ap
         when(objectMapper.readValue(any(byte[].class), eq(ServiceV3AuthsGetResponseDevice.class))).thenReturn(deviceResponse);
         when(objectMapper.readValue(anyString(), eq(ServiceV3AuthsGetResponseDeviceJWE.class)))
                 .thenReturn(deviceJweResponse);
-        when(entityKeyMap.getKey(any(EntityIdentifier.class), anyString())).thenReturn(privateKey);
+        when(entityKeyMap.getPrivateKey(any(EntityIdentifier.class), anyString())).thenReturn(privateKey);
         when(crypto.decryptRSA(any(byte[].class), any(PrivateKey.class)))
                 .thenReturn("Decrypted Device Response".getBytes());
         headers = new HashMap<String, List<String>>(){{
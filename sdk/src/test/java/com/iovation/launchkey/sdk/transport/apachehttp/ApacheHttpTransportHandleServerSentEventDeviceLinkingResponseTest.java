@@ -1,5 +1,6 @@
 package com.iovation.launchkey.sdk.transport.apachehttp;
 
+import com.iovation.launchkey.sdk.crypto.jwt.JWTData;
 import com.iovation.launchkey.sdk.transport.domain.*;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -37,7 +38,7 @@ public class ApacheHttpTransportHandleServerSentEventDeviceLinkingResponseTest e
         }});
 
         when(jwtData.getKeyId()).thenReturn("Key ID");
-        when(jwtService.decode(any(PublicKey.class), anyString(), (String) isNull(), any(Date.class), anyString()))
+        when(jwtService.decode(any(PublicKey.class), anyString(), (String) isNull(), any(Date.class), any(JWTData.class)))
                 .thenReturn(jwtClaims);
         when(jweService.decrypt(anyString(), any(PrivateKey.class))).thenReturn("Decrypted");
         when(objectMapper.readValue(anyString(), eq(ServerSentEventType.class)))
@@ -45,7 +46,7 @@ public class ApacheHttpTransportHandleServerSentEventDeviceLinkingResponseTest e
         when(serverSentEventType.getType()).thenReturn(ServerSentEventType.DEVICE_LINK_COMPLETION_WEBHOOK);
         when(objectMapper.readValue(anyString(), eq(ServerSentEventDeviceLinkCompletion.class)))
                 .thenReturn(serverSentEventDeviceLinkCompletion);
-        when(entityKeyMap.getKey(any(EntityIdentifier.class), anyString())).thenReturn(privateKey);
+        when(entityKeyMap.getPrivateKey(any(EntityIdentifier.class), anyString())).thenReturn(privateKey);
         headers = new HashMap<String, List<String>>(){{
             put("Content-Type", new ArrayList<String>(){{
                 add("application/jose");
@@ -13,6 +13,9 @@ package com.iovation.launchkey.sdk.transport.apachehttp; /**
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
 import com.iovation.launchkey.sdk.transport.domain.ServicesPostRequest;
 import com.iovation.launchkey.sdk.transport.domain.ServicesPostResponse;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -23,6 +26,7 @@ import java.security.PublicKey;
 import java.util.Date;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -52,6 +56,25 @@ public class ApacheHttpTransportOrganizationV3ServicesPostTest extends ApacheHtt
         verify(jweService).encrypt(eq("Expected"), any(PublicKey.class), anyString(), anyString());
     }
 
+    @Test
+    public void encryptedValueIsSentAsRequestBody() throws Exception {
+        transport.organizationV3ServicesPost(servicesPostRequest, entityIdentifier);
+        verify(httpClient, atLeastOnce()).execute(requestCaptor.capture());
+        HttpEntityEnclosingRequest request = null;
+        for (HttpUriRequest captured : requestCaptor.getAllValues()) {
+            if (captured.getMethod().equals("POST")) {
+                request = (HttpEntityEnclosingRequest) captured;
+            }
+        }
+        assertEquals("Encrypted", EntityUtils.toString(request.getEntity()));
+    }
+
+    @Test
+    public void encryptedValueIsHashedForSignature() throws Exception {
+        transport.organizationV3ServicesPost(servicesPostRequest, entityIdentifier);
+        verify(crypto).sha256(aryEq("Encrypted".getBytes()));
+    }
+
     @Test
     public void requestSubjectIsUsedForSignature() throws Exception {
         when(entityIdentifier.toString()).thenReturn("Expected");
@@ -0,0 +1,53 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.CacheStats;
+import com.iovation.launchkey.sdk.cache.TieredCache;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportPublicKeyCacheTest extends ApacheHttpTransportTestBase {
+
+    @Test
+    public void cachedPublicKeyIsOnlyParsedOnceForRepeatedResponses() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("Response Key ID");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(crypto, times(1)).getRSAPublicKeyFromPEM("Public Key");
+    }
+
+    @Test
+    public void eachFingerprintIsParsedOnce() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("Response Key ID");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        when(jwtData.getKeyId()).thenReturn("Other Response Key ID");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(crypto, times(2)).getRSAPublicKeyFromPEM("Public Key");
+    }
+
+    @Test
+    public void currentPublicKeyFromApiIsNotReparsedWhenUsedToVerifyResponse() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("Key ID");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(crypto, never()).getRSAPublicKeyFromPEM("Public Key");
+    }
+
+    @Test
+    public void tieredKeyCacheIsReadThroughItsSharedCacheOnly() throws Exception {
+        TieredCache tieredCache = new TieredCache(publicKeyCache);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, tieredCache, baseUrl, issuer, jwtService,
+                jweService, 0, 0, entityKeyMap);
+        when(jwtData.getKeyId()).thenReturn("Response Key ID");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(publicKeyCache).get("LaunchKeyPublicKey:Response Key ID");
+        assertEquals(new CacheStats(0, 0, 0), tieredCache.getNearCacheStats());
+    }
+}
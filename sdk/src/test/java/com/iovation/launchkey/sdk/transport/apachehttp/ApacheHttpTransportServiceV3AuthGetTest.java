@@ -1,5 +1,7 @@
 package com.iovation.launchkey.sdk.transport.apachehttp;
 
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
 import com.iovation.launchkey.sdk.error.AuthorizationInProgress;
 import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
 import com.iovation.launchkey.sdk.transport.domain.Error;
@@ -12,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.util.Date;
 import java.util.HashMap;
@@ -20,8 +23,7 @@ import java.util.UUID;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class ApacheHttpTransportServiceV3AuthGetTest extends ApacheHttpTransportTestBase {
@@ -59,7 +61,7 @@ public class ApacheHttpTransportServiceV3AuthGetTest extends ApacheHttpTransport
         when(response.getEncryptedDeviceResponse()).thenReturn(
                 new String(Base64.encodeBase64("encrypted device response".getBytes())));
         when(response.getPublicKeyId()).thenReturn("public key ID");
-        when(entityKeyMap.getKey(any(EntityIdentifier.class), anyString())).thenReturn(privateKey);
+        when(entityKeyMap.getPrivateKey(any(EntityIdentifier.class), anyString())).thenReturn(privateKey);
     }
 
     @Test
@@ -131,6 +133,35 @@ public class ApacheHttpTransportServiceV3AuthGetTest extends ApacheHttpTransport
         assertEquals(expected, response.getRequestingEntity());
     }
 
+    @Test
+    public void parsesResponseJwtOnceAndVerifiesParsedData() throws Exception {
+        transport.serviceV3AuthsGet(
+                UUID.randomUUID(),
+                new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, UUID.randomUUID())
+        );
+
+        verify(jwtService, times(1)).getJWTData(anyString());
+        verify(jwtService).decode(any(PublicKey.class), anyString(), anyString(), any(Date.class), same(jwtData));
+        verify(jwtService, never()).decode(any(PublicKey.class), anyString(), anyString(), any(Date.class), anyString());
+    }
+
+    @Test
+    public void decodesResponseJwtStringWithJWTServiceThatCannotVerifyParsedData() throws Exception {
+        JWTService plainJwtService = mock(JWTService.class);
+        when(plainJwtService.getJWTData(anyString())).thenReturn(jwtData);
+        when(plainJwtService.decode(any(PublicKey.class), anyString(), anyString(), any(Date.class), anyString()))
+                .thenReturn(jwtClaims);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, mock(Cache.class), baseUrl, issuer,
+                plainJwtService, jweService, 0, 0, entityKeyMap);
+        transport.serviceV3AuthsGet(
+                UUID.randomUUID(),
+                new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, UUID.randomUUID())
+        );
+
+        verify(plainJwtService, atLeastOnce()).decode(any(PublicKey.class), anyString(), anyString(), any(Date.class),
+                eq("JWT Header"));
+    }
+
     @Test
     public void returnsAudienceFromJwtWhenJweResponseIsNotPresent() throws Exception {
         ServiceV3AuthsGetResponse response = transport.serviceV3AuthsGet(
@@ -0,0 +1,174 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.cache.HashCache;
+import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.message.BasicHeader;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportStateCacheTest extends ApacheHttpTransportTestBase {
+    private static final ArgumentMatcher<HttpUriRequest> PING_REQUEST = getPathMatcher("/public/v3/ping");
+    private static final ArgumentMatcher<HttpUriRequest> PUBLIC_KEY_REQUEST = getPathMatcher("/public/v3/public-key");
+    private HashCache stateCache;
+    private String fingerprint;
+
+    private static ArgumentMatcher<HttpUriRequest> getPathMatcher(final String path) {
+        return new ArgumentMatcher<HttpUriRequest>() {
+            @Override
+            public boolean matches(HttpUriRequest request) {
+                return request != null && request.getURI().getPath().equals(path);
+            }
+        };
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(1024);
+        RSAPublicKey publicKey = (RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic();
+        fingerprint = JCECrypto.getRsaPublicKeyFingerprint(null, publicKey);
+        when(crypto.getRSAPublicKeyFromPEM(anyString())).thenReturn(publicKey);
+        when(httpResponse.getFirstHeader("X-IOV-KEY-ID")).thenReturn(new BasicHeader("X-IOV-KEY-ID", fingerprint));
+        when(jwtData.getKeyId()).thenReturn(fingerprint);
+        stateCache = new HashCache();
+        transport = getTransport();
+    }
+
+    private ApacheHttpTransport getTransport() {
+        return new ApacheHttpTransport(httpClient, crypto, objectMapper, mock(Cache.class), baseUrl, issuer,
+                jwtService, jweService, 3600, 300, entityKeyMap, new TransportOptions().setStateCache(stateCache),
+                new PublicKeyCache(10, 60), new FailedPublicKeyCache(10, 30), new ServerClock(TimeSource.SYSTEM));
+    }
+
+    @Test
+    public void serverTimeIsStoredAfterPing() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        assertNotNull(stateCache.get("LaunchKeyServerTime:" + baseUrl));
+    }
+
+    @Test
+    public void currentPublicKeyIsStoredAfterRetrieval() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        assertTrue(stateCache.get("LaunchKeyCurrentPublicKey:" + baseUrl).endsWith("\n" + fingerprint + "\nHello World!"));
+    }
+
+    @Test
+    public void publicKeyIsStoredByFingerprintAfterRetrieval() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        assertEquals("Hello World!", stateCache.get("LaunchKeyPublicKey:" + fingerprint));
+    }
+
+    @Test
+    public void newTransportDoesNotPingWhenServerTimeIsStored() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        getTransport().getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(1)).execute(argThat(PING_REQUEST));
+    }
+
+    @Test
+    public void newTransportDoesNotRetrieveCurrentPublicKeyWhenItIsStored() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        getTransport().getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(1)).execute(argThat(PUBLIC_KEY_REQUEST));
+    }
+
+    @Test
+    public void storedServerTimeIsUsed() throws Exception {
+        long serverMillis = System.currentTimeMillis() + 3600000L;
+        stateCache.put("LaunchKeyServerTime:" + baseUrl, serverMillis + ":" + System.currentTimeMillis());
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, never()).execute(argThat(PING_REQUEST));
+    }
+
+    @Test
+    public void expiredServerTimeIsNotUsed() throws Exception {
+        long sampled = System.currentTimeMillis() - 3600000L;
+        stateCache.put("LaunchKeyServerTime:" + baseUrl, sampled + ":" + sampled);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(1)).execute(argThat(PING_REQUEST));
+    }
+
+    @Test
+    public void expiredCurrentPublicKeyIsNotUsed() throws Exception {
+        long retrieved = System.currentTimeMillis() - 300000L;
+        stateCache.put("LaunchKeyCurrentPublicKey:" + baseUrl, retrieved + "\n" + fingerprint + "\nHello World!");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(1)).execute(argThat(PUBLIC_KEY_REQUEST));
+    }
+
+    @Test
+    public void storedCurrentPublicKeyWhichDoesNotMatchItsFingerprintIsNotUsed() throws Exception {
+        stateCache.put("LaunchKeyCurrentPublicKey:" + baseUrl,
+                System.currentTimeMillis() + "\nOther Fingerprint\nHello World!");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(1)).execute(argThat(PUBLIC_KEY_REQUEST));
+    }
+
+    @Test
+    public void storedPublicKeyWhichDoesNotMatchItsFingerprintIsNotUsed() throws Exception {
+        String otherFingerprint = "00:11:22:33:44:55:66:77:88:99:aa:bb:cc:dd:ee:ff";
+        when(jwtData.getKeyId()).thenReturn(otherFingerprint);
+        stateCache.put("LaunchKeyPublicKey:" + otherFingerprint, "Hello World!");
+        try {
+            transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        } catch (Exception e) {
+            // The key returned for the request does not match the fingerprint either
+        }
+        verify(httpClient, times(1)).execute(argThat(getPathMatcher("/public/v3/public-key/" + otherFingerprint)));
+    }
+
+    @Test
+    public void storedServerTimeWithoutServerTimeIsNotUsed() throws Exception {
+        stateCache.put("LaunchKeyServerTime:" + baseUrl, "0:" + System.currentTimeMillis());
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(1)).execute(argThat(PING_REQUEST));
+    }
+
+    @Test
+    public void storedServerTimeSampledInTheFutureIsNotUsed() throws Exception {
+        long sampled = System.currentTimeMillis() + 3600000L;
+        stateCache.put("LaunchKeyServerTime:" + baseUrl, sampled + ":" + sampled);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(1)).execute(argThat(PING_REQUEST));
+    }
+
+    @Test
+    public void invalidStoredStateIsIgnored() throws Exception {
+        stateCache.put("LaunchKeyServerTime:" + baseUrl, "invalid");
+        stateCache.put("LaunchKeyCurrentPublicKey:" + baseUrl, "invalid");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(httpClient, times(1)).execute(argThat(PING_REQUEST));
+        verify(httpClient, times(1)).execute(argThat(PUBLIC_KEY_REQUEST));
+    }
+}
@@ -0,0 +1,135 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.cache.CacheStats;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportStatsTest extends ApacheHttpTransportTestBase {
+    private TransportStats stats;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        when(jwtData.getKeyId()).thenReturn("Key ID");
+        stats = new TransportStats();
+        transport = getTransport(3600, 300);
+    }
+
+    private ApacheHttpTransport getTransport(int offsetTTL, int currentPublicKeyTTL) {
+        return new ApacheHttpTransport(httpClient, crypto, objectMapper, mock(Cache.class), baseUrl, issuer,
+                jwtService, jweService, offsetTTL, currentPublicKeyTTL, entityKeyMap,
+                new TransportOptions().setStats(stats), new PublicKeyCache(10, 60), new FailedPublicKeyCache(10, 30),
+                new ServerClock(TimeSource.SYSTEM));
+    }
+
+    private void makeRequest() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+    }
+
+    @Test
+    public void firstRequestRecordsServerTimeMissAndLoad() throws Exception {
+        makeRequest();
+        CacheStats serverTime = stats.getServerTimeStats();
+        assertEquals(1L, serverTime.getMissCount());
+        assertEquals(1L, serverTime.getLoadSuccessCount());
+        assertEquals(1L, serverTime.getLoadCount());
+    }
+
+    @Test
+    public void firstRequestRecordsCurrentPublicKeyMissAndLoad() throws Exception {
+        makeRequest();
+        CacheStats currentPublicKey = stats.getCurrentPublicKeyStats();
+        assertEquals(0L, currentPublicKey.getHitCount());
+        assertEquals(1L, currentPublicKey.getMissCount());
+        assertEquals(1L, currentPublicKey.getLoadSuccessCount());
+    }
+
+    @Test
+    public void laterRequestRecordsServerTimeAndCurrentPublicKeyHits() throws Exception {
+        makeRequest();
+        long serverTimeHits = stats.getServerTimeStats().getHitCount();
+        makeRequest();
+        assertTrue(stats.getServerTimeStats().getHitCount() > serverTimeHits);
+        assertEquals(1L, stats.getServerTimeStats().getMissCount());
+        assertEquals(1L, stats.getServerTimeStats().getLoadSuccessCount());
+        assertEquals(1L, stats.getCurrentPublicKeyStats().getHitCount());
+        assertEquals(1L, stats.getCurrentPublicKeyStats().getLoadSuccessCount());
+    }
+
+    @Test
+    public void responseKeyRetrievedAsCurrentPublicKeyRecordsHit() throws Exception {
+        makeRequest();
+        assertEquals(1L, stats.getPublicKeyStats().getHitCount());
+        assertEquals(0L, stats.getPublicKeyStats().getMissCount());
+    }
+
+    @Test
+    public void unknownResponseKeyRecordsMissAndLoad() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("Other-Key-ID");
+        makeRequest();
+        assertEquals(1L, stats.getPublicKeyStats().getMissCount());
+        assertEquals(1L, stats.getPublicKeyStats().getLoadSuccessCount());
+        assertEquals(1L, stats.getCurrentPublicKeyStats().getLoadSuccessCount());
+    }
+
+    @Test
+    public void expiredValuesRecordRefreshes() throws Exception {
+        transport = getTransport(0, 0);
+        makeRequest();
+        makeRequest();
+        CacheStats serverTime = stats.getServerTimeStats();
+        assertTrue(serverTime.getRefreshCount() > 0);
+        assertEquals(serverTime.getLoadSuccessCount() - 1, serverTime.getRefreshCount());
+        assertEquals(1L, stats.getCurrentPublicKeyStats().getRefreshCount());
+        assertEquals(2L, stats.getCurrentPublicKeyStats().getLoadSuccessCount());
+    }
+
+    @Test
+    public void failedRefreshRecordsRefreshFailureAndLoadFailure() throws Exception {
+        transport = getTransport(0, 3600);
+        makeRequest();
+        when(httpClient.execute(argThat(new ArgumentMatcher<HttpUriRequest>() {
+            @Override
+            public boolean matches(HttpUriRequest request) {
+                return request != null && request.getURI().getPath().equals("/public/v3/ping");
+            }
+        }))).thenThrow(new IOException());
+        makeRequest();
+        CacheStats serverTime = stats.getServerTimeStats();
+        assertTrue(serverTime.getRefreshFailureCount() > 0);
+        assertEquals(serverTime.getRefreshFailureCount(), serverTime.getLoadFailureCount());
+    }
+
+    @Test
+    public void transportsSharingStatsRecordIntoTheSameStats() throws Exception {
+        makeRequest();
+        transport = getTransport(3600, 300);
+        makeRequest();
+        assertEquals(2L, stats.getServerTimeStats().getMissCount());
+        assertEquals(2L, stats.getCurrentPublicKeyStats().getMissCount());
+    }
+}
@@ -1,5 +1,6 @@
 package com.iovation.launchkey.sdk.transport.apachehttp;
 
+import com.iovation.launchkey.sdk.cache.Cache;
 import com.iovation.launchkey.sdk.error.CryptographyError;
 import com.iovation.launchkey.sdk.error.InvalidResponseException;
 import org.apache.http.message.BasicHeader;
@@ -36,6 +37,26 @@ public class ApacheHttpTransportTestResponseValidationTest extends ApacheHttpTra
         verify(crypto).sha512("Hello World!".getBytes());
     }
 
+    @Test
+    public void contentHashIsComparedAsBytesRegardlessOfHexCase() throws Exception {
+        String contentHash = jwtClaims.getContentHash().toUpperCase();
+        when(jwtClaims.getContentHash()).thenReturn(contentHash);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+    }
+
+    @Test(expected = InvalidResponseException.class)
+    public void whenContentHashIsNotHexThenInvalidResponseExceptionIsThrown() throws Exception {
+        when(jwtClaims.getContentHash()).thenReturn("not hex");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+    }
+
+    @Test(expected = InvalidResponseException.class)
+    public void whenResponseBodyExceedsMaxSizeThenInvalidResponseExceptionIsThrown() throws Exception {
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, mock(Cache.class), baseUrl, issuer,
+                jwtService, jweService, 0, 0, entityKeyMap, new TransportOptions().setMaxResponseBodySize(11));
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+    }
+
     @Test(expected = InvalidResponseException.class)
     public void whenInvalidContentHashAlgorithmIsUsedThenInvalidResponseExceptionIsThrown() throws Exception {
         when(jwtClaims.getContentHashAlgorithm()).thenReturn("S128");
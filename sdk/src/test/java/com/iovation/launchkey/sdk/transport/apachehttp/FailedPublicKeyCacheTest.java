@@ -0,0 +1,100 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+import com.iovation.launchkey.sdk.error.BaseException;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.EntityNotFound;
+import com.iovation.launchkey.sdk.error.InvalidRequestException;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+import com.iovation.launchkey.sdk.error.InvalidRoute;
+import com.iovation.launchkey.sdk.error.PublicKeyDoesNotExist;
+import com.iovation.launchkey.sdk.error.RateLimited;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FailedPublicKeyCacheTest {
+    private FailedPublicKeyCache cache;
+    private EntityNotFound failure;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new FailedPublicKeyCache(2, 60);
+        failure = new EntityNotFound("Not Found", null, "HTTP-404");
+    }
+
+    @Test
+    public void getReturnsNullWhenNotCached() throws Exception {
+        assertNull(cache.get("fingerprint"));
+    }
+
+    @Test
+    public void getReturnsEquivalentFailureThatWasPut() throws Exception {
+        cache.put("fingerprint", failure);
+        assertEquals(failure, cache.get("fingerprint"));
+    }
+
+    @Test
+    public void getReturnsNewExceptionEachTime() throws Exception {
+        cache.put("fingerprint", failure);
+        BaseException first = cache.get("fingerprint");
+        assertNotSame(failure, first);
+        assertNotSame(first, cache.get("fingerprint"));
+    }
+
+    @Test
+    public void getReturnsFailureOfTheSameType() throws Exception {
+        cache.put("fingerprint", new PublicKeyDoesNotExist("Key does not exist", null, "KEY-003"));
+        assertEquals(PublicKeyDoesNotExist.class, cache.get("fingerprint").getClass());
+    }
+
+    @Test
+    public void invalidResponseIsNotCached() throws Exception {
+        assertFalse(cache.put("fingerprint", new InvalidResponseException("Invalid", null, null)));
+        assertNull(cache.get("fingerprint"));
+    }
+
+    @Test
+    public void invalidRequestIsCachedAsInvalidRequest() throws Exception {
+        assertTrue(cache.put("fingerprint", new InvalidRoute("Invalid", null, "ARG-002")));
+        BaseException actual = cache.get("fingerprint");
+        assertEquals(InvalidRequestException.class, actual.getClass());
+        assertEquals("ARG-002", actual.getErrorCode());
+    }
+
+    @Test
+    public void communicationErrorIsNotCached() throws Exception {
+        assertFalse(cache.put("fingerprint", new CommunicationErrorException("I/O Error", null, null)));
+        assertNull(cache.get("fingerprint"));
+    }
+
+    @Test
+    public void rateLimitIsNotCached() throws Exception {
+        assertFalse(cache.put("fingerprint", new RateLimited("Rate Limited", null, "HTTP-429")));
+        assertNull(cache.get("fingerprint"));
+    }
+
+    @Test
+    public void sizeIsBounded() throws Exception {
+        cache.put("a", failure);
+        cache.put("b", failure);
+        cache.put("c", failure);
+        assertEquals(2, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroMaxSizeThrowsIllegalArgumentException() throws Exception {
+        new FailedPublicKeyCache(0, 60);
+    }
+}
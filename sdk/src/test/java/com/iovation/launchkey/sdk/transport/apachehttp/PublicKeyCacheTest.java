@@ -0,0 +1,74 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.StatsCounter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.PublicKey;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class PublicKeyCacheTest {
+    private PublicKeyCache cache;
+    private PublicKey key;
+    private StatsCounter statsCounter;
+
+    @Before
+    public void setUp() throws Exception {
+        statsCounter = new StatsCounter();
+        cache = new PublicKeyCache(2, 60, statsCounter);
+        key = mock(PublicKey.class);
+    }
+
+    @Test
+    public void getReturnsNullWhenNotCached() throws Exception {
+        assertNull(cache.get("fingerprint"));
+    }
+
+    @Test
+    public void getReturnsKeyThatWasPut() throws Exception {
+        cache.put("fingerprint", key);
+        assertSame(key, cache.get("fingerprint"));
+    }
+
+    @Test
+    public void sizeIsBounded() throws Exception {
+        cache.put("a", key);
+        cache.put("b", key);
+        cache.put("c", key);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void evictionIsRecordedInStatsCounter() throws Exception {
+        cache.put("a", key);
+        cache.put("b", key);
+        cache.put("c", key);
+        assertEquals(1L, statsCounter.snapshot().getEvictionCount());
+    }
+
+    @Test
+    public void replacingKeyIsNotRecordedAsEviction() throws Exception {
+        cache.put("a", key);
+        cache.put("a", key);
+        assertEquals(0L, statsCounter.snapshot().getEvictionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroMaxSizeThrowsIllegalArgumentException() throws Exception {
+        new PublicKeyCache(0, 60);
+    }
+}
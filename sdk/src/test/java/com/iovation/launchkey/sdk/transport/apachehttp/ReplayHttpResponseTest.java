@@ -0,0 +1,108 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.Assert.*;
+
+public class ReplayHttpResponseTest {
+    private HttpResponse httpResponse;
+
+    @Before
+    public void setUp() throws Exception {
+        httpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+    }
+
+    @Test
+    public void getContentReturnsEmptyArrayWhenThereIsNoEntity() throws Exception {
+        assertArrayEquals(new byte[0], new ReplayHttpResponse(httpResponse).getContent());
+    }
+
+    @Test
+    public void getContentReturnsEntityContent() throws Exception {
+        httpResponse.setEntity(new ByteArrayEntity("content".getBytes()));
+        assertArrayEquals("content".getBytes(), new ReplayHttpResponse(httpResponse).getContent());
+    }
+
+    @Test
+    public void getContentReturnsTheSameBufferOnEachCall() throws Exception {
+        httpResponse.setEntity(new ByteArrayEntity("content".getBytes()));
+        ReplayHttpResponse response = new ReplayHttpResponse(httpResponse);
+        assertSame(response.getContent(), response.getContent());
+    }
+
+    @Test
+    public void getContentReturnsByteArrayBodyEntityArrayWithoutCopying() throws Exception {
+        byte[] content = "content".getBytes();
+        httpResponse.setEntity(new ByteArrayBodyEntity(content));
+        assertSame(content, new ReplayHttpResponse(httpResponse).getContent());
+    }
+
+    @Test(expected = ReplayHttpResponse.ContentTooLargeException.class)
+    public void getContentThrowsContentTooLargeWhenByteArrayBodyEntityExceedsMax() throws Exception {
+        httpResponse.setEntity(new ByteArrayBodyEntity("content".getBytes()));
+        new ReplayHttpResponse(httpResponse, 6).getContent();
+    }
+
+    @Test
+    public void getContentReadsEntityWithoutContentLength() throws Exception {
+        byte[] content = new byte[10000];
+        content[9999] = 1;
+        httpResponse.setEntity(new InputStreamEntity(new ByteArrayInputStream(content)));
+        assertArrayEquals(content, new ReplayHttpResponse(httpResponse).getContent());
+    }
+
+    @Test
+    public void entityCanBeReadRepeatedly() throws Exception {
+        httpResponse.setEntity(new InputStreamEntity(new ByteArrayInputStream("content".getBytes())));
+        ReplayHttpResponse response = new ReplayHttpResponse(httpResponse);
+        assertEquals("content", EntityUtils.toString(response.getEntity()));
+        assertEquals("content", EntityUtils.toString(response.getEntity()));
+    }
+
+    @Test
+    public void entityContentLengthIsLengthOfContentOnceRead() throws Exception {
+        httpResponse.setEntity(new InputStreamEntity(new ByteArrayInputStream("content".getBytes())));
+        ReplayHttpResponse response = new ReplayHttpResponse(httpResponse);
+        response.getContent();
+        assertEquals(7, response.getEntity().getContentLength());
+    }
+
+    @Test
+    public void getContentAllowsContentOfMaxLength() throws Exception {
+        httpResponse.setEntity(new ByteArrayEntity("content".getBytes()));
+        assertArrayEquals("content".getBytes(), new ReplayHttpResponse(httpResponse, 7).getContent());
+    }
+
+    @Test(expected = ReplayHttpResponse.ContentTooLargeException.class)
+    public void getContentThrowsContentTooLargeWhenContentLengthExceedsMax() throws Exception {
+        httpResponse.setEntity(new ByteArrayEntity("content".getBytes()));
+        new ReplayHttpResponse(httpResponse, 6).getContent();
+    }
+
+    @Test(expected = ReplayHttpResponse.ContentTooLargeException.class)
+    public void getContentThrowsContentTooLargeWhenContentWithoutLengthExceedsMax() throws Exception {
+        httpResponse.setEntity(new InputStreamEntity(new ByteArrayInputStream("content".getBytes())));
+        new ReplayHttpResponse(httpResponse, 6).getContent();
+    }
+}
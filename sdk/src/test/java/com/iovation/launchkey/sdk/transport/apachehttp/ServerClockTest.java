@@ -0,0 +1,163 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ServerClockTest {
+    private static final long SERVER_MILLIS = 1500000000000L;
+    private long nanos;
+    private ServerClock clock;
+
+    @Before
+    public void setUp() throws Exception {
+        nanos = -5000000000L;
+        clock = new ServerClock(new TimeSource() {
+            @Override
+            public long nanoTime() {
+                return nanos;
+            }
+        });
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos += TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    private void addSampleWithRoundTrip(long serverMillis, long roundTripMillis) {
+        long sent = nanos;
+        nanos += TimeUnit.MILLISECONDS.toNanos(roundTripMillis);
+        clock.addSample(sent, nanos, serverMillis);
+    }
+
+    @Test
+    public void isNotSynchronizedBeforeSample() throws Exception {
+        assertFalse(clock.isSynchronized());
+    }
+
+    @Test
+    public void isSynchronizedAfterSample() throws Exception {
+        clock.addSample(nanos, nanos, SERVER_MILLIS);
+        assertTrue(clock.isSynchronized());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void currentTimeMillisThrowsIllegalStateExceptionBeforeSample() throws Exception {
+        clock.currentTimeMillis();
+    }
+
+    @Test
+    public void currentTimeMillisCompensatesForHalfOfRoundTrip() throws Exception {
+        addSampleWithRoundTrip(SERVER_MILLIS, 200);
+        assertEquals(SERVER_MILLIS + 100, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void currentTimeMillisAdvancesWithTimeSource() throws Exception {
+        clock.addSample(nanos, nanos, SERVER_MILLIS);
+        advanceSeconds(30);
+        assertEquals(SERVER_MILLIS + 30000, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void getRoundTripNanosReturnsRoundTripOfSample() throws Exception {
+        addSampleWithRoundTrip(SERVER_MILLIS, 200);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), clock.getRoundTripNanos());
+    }
+
+    @Test
+    public void newSampleReplacesAnchorWithoutApplyingDrift() throws Exception {
+        clock.addSample(nanos, nanos, SERVER_MILLIS);
+        advanceSeconds(1000);
+        clock.addSample(nanos, nanos, SERVER_MILLIS + 1000100);
+        advanceSeconds(1000);
+        assertEquals(SERVER_MILLIS + 2000100, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void serverClockBeingSetIsUsedFromTheNextSample() throws Exception {
+        clock.addSample(nanos, nanos, SERVER_MILLIS);
+        advanceSeconds(1000);
+        clock.addSample(nanos, nanos, SERVER_MILLIS + 1060000);
+        assertEquals(SERVER_MILLIS + 1060000, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void secondResolutionServerTimeDoesNotSkewLaterTimes() throws Exception {
+        clock.addSample(nanos, nanos, SERVER_MILLIS);
+        advanceSeconds(60);
+        clock.addSample(nanos, nanos, SERVER_MILLIS + 59000);
+        advanceSeconds(3600);
+        assertEquals(SERVER_MILLIS + 3659000, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void isRefreshDueBeforeSample() throws Exception {
+        assertTrue(clock.isRefreshDue(60));
+    }
+
+    @Test
+    public void isRefreshDueIsFalseBeforeNinetyPercentOfTTL() throws Exception {
+        clock.addSample(nanos, nanos, SERVER_MILLIS);
+        advanceSeconds(53);
+        assertFalse(clock.isRefreshDue(60));
+    }
+
+    @Test
+    public void isRefreshDueIsTrueAfterNinetyPercentOfTTL() throws Exception {
+        clock.addSample(nanos, nanos, SERVER_MILLIS);
+        advanceSeconds(54);
+        assertTrue(clock.isRefreshDue(60));
+    }
+
+    @Test
+    public void retryLaterDelaysRefreshForOneSecond() throws Exception {
+        clock.addSample(nanos, nanos, SERVER_MILLIS);
+        advanceSeconds(60);
+        clock.retryLater();
+        assertFalse(clock.isRefreshDue(60));
+        advanceSeconds(1);
+        assertTrue(clock.isRefreshDue(60));
+    }
+
+    @Test
+    public void retryLaterKeepsCurrentTime() throws Exception {
+        clock.addSample(nanos, nanos, SERVER_MILLIS);
+        advanceSeconds(60);
+        clock.retryLater();
+        assertEquals(SERVER_MILLIS + 60000, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void onlyOneCallerCanBeginRefresh() throws Exception {
+        assertTrue(clock.beginRefresh());
+        assertFalse(clock.beginRefresh());
+        clock.endRefresh();
+        assertTrue(clock.beginRefresh());
+    }
+
+    @Test
+    public void forBaseUrlReturnsSameClockForSameBaseUrl() throws Exception {
+        assertSame(ServerClock.forBaseUrl("https://a.example"), ServerClock.forBaseUrl("https://a.example"));
+    }
+
+    @Test
+    public void forBaseUrlReturnsDifferentClocksForDifferentBaseUrls() throws Exception {
+        assertNotSame(ServerClock.forBaseUrl("https://a.example"), ServerClock.forBaseUrl("https://b.example"));
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.impl.BasicEntityDetails;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class SizeLimitedResponseConsumerTest {
+    private SizeLimitedResponseConsumer consumer;
+    private ResultCallback callback;
+
+    @Before
+    public void setUp() throws Exception {
+        consumer = new SizeLimitedResponseConsumer(8);
+        callback = new ResultCallback();
+    }
+
+    @Test(expected = ReplayHttpResponse.ContentTooLargeException.class)
+    public void contentLengthOverMaximumIsRejectedBeforeBuffering() throws Exception {
+        consumer.consumeResponse(new BasicHttpResponse(200),
+                new BasicEntityDetails(9, ContentType.APPLICATION_JSON), null, callback);
+    }
+
+    @Test(expected = ReplayHttpResponse.ContentTooLargeException.class)
+    public void bodyWithoutContentLengthIsRejectedWhenItExceedsMaximum() throws Exception {
+        consumer.consumeResponse(new BasicHttpResponse(200),
+                new BasicEntityDetails(-1, ContentType.APPLICATION_JSON), null, callback);
+        consumer.consume(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5}));
+        consumer.consume(ByteBuffer.wrap(new byte[]{6, 7, 8, 9}));
+    }
+
+    @Test
+    public void bodyWithinMaximumIsReturned() throws Exception {
+        consumer.consumeResponse(new BasicHttpResponse(200),
+                new BasicEntityDetails(-1, ContentType.APPLICATION_JSON), null, callback);
+        consumer.consume(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}));
+        consumer.consume(ByteBuffer.wrap(new byte[]{5, 6, 7, 8}));
+        consumer.streamEnd(Collections.<Header>emptyList());
+        SimpleHttpResponse response = callback.result;
+        assertEquals(200, response.getCode());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, response.getBodyBytes());
+    }
+
+    @Test
+    public void responseWithoutBodyIsReturned() throws Exception {
+        consumer.consumeResponse(new BasicHttpResponse(204), null, null, callback);
+        SimpleHttpResponse response = callback.result;
+        assertEquals(204, response.getCode());
+        assertNull(response.getBodyBytes());
+    }
+
+    private static class ResultCallback implements FutureCallback<SimpleHttpResponse> {
+        private SimpleHttpResponse result;
+
+        @Override
+        public void completed(SimpleHttpResponse result) {
+            this.result = result;
+        }
+
+        @Override
+        public void failed(Exception ex) {
+        }
+
+        @Override
+        public void cancelled() {
+        }
+    }
+}
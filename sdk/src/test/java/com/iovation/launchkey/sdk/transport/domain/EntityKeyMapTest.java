@@ -14,6 +14,7 @@ import com.iovation.launchkey.sdk.error.NoKeyFoundException;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier.EntityType;
 import org.junit.Test;
 
+import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.util.UUID;
 
@@ -51,4 +52,26 @@ public class EntityKeyMapTest {
         map.addKey(new EntityIdentifier(EntityType.DIRECTORY,uuid ), "bar", expected);
         assertEquals(expected, map.getKey(new EntityIdentifier(EntityType.DIRECTORY, uuid), "bar"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getPrivateKeyReturnsExpectedECKey() throws Exception {
+        ECPrivateKey expected = mock(ECPrivateKey.class);
+        EntityKeyMap map = new EntityKeyMap();
+        UUID uuid = UUID.randomUUID();
+        map.addKey(new EntityIdentifier(EntityType.DIRECTORY, uuid), "bar", expected);
+        assertEquals(expected, map.getPrivateKey(new EntityIdentifier(EntityType.DIRECTORY, uuid), "bar"));
+    }
+
+    @Test(expected = NoKeyFoundException.class)
+    public void getPrivateKeyThrowsNoKeyFoundWithNoKeys() throws Exception {
+        new EntityKeyMap().getPrivateKey(new EntityIdentifier(EntityType.DIRECTORY, UUID.randomUUID()), "bar");
+    }
+
+    @Test(expected = NoKeyFoundException.class)
+    public void getKeyThrowsNoKeyFoundForECKey() throws Exception {
+        EntityKeyMap map = new EntityKeyMap();
+        UUID uuid = UUID.randomUUID();
+        map.addKey(new EntityIdentifier(EntityType.DIRECTORY, uuid), "bar", mock(ECPrivateKey.class));
+        map.getKey(new EntityIdentifier(EntityType.DIRECTORY, uuid), "bar");
+    }
+}